@@ -0,0 +1,182 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
+import org.knime.base.node.mine.treeensemble2.data.TreeAttributeColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeBitVectorColumnDataCreator;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnData;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+
+/**
+ * Creates synthetic {@link TreeData} for the benchmarks. The attributes are drawn from a seeded random generator and
+ * the target depends on the first attributes so that the learned trees are not degenerated.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BenchmarkDataGenerator {
+
+    private final TreeEnsembleLearnerConfiguration m_config;
+
+    private final TestDataGenerator m_generator;
+
+    private final int m_nrRows;
+
+    private final long m_seed;
+
+    /**
+     * @param config the configuration the columns are created for
+     * @param nrRows the number of rows of the created data
+     * @param seed the seed of the random generator
+     */
+    BenchmarkDataGenerator(final TreeEnsembleLearnerConfiguration config, final int nrRows, final long seed) {
+        m_config = config;
+        m_generator = new TestDataGenerator(config);
+        m_nrRows = nrRows;
+        m_seed = seed;
+    }
+
+    /**
+     * Creates numeric and nominal attributes and a target that is a noisy function of the first attributes.
+     *
+     * @param nrNumeric the number of numeric attributes
+     * @param nrNominal the number of nominal attributes
+     * @param nrNominalValues the number of distinct values of each nominal attribute
+     * @param nrClasses the number of classes of the target or 0 for a numeric target
+     * @return the data
+     */
+    TreeData createOrdinaryData(final int nrNumeric, final int nrNominal, final int nrNominalValues,
+        final int nrClasses) {
+        final Random random = new Random(m_seed);
+        final double[][] numeric = new double[nrNumeric][m_nrRows];
+        final String[][] nominal = new String[nrNominal][m_nrRows];
+        final double[] score = new double[m_nrRows];
+        for (int r = 0; r < m_nrRows; r++) {
+            for (int a = 0; a < nrNumeric; a++) {
+                numeric[a][r] = random.nextGaussian();
+            }
+            for (int a = 0; a < nrNominal; a++) {
+                nominal[a][r] = "v" + random.nextInt(nrNominalValues);
+            }
+            score[r] = (nrNumeric > 0 ? numeric[0][r] : 0) + (nrNumeric > 1 ? 0.5 * numeric[1][r] : 0)
+                + (nrNominal > 0 && nominal[0][r].equals("v0") ? 1 : 0) + 0.3 * random.nextGaussian();
+        }
+        final TreeAttributeColumnData[] columns = new TreeAttributeColumnData[nrNumeric + nrNominal];
+        for (int a = 0; a < nrNumeric; a++) {
+            columns[a] = m_generator.createNumericAttributeColumnData(numeric[a], "num" + a, a);
+        }
+        for (int a = 0; a < nrNominal; a++) {
+            columns[nrNumeric + a] =
+                m_generator.createNominalAttributeColumn(nominal[a], "nom" + a, nrNumeric + a);
+        }
+        return new TreeData(columns, createTarget(score, nrClasses), TreeType.Ordinary);
+    }
+
+    /**
+     * Creates a fingerprint data set with one attribute per bit.
+     *
+     * @param nrBits the length of the bit vectors
+     * @param nrClasses the number of classes of the target or 0 for a numeric target
+     * @return the data
+     */
+    TreeData createBitVectorData(final int nrBits, final int nrClasses) {
+        final Random random = new Random(m_seed);
+        final TreeBitVectorColumnDataCreator creator = new TreeBitVectorColumnDataCreator(
+            new DataColumnSpecCreator("fingerprint", DenseBitVectorCell.TYPE).createSpec());
+        final double[] score = new double[m_nrRows];
+        for (int r = 0; r < m_nrRows; r++) {
+            final DenseBitVectorCellFactory factory = new DenseBitVectorCellFactory(nrBits);
+            for (int b = 0; b < nrBits; b++) {
+                // bits with a higher index are set less often
+                if (random.nextInt(b % 16 + 2) == 0) {
+                    factory.set(b);
+                    if (b < 4) {
+                        score[r] += 1 << b;
+                    }
+                }
+            }
+            score[r] += random.nextGaussian();
+            creator.add(RowKey.createRowKey((long)r), factory.createDataCell());
+        }
+        final TreeAttributeColumnData[] columns = new TreeAttributeColumnData[nrBits];
+        for (int b = 0; b < nrBits; b++) {
+            columns[b] = creator.createColumnData(b, m_config);
+            columns[b].getMetaData().setAttributeIndex(b);
+        }
+        return new TreeData(columns, createTarget(score, nrClasses), TreeType.BitVector);
+    }
+
+    private TreeTargetColumnData createTarget(final double[] score, final int nrClasses) {
+        if (nrClasses == 0) {
+            final String[] values = new String[m_nrRows];
+            for (int r = 0; r < m_nrRows; r++) {
+                values[r] = Double.toString(score[r]);
+            }
+            return TestDataGenerator.createNumericTargetColumn(String.join(",", values));
+        }
+        // classes are quantiles of the score so that all classes have roughly the same size
+        final double[] sorted = score.clone();
+        Arrays.sort(sorted);
+        final String[] classes = new String[m_nrRows];
+        for (int r = 0; r < m_nrRows; r++) {
+            int pos = Arrays.binarySearch(sorted, score[r]);
+            classes[r] = "c" + Math.min(nrClasses - 1, (int)((long)Math.abs(pos) * nrClasses / m_nrRows));
+        }
+        return TestDataGenerator.createNominalTargetColumn(classes);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal micro benchmark runner for the hot paths of the tree ensemble learners and predictors. Each benchmark is run
+ * for a number of warmup iterations followed by a number of measured iterations, the time per operation is reported
+ * as mean, standard deviation and minimum in nanoseconds. The results can be written as JSON so that they can be
+ * compared across releases.
+ *
+ * The runner is not thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * A single benchmarked operation.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        /**
+         * Executes the operation once.
+         *
+         * @return a value derived from the result of the operation, it is consumed by the runner so that the JIT can
+         *         not eliminate the computation
+         * @throws Exception if the operation fails
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * The measurements of a single benchmark.
+     */
+    public static final class Result {
+
+        private final String m_name;
+
+        private final int m_iterations;
+
+        private final double m_meanNanos;
+
+        private final double m_stdDevNanos;
+
+        private final long m_minNanos;
+
+        private Result(final String name, final long[] nanos) {
+            m_name = name;
+            m_iterations = nanos.length;
+            long min = Long.MAX_VALUE;
+            double mean = 0;
+            double m2 = 0;
+            for (int i = 0; i < nanos.length; i++) {
+                min = Math.min(min, nanos[i]);
+                final double delta = nanos[i] - mean;
+                mean += delta / (i + 1);
+                m2 += delta * (nanos[i] - mean);
+            }
+            m_meanNanos = mean;
+            m_stdDevNanos = nanos.length > 1 ? Math.sqrt(m2 / (nanos.length - 1)) : 0;
+            m_minNanos = min;
+        }
+
+        /**
+         * @return the name of the benchmark
+         */
+        public String getName() {
+            return m_name;
+        }
+
+        /**
+         * @return the number of measured iterations
+         */
+        public int getIterations() {
+            return m_iterations;
+        }
+
+        /**
+         * @return the mean time per operation in nanoseconds
+         */
+        public double getMeanNanos() {
+            return m_meanNanos;
+        }
+
+        /**
+         * @return the standard deviation of the time per operation in nanoseconds
+         */
+        public double getStdDevNanos() {
+            return m_stdDevNanos;
+        }
+
+        /**
+         * @return the minimal time per operation in nanoseconds
+         */
+        public long getMinNanos() {
+            return m_minNanos;
+        }
+    }
+
+    private final int m_warmupIterations;
+
+    private final int m_measurementIterations;
+
+    private final String m_filter;
+
+    private final List<Result> m_results = new ArrayList<>();
+
+    // written on every operation so that the JIT can not eliminate the computation
+    private volatile int m_sink;
+
+    /**
+     * @param warmupIterations the number of unmeasured iterations before the measurement
+     * @param measurementIterations the number of measured iterations
+     * @param filter only benchmarks whose name contains this string are run, <code>null</code> to run all
+     */
+    public BenchmarkRunner(final int warmupIterations, final int measurementIterations, final String filter) {
+        if (measurementIterations < 1) {
+            throw new IllegalArgumentException("At least one measurement iteration is required");
+        }
+        m_warmupIterations = warmupIterations;
+        m_measurementIterations = measurementIterations;
+        m_filter = filter;
+    }
+
+    /**
+     * Runs the given operation unless it is excluded by the filter.
+     *
+     * @param name the name of the benchmark
+     * @param operation the operation to measure
+     * @param log the stream progress is reported to
+     * @throws Exception if the operation fails
+     */
+    public void run(final String name, final Operation operation, final PrintStream log) throws Exception {
+        if (m_filter != null && !name.contains(m_filter)) {
+            return;
+        }
+        for (int i = 0; i < m_warmupIterations; i++) {
+            consume(operation.run());
+        }
+        final long[] nanos = new long[m_measurementIterations];
+        for (int i = 0; i < m_measurementIterations; i++) {
+            final long start = System.nanoTime();
+            final Object result = operation.run();
+            nanos[i] = System.nanoTime() - start;
+            consume(result);
+        }
+        final Result result = new Result(name, nanos);
+        m_results.add(result);
+        log.println(String.format(Locale.US, "%-50s %15.0f ns/op (+- %.0f, min %d)", name, result.getMeanNanos(),
+            result.getStdDevNanos(), result.getMinNanos()));
+    }
+
+    private void consume(final Object result) {
+        m_sink += System.identityHashCode(result);
+    }
+
+    /**
+     * @return the results of all benchmarks run so far, in execution order
+     */
+    public List<Result> getResults() {
+        return m_results;
+    }
+
+    /**
+     * Writes the results as a JSON array.
+     *
+     * @param writer the writer the JSON is written to, it is not closed
+     * @throws IOException if writing fails
+     */
+    public void writeJson(final Writer writer) throws IOException {
+        writer.write("[\n");
+        for (int i = 0; i < m_results.size(); i++) {
+            final Result r = m_results.get(i);
+            writer.write(String.format(Locale.US,
+                "  {\"benchmark\": \"%s\", \"iterations\": %d, \"unit\": \"ns/op\", \"mean\": %.1f, "
+                    + "\"stdDev\": %.1f, \"min\": %d}%s\n",
+                escape(r.getName()), r.getIterations(), r.getMeanNanos(), r.getStdDevNanos(), r.getMinNanos(),
+                i < m_results.size() - 1 ? "," : ""));
+        }
+        writer.write("]\n");
+        writer.flush();
+    }
+
+    private static String escape(final String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.math.random.RandomData;
+import org.knime.base.node.mine.treeensemble2.data.ClassificationPriors;
+import org.knime.base.node.mine.treeensemble2.data.NominalValueRepresentation;
+import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.RegressionPriors;
+import org.knime.base.node.mine.treeensemble2.data.TreeAttributeColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeDataPredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.TreeNominalColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNominalColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNumericColumnData;
+import org.knime.base.node.mine.treeensemble2.data.memberships.BitVectorDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DataMemberships;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DefaultDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.IDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.RootDataMemberships;
+import org.knime.base.node.mine.treeensemble2.learner.TreeEnsembleLearner;
+import org.knime.base.node.mine.treeensemble2.learner.gradientboosting.LKGradientBoostedTreesLearner;
+import org.knime.base.node.mine.treeensemble2.learner.gradientboosting.MGradientBoostedTreesLearner;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
+import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Benchmarks of the split search, the learners, the model serialization and the prediction of the tree ensembles on
+ * synthetic data. The benchmarks are not part of the unit tests, they are started via {@link #main(String[])}:
+ *
+ * <pre>
+ * TreeEnsembleBenchmarks [-rows n] [-warmup n] [-iterations n] [-filter name] [-out results.json]
+ * </pre>
+ *
+ * The results are printed to the console and written as JSON to the given file or to stdout.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class TreeEnsembleBenchmarks {
+
+    private static final long SEED = 42;
+
+    private static final int NR_NUMERIC = 10;
+
+    private static final int NR_NOMINAL = 5;
+
+    private static final int NR_NOMINAL_VALUES = 12;
+
+    private static final int NR_CLASSES = 3;
+
+    private static final int NR_BITS = 256;
+
+    private static final int NR_MODELS = 20;
+
+    private TreeEnsembleBenchmarks() {
+        // utility class
+    }
+
+    /**
+     * Runs all benchmarks that match the filter.
+     *
+     * @param args the command line arguments, see the class comment
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(final String[] args) throws Exception {
+        int nrRows = 10000;
+        int warmup = 5;
+        int iterations = 10;
+        String filter = null;
+        String out = null;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for argument \"" + args[i] + "\"");
+            }
+            switch (args[i]) {
+                case "-rows":
+                    nrRows = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-warmup":
+                    warmup = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-iterations":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-filter":
+                    filter = args[i + 1];
+                    break;
+                case "-out":
+                    out = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument \"" + args[i] + "\"");
+            }
+        }
+        final BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, filter);
+        final PrintStream log = out == null ? System.err : System.out;
+        runSplitBenchmarks(runner, nrRows, log);
+        runLearnerBenchmarks(runner, nrRows, log);
+        runModelBenchmarks(runner, nrRows, log);
+        if (out == null) {
+            final Writer writer = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            runner.writeJson(writer);
+        } else {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(out), StandardCharsets.UTF_8)) {
+                runner.writeJson(writer);
+            }
+        }
+    }
+
+    private static IDataIndexManager createIndexManager(final TreeData data) {
+        return data.getTreeType() == TreeType.BitVector ? new BitVectorDataIndexManager(data.getNrRows())
+            : new DefaultDataIndexManager(data);
+    }
+
+    private static DataMemberships createRootMemberships(final TreeEnsembleLearnerConfiguration config,
+        final TreeData data, final IDataIndexManager indexManager, final RandomData rd) {
+        final RowSample rowSample = config.createRowSampler(data).createRowSample(rd);
+        return new RootDataMemberships(rowSample, data, indexManager);
+    }
+
+    private static void runSplitBenchmarks(final BenchmarkRunner runner, final int nrRows, final PrintStream log)
+        throws Exception {
+        final TreeEnsembleLearnerConfiguration classificationConfig = new TreeEnsembleLearnerConfiguration(false);
+        classificationConfig.setSeed(SEED);
+        final TreeEnsembleLearnerConfiguration regressionConfig = new TreeEnsembleLearnerConfiguration(true);
+        regressionConfig.setSeed(SEED);
+        final RandomData rd = TreeEnsembleLearnerConfiguration.createRandomData(SEED);
+
+        final TreeData[] classificationData = {
+            new BenchmarkDataGenerator(classificationConfig, nrRows, SEED).createOrdinaryData(NR_NUMERIC,
+                NR_NOMINAL, NR_NOMINAL_VALUES, NR_CLASSES),
+            new BenchmarkDataGenerator(classificationConfig, nrRows, SEED).createBitVectorData(NR_BITS, NR_CLASSES)};
+        for (final TreeData data : classificationData) {
+            final IDataIndexManager indexManager = createIndexManager(data);
+            runner.run("rootDataMemberships." + data.getTreeType(),
+                () -> createRootMemberships(classificationConfig, data, indexManager, rd), log);
+            final DataMemberships memberships = createRootMemberships(classificationConfig, data, indexManager, rd);
+            final TreeTargetNominalColumnData target = (TreeTargetNominalColumnData)data.getTargetColumn();
+            final ClassificationPriors priors = target.getDistribution(memberships, classificationConfig);
+            for (final TreeAttributeColumnData column : selectColumns(data)) {
+                runner.run("calcBestSplitClassification." + getKind(column),
+                    () -> column.calcBestSplitClassification(memberships, priors, target, rd), log);
+            }
+        }
+
+        final TreeData[] regressionData = {
+            new BenchmarkDataGenerator(regressionConfig, nrRows, SEED).createOrdinaryData(NR_NUMERIC, NR_NOMINAL,
+                NR_NOMINAL_VALUES, 0),
+            new BenchmarkDataGenerator(regressionConfig, nrRows, SEED).createBitVectorData(NR_BITS, 0)};
+        for (final TreeData data : regressionData) {
+            final DataMemberships memberships =
+                createRootMemberships(regressionConfig, data, createIndexManager(data), rd);
+            final TreeTargetNumericColumnData target = (TreeTargetNumericColumnData)data.getTargetColumn();
+            final RegressionPriors priors = target.getPriors(memberships, regressionConfig);
+            for (final TreeAttributeColumnData column : selectColumns(data)) {
+                runner.run("calcBestSplitRegression." + getKind(column),
+                    () -> column.calcBestSplitRegression(memberships, priors, target, rd), log);
+            }
+        }
+    }
+
+    /** The first numeric and the first nominal column or the first bit column. */
+    private static TreeAttributeColumnData[] selectColumns(final TreeData data) {
+        final TreeAttributeColumnData[] columns = data.getColumns();
+        if (data.getTreeType() == TreeType.BitVector) {
+            return new TreeAttributeColumnData[]{columns[0]};
+        }
+        return new TreeAttributeColumnData[]{columns[0], columns[NR_NUMERIC]};
+    }
+
+    private static String getKind(final TreeAttributeColumnData column) {
+        return column.getClass().getSimpleName().replace("Tree", "").replace("ColumnData", "");
+    }
+
+    private static void runLearnerBenchmarks(final BenchmarkRunner runner, final int nrRows, final PrintStream log)
+        throws Exception {
+        for (final boolean isRegression : new boolean[]{false, true}) {
+            final String suffix = isRegression ? "Regression" : "Classification";
+            final TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(isRegression);
+            config.setSeed(SEED);
+            config.setNrModels(NR_MODELS);
+            final TreeData data = new BenchmarkDataGenerator(config, nrRows, SEED).createOrdinaryData(NR_NUMERIC,
+                NR_NOMINAL, NR_NOMINAL_VALUES, isRegression ? 0 : NR_CLASSES);
+            runner.run("learnEnsemble." + suffix,
+                () -> new TreeEnsembleLearner(config, data).learnEnsemble(new ExecutionMonitor()), log);
+
+            final GradientBoostingLearnerConfiguration gbtConfig =
+                new GradientBoostingLearnerConfiguration(isRegression);
+            gbtConfig.setSeed(SEED);
+            gbtConfig.setNrModels(NR_MODELS);
+            final TreeData gbtData = new BenchmarkDataGenerator(gbtConfig, nrRows, SEED).createOrdinaryData(NR_NUMERIC,
+                NR_NOMINAL, NR_NOMINAL_VALUES, isRegression ? 0 : NR_CLASSES);
+            if (isRegression) {
+                runner.run("gradientBoosting." + suffix,
+                    () -> new MGradientBoostedTreesLearner(gbtConfig, gbtData).learn(new ExecutionMonitor()), log);
+            } else {
+                runner.run("gradientBoosting." + suffix,
+                    () -> new LKGradientBoostedTreesLearner(gbtConfig, gbtData).learn(new ExecutionMonitor()), log);
+            }
+        }
+    }
+
+    private static void runModelBenchmarks(final BenchmarkRunner runner, final int nrRows, final PrintStream log)
+        throws Exception {
+        final TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(false);
+        config.setSeed(SEED);
+        config.setNrModels(NR_MODELS);
+        final TreeData data = new BenchmarkDataGenerator(config, nrRows, SEED).createOrdinaryData(NR_NUMERIC,
+            NR_NOMINAL, NR_NOMINAL_VALUES, NR_CLASSES);
+        final TreeEnsembleModel model = new TreeEnsembleLearner(config, data).learnEnsemble(new ExecutionMonitor());
+
+        runner.run("model.save", () -> {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            model.save(out);
+            return out;
+        }, log);
+        final ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        model.save(saved);
+        final byte[] bytes = saved.toByteArray();
+        runner.run("model.load", () -> TreeEnsembleModel.load(new ByteArrayInputStream(bytes)), log);
+
+        // the per row prediction creates a record from each input row like the predictor nodes do
+        final IDataIndexManager indexManager = createIndexManager(data);
+        final DataTableSpec learnSpec = createLearnSpec(data);
+        final DataRow[] rows = createRows(data, indexManager);
+        runner.run("predict.perRow", () -> {
+            int sum = 0;
+            for (final DataRow row : rows) {
+                sum += predict(model, model.createPredictorRecord(row, learnSpec));
+            }
+            return sum;
+        }, log);
+        // the batch prediction reuses a single record that reads the values from the tree data
+        final TreeDataPredictorRecord record = new TreeDataPredictorRecord(data, indexManager);
+        runner.run("predict.batch", () -> {
+            int sum = 0;
+            for (int r = 0; r < rows.length; r++) {
+                record.setRow(r);
+                sum += predict(model, record);
+            }
+            return sum;
+        }, log);
+    }
+
+    private static int predict(final TreeEnsembleModel model,
+        final PredictorRecord record) {
+        int sum = 0;
+        for (int m = 0; m < model.getNrModels(); m++) {
+            sum += model.getTreeModelClassification(m).findMatchingNode(record).getMajorityClassIndex();
+        }
+        return sum;
+    }
+
+    private static DataTableSpec createLearnSpec(final TreeData data) {
+        final TreeAttributeColumnData[] columns = data.getColumns();
+        final DataColumnSpec[] specs = new DataColumnSpec[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            specs[i] = new DataColumnSpecCreator(columns[i].getMetaData().getAttributeName(),
+                columns[i] instanceof TreeNominalColumnData ? StringCell.TYPE : DoubleCell.TYPE).createSpec();
+        }
+        return new DataTableSpec(specs);
+    }
+
+    private static DataRow[] createRows(final TreeData data, final IDataIndexManager indexManager) {
+        final TreeAttributeColumnData[] columns = data.getColumns();
+        final TreeDataPredictorRecord record = new TreeDataPredictorRecord(data, indexManager);
+        final DataRow[] rows = new DataRow[data.getNrRows()];
+        for (int r = 0; r < rows.length; r++) {
+            record.setRow(r);
+            final DataCell[] cells = new DataCell[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                final Object value = record.getValue(columns[i].getMetaData().getAttributeName());
+                if (columns[i] instanceof TreeNominalColumnData) {
+                    final NominalValueRepresentation[] values =
+                        ((TreeNominalColumnData)columns[i]).getMetaData().getValues();
+                    cells[i] = new StringCell(values[(Integer)value].getNominalValue());
+                } else {
+                    cells[i] = new DoubleCell((Double)value);
+                }
+            }
+            rows[r] = new DefaultRow(RowKey.createRowKey((long)r), cells);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link BinaryNominalSplitsPowerIteration} against the example used in {@link BinaryNominalSplitsPCATest}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class BinaryNominalSplitsPowerIterationTest {
+
+    private static final int NR_VALUES = 5;
+
+    private static final int NR_CLASSES = 3;
+
+    private static final double TOTAL_WEIGHT = 300;
+
+    private static final double[] CLASS_FREQUENCIES =
+        new double[]{40, 10, 10, 10, 40, 10, 20, 30, 10, 20, 15, 25, 10, 5, 45};
+
+    private static final double[] VALUE_WEIGHTS = new double[]{60, 60, 60, 60, 60};
+
+    @Test
+    public void testCalculatePrincipalComponent() {
+        final double[] component = BinaryNominalSplitsPowerIteration.calculatePrincipalComponent(CLASS_FREQUENCIES,
+            VALUE_WEIGHTS, NR_VALUES, NR_CLASSES, TOTAL_WEIGHT);
+
+        // reference: eigenvector of the largest eigenvalue of the (scaled) weighted covariance matrix
+        final RealMatrix covariance = MatrixUtils
+            .createRealMatrix(new double[][]{{10.0, -4.167, -5.833}, {-4.167, 14.167, -10.0}, {-5.833, -10.0, 15.833}});
+        final EigenDecomposition eigenDecomposition = new EigenDecomposition(covariance);
+        final RealVector expected = eigenDecomposition.getEigenvector(0);
+        final RealVector actual = MatrixUtils.createRealVector(component);
+        assertEquals(1.0, actual.getNorm(), 1e-9, "The principal component must be normalized.");
+        // the sign of an eigenvector is arbitrary
+        assertEquals(1.0, Math.abs(actual.dotProduct(expected)), 1e-3);
+    }
+
+    @Test
+    public void testCalculateOrdering() {
+        final int[] order = BinaryNominalSplitsPowerIteration.calculateOrdering(CLASS_FREQUENCIES, VALUE_WEIGHTS,
+            NR_VALUES, NR_CLASSES, TOTAL_WEIGHT);
+
+        // same ordering as the PCA version (E, D, A, C, B), the direction depends on the sign of the component
+        final int[] expected = new int[]{4, 3, 0, 2, 1};
+        final int[] reversed = new int[]{1, 2, 0, 3, 4};
+        assertTrue(Arrays.equals(expected, order) || Arrays.equals(reversed, order),
+            "Unexpected ordering " + Arrays.toString(order));
+    }
+
+    @Test
+    public void testCalculateOrderingEqualProbabilities() {
+        // all values have the same class probabilities, the order of the values must not change
+        final double[] classFrequencies = new double[]{10, 20, 5, 10, 1, 2};
+        final double[] valueWeights = new double[]{30, 15, 3};
+        final int[] order =
+            BinaryNominalSplitsPowerIteration.calculateOrdering(classFrequencies, valueWeights, 3, 2, 48);
+        assertArrayEquals(new int[]{0, 1, 2}, order);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PackedIntArray}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PackedIntArrayTest {
+
+    /**
+     * Tests that the number of bits is rounded up to a power of two.
+     */
+    @Test
+    public void testBitsNeeded() {
+        assertEquals(1, PackedIntArray.bitsNeeded(0));
+        assertEquals(1, PackedIntArray.bitsNeeded(1));
+        assertEquals(2, PackedIntArray.bitsNeeded(2));
+        assertEquals(2, PackedIntArray.bitsNeeded(3));
+        assertEquals(4, PackedIntArray.bitsNeeded(4));
+        assertEquals(4, PackedIntArray.bitsNeeded(15));
+        assertEquals(8, PackedIntArray.bitsNeeded(16));
+        assertEquals(16, PackedIntArray.bitsNeeded(0x100));
+        assertEquals(32, PackedIntArray.bitsNeeded(0x10000));
+        assertEquals(32, PackedIntArray.bitsNeeded(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> PackedIntArray.bitsNeeded(-1));
+    }
+
+    /**
+     * Tests that values are read back correctly for all supported widths, including values that are overwritten and
+     * arrays whose length is not a multiple of the values per long.
+     */
+    @Test
+    public void testSetGet() {
+        final Random random = new Random(42);
+        for (int bits = 1; bits <= Integer.SIZE; bits <<= 1) {
+            final int length = 203;
+            final PackedIntArray array = new PackedIntArray(length, bits);
+            assertEquals(length, array.length());
+            assertEquals(bits, array.getBitsPerValue());
+            final int max = array.getMaxValue();
+            assertEquals(bits == Integer.SIZE ? Integer.MAX_VALUE : (1 << bits) - 1, max);
+            final int[] expected = new int[length];
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < length; i++) {
+                    expected[i] = i % 7 == 0 ? max : random.nextInt(max) + (random.nextBoolean() ? 1 : 0);
+                    array.set(i, expected[i]);
+                }
+                for (int i = 0; i < length; i++) {
+                    assertEquals(expected[i], array.get(i), "Wrong value at index " + i + " with " + bits + " bits");
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that invalid widths and values are rejected.
+     */
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(10, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(10, 64));
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(-1, 4));
+        final PackedIntArray array = new PackedIntArray(10, 4);
+        assertThrows(IllegalArgumentException.class, () -> array.set(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> array.set(0, -1));
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.data.memberships.BitVectorDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.ColumnMemberships;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DataMemberships;
+import org.knime.base.node.mine.treeensemble2.data.memberships.RootDataMemberships;
+import org.knime.base.node.mine.treeensemble2.learner.SplitCandidate;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeCondition;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+
+/**
+ * Compares the word wise split search of {@link TreeBitVectorColumnData} with the row wise search.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TreeBitVectorColumnDataTest {
+
+    private static final int NR_ROWS = 300;
+
+    private static final int NR_BITS = 8;
+
+    private static final double DELTA = 1e-9;
+
+    private static TreeBitVectorColumnData[] createColumns(final Random random,
+        final TreeEnsembleLearnerConfiguration config) {
+        TreeBitVectorColumnDataCreator creator = new TreeBitVectorColumnDataCreator(
+            new DataColumnSpecCreator("fingerprint", DenseBitVectorCell.TYPE).createSpec());
+        for (int i = 0; i < NR_ROWS; i++) {
+            DenseBitVectorCellFactory factory = new DenseBitVectorCellFactory(NR_BITS);
+            for (int b = 0; b < NR_BITS; b++) {
+                if (random.nextInt(b + 2) == 0) {
+                    factory.set(b);
+                }
+            }
+            creator.add(RowKey.createRowKey((long)i), factory.createDataCell());
+        }
+        TreeBitVectorColumnData[] columns = new TreeBitVectorColumnData[NR_BITS];
+        for (int b = 0; b < NR_BITS; b++) {
+            columns[b] = (TreeBitVectorColumnData)creator.createColumnData(b, config);
+            columns[b].getMetaData().setAttributeIndex(b);
+        }
+        return columns;
+    }
+
+    private static double[] createWeights(final Random random) {
+        double[] weights = new double[NR_ROWS];
+        for (int i = 0; i < NR_ROWS; i++) {
+            weights[i] = random.nextInt(4);
+        }
+        return weights;
+    }
+
+    private static void assertSameSplit(final SplitCandidate expected, final SplitCandidate actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(expected.getGainValue(), actual.getGainValue(), DELTA);
+        }
+    }
+
+    private static void assertSameChildren(final TreeBitVectorColumnData column, final SplitCandidate split,
+        final DataMemberships memberships) {
+        for (TreeNodeCondition condition : split.getChildConditions()) {
+            assertEquals(column.updateChildMemberships(condition, new RowWiseMemberships(memberships)),
+                column.updateChildMemberships(condition, memberships));
+        }
+    }
+
+    /**
+     * Tests that the word wise classification split search and child memberships equal the row wise ones in the root
+     * and in a child node.
+     */
+    @Test
+    public void testClassification() {
+        Random random = new Random(42);
+        TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(false);
+        TreeBitVectorColumnData[] columns = createColumns(random, config);
+        String[] targetValues = new String[NR_ROWS];
+        for (int i = 0; i < NR_ROWS; i++) {
+            targetValues[i] = "C" + random.nextInt(3);
+        }
+        TreeTargetNominalColumnData target = TestDataGenerator.createNominalTargetColumn(targetValues);
+        TreeData data = new TreeData(columns, target, TreeType.BitVector);
+        DataMemberships root =
+            new RootDataMemberships(createWeights(random), data, new BitVectorDataIndexManager(NR_ROWS));
+
+        DataMemberships node = root;
+        for (int level = 0; level < 2; level++) {
+            ClassificationPriors priors = target.getDistribution(node, config);
+            SplitCandidate best = null;
+            for (TreeBitVectorColumnData column : columns) {
+                SplitCandidate expected = column.calcBestSplitClassification(new RowWiseMemberships(node), priors,
+                    target, TestDataGenerator.createRandomData());
+                SplitCandidate actual =
+                    column.calcBestSplitClassification(node, priors, target, TestDataGenerator.createRandomData());
+                assertSameSplit(expected, actual);
+                if (actual != null && (best == null || actual.getGainValue() > best.getGainValue())) {
+                    best = actual;
+                }
+            }
+            TreeBitVectorColumnData splitColumn = (TreeBitVectorColumnData)best.getColumnData();
+            assertSameChildren(splitColumn, best, node);
+            node = node.createChildMemberships(splitColumn.updateChildMemberships(best.getChildConditions()[0], node));
+        }
+    }
+
+    /**
+     * Tests that the word wise regression split search equals the row wise one.
+     */
+    @Test
+    public void testRegression() {
+        Random random = new Random(7);
+        TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(true);
+        TreeBitVectorColumnData[] columns = createColumns(random, config);
+        StringBuilder targetCSV = new StringBuilder();
+        for (int i = 0; i < NR_ROWS; i++) {
+            targetCSV.append(i > 0 ? "," : "").append(random.nextGaussian());
+        }
+        TreeTargetNumericColumnData target = TestDataGenerator.createNumericTargetColumn(targetCSV.toString());
+        TreeData data = new TreeData(columns, target, TreeType.BitVector);
+        DataMemberships root =
+            new RootDataMemberships(createWeights(random), data, new BitVectorDataIndexManager(NR_ROWS));
+        RegressionPriors priors = target.getPriors(root, config);
+        for (TreeBitVectorColumnData column : columns) {
+            SplitCandidate expected = column.calcBestSplitRegression(new RowWiseMemberships(root), priors, target,
+                TestDataGenerator.createRandomData());
+            SplitCandidate actual =
+                column.calcBestSplitRegression(root, priors, target, TestDataGenerator.createRandomData());
+            assertSameSplit(expected, actual);
+            if (actual != null) {
+                assertSameChildren(column, actual, root);
+            }
+        }
+    }
+
+    /**
+     * Memberships that don't provide bit masks and thereby force the row wise evaluation.
+     */
+    private static final class RowWiseMemberships implements DataMemberships {
+
+        private final DataMemberships m_delegate;
+
+        RowWiseMemberships(final DataMemberships delegate) {
+            m_delegate = delegate;
+        }
+
+        @Override
+        public double[] getRowWeights() {
+            return m_delegate.getRowWeights();
+        }
+
+        @Override
+        public ColumnMemberships getColumnMemberships(final int index) {
+            ColumnMemberships columnMemberships = m_delegate.getColumnMemberships(index);
+            columnMemberships.reset();
+            return columnMemberships;
+        }
+
+        @Override
+        public int[] getOriginalIndices() {
+            return m_delegate.getOriginalIndices();
+        }
+
+        @Override
+        public DataMemberships createChildMemberships(final BitSet inChild) {
+            return m_delegate.createChildMemberships(inChild);
+        }
+
+        @Override
+        public double getRowWeight(final int index) {
+            return m_delegate.getRowWeight(index);
+        }
+
+        @Override
+        public int getOriginalIndex(final int index) {
+            return m_delegate.getOriginalIndex(index);
+        }
+
+        @Override
+        public int getRowCount() {
+            return m_delegate.getRowCount();
+        }
+
+        @Override
+        public int getRowCountInRoot() {
+            return m_delegate.getRowCountInRoot();
+        }
+
+        @Override
+        public <T> T getNodeData(final Class<T> type, final Function<DataMemberships, T> factory) {
+            return type.cast(BitVectorNodeMasks.unsupported());
+        }
+    }
+}
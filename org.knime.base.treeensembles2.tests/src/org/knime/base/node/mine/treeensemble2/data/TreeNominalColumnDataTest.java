@@ -73,6 +73,7 @@
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeNominalBinaryCondition.SetLogic;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeNominalCondition;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.ColumnSamplingMode;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.MissingValueHandling;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.SplitCriterion;
@@ -515,6 +516,84 @@ public void testCalcBestSplitClassificationBinaryPCAXGBoostMissingValueHandling(
         assertFalse(conditions[1].acceptsMissings(), "Missing values should be sent to left child");
     }
 
+    /**
+     * Tests that the power iteration ordering finds the same binary split as the PCA ordering.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCalcBestSplitClassificationBinaryPowerIteration() throws Exception {
+        TreeEnsembleLearnerConfiguration config = createConfig(false);
+        config.setBinaryNominalSplitMethod(BinaryNominalSplitMethod.PowerIteration);
+        Pair<TreeNominalColumnData, TreeTargetNominalColumnData> pcaData = createPCATestData(config);
+        TreeNominalColumnData columnData = pcaData.getFirst();
+        TreeTargetNominalColumnData targetData = pcaData.getSecond();
+        TreeData treeData = createTreeData(pcaData);
+        double[] rowWeights = new double[targetData.getNrRows()];
+        Arrays.fill(rowWeights, 1.0);
+        IDataIndexManager indexManager = new DefaultDataIndexManager(treeData);
+        DataMemberships dataMemberships = new RootDataMemberships(rowWeights, treeData, indexManager);
+        ClassificationPriors priors = targetData.getDistribution(rowWeights, config);
+        SplitCandidate splitCandidate =
+            columnData.calcBestSplitClassification(dataMemberships, priors, targetData, null);
+        assertNotNull(splitCandidate);
+        assertTrue(splitCandidate instanceof NominalBinarySplitCandidate);
+        assertEquals(0.0659, splitCandidate.getGainValue(), 0.0001);
+        NominalBinarySplitCandidate binarySplitCandidate = (NominalBinarySplitCandidate)splitCandidate;
+        TreeNodeNominalBinaryCondition[] childConditions = binarySplitCandidate.getChildConditions();
+        assertEquals(2, childConditions.length);
+        assertArrayEquals(new String[]{"E"}, childConditions[0].getValues());
+        assertArrayEquals(new String[]{"E"}, childConditions[1].getValues());
+        assertEquals(SetLogic.IS_NOT_IN, childConditions[0].getSetLogic());
+        assertEquals(SetLogic.IS_IN, childConditions[1].getSetLogic());
+    }
+
+    /**
+     * Tests the XGBoost missing value handling in the case of binary splits calculated with the power iteration
+     * method (multiple classes)
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCalcBestSplitClassificationBinaryPowerIterationXGBoostMissingValueHandling() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createConfig(false);
+        config.setMissingValueHandling(MissingValueHandling.XGBoost);
+        config.setBinaryNominalSplitMethod(BinaryNominalSplitMethod.PowerIteration);
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final RandomData rd = config.createRandomData();
+        final String[] values = new String[]{"a", "c"};
+        // no missing values in the training data
+        TreeNominalColumnData dataCol =
+            dataGen.createNominalAttributeColumn("a, a, a, b, b, b, b, c, c", "noMissings", 0);
+        TreeTargetNominalColumnData targetCol =
+            TestDataGenerator.createNominalTargetColumn("A, B, B, C, C, C, B, A, B");
+        DataMemberships dataMem = createMockDataMemberships(targetCol.getNrRows());
+        SplitCandidate split =
+            dataCol.calcBestSplitClassification(dataMem, targetCol.getDistribution(dataMem, config), targetCol, rd);
+        assertNotNull(split, "There is a possible split.");
+        assertEquals(0.2086, split.getGainValue(), 1e-3, "Incorrect gain.");
+        NominalBinarySplitCandidate nomSplit = (NominalBinarySplitCandidate)split;
+        TreeNodeNominalBinaryCondition[] conditions = nomSplit.getChildConditions();
+        assertArrayEquals(values, conditions[1].getValues(), "Wrong values in child condition.");
+        assertEquals(SetLogic.IS_IN, conditions[1].getSetLogic(), "Wrong set logic.");
+        assertTrue(conditions[1].acceptsMissings(), "Missing values should be sent to the majority child (i.e. right)");
+
+        // missing values in the training data
+        dataCol = dataGen.createNominalAttributeColumn("a, a, a, b, b, b, b, c, c, ?", "missings", 0);
+        targetCol = TestDataGenerator.createNominalTargetColumn("A, B, B, C, C, C, B, A, B, C");
+        dataMem = createMockDataMemberships(targetCol.getNrRows());
+        split = dataCol.calcBestSplitClassification(dataMem, targetCol.getDistribution(dataMem, config), targetCol, rd);
+        assertNotNull(split, "There is a possible split.");
+        assertEquals(0.24, split.getGainValue(), 1e-3, "Incorrect gain.");
+        nomSplit = (NominalBinarySplitCandidate)split;
+        assertTrue(nomSplit.getMissedRows().isEmpty(), "Split should handle missing values.");
+        conditions = nomSplit.getChildConditions();
+        assertArrayEquals(values, conditions[1].getValues(), "Wrong values in child condition.");
+        assertEquals(SetLogic.IS_IN, conditions[1].getSetLogic(), "Wrong set logic.");
+        assertTrue(conditions[0].acceptsMissings(), "Missing values should be sent to left child");
+        assertFalse(conditions[1].acceptsMissings(), "Missing values should be sent to left child");
+    }
+
     /**
      * Tests the method
      * {@link TreeNominalColumnData#calcBestSplitClassification(DataMemberships, ClassificationPriors, TreeTargetNominalColumnData, RandomData)}
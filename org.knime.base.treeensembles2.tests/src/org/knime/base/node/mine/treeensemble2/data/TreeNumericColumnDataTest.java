@@ -480,4 +480,109 @@ public void testUpdateChildMemberships() throws Exception {
         assertEquals(expected, inChild, "The produced BitSet is incorrect");
     }
 
+    /**
+     * Tests that a column with few distinct values is stored run length encoded and that lookups, child memberships
+     * and the split search work on the runs.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRunLengthEncodedColumn() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createConfig();
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final RandomData rd = config.createRandomData();
+        final int[] indices = new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+        final double[] weights = new double[13];
+        Arrays.fill(weights, 1.0);
+        final String dataCSV = "3, 1, 3, 1, 1, 3, 3, 1, 1, 3, 3, 3, NaN";
+        final String targetCSV = "B, A, B, A, A, B, B, A, A, B, B, B, A";
+        final TreeOrdinaryNumericColumnData col = dataGen.createNumericAttributeColumn(dataCSV, "rle-col", 0);
+        final DataMemberships dataMem = new MockDataColMem(col.getOriginalIndicesInColumnList(), indices, weights);
+        assertTrue(col.isRunLengthEncoded(), "A column with three distinct values should be run length encoded.");
+        assertEquals(12, col.getLengthNonMissing());
+        assertTrue(col.containsMissingValues());
+        for (int i = 0; i < 13; i++) {
+            final double expected = i < 5 ? 1 : (i < 12 ? 3 : Double.NaN);
+            assertEquals(expected, col.getSorted(i), 0.0, "Wrong value at index " + i);
+        }
+        assertEquals(0, col.getFirstIndexWithValue(1));
+        assertEquals(5, col.getFirstIndexWithValue(3));
+        assertEquals(-6, col.getFirstIndexWithValue(2));
+
+        TreeNodeNumericCondition numCond =
+            new TreeNodeNumericCondition(col.getMetaData(), 2, NumericOperator.LessThanOrEqual, false);
+        BitSet expected = new BitSet(13);
+        expected.set(0, 5);
+        assertEquals(expected, col.updateChildMemberships(numCond, dataMem), "The produced BitSet is incorrect.");
+        numCond = new TreeNodeNumericCondition(col.getMetaData(), 2, NumericOperator.LargerThan, true);
+        expected.clear();
+        expected.set(5, 13);
+        assertEquals(expected, col.updateChildMemberships(numCond, dataMem), "The produced BitSet is incorrect.");
+
+        final TreeTargetNominalColumnData target = TestDataGenerator.createNominalTargetColumn(targetCSV);
+        final SplitCandidate split =
+            col.calcBestSplitClassification(dataMem, target.getDistribution(weights, config), target, rd);
+        assertNotNull(split);
+        final TreeNodeNumericCondition splitCond = (TreeNodeNumericCondition)split.getChildConditions()[0];
+        assertEquals(2.0, splitCond.getSplitValue(), 1e-8, "Wrong split point.");
+    }
+
+    /**
+     * Tests that a column that is read off-heap has the same sorted values and sort index as the same column read on
+     * the heap, both for a plain and for a run length encoded column.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOffHeapColumn() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createConfig();
+        final double[] plainValues = new double[]{2.5, -1, 0.0, -0.0, Double.NaN, 7, -1, 3.25, 1e30, -1e-30, 4, 5};
+        final double[] rleValues = new double[]{3, 1, 3, 1, 1, 3, 3, 1, 1, 3, 3, 3, Double.NaN};
+        for (double[] values : new double[][]{plainValues, rleValues}) {
+            final TreeOrdinaryNumericColumnData onHeap = createNumericColumn(values, false, config);
+            final TreeOrdinaryNumericColumnData offHeap = createNumericColumn(values, true, config);
+            assertEquals(onHeap.isRunLengthEncoded(), offHeap.isRunLengthEncoded());
+            assertEquals(!offHeap.isRunLengthEncoded(), offHeap.isOffHeap());
+            assertEquals(onHeap.getLengthNonMissing(), offHeap.getLengthNonMissing());
+            assertEquals(onHeap.containsMissingValues(), offHeap.containsMissingValues());
+            assertTrue(Arrays.equals(onHeap.getOriginalIndicesInColumnList(), offHeap.getOriginalIndicesInColumnList()),
+                "The sort index differs.");
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(Double.doubleToLongBits(onHeap.getSorted(i)),
+                    Double.doubleToLongBits(offHeap.getSorted(i)), "Wrong value at index " + i);
+            }
+            offHeap.releaseOffHeap();
+        }
+    }
+
+    /**
+     * Tests that the sortable bits of floats are ordered like {@link Float#compare(float, float)} and can be mapped
+     * back.
+     */
+    @Test
+    public void testSortableBits() {
+        final float[] values = new float[]{Float.NEGATIVE_INFINITY, -3.5f, -Float.MIN_VALUE, -0.0f, 0.0f,
+            Float.MIN_VALUE, 1f, Float.MAX_VALUE, Float.POSITIVE_INFINITY, Float.NaN};
+        for (int i = 0; i < values.length; i++) {
+            final int bits = TreeOrdinaryNumericColumnDataCreator.toSortableBits(values[i]);
+            assertEquals(Float.floatToIntBits(values[i]),
+                Float.floatToIntBits(TreeOrdinaryNumericColumnDataCreator.fromSortableBits(bits)));
+            if (i > 0) {
+                assertTrue(TreeOrdinaryNumericColumnDataCreator.toSortableBits(values[i - 1]) < bits,
+                    "Wrong order of " + values[i - 1] + " and " + values[i]);
+            }
+        }
+    }
+
+    private static TreeOrdinaryNumericColumnData createNumericColumn(final double[] values, final boolean offHeap,
+        final TreeEnsembleLearnerConfiguration config) {
+        final DataColumnSpec colSpec = new DataColumnSpecCreator("col", DoubleCell.TYPE).createSpec();
+        final TreeOrdinaryNumericColumnDataCreator creator = new TreeOrdinaryNumericColumnDataCreator(colSpec, offHeap);
+        for (int i = 0; i < values.length; i++) {
+            final RowKey key = RowKey.createRowKey((long)i);
+            creator.add(key, Double.isNaN(values[i]) ? new MissingCell(null) : new DoubleCell(values[i]));
+        }
+        return creator.createColumnData(0, config);
+    }
+
 }
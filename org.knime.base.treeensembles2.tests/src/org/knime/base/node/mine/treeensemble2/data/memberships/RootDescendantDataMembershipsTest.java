@@ -48,14 +48,20 @@
  */
 package org.knime.base.node.mine.treeensemble2.data.memberships;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.BitSet;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
 import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeNominalColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeOrdinaryNumericColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNominalColumnData;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.sample.row.DefaultRowSample;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
@@ -130,4 +136,89 @@ public void testGetColumnMemberships() {
             assertEquals(expectedIndexInDataMemberships[i], childColMem.getIndexInDataMemberships());
         }
     }
+
+    /**
+     * Tests that small descendants store their rows as int arrays and behave like bit set descendants.
+     */
+    @Test
+    public void testSparseDescendants() {
+        TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(false);
+        TestDataGenerator dataGen = new TestDataGenerator(config);
+        final int nrRows = 256;
+        final Random random = new Random(42);
+        final double[] values = new double[nrRows];
+        final String[] nominalValues = new String[nrRows];
+        final String[] targetValues = new String[nrRows];
+        for (int i = 0; i < nrRows; i++) {
+            values[i] = random.nextInt(50);
+            nominalValues[i] = "N" + random.nextInt(5);
+            targetValues[i] = random.nextBoolean() ? "A" : "B";
+        }
+        TreeOrdinaryNumericColumnData numericCol = dataGen.createNumericAttributeColumnData(values, "num", 0);
+        TreeNominalColumnData nominalCol = dataGen.createNominalAttributeColumn(nominalValues, "nom", 1);
+        TreeTargetNominalColumnData target = TestDataGenerator.createNominalTargetColumn(targetValues);
+        TreeData data = dataGen.createTreeData(target, numericCol, nominalCol);
+        RootDataMemberships rootMemberships =
+            new RootDataMemberships(new DefaultRowSample(nrRows), data, new DefaultDataIndexManager(data));
+
+        BitSet sparse = new BitSet(nrRows);
+        for (int i = 0; i < 5; i++) {
+            sparse.set(random.nextInt(nrRows));
+        }
+        DataMemberships sparseChild = rootMemberships.createChildMemberships(sparse);
+        assertTrue(sparseChild instanceof IntArrayDescendantDataMemberships);
+        assertArrayEquals(sparse.stream().toArray(),
+            ((IntArrayDescendantDataMemberships)sparseChild).getIndicesInRoot());
+        DataMemberships expected = new BitSetDescendantDataMemberships(rootMemberships, sparse);
+        assertEquals(expected.getRowCount(), sparseChild.getRowCount());
+        assertArrayEquals(expected.getOriginalIndices(), sparseChild.getOriginalIndices());
+        assertArrayEquals(expected.getRowWeights(), sparseChild.getRowWeights(), 0.0);
+        for (int i = 0; i < sparseChild.getRowCount(); i++) {
+            assertEquals(expected.getOriginalIndex(i), sparseChild.getOriginalIndex(i));
+        }
+        for (int col = 0; col < data.getNrAttributes(); col++) {
+            ColumnMemberships expectedColMem = expected.getColumnMemberships(col);
+            ColumnMemberships colMem = sparseChild.getColumnMemberships(col);
+            assertTrue(colMem instanceof IntArrayDescendantColumnMemberships);
+            assertEquals(expectedColMem.size(), colMem.size());
+            while (expectedColMem.next()) {
+                assertTrue(colMem.next());
+                assertEquals(expectedColMem.getIndexInColumn(), colMem.getIndexInColumn());
+                assertEquals(expectedColMem.getIndexInDataMemberships(), colMem.getIndexInDataMemberships());
+                assertEquals(expectedColMem.getOriginalIndex(), colMem.getOriginalIndex());
+                assertEquals(expectedColMem.getRowWeight(), colMem.getRowWeight(), 0.0);
+            }
+            assertFalse(colMem.next());
+
+            expectedColMem.goToLast();
+            colMem.goToLast();
+            boolean hasPrevious;
+            do {
+                assertEquals(expectedColMem.getIndexInColumn(), colMem.getIndexInColumn());
+                hasPrevious = expectedColMem.previous();
+                assertEquals(hasPrevious, colMem.previous());
+            } while (hasPrevious);
+
+            for (int indexInColumn = 0; indexInColumn <= nrRows; indexInColumn += 17) {
+                expectedColMem.reset();
+                colMem.reset();
+                final boolean found = expectedColMem.nextIndexFrom(indexInColumn);
+                assertEquals(found, colMem.nextIndexFrom(indexInColumn));
+                if (found) {
+                    assertEquals(expectedColMem.getIndexInColumn(), colMem.getIndexInColumn());
+                }
+            }
+        }
+
+        // the children of sparse descendants are descendants of the root as well
+        BitSet grandChild = new BitSet(nrRows);
+        grandChild.set(sparse.nextSetBit(0));
+        DataMemberships sparseGrandChild = sparseChild.createChildMemberships(grandChild);
+        assertEquals(1, sparseGrandChild.getRowCount());
+        assertEquals(rootMemberships.getOriginalIndex(sparse.nextSetBit(0)), sparseGrandChild.getOriginalIndex(0));
+
+        BitSet dense = new BitSet(nrRows);
+        dense.set(0, nrRows / 2);
+        assertTrue(rootMemberships.createChildMemberships(dense) instanceof BitSetDescendantDataMemberships);
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data.memberships;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the choice and the content of the containers created by {@link WeightContainers}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class WeightContainersTest {
+
+    private static int[] createCounts(final int length, final int maxCount) {
+        final Random random = new Random(42);
+        final int[] counts = new int[length];
+        for (int i = 0; i < length; i++) {
+            counts[i] = random.nextInt(maxCount + 1);
+        }
+        counts[length / 2] = maxCount;
+        return counts;
+    }
+
+    private static void assertContainsCounts(final int[] counts, final int length, final WeightContainer container) {
+        final double[] allWeights = container.getAllWeights();
+        assertEquals(length, allWeights.length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(counts[i], container.getWeight(i), 0.0);
+            assertEquals(counts[i], allWeights[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testContainerChoice() {
+        final int[] maxCounts = new int[]{1, 3, 15, 255, 65535, 100000};
+        final Class<?>[] expectedClasses = new Class<?>[]{PackedWeightContainer.class, PackedWeightContainer.class,
+            PackedWeightContainer.class, ByteWeightContainer.class, ShortWeightContainer.class,
+            FloatWeightContainer.class};
+        for (int i = 0; i < maxCounts.length; i++) {
+            // lengths that don't fill the last word
+            final int[] counts = createCounts(203, maxCounts[i]);
+            final WeightContainer container = WeightContainers.create(counts, 201);
+            assertEquals(expectedClasses[i], container.getClass(), "Wrong container for max count " + maxCounts[i]);
+            assertContainsCounts(counts, 201, container);
+        }
+    }
+
+    @Test
+    public void testPackedWeights() {
+        for (int bits : new int[]{1, 2, 4}) {
+            final int[] counts = createCounts(130, (1 << bits) - 1);
+            assertContainsCounts(counts, 130, new PackedWeightContainer(counts, 130, bits));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PackedWeightContainer(new int[]{1, 4}, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new PackedWeightContainer(new int[]{1}, 1, 3));
+    }
+
+    @Test
+    public void testRealValuedWeights() {
+        final double[] integerWeights = new double[]{1.0, 3.0, 2.0, 0.0};
+        final WeightContainer integerContainer = WeightContainers.create(integerWeights, 3);
+        assertTrue(integerContainer instanceof PackedWeightContainer);
+        assertArrayEquals(new double[]{1.0, 3.0, 2.0}, integerContainer.getAllWeights(), 0.0);
+
+        final double[] realWeights = new double[]{0.5, 2.25, 1.0};
+        final WeightContainer realContainer = WeightContainers.create(realWeights, 3);
+        assertTrue(realContainer instanceof FloatWeightContainer);
+        assertArrayEquals(realWeights, realContainer.getAllWeights(), 1e-6);
+    }
+
+    @Test
+    public void testCountSmallerZero() {
+        assertThrows(IllegalArgumentException.class, () -> WeightContainers.create(new int[]{1, -1}, 2));
+        assertThrows(IllegalArgumentException.class, () -> WeightContainers.create(new double[]{1.5, -1.0}, 2));
+    }
+}
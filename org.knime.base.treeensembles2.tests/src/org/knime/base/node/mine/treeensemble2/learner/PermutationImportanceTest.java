@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.learner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.math.random.RandomData;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeDataPredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.TreeNominalColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeOrdinaryNumericColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNominalColumnData;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DefaultDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.IDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNode;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelClassification;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Tests the impurity decrease recorded by the tree learners and the {@link PermutationImportance}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PermutationImportanceTest {
+
+    private static final int NR_ROWS = 20;
+
+    /**
+     * Learns a tree on the even rows of a data set whose target is determined by a single attribute and evaluates the
+     * importance on the odd (out-of-bag) rows.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testImportanceOfInformativeAttribute() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(false);
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final double[] x = new double[NR_ROWS];
+        final String[] noise = new String[NR_ROWS];
+        final String[] target = new String[NR_ROWS];
+        for (int i = 0; i < NR_ROWS; i++) {
+            x[i] = i;
+            noise[i] = "a";
+            target[i] = i < NR_ROWS / 2 ? "A" : "B";
+        }
+        final TreeOrdinaryNumericColumnData xCol = dataGen.createNumericAttributeColumnData(x, "x", 0);
+        final TreeNominalColumnData noiseCol = dataGen.createNominalAttributeColumn(noise, "noise", 1);
+        final TreeTargetNominalColumnData targetCol = TestDataGenerator.createNominalTargetColumn(target);
+        final TreeData data = dataGen.createTreeData(targetCol, xCol, noiseCol);
+        final IDataIndexManager indexManager = new DefaultDataIndexManager(data);
+        final RowSample evenRows = new RowSample() {
+            @Override
+            public int getNrRows() {
+                return NR_ROWS;
+            }
+
+            @Override
+            public int getCountFor(final int rowIndex) {
+                return rowIndex % 2 == 0 ? 1 : 0;
+            }
+        };
+        final RandomData rd = TestDataGenerator.createRandomData();
+        final TreeLearnerClassification learner = new TreeLearnerClassification(config, data, indexManager,
+            new TreeNodeSignatureFactory(), rd, evenRows);
+        final TreeModelClassification model = learner.learnSingleTree(new ExecutionMonitor(), rd);
+
+        final double[] impurityDecrease = learner.getImpurityDecrease();
+        assertTrue(impurityDecrease[0] > 0, "The split attribute must decrease the impurity");
+        assertEquals(0.0, impurityDecrease[1], 0.0, "An unused attribute must not decrease the impurity");
+
+        final int nrOutOfBag = NR_ROWS / 2;
+        final int[] rows = new int[nrOutOfBag];
+        final AbstractTreeNode[] leaves = new AbstractTreeNode[nrOutOfBag];
+        final TreeDataPredictorRecord record = new TreeDataPredictorRecord(data, indexManager);
+        for (int i = 0; i < nrOutOfBag; i++) {
+            rows[i] = 2 * i + 1;
+            record.setRow(rows[i]);
+            leaves[i] = model.findMatchingNode(record);
+        }
+        final PermutationImportance permutationImportance = new PermutationImportance(data, indexManager);
+        double totalImportance = 0.0;
+        for (long seed = 0; seed < 5; seed++) {
+            final double[] importance =
+                permutationImportance.calculate(model, rows, leaves, nrOutOfBag, seed, new ExecutionMonitor());
+            // the importance is a difference of two error rates
+            assertTrue(importance[0] >= -1.0 && importance[0] <= 1.0);
+            assertEquals(0.0, importance[1], 0.0, "An unused attribute must not be important");
+            totalImportance += importance[0];
+        }
+        assertTrue(totalImportance > 0, "Permuting the split attribute must increase the error");
+    }
+
+}
@@ -48,15 +48,28 @@
  */
 package org.knime.base.node.mine.treeensemble2.learner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
 import java.util.BitSet;
 
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
 import org.knime.base.node.mine.treeensemble2.data.TreeAttributeColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
 import org.knime.base.node.mine.treeensemble2.data.TreeNumericColumnDataTest;
 import org.knime.base.node.mine.treeensemble2.data.TreeOrdinaryNumericColumnData;
 import org.knime.base.node.mine.treeensemble2.data.memberships.ColumnMemberships;
 import org.knime.base.node.mine.treeensemble2.data.memberships.DataMemberships;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DefaultDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.RootDataMemberships;
 import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNodeSurrogateCondition;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeColumnCondition;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeNumericCondition;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeNumericCondition.NumericOperator;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.MissingValueHandling;
+import org.knime.base.node.mine.treeensemble2.sample.column.AllColumnSampleStrategy;
 
 /**
  *
@@ -119,6 +132,122 @@ public void testCalculateSurrogates() {
 //        assertEquals("col1 < 5", leftChildCondition.getColumnCondition(1).toString());
     }
 
+    /*
+     * The node is the right child of a root split on "root" (rows 5 to 9), the best split in the node is on "best".
+     * "inverse" sends all rows of the node the other way than "best", "noisy" agrees with "best" on four of the five
+     * rows and "twin" is a copy of "inverse". The rows outside of the node are ordered the other way around.
+     */
+    private static final String ROOT = "1, 2, 3, 4, 5, 6, 6, 6, 6, 6";
+    private static final String BEST = "5, 4, 3, 2, 1, 1, 2, 3, 4, 5";
+    private static final String INVERSE = "1, 2, 3, 4, 5, 10, 9, 8, 7, 6";
+    private static final String NOISY = "5, 4, 3, 2, 1, 1, 3, 2, 4, 5";
+    private static final double BEST_SPLITVAL = 2.5;
+
+    private static TreeEnsembleLearnerConfiguration createSurrogateConfig() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(false);
+        config.setMissingValueHandling(MissingValueHandling.Surrogate);
+        return config;
+    }
+
+    private static TreeData createNodeTestData(final TreeEnsembleLearnerConfiguration config,
+        final String... columnsCSV) {
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final String[] names = {"root", "best", "inverse", "noisy", "twin"};
+        final TreeAttributeColumnData[] cols = new TreeAttributeColumnData[columnsCSV.length];
+        for (int i = 0; i < cols.length; i++) {
+            cols[i] = dataGen.createNumericAttributeColumn(columnsCSV[i], names[i], i);
+        }
+        return dataGen.createTreeData(TestDataGenerator.createNominalTargetColumn("A, A, A, A, A, B, B, B, B, B"),
+            cols);
+    }
+
+    /** Learns the surrogates for the split on "best" in the child of the root that contains rows 5 to 9. */
+    private static SurrogateSplit learnSurrogatesInChild(final TreeEnsembleLearnerConfiguration config,
+        final TreeData data) {
+        final double[] rowWeights = new double[data.getNrRows()];
+        Arrays.fill(rowWeights, 1.0);
+        final DataMemberships root =
+            new RootDataMemberships(rowWeights, data, new DefaultDataIndexManager(data));
+        final BitSet inChild = new BitSet();
+        inChild.set(5, 10);
+        final DataMemberships child = root.createChildMemberships(inChild);
+        final SplitCandidate bestSplit = new NumericSplitCandidate((TreeOrdinaryNumericColumnData)data.getColumns()[1],
+            BEST_SPLITVAL, 0.5, new BitSet(), NumericSplitCandidate.NO_MISSINGS);
+        return Surrogates.learnSurrogates(child, bestSplit, data,
+            new AllColumnSampleStrategy(data).getColumnSampleForTreeNode(null), config,
+            TestDataGenerator.createRandomData());
+    }
+
+    private static void assertCondition(final String expectedColumn, final NumericOperator expectedOperator,
+        final TreeNodeColumnCondition condition) {
+        assertEquals(expectedColumn, condition.getAttributeName(), "Wrong surrogate column");
+        assertEquals(expectedOperator, ((TreeNodeNumericCondition)condition).getNumericOperator(),
+            "Wrong direction for surrogate column " + expectedColumn);
+    }
+
+    /**
+     * Tests that the surrogates of a split in a non-root node are learned on the directions of the rows in that node.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testLearnSurrogatesInNonRootNode() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createSurrogateConfig();
+        final TreeData data = createNodeTestData(config, ROOT, BEST, INVERSE, NOISY);
+        final SurrogateSplit surrogateSplit = learnSurrogatesInChild(config, data);
+
+        final AbstractTreeNodeSurrogateCondition[] childConditions = surrogateSplit.getChildConditions();
+        assertEquals(2, childConditions.length);
+        final AbstractTreeNodeSurrogateCondition left = childConditions[0];
+        final AbstractTreeNodeSurrogateCondition right = childConditions[1];
+        // "root" is constant in the node and therefore no surrogate
+        assertEquals(2, left.getNumSurrogates(), "Wrong number of surrogates");
+        assertEquals(2, right.getNumSurrogates(), "Wrong number of surrogates");
+        assertCondition("best", NumericOperator.LessThanOrEqual, left.getFirstCondition());
+        assertCondition("best", NumericOperator.LargerThan, right.getFirstCondition());
+        // the perfect (but complemented) surrogate comes first
+        assertCondition("inverse", NumericOperator.LargerThan, left.getColumnCondition(1));
+        assertCondition("inverse", NumericOperator.LessThanOrEqual, right.getColumnCondition(1));
+        assertCondition("noisy", NumericOperator.LessThanOrEqual, left.getColumnCondition(2));
+        assertCondition("noisy", NumericOperator.LargerThan, right.getColumnCondition(2));
+
+        final BitSet expectedLeft = new BitSet();
+        expectedLeft.set(0, 2);
+        final BitSet expectedRight = new BitSet();
+        expectedRight.set(2, 5);
+        assertEquals(expectedLeft, surrogateSplit.getChildMarkers()[0], "Wrong rows in left child");
+        assertEquals(expectedRight, surrogateSplit.getChildMarkers()[1], "Wrong rows in right child");
+    }
+
+    /**
+     * Tests that only the best {@link TreeEnsembleLearnerConfiguration#getMaxNrSurrogates()} surrogates are retained
+     * and that the earlier column wins ties.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testMaxNrSurrogates() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createSurrogateConfig();
+        final TreeData data = createNodeTestData(config, ROOT, BEST, INVERSE, NOISY, INVERSE);
+
+        AbstractTreeNodeSurrogateCondition left = learnSurrogatesInChild(config, data).getChildConditions()[0];
+        assertEquals(3, left.getNumSurrogates(), "All surrogates should be retained by default");
+        assertCondition("inverse", NumericOperator.LargerThan, left.getColumnCondition(1));
+        assertCondition("twin", NumericOperator.LargerThan, left.getColumnCondition(2));
+        assertCondition("noisy", NumericOperator.LessThanOrEqual, left.getColumnCondition(3));
+
+        config.setMaxNrSurrogates(2);
+        left = learnSurrogatesInChild(config, data).getChildConditions()[0];
+        assertEquals(2, left.getNumSurrogates(), "Wrong number of retained surrogates");
+        assertCondition("inverse", NumericOperator.LargerThan, left.getColumnCondition(1));
+        assertCondition("twin", NumericOperator.LargerThan, left.getColumnCondition(2));
+
+        config.setMaxNrSurrogates(1);
+        left = learnSurrogatesInChild(config, data).getChildConditions()[0];
+        assertEquals(1, left.getNumSurrogates(), "Wrong number of retained surrogates");
+        assertCondition("inverse", NumericOperator.LargerThan, left.getColumnCondition(1));
+    }
+
 
 
 
@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.learner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeOrdinaryNumericColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNumericColumnData;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DefaultDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.data.memberships.IDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelRegression;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.ColumnSamplingMode;
+import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Tests the parallel learning of a single tree in {@link TreeLearnerRegression}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TreeLearnerRegressionTest {
+
+    private static final int NR_ROWS = 2 * TreeLearnerRegression.MIN_ROWS_PARALLEL_COLUMNS;
+
+    /**
+     * Learns the same tree sequentially and (twice) in parallel. Without ties no random tie breaking is involved,
+     * hence all trees and impurity decreases must be identical.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelLearningMatchesSequential() throws Exception {
+        assertParallelLearningMatchesSequential(false);
+    }
+
+    /**
+     * Same as {@link #testParallelLearningMatchesSequential()} but with an attribute whose split points tie exactly,
+     * hence the random tie breaking draws from the random generator in many tree nodes. The parallel learning must
+     * draw the same random numbers as the sequential learning.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelLearningMatchesSequentialWithTies() throws Exception {
+        assertParallelLearningMatchesSequential(true);
+    }
+
+    private static void assertParallelLearningMatchesSequential(final boolean withTies) throws Exception {
+        final TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(true);
+        config.setMaxLevels(10);
+        config.setColumnSamplingMode(ColumnSamplingMode.None);
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final Random random = new Random(42);
+        final double[] x0 = new double[NR_ROWS];
+        final double[] x1 = new double[NR_ROWS];
+        final double[] x2 = new double[NR_ROWS];
+        final double[] y = new double[NR_ROWS];
+        if (withTies) {
+            // pairs of rows that only differ in x2 (v and 3 - v), hence every tree node contains as many rows with
+            // x2 = v as with x2 = 3 - v, and the splits 0|123 and 012|3 have exactly the same gain (integer targets)
+            for (int i = 0; i < NR_ROWS; i += 2) {
+                x0[i] = x0[i + 1] = random.nextDouble();
+                x1[i] = x1[i + 1] = random.nextDouble();
+                x2[i] = random.nextInt(4);
+                x2[i + 1] = 3 - x2[i];
+                y[i] = y[i + 1] = (x0[i] < 0.5 ? 0 : 4) + (x1[i] < 0.3 ? 0 : 2) + (x2[i] == 1 || x2[i] == 2 ? 1 : 0);
+            }
+        } else {
+            for (int i = 0; i < NR_ROWS; i++) {
+                x0[i] = random.nextDouble();
+                x1[i] = random.nextDouble();
+                x2[i] = random.nextDouble();
+                y[i] = Math.sin(6 * x0[i]) + x1[i] * x1[i] + 0.1 * random.nextGaussian();
+            }
+        }
+        final StringBuilder targetCSV = new StringBuilder();
+        for (int i = 0; i < NR_ROWS; i++) {
+            targetCSV.append(i == 0 ? "" : ",").append(y[i]);
+        }
+        final TreeOrdinaryNumericColumnData col0 = dataGen.createNumericAttributeColumnData(x0, "x0", 0);
+        final TreeOrdinaryNumericColumnData col1 = dataGen.createNumericAttributeColumnData(x1, "x1", 1);
+        final TreeOrdinaryNumericColumnData col2 = dataGen.createNumericAttributeColumnData(x2, "x2", 2);
+        final TreeTargetNumericColumnData target =
+            TestDataGenerator.createNumericTargetColumn(targetCSV.toString());
+        final TreeData data = dataGen.createTreeData(target, col0, col1, col2);
+        final IDataIndexManager indexManager = new DefaultDataIndexManager(data);
+
+        final TreeLearnerRegression sequential = createLearner(config, data, indexManager, false);
+        final TreeModelRegression sequentialTree = sequential.learnSingleTree(new ExecutionMonitor(), null);
+        final String expected = sequentialTree.getRootNode().toString();
+        assertTrue(sequentialTree.getRootNode().getNrChildren() > 0, "The tree should not be a single leaf");
+        for (int run = 0; run < 2; run++) {
+            final TreeLearnerRegression parallel = createLearner(config, data, indexManager, true);
+            final TreeModelRegression parallelTree = parallel.learnSingleTree(new ExecutionMonitor(), null);
+            assertEquals(expected, parallelTree.getRootNode().toString(), "Parallel learning changed the tree");
+            assertArrayEquals(sequential.getImpurityDecrease(), parallel.getImpurityDecrease(), 0.0,
+                "Parallel learning changed the impurity decrease");
+        }
+    }
+
+    private static TreeLearnerRegression createLearner(final TreeEnsembleLearnerConfiguration config,
+        final TreeData data, final IDataIndexManager indexManager, final boolean parallel) {
+        final RowSample allRows = new RowSample() {
+            @Override
+            public int getNrRows() {
+                return NR_ROWS;
+            }
+
+            @Override
+            public int getCountFor(final int rowIndex) {
+                return 1;
+            }
+        };
+        final TreeLearnerRegression learner = new TreeLearnerRegression(config, data, indexManager,
+            new TreeNodeSignatureFactory(), TreeEnsembleLearnerConfiguration.createRandomData(7), allRows);
+        learner.setParallel(parallel);
+        return learner;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.learner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
+
+/**
+ * Tests the {@link TreeNodeSignatureFactory} and the encoding of {@link TreeNodeSignature}s.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TreeNodeSignatureFactoryTest {
+
+    /**
+     * Tests that signatures of binary splits are compact and have the expected paths.
+     */
+    @Test
+    public void testCompactSignatures() {
+        TreeNodeSignatureFactory factory = new TreeNodeSignatureFactory();
+        TreeNodeSignature root = factory.getRootSignature();
+        assertTrue(root.isCompact());
+        assertArrayEquals(new byte[]{0}, root.getSignaturePath());
+        TreeNodeSignature child = factory.getChildSignatureFor(root, (byte)1);
+        TreeNodeSignature grandChild = factory.getChildSignatureFor(child, (byte)0);
+        assertTrue(grandChild.isCompact());
+        assertEquals(3, grandChild.getLength());
+        assertArrayEquals(new byte[]{0, 1, 0}, grandChild.getSignaturePath());
+        assertEquals("0-1-0", grandChild.toString());
+        assertEquals(grandChild, root.createChildSignature((byte)1).createChildSignature((byte)0));
+        assertEquals(grandChild.hashCode(),
+            root.createChildSignature((byte)1).createChildSignature((byte)0).hashCode());
+        assertNotEquals(grandChild, root.createChildSignature((byte)0).createChildSignature((byte)1));
+    }
+
+    /**
+     * Tests that multiway and very deep paths fall back to byte arrays and are reused by the factory.
+     */
+    @Test
+    public void testFallbackSignatures() {
+        TreeNodeSignatureFactory factory = new TreeNodeSignatureFactory();
+        TreeNodeSignature root = factory.getRootSignature();
+        TreeNodeSignature multiway = factory.getChildSignatureFor(root, (byte)2);
+        assertFalse(multiway.isCompact());
+        assertArrayEquals(new byte[]{0, 2}, multiway.getSignaturePath());
+        assertSame(multiway, factory.getChildSignatureFor(root, (byte)2));
+        assertFalse(multiway.createChildSignature((byte)0).isCompact());
+
+        TreeNodeSignature deep = root;
+        for (int i = 0; i < 100; i++) {
+            deep = factory.getChildSignatureFor(deep, (byte)(i % 2));
+            assertEquals(i + 2, deep.getLength());
+        }
+        assertFalse(deep.isCompact());
+        byte[] path = deep.getSignaturePath();
+        for (int i = 1; i < path.length; i++) {
+            assertEquals((i - 1) % 2, path[i]);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.model.pmml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+
+import org.dmg.pmml.NodeDocument.Node;
+import org.dmg.pmml.ScoreDistributionDocument.ScoreDistribution;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeClassification;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnDomainCreator;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests the parsing of the class distribution in {@link ClassificationContentParser}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ClassificationContentParserTest {
+
+    private static NominalTargetColumnHelper createTargetHelper() {
+        final DataColumnSpecCreator specCreator = new DataColumnSpecCreator("target", StringCell.TYPE);
+        specCreator.setDomain(new DataColumnDomainCreator(
+            new DataCell[]{new StringCell("a"), new StringCell("b"), new StringCell("c")}).createDomain());
+        return new NominalTargetColumnHelper(specCreator.createSpec());
+    }
+
+    private static Node createNode(final String score, final String... distributionValues) {
+        final Node node = Node.Factory.newInstance();
+        node.setScore(score);
+        for (String value : distributionValues) {
+            final ScoreDistribution distribution = node.addNewScoreDistribution();
+            distribution.setValue(value);
+            distribution.setRecordCount(3);
+        }
+        return node;
+    }
+
+    /**
+     * A score distribution that lists only some of the classes.
+     */
+    @Test
+    public void testPartialDistribution() {
+        final NominalTargetColumnHelper helper = createTargetHelper();
+        final TreeNodeClassification node = new ClassificationContentParser(helper)
+            .createNode(createNode("c", "c"), helper, TreeNodeSignature.ROOT_SIGNATURE, Collections.emptyList());
+        final float[] distribution = node.getTargetDistribution();
+        assertEquals(3, distribution.length, "The distribution must cover all classes");
+        final int cIndex = helper.getRepresentation("c").getAssignedInteger();
+        for (int i = 0; i < distribution.length; i++) {
+            assertEquals(i == cIndex ? 3f : 0f, distribution[i], 0f, "Unexpected record count of class " + i);
+        }
+    }
+
+    /**
+     * A value that is not a class of the target is rejected with an {@link IllegalArgumentException}.
+     */
+    @Test
+    public void testUnknownValue() {
+        final NominalTargetColumnHelper helper = createTargetHelper();
+        final ClassificationContentParser parser = new ClassificationContentParser(helper);
+        final Node node = createNode("a", "a", "d");
+        assertThrows(IllegalArgumentException.class,
+            () -> parser.createNode(node, helper, TreeNodeSignature.ROOT_SIGNATURE, Collections.emptyList()));
+    }
+
+}
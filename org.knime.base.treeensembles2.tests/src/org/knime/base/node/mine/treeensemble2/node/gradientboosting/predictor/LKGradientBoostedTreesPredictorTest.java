@@ -0,0 +1,172 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeDataPredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.memberships.DefaultDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.learner.gradientboosting.LKGradientBoostedTreesLearner;
+import org.knime.base.node.mine.treeensemble2.model.MultiClassGradientBoostedTreesModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
+import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.predictor.ClassificationPrediction;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Tests {@link LKGradientBoostedTreesPredictor}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class LKGradientBoostedTreesPredictorTest {
+
+    private static final int NR_ROWS = 300;
+
+    private static final int NR_CLASSES = 3;
+
+    /**
+     * Tests that the predictions are exactly the same as the ones computed from the coefficient maps of the model,
+     * with and without safe softmax.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testPredictionsMatchCoefficientMaps() throws Exception {
+        final GradientBoostingLearnerConfiguration config = new GradientBoostingLearnerConfiguration(false);
+        config.setSeed(42L);
+        config.setNrModels(20);
+        config.setMaxLevels(3);
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final Random random = new Random(42);
+        final double[] x0 = new double[NR_ROWS];
+        final double[] x1 = new double[NR_ROWS];
+        final String[] classes = new String[NR_ROWS];
+        for (int i = 0; i < NR_ROWS; i++) {
+            x0[i] = random.nextDouble();
+            x1[i] = random.nextDouble();
+            final double score = x0[i] + 0.5 * x1[i] + 0.2 * random.nextGaussian();
+            classes[i] = "c" + Math.min(NR_CLASSES - 1, Math.max(0, (int)(score / 1.5 * NR_CLASSES)));
+        }
+        final TreeData data = dataGen.createTreeData(TestDataGenerator.createNominalTargetColumn(classes),
+            dataGen.createNumericAttributeColumnData(x0, "x0", 0),
+            dataGen.createNumericAttributeColumnData(x1, "x1", 1));
+        final MultiClassGradientBoostedTreesModel model =
+            new LKGradientBoostedTreesLearner(config, data).learn(new ExecutionMonitor());
+        final TreeDataPredictorRecord record = new TreeDataPredictorRecord(data, new DefaultDataIndexManager(data));
+
+        for (boolean useSafeSoftmax : new boolean[]{false, true}) {
+            final LKGradientBoostedTreesPredictor predictor =
+                new LKGradientBoostedTreesPredictor(model, true, null, useSafeSoftmax);
+            final LKGradientBoostedTreesPredictor classPredictor =
+                new LKGradientBoostedTreesPredictor(model, false, null, useSafeSoftmax);
+            for (int r = 0; r < NR_ROWS; r++) {
+                record.setRow(r);
+                final double[] logits = calculateLogits(model, record);
+                final double[] expected = toProbabilities(logits.clone(), useSafeSoftmax);
+                final int expectedClassIdx = argmax(expected);
+                final ClassificationPrediction prediction = predictor.predictRecord(record);
+                assertEquals(expectedClassIdx, prediction.getWinningClassIdx(), "Wrong class in row " + r);
+                for (int c = 0; c < NR_CLASSES; c++) {
+                    // exactly the same, not only up to rounding
+                    assertEquals(expected[c], prediction.getProbability(c), 0.0,
+                        "Wrong probability of class " + c + " in row " + r);
+                }
+                assertEquals(argmax(logits), classPredictor.predictRecord(record).getWinningClassIdx(),
+                    "Wrong class without probabilities in row " + r);
+            }
+        }
+    }
+
+    /** The logits as computed before the coefficients were resolved per leaf. */
+    private static double[] calculateLogits(final MultiClassGradientBoostedTreesModel model,
+        final PredictorRecord record) {
+        final double[] logits = new double[model.getNrClasses()];
+        Arrays.fill(logits, model.getInitialValue());
+        for (int i = 0; i < model.getNrLevels(); i++) {
+            for (int j = 0; j < model.getNrClasses(); j++) {
+                final TreeNodeRegression matchingNode = model.getModel(i, j).findMatchingNode(record);
+                logits[j] += model.getCoefficientMap(i, j).get(matchingNode.getSignature());
+            }
+        }
+        return logits;
+    }
+
+    private static double[] toProbabilities(final double[] logits, final boolean useSafeSoftmax) {
+        final double constant = useSafeSoftmax ? Arrays.stream(logits).max().getAsDouble() : 0;
+        double expSum = 0;
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] = Math.exp(logits[i] - constant);
+            expSum += logits[i];
+        }
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] /= expSum;
+        }
+        return logits;
+    }
+
+    private static int argmax(final double[] values) {
+        int argmax = -1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > max) {
+                max = values[i];
+                argmax = i;
+            }
+        }
+        return argmax;
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.pmml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.model.GradientBoostingModelPortObject;
+import org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.pmml.GBTPMMLModelCache.ImportedModel;
+
+/**
+ * Tests the {@link GBTPMMLModelCache}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class GBTPMMLModelCacheTest {
+
+    /**
+     * Empties the shared cache.
+     */
+    @AfterEach
+    public void clearCache() {
+        GBTPMMLModelCache.getInstance().clear();
+    }
+
+    /**
+     * Tests that a model is only imported once per key.
+     */
+    @Test
+    public void testImportIsCached() {
+        final GBTPMMLModelCache cache = GBTPMMLModelCache.getInstance();
+        final AtomicInteger imports = new AtomicInteger();
+        final String key = GBTPMMLModelCache.hash("<PMML/>");
+        final ImportedModel first = cache.getOrImport(key, () -> {
+            imports.incrementAndGet();
+            return createModel(null);
+        });
+        final ImportedModel second = cache.getOrImport(key, () -> {
+            imports.incrementAndGet();
+            return createModel(null);
+        });
+        assertSame(first, second);
+        assertEquals(1, imports.get());
+        final ImportedModel other = cache.getOrImport(GBTPMMLModelCache.hash("<PMML />"), () -> createModel(null));
+        assertNotSame(first, other);
+    }
+
+    /**
+     * Tests that the warning of the import is also returned for the cached model.
+     */
+    @Test
+    public void testWarningIsCached() {
+        final GBTPMMLModelCache cache = GBTPMMLModelCache.getInstance();
+        final String key = GBTPMMLModelCache.hash("<PMML/>");
+        assertEquals("warning", cache.getOrImport(key, () -> createModel("warning")).getWarning());
+        assertEquals("warning", cache.getOrImport(key, () -> createModel(null)).getWarning());
+        assertNull(cache.getOrImport(GBTPMMLModelCache.hash("<PMML />"), () -> createModel(null)).getWarning());
+    }
+
+    /**
+     * Tests that only the most recently used models are kept.
+     */
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final GBTPMMLModelCache cache = GBTPMMLModelCache.getInstance();
+        final ImportedModel firstModel = createModel(null);
+        cache.getOrImport("0", () -> firstModel);
+        for (int i = 1; i < GBTPMMLModelCache.MAX_ENTRIES + 1; i++) {
+            // keep the first model the most recently used one
+            cache.getOrImport("0", () -> createModel(null));
+            cache.getOrImport(Integer.toString(i), () -> createModel(null));
+        }
+        assertEquals(GBTPMMLModelCache.MAX_ENTRIES, cache.size());
+        assertSame(firstModel, cache.getOrImport("0", () -> createModel(null)));
+        final ImportedModel evicted = createModel(null);
+        assertSame(evicted, cache.getOrImport("1", () -> evicted));
+    }
+
+    /**
+     * Tests the hash of the PMML content.
+     */
+    @Test
+    public void testHash() {
+        final String hash = GBTPMMLModelCache.hash("<PMML/>");
+        assertEquals(64, hash.length());
+        assertEquals(hash, GBTPMMLModelCache.hash("<PMML/>"));
+        assertNotEquals(hash, GBTPMMLModelCache.hash("<PMML />"));
+    }
+
+    private static ImportedModel createModel(final String warning) {
+        return new ImportedModel(new GradientBoostingModelPortObject(null, null), warning);
+    }
+
+}
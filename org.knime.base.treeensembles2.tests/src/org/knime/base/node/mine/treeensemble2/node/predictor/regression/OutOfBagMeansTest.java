@@ -0,0 +1,121 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.predictor.regression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.apache.commons.math.stat.descriptive.moment.Mean;
+import org.apache.commons.math.stat.descriptive.moment.Variance;
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNode;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
+import org.knime.base.node.mine.treeensemble2.node.predictor.RandomForestRegressionPrediction;
+
+/**
+ * Tests the {@link OutOfBagMeans}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class OutOfBagMeansTest {
+
+    /**
+     * Tests that the out-of-bag predictions are the same as the ones calculated with {@link Mean} and
+     * {@link Variance} by the {@link RandomForestRegressionPredictor}.
+     */
+    @Test
+    public void testSameAsMeanAndVariance() {
+        final TreeTargetColumnMetaData targetMetaData =
+            TestDataGenerator.createNumericTargetColumn("1,2,3").getMetaData();
+        final int nrRows = 5;
+        final Mean[] means = new Mean[nrRows];
+        final Variance[] variances = new Variance[nrRows];
+        for (int i = 0; i < nrRows; i++) {
+            means[i] = new Mean();
+            variances[i] = new Variance();
+        }
+        final OutOfBagMeans outOfBagMeans = new OutOfBagMeans(nrRows);
+        final Random random = new Random(42);
+        final int[] rows = new int[nrRows];
+        final AbstractTreeNode[] leaves = new AbstractTreeNode[nrRows];
+        for (int tree = 0; tree < 20; tree++) {
+            int count = 0;
+            // the last row is never out-of-bag
+            for (int row = 0; row < nrRows - 1; row++) {
+                if (random.nextBoolean()) {
+                    final double leafMean = random.nextGaussian() * 100;
+                    rows[count] = row;
+                    leaves[count] = new TreeNodeRegression(targetMetaData, TreeNodeSignature.ROOT_SIGNATURE,
+                        leafMean, 1.0, 0.0);
+                    count++;
+                    means[row].increment(leafMean);
+                    variances[row].increment(leafMean);
+                }
+            }
+            outOfBagMeans.addTree(rows, leaves, count);
+        }
+        for (int row = 0; row < nrRows - 1; row++) {
+            final RandomForestRegressionPrediction prediction = outOfBagMeans.getPrediction(row);
+            assertTrue(prediction.hasPrediction());
+            assertEquals((int)means[row].getN(), prediction.getModelCount());
+            assertEquals(means[row].getResult(), prediction.getPrediction(), 0.0);
+            assertEquals(variances[row].getResult(), prediction.getVariance(), 0.0);
+        }
+        final RandomForestRegressionPrediction inBag = outOfBagMeans.getPrediction(nrRows - 1);
+        assertFalse(inBag.hasPrediction());
+        assertEquals(0, inBag.getModelCount());
+    }
+
+}
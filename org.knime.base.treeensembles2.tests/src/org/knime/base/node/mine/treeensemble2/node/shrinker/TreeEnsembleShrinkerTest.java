@@ -0,0 +1,249 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Tests the incremental shrinkers against a straightforward implementation that recomputes the score of each
+ * candidate sub-ensemble from scratch.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TreeEnsembleShrinkerTest {
+
+    private static final int NR_TREES = 25;
+
+    private static final int NR_ROWS = 200;
+
+    private static final int NR_CLASSES = 3;
+
+    /**
+     * Tests shrinking a classification ensemble to a fixed size.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testClassificationShrinkTo() throws Exception {
+        final Random random = new Random(42);
+        final int[][] predictions = createClassPredictions(random);
+        final int[] targets = createClassTargets(random);
+        final ClassificationTreeEnsembleShrinker shrinker =
+            new ClassificationTreeEnsembleShrinker(predictions, targets, NR_CLASSES);
+        assertEquals(accuracy(predictions, targets, allTrees()), shrinker.getScore(), 0.0);
+        shrinker.shrinkTo(7, new ExecutionMonitor());
+        final List<Integer> expected = allTrees();
+        while (expected.size() > 7) {
+            removeBest(expected, candidates -> accuracy(predictions, targets, candidates));
+        }
+        assertArrayEquals(toArray(expected), shrinker.getTrees());
+        assertEquals(accuracy(predictions, targets, expected), shrinker.getScore(), 0.0);
+    }
+
+    /**
+     * Tests that automatic shrinking of a classification ensemble picks the smallest best sub-ensemble.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testClassificationAutoShrink() throws Exception {
+        final Random random = new Random(7);
+        final int[][] predictions = createClassPredictions(random);
+        final int[] targets = createClassTargets(random);
+        final ClassificationTreeEnsembleShrinker shrinker =
+            new ClassificationTreeEnsembleShrinker(predictions, targets, NR_CLASSES);
+        shrinker.autoShrink(new ExecutionMonitor());
+        final List<Integer> current = allTrees();
+        List<Integer> expected = new ArrayList<>(current);
+        double bestAccuracy = accuracy(predictions, targets, current);
+        while (current.size() > 1) {
+            removeBest(current, candidates -> accuracy(predictions, targets, candidates));
+            final double accuracy = accuracy(predictions, targets, current);
+            if (accuracy >= bestAccuracy) {
+                bestAccuracy = accuracy;
+                expected = new ArrayList<>(current);
+            }
+        }
+        assertArrayEquals(toArray(expected), shrinker.getTrees());
+        assertEquals(bestAccuracy, shrinker.getScore(), 0.0);
+    }
+
+    /**
+     * Tests shrinking a regression ensemble, both to a fixed size and automatically.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRegression() throws Exception {
+        final Random random = new Random(13);
+        final double[][] predictions = new double[NR_TREES][NR_ROWS];
+        final double[] targets = new double[NR_ROWS];
+        for (int i = 0; i < NR_ROWS; i++) {
+            targets[i] = random.nextGaussian();
+            for (int t = 0; t < NR_TREES; t++) {
+                predictions[t][i] = targets[i] + random.nextGaussian() * (1 + t % 4);
+            }
+        }
+        RegressionTreeEnsembleShrinker shrinker = new RegressionTreeEnsembleShrinker(predictions, targets);
+        shrinker.shrinkTo(10, new ExecutionMonitor());
+        final List<Integer> expected = allTrees();
+        while (expected.size() > 10) {
+            removeBest(expected, candidates -> -meanSquaredError(predictions, targets, candidates));
+        }
+        assertArrayEquals(toArray(expected), shrinker.getTrees());
+        assertEquals(meanSquaredError(predictions, targets, expected), shrinker.getMeanSquaredError(), 1e-9);
+
+        shrinker = new RegressionTreeEnsembleShrinker(predictions, targets);
+        shrinker.autoShrink(new ExecutionMonitor());
+        assertEquals(meanSquaredError(predictions, targets, toList(shrinker.getTrees())),
+            shrinker.getMeanSquaredError(), 1e-9);
+        assertEquals(-shrinker.getMeanSquaredError(), shrinker.getScore(), 0.0);
+    }
+
+    private interface Scorer {
+        double score(List<Integer> trees);
+    }
+
+    private static void removeBest(final List<Integer> trees, final Scorer scorer) {
+        int bestIndex = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < trees.size(); i++) {
+            final List<Integer> candidate = new ArrayList<>(trees);
+            candidate.remove(i);
+            final double score = scorer.score(candidate);
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = i;
+            }
+        }
+        trees.remove(bestIndex);
+    }
+
+    private static double accuracy(final int[][] predictions, final int[] targets, final List<Integer> trees) {
+        int correct = 0;
+        for (int i = 0; i < targets.length; i++) {
+            final int[] votes = new int[NR_CLASSES];
+            for (int t : trees) {
+                votes[predictions[t][i]]++;
+            }
+            int winner = 0;
+            for (int c = 1; c < NR_CLASSES; c++) {
+                if (votes[c] > votes[winner]) {
+                    winner = c;
+                }
+            }
+            if (winner == targets[i]) {
+                correct++;
+            }
+        }
+        return correct / (double)targets.length;
+    }
+
+    private static double meanSquaredError(final double[][] predictions, final double[] targets,
+        final List<Integer> trees) {
+        double sum = 0;
+        for (int i = 0; i < targets.length; i++) {
+            double prediction = 0;
+            for (int t : trees) {
+                prediction += predictions[t][i];
+            }
+            final double error = prediction / trees.size() - targets[i];
+            sum += error * error;
+        }
+        return sum / targets.length;
+    }
+
+    private static int[][] createClassPredictions(final Random random) {
+        final int[][] predictions = new int[NR_TREES][NR_ROWS];
+        for (int t = 0; t < NR_TREES; t++) {
+            for (int i = 0; i < NR_ROWS; i++) {
+                // the first class is right more often than the others, so the votes are not uniform
+                predictions[t][i] = random.nextDouble() < 0.4 ? 0 : random.nextInt(NR_CLASSES);
+            }
+        }
+        return predictions;
+    }
+
+    private static int[] createClassTargets(final Random random) {
+        final int[] targets = new int[NR_ROWS];
+        for (int i = 0; i < NR_ROWS; i++) {
+            // includes a class that is unknown to the model
+            targets[i] = random.nextInt(20) == 0 ? -1 : random.nextInt(NR_CLASSES);
+        }
+        return targets;
+    }
+
+    private static List<Integer> allTrees() {
+        final List<Integer> trees = new ArrayList<>();
+        for (int t = 0; t < NR_TREES; t++) {
+            trees.add(t);
+        }
+        return trees;
+    }
+
+    private static List<Integer> toList(final int[] trees) {
+        final List<Integer> list = new ArrayList<>();
+        for (int t : trees) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    private static int[] toArray(final List<Integer> trees) {
+        return trees.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
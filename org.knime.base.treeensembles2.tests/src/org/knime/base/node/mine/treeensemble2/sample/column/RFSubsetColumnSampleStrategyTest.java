@@ -48,9 +48,14 @@
  */
 package org.knime.base.node.mine.treeensemble2.sample.column;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import org.junit.jupiter.api.Test;
 import org.knime.base.node.mine.treeensemble2.learner.TreeNodeSignatureFactory;
@@ -95,6 +100,43 @@ public void testGetColumnSampleForTreeNode() throws Exception {
         assertFalse(match, "It is very unlikely that we get 3 times the same column sample.");
     }
 
+    /**
+     * Tests that the sample of a tree node only depends on its signature and contains distinct, sorted columns.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testColumnSampleIsReproducible() throws Exception {
+        final RFSubsetColumnSampleStrategy strategy = new RFSubsetColumnSampleStrategy(createTreeData(), RD, 5);
+        final TreeNodeSignatureFactory sigFac = createSignatureFactory();
+        TreeNodeSignature signature = sigFac.getChildSignatureFor(sigFac.getRootSignature(), (byte)3);
+        signature = sigFac.getChildSignatureFor(signature, (byte)1);
+        int[] colIndices = strategy.getColumnSampleForTreeNode(signature).getColumnIndices();
+        assertArrayEquals(colIndices,
+            strategy.getColumnSampleForTreeNode(TreeNodeSignature.ROOT_SIGNATURE.createChildSignature((byte)3)
+                .createChildSignature((byte)1)).getColumnIndices(), "Sample of the same node differs.");
+        for (int i = 1; i < colIndices.length; i++) {
+            assertTrue(colIndices[i - 1] < colIndices[i], "Columns are not distinct and sorted.");
+        }
+    }
+
+    /**
+     * Tests that Floyd's algorithm returns distinct values in range and a permutation if all values are drawn.
+     */
+    @Test
+    public void testSampleFloyd() {
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int k = 0; k <= 50; k++) {
+            int[] sample = RFSubsetColumnSampleStrategy.sampleFloyd(random, 50, k);
+            assertEquals(k, sample.length, "Wrong sample size.");
+            Arrays.sort(sample);
+            for (int i = 0; i < k; i++) {
+                assertTrue(sample[i] >= 0 && sample[i] < 50, "Value out of range.");
+                assertTrue(i == 0 || sample[i - 1] < sample[i], "Values are not distinct.");
+            }
+        }
+    }
+
     @Test
     public void testSubsetSizeSmallerZero() throws Exception {
         assertThrows(
@@ -0,0 +1,83 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.sample.row;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the bit-packing of the counts in {@link SubsetWithReplacementRowSample}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class SubsetWithReplacementRowSampleTest {
+
+    /**
+     * Tests that the counts are returned unchanged for all packing widths.
+     */
+    @Test
+    public void testGetCountFor() {
+        final int[] maxCounts = new int[]{0, 1, 3, 4, 15, 200, 255, 256, 65535, 70000, Integer.MAX_VALUE};
+        for (int maxCount : maxCounts) {
+            // 150 rows span several longs for every width
+            final int[] counts = new int[150];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = (int)((i * 2654435761L) % ((long)maxCount + 1));
+            }
+            counts[counts.length - 1] = maxCount;
+            final SubsetWithReplacementRowSample sample = new SubsetWithReplacementRowSample(counts);
+            assertEquals(counts.length, sample.getNrRows(), "Wrong number of rows");
+            for (int i = 0; i < counts.length; i++) {
+                assertEquals(counts[i], sample.getCountFor(i), "Wrong count for row " + i + " (max " + maxCount + ")");
+            }
+        }
+    }
+
+}
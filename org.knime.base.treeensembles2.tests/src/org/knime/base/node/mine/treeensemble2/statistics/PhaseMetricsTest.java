@@ -0,0 +1,111 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
+
+/**
+ * Tests for {@link PhaseMetrics}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PhaseMetricsTest {
+
+    /**
+     * Tests that the counters of all threads are summed up.
+     *
+     * @throws Exception if a thread is interrupted
+     */
+    @Test
+    public void testAccumulationOverThreads() throws Exception {
+        final PhaseMetrics metrics = PhaseMetrics.createEnabled();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    metrics.stop(Phase.SPLIT_SEARCH, metrics.start());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        metrics.stop(Phase.PREDICTION, metrics.start());
+        assertEquals(400, metrics.getCalls(Phase.SPLIT_SEARCH));
+        assertEquals(1, metrics.getCalls(Phase.PREDICTION));
+        assertEquals(0, metrics.getCalls(Phase.SURROGATES));
+        assertTrue(metrics.getNanos(Phase.SPLIT_SEARCH) >= 0);
+
+        final Map<String, Double> flowVariables = new LinkedHashMap<>();
+        metrics.pushFlowVariables(flowVariables::put);
+        assertEquals(4, flowVariables.size(), "Only measured phases are pushed");
+        assertEquals(400.0, flowVariables.get("Tree Ensemble Metrics - Split search calls"));
+    }
+
+    /**
+     * Tests that disabled metrics don't record anything.
+     */
+    @Test
+    public void testDisabled() {
+        final PhaseMetrics metrics = PhaseMetrics.DISABLED;
+        assertFalse(metrics.isEnabled());
+        metrics.stop(Phase.TREE_LEARNING, metrics.start());
+        assertEquals(0, metrics.getCalls(Phase.TREE_LEARNING));
+        assertEquals("", metrics.getSummary());
+    }
+}
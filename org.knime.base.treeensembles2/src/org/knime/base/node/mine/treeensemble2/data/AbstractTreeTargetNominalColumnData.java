@@ -66,6 +66,14 @@ public abstract class AbstractTreeTargetNominalColumnData extends TreeTargetColu
         super(metaData, rowKeysAsArray);
     }
 
+    /**
+     * @param metaData of the target column
+     * @param nrRows the number of rows, the column has no row keys
+     */
+    AbstractTreeTargetNominalColumnData(final TreeTargetColumnMetaData metaData, final int nrRows) {
+        super(metaData, nrRows);
+    }
+
     /** {@inheritDoc} */
     @Override
     public TreeTargetNominalColumnMetaData getMetaData() {
@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+/**
+ * Orders nominal values for binary splits in multi-class problems like {@link BinaryNominalSplitsPCA} ("Partitioning
+ * Nominal Attributes in Decision Trees", Coppersmith et al. (1999)), but works on primitive arrays and finds the first
+ * principal component by power iteration instead of a full eigen decomposition. This keeps the cost linear in the
+ * number of nominal values, which matters for columns with thousands of values.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BinaryNominalSplitsPowerIteration {
+
+    private static final int MAX_ITERATIONS = 100;
+
+    private static final double TOLERANCE = 1e-10;
+
+    private BinaryNominalSplitsPowerIteration() {
+        // utility class
+    }
+
+    /**
+     * Calculates the first principal component of the weighted class probability vectors of the nominal values.
+     *
+     * @param classFrequencies the class frequencies of the values, row major (one row of length <b>nrClasses</b> per
+     *            value)
+     * @param valueWeights the total weight of each value
+     * @param nrValues the number of values
+     * @param nrClasses the number of classes
+     * @param totalWeight the sum of <b>valueWeights</b>
+     * @return the normalized principal component of length <b>nrClasses</b>
+     */
+    static double[] calculatePrincipalComponent(final double[] classFrequencies, final double[] valueWeights,
+        final int nrValues, final int nrClasses, final double totalWeight) {
+        final double[] mean = new double[nrClasses];
+        for (int v = 0; v < nrValues; v++) {
+            final int offset = v * nrClasses;
+            for (int c = 0; c < nrClasses; c++) {
+                mean[c] += classFrequencies[offset + c];
+            }
+        }
+        for (int c = 0; c < nrClasses; c++) {
+            mean[c] /= totalWeight;
+        }
+        // weighted covariance matrix of the class probability vectors, the scaling does not affect the eigenvectors
+        final double[] covariance = new double[nrClasses * nrClasses];
+        final double[] diff = new double[nrClasses];
+        for (int v = 0; v < nrValues; v++) {
+            final int offset = v * nrClasses;
+            final double weight = valueWeights[v];
+            for (int c = 0; c < nrClasses; c++) {
+                diff[c] = classFrequencies[offset + c] / weight - mean[c];
+            }
+            for (int r = 0; r < nrClasses; r++) {
+                final double weightedDiff = weight * diff[r];
+                final int rowOffset = r * nrClasses;
+                for (int c = r; c < nrClasses; c++) {
+                    covariance[rowOffset + c] += weightedDiff * diff[c];
+                }
+            }
+        }
+        int largestVariance = 0;
+        for (int r = 0; r < nrClasses; r++) {
+            for (int c = 0; c < r; c++) {
+                covariance[r * nrClasses + c] = covariance[c * nrClasses + r];
+            }
+            if (covariance[r * nrClasses + r] > covariance[largestVariance * nrClasses + largestVariance]) {
+                largestVariance = r;
+            }
+        }
+        // start with the unit vector of the class with the largest variance
+        double[] component = new double[nrClasses];
+        double[] next = new double[nrClasses];
+        component[largestVariance] = 1.0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double norm = 0.0;
+            for (int r = 0; r < nrClasses; r++) {
+                final int rowOffset = r * nrClasses;
+                double sum = 0.0;
+                for (int c = 0; c < nrClasses; c++) {
+                    sum += covariance[rowOffset + c] * component[c];
+                }
+                next[r] = sum;
+                norm += sum * sum;
+            }
+            norm = Math.sqrt(norm);
+            if (!(norm > 0.0)) {
+                // all values have the same class probabilities, any direction is as good as any other
+                break;
+            }
+            double change = 0.0;
+            for (int c = 0; c < nrClasses; c++) {
+                next[c] /= norm;
+                change = Math.max(change, Math.abs(next[c] - component[c]));
+            }
+            final double[] tmp = component;
+            component = next;
+            next = tmp;
+            if (change < TOLERANCE) {
+                break;
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Orders the nominal values ascending by the score of their class probability vector on the first principal
+     * component. Values with equal scores keep their relative order.
+     *
+     * @param classFrequencies the class frequencies of the values, row major (one row of length <b>nrClasses</b> per
+     *            value)
+     * @param valueWeights the total weight of each value
+     * @param nrValues the number of values
+     * @param nrClasses the number of classes
+     * @param totalWeight the sum of <b>valueWeights</b>
+     * @return the positions of the values in ascending order of their score
+     */
+    static int[] calculateOrdering(final double[] classFrequencies, final double[] valueWeights, final int nrValues,
+        final int nrClasses, final double totalWeight) {
+        final double[] component =
+            calculatePrincipalComponent(classFrequencies, valueWeights, nrValues, nrClasses, totalWeight);
+        final double[] scores = new double[nrValues];
+        for (int v = 0; v < nrValues; v++) {
+            final int offset = v * nrClasses;
+            double score = 0.0;
+            for (int c = 0; c < nrClasses; c++) {
+                score += component[c] * classFrequencies[offset + c];
+            }
+            scores[v] = score / valueWeights[v];
+        }
+        final int[] order = new int[nrValues];
+        for (int v = 0; v < nrValues; v++) {
+            order[v] = v;
+        }
+        sortByScore(order, scores, new int[nrValues], 0, nrValues);
+        return order;
+    }
+
+    /**
+     * Stable merge sort of the positions in [from, to) by their score, also used by the regression split search of
+     * {@link TreeNominalColumnData}.
+     *
+     * @param order the positions to sort, indices into <b>scores</b>
+     * @param scores the scores of the positions
+     * @param buffer scratch array at least as long as <b>to</b>
+     * @param from the first position to sort (inclusive)
+     * @param to the last position to sort (exclusive)
+     */
+    static void sortByScore(final int[] order, final double[] scores, final int[] buffer, final int from,
+        final int to) {
+        if (to - from < 2) {
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        sortByScore(order, scores, buffer, from, middle);
+        sortByScore(order, scores, buffer, middle, to);
+        if (scores[order[middle - 1]] <= scores[order[middle]]) {
+            // already in order
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && scores[buffer[left]] <= scores[buffer[right]])) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+}
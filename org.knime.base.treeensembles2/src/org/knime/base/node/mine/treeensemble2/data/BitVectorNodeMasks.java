@@ -0,0 +1,312 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+import java.util.BitSet;
+
+import org.knime.base.node.mine.treeensemble2.data.memberships.ColumnMemberships;
+
+/**
+ * Row masks of a tree node that allow to evaluate splits on bit vector columns word by word. The rows of the node are
+ * split into groups (the classes of a nominal target or a single group for a numeric target) and the integer row
+ * weights are split into bit planes. The weight of the rows of a group that have a bit set in a column is then the
+ * sum of <code>Long.bitCount(column &amp; mask) &lt;&lt; plane</code> over all words and planes.
+ *
+ * Only words that contain at least one row of the node are stored. Bit vector columns use the original row index as
+ * index in the column (see
+ * {@link org.knime.base.node.mine.treeensemble2.data.memberships.BitVectorDataIndexManager}), so the masks are
+ * indexed by the original row index.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BitVectorNodeMasks {
+
+    /** Rows with larger or fractional weights are not supported by the masks. */
+    private static final int MAX_WEIGHT = 1 << 16;
+
+    private static final BitVectorNodeMasks UNSUPPORTED = new BitVectorNodeMasks();
+
+    // index of the word in the column for each stored word
+    private final int[] m_wordIndices;
+
+    // rows of the node
+    private final long[] m_nodeMask;
+
+    // [group][plane][word]
+    private final long[][][] m_masks;
+
+    private final double[] m_groupWeights;
+
+    // index in the data memberships of the rows in the order of their index in the column
+    private final int[] m_indicesInDataMemberships;
+
+    private double m_weightedTargetSum;
+
+    private BitVectorNodeMasks() {
+        m_wordIndices = null;
+        m_nodeMask = null;
+        m_masks = null;
+        m_groupWeights = null;
+        m_indicesInDataMemberships = null;
+    }
+
+    private BitVectorNodeMasks(final int nrWords, final int nrGroups, final int nrPlanes, final int nrRows) {
+        m_wordIndices = new int[nrWords];
+        m_nodeMask = new long[nrWords];
+        m_masks = new long[nrGroups][nrPlanes][nrWords];
+        m_groupWeights = new double[nrGroups];
+        m_indicesInDataMemberships = new int[nrRows];
+    }
+
+    /**
+     * @return masks that are not supported, i.e. the rows of the node need to be iterated
+     */
+    static BitVectorNodeMasks unsupported() {
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Creates the masks for a classification node, there is one group per class.
+     *
+     * @param columnMemberships the memberships of any bit vector column in the node
+     * @param targetColumn the target column
+     * @return the masks, check {@link #isSupported()} before using them
+     */
+    static BitVectorNodeMasks createClassificationMasks(final ColumnMemberships columnMemberships,
+        final TreeTargetNominalColumnData targetColumn) {
+        final int nrClasses = targetColumn.getMetaData().getValues().length;
+        return create(columnMemberships, nrClasses, targetColumn, null);
+    }
+
+    /**
+     * Creates the masks for a regression node, all rows are in a single group.
+     *
+     * @param columnMemberships the memberships of any bit vector column in the node
+     * @param targetColumn the target column
+     * @return the masks, check {@link #isSupported()} before using them
+     */
+    static BitVectorNodeMasks createRegressionMasks(final ColumnMemberships columnMemberships,
+        final TreeTargetNumericColumnData targetColumn) {
+        return create(columnMemberships, 1, null, targetColumn);
+    }
+
+    private static BitVectorNodeMasks create(final ColumnMemberships columnMemberships, final int nrGroups,
+        final TreeTargetNominalColumnData nominalTarget, final TreeTargetNumericColumnData numericTarget) {
+        final int size = columnMemberships.size();
+        final int[] indicesInColumn = new int[size];
+        final int[] weights = new int[size];
+        final int[] groups = new int[size];
+        final int[] indicesInDataMemberships = new int[size];
+        double weightedTargetSum = 0.0;
+        int nrRows = 0;
+        int nrWords = 0;
+        int maxWeight = 0;
+        int lastIndexInColumn = -1;
+        columnMemberships.reset();
+        try {
+            while (columnMemberships.next()) {
+                // every row of the memberships is a row of the node, like in the row-wise child memberships
+                final double weight = columnMemberships.getRowWeight();
+                final int intWeight = (int)weight;
+                final int indexInColumn = columnMemberships.getIndexInColumn();
+                if (intWeight != weight || intWeight >= MAX_WEIGHT || indexInColumn <= lastIndexInColumn) {
+                    return UNSUPPORTED;
+                }
+                if (nrRows == 0 || (indexInColumn >>> 6) != (lastIndexInColumn >>> 6)) {
+                    nrWords++;
+                }
+                lastIndexInColumn = indexInColumn;
+                final int originalIndex = columnMemberships.getOriginalIndex();
+                indicesInColumn[nrRows] = indexInColumn;
+                weights[nrRows] = intWeight;
+                indicesInDataMemberships[nrRows] = columnMemberships.getIndexInDataMemberships();
+                if (nominalTarget != null) {
+                    groups[nrRows] = nominalTarget.getValueFor(originalIndex);
+                } else {
+                    weightedTargetSum += weight * numericTarget.getValueFor(originalIndex);
+                }
+                maxWeight = Math.max(maxWeight, intWeight);
+                nrRows++;
+            }
+        } finally {
+            columnMemberships.reset();
+        }
+        final int nrPlanes = Integer.SIZE - Integer.numberOfLeadingZeros(maxWeight);
+        final BitVectorNodeMasks masks = new BitVectorNodeMasks(nrWords, nrGroups, nrPlanes, nrRows);
+        System.arraycopy(indicesInDataMemberships, 0, masks.m_indicesInDataMemberships, 0, nrRows);
+        masks.m_weightedTargetSum = weightedTargetSum;
+        int word = -1;
+        for (int i = 0; i < nrRows; i++) {
+            final int indexInColumn = indicesInColumn[i];
+            if (word < 0 || masks.m_wordIndices[word] != indexInColumn >>> 6) {
+                word++;
+                masks.m_wordIndices[word] = indexInColumn >>> 6;
+            }
+            // shifts of longs only use the lowest 6 bits of the shift distance
+            final long bit = 1L << indexInColumn;
+            final int weight = weights[i];
+            final long[][] groupMasks = masks.m_masks[groups[i]];
+            for (int plane = 0; plane < nrPlanes; plane++) {
+                if (((weight >>> plane) & 1) != 0) {
+                    groupMasks[plane][word] |= bit;
+                }
+            }
+            masks.m_nodeMask[word] |= bit;
+            masks.m_groupWeights[groups[i]] += weight;
+        }
+        return masks;
+    }
+
+    /**
+     * @return true if the row weights of the node could be represented as masks, if false the masks must not be used
+     */
+    boolean isSupported() {
+        return m_masks != null;
+    }
+
+    /**
+     * @param group the index of the group (class)
+     * @return the total weight of the rows of <b>group</b> in the node
+     */
+    double getGroupWeight(final int group) {
+        return m_groupWeights[group];
+    }
+
+    /**
+     * @return the sum of the weighted target values of the node (only for regression masks)
+     */
+    double getWeightedTargetSum() {
+        return m_weightedTargetSum;
+    }
+
+    /**
+     * Calculates the weight of the rows of each group that have their bit set in <b>columnWords</b>.
+     *
+     * @param columnWords the words of the bit vector column
+     * @param onWeights filled with the weight per group
+     */
+    void calcOnWeights(final long[] columnWords, final double[] onWeights) {
+        final int nrWords = m_wordIndices.length;
+        final long[] words = new long[nrWords];
+        for (int word = 0; word < nrWords; word++) {
+            words[word] = getWord(columnWords, word);
+        }
+        for (int group = 0; group < m_masks.length; group++) {
+            final long[][] groupMasks = m_masks[group];
+            long weight = 0;
+            for (int plane = 0; plane < groupMasks.length; plane++) {
+                final long[] planeMask = groupMasks[plane];
+                long count = 0;
+                for (int word = 0; word < nrWords; word++) {
+                    count += Long.bitCount(words[word] & planeMask[word]);
+                }
+                weight += count << plane;
+            }
+            onWeights[group] = weight;
+        }
+    }
+
+    /**
+     * Calculates the sum of the weighted target values of the rows that have their bit set in <b>columnWords</b>.
+     *
+     * @param columnWords the words of the bit vector column
+     * @param targetColumn the numeric target column
+     * @return the weighted target sum of the rows with a set bit
+     */
+    double calcOnWeightedTargetSum(final long[] columnWords, final TreeTargetNumericColumnData targetColumn) {
+        final long[][] planes = m_masks[0];
+        double sum = 0.0;
+        for (int word = 0; word < m_wordIndices.length; word++) {
+            long on = getWord(columnWords, word) & m_nodeMask[word];
+            final int offset = m_wordIndices[word] << 6;
+            while (on != 0) {
+                final int bit = Long.numberOfTrailingZeros(on);
+                int weight = 0;
+                for (int plane = 0; plane < planes.length; plane++) {
+                    weight |= (int)((planes[plane][word] >>> bit) & 1L) << plane;
+                }
+                sum += weight * targetColumn.getValueFor(offset + bit);
+                on &= on - 1;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Marks the rows whose bit in <b>columnWords</b> equals <b>value</b>.
+     *
+     * @param columnWords the words of the bit vector column
+     * @param value the value of the bit of the rows in the child
+     * @param size the size of the returned bit set
+     * @return a bit set that marks the rows of the child by their index in the data memberships
+     */
+    BitSet createChildMemberships(final long[] columnWords, final boolean value, final int size) {
+        final BitSet inChild = new BitSet(size);
+        int rank = 0;
+        for (int word = 0; word < m_wordIndices.length; word++) {
+            final long node = m_nodeMask[word];
+            final long column = getWord(columnWords, word);
+            long child = value ? node & column : node & ~column;
+            while (child != 0) {
+                final long lowestBit = child & -child;
+                // position of the row within the rows of the node
+                final int row = rank + Long.bitCount(node & (lowestBit - 1));
+                inChild.set(m_indicesInDataMemberships[row]);
+                child ^= lowestBit;
+            }
+            rank += Long.bitCount(node);
+        }
+        return inChild;
+    }
+
+    private long getWord(final long[] columnWords, final int word) {
+        final int wordIndex = m_wordIndices[word];
+        // BitSet.toLongArray() omits trailing zero words
+        return wordIndex < columnWords.length ? columnWords[wordIndex] : 0L;
+    }
+}
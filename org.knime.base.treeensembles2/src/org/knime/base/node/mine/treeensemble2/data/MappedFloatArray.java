@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+import org.knime.core.util.FileUtil;
+
+/**
+ * A fixed size float array that lives in a memory-mapped temporary file instead of on the Java heap. The operating
+ * system pages the data in and out as needed, hence arrays can be larger than both the heap and the limit for direct
+ * buffers. Reads are thread-safe, writes are only meant to happen while the array is filled. {@link #close()} drops
+ * the mappings and deletes the file, the array must not be used afterwards.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class MappedFloatArray implements AutoCloseable {
+
+    /** 2^28 floats, i.e. 1 GB per mapped region (a single mapping can't exceed 2 GB). */
+    private static final int DEFAULT_CHUNK_BITS = 28;
+
+    private final FloatBuffer[] m_chunks;
+
+    private final int m_chunkBits;
+
+    private final int m_chunkMask;
+
+    private final int m_length;
+
+    private final File m_file;
+
+    private MappedFloatArray(final FloatBuffer[] chunks, final int chunkBits, final int length, final File file) {
+        m_chunks = chunks;
+        m_chunkBits = chunkBits;
+        m_chunkMask = (1 << chunkBits) - 1;
+        m_length = length;
+        m_file = file;
+    }
+
+    /**
+     * Creates a mapped array of the given length, all values are 0.
+     *
+     * @param length the number of values
+     * @return the mapped array
+     * @throws IOException if the temporary file can't be created or mapped
+     */
+    static MappedFloatArray create(final int length) throws IOException {
+        return create(length, DEFAULT_CHUNK_BITS);
+    }
+
+    /** Only visible for testing the chunking with small arrays. */
+    static MappedFloatArray create(final int length, final int chunkBits) throws IOException {
+        final int chunkSize = 1 << chunkBits;
+        final int nrChunks = (int)(((long)length + chunkSize - 1) >>> chunkBits);
+        final FloatBuffer[] chunks = new FloatBuffer[nrChunks];
+        final File file = FileUtil.createTempFile("treedata-", ".bin", true);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            for (int c = 0; c < nrChunks; c++) {
+                final int from = c << chunkBits;
+                final int chunkLength = Math.min(chunkSize, length - from);
+                chunks[c] = channel
+                    .map(MapMode.READ_WRITE, (long)from * Float.BYTES, (long)chunkLength * Float.BYTES)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+            }
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+        return new MappedFloatArray(chunks, chunkBits, length, file);
+    }
+
+    /** Only visible for testing, creates a mapped copy of <b>values</b>. */
+    static MappedFloatArray copyOf(final float[] values, final int chunkBits) throws IOException {
+        final MappedFloatArray array = create(values.length, chunkBits);
+        for (int i = 0; i < values.length; i++) {
+            array.set(i, values[i]);
+        }
+        return array;
+    }
+
+    /**
+     * @param index the index
+     * @param value the new value at <b>index</b>
+     */
+    void set(final int index, final float value) {
+        m_chunks[index >>> m_chunkBits].put(index & m_chunkMask, value);
+    }
+
+    /**
+     * @param index the index
+     * @return the value at <b>index</b>
+     */
+    float get(final int index) {
+        return m_chunks[index >>> m_chunkBits].get(index & m_chunkMask);
+    }
+
+    /**
+     * @return the number of values
+     */
+    int length() {
+        return m_length;
+    }
+
+    /**
+     * Same contract as {@link java.util.Arrays#binarySearch(float[], float)}, the values must be sorted.
+     *
+     * @param key the value to search for
+     * @return the index of <b>key</b> if it is contained, otherwise <code>-(insertion point) - 1</code>
+     */
+    int binarySearch(final float key) {
+        int low = 0;
+        int high = m_length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int comp = Float.compare(get(mid), key);
+            if (comp < 0) {
+                low = mid + 1;
+            } else if (comp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Drops the mapped regions and deletes the file. Java has no API to unmap a region explicitly, the garbage
+     * collector unmaps the dropped regions. The file itself is deleted right away on systems that allow to delete
+     * mapped files, otherwise when the JVM exits.
+     */
+    @Override
+    public void close() {
+        Arrays.fill(m_chunks, null);
+        m_file.delete();
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+/**
+ * Fixed-length array of small non-negative ints that are bit-packed into longs. The number of bits per value is a
+ * power of two so that no value spans two longs. Used for row weights and row sample counts, which for bootstrap
+ * samples almost never exceed 15 and therefore need only 4 instead of 32 bits per row.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class PackedIntArray {
+
+    private final long[] m_words;
+
+    private final int m_bitsPerValue;
+
+    // log2 of the number of values per long
+    private final int m_valuesPerWordShift;
+
+    private final long m_mask;
+
+    private final int m_length;
+
+    /**
+     * Creates an array with all values set to zero.
+     *
+     * @param length the number of values
+     * @param bitsPerValue the number of bits per value, a power of two between 1 and 32
+     */
+    public PackedIntArray(final int length, final int bitsPerValue) {
+        if (bitsPerValue < 1 || bitsPerValue > Integer.SIZE || Integer.bitCount(bitsPerValue) != 1) {
+            throw new IllegalArgumentException(
+                "The number of bits per value must be a power of two between 1 and 32 but was " + bitsPerValue + ".");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("The length must not be negative.");
+        }
+        m_bitsPerValue = bitsPerValue;
+        m_valuesPerWordShift = 6 - Integer.numberOfTrailingZeros(bitsPerValue);
+        m_mask = (1L << bitsPerValue) - 1;
+        m_length = length;
+        m_words = new long[(int)(((long)length * bitsPerValue + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * @param maxValue the largest value that needs to be stored, must not be negative
+     * @return the smallest power of two number of bits that can hold <b>maxValue</b>, at least 1
+     */
+    public static int bitsNeeded(final int maxValue) {
+        if (maxValue < 0) {
+            throw new IllegalArgumentException("Negative values are not permitted.");
+        }
+        final int bits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(maxValue));
+        return Integer.bitCount(bits) == 1 ? bits : Integer.highestOneBit(bits) << 1;
+    }
+
+    private int shift(final int index) {
+        return (index & ((1 << m_valuesPerWordShift) - 1)) * m_bitsPerValue;
+    }
+
+    /**
+     * @param index the index of the value
+     * @return the value at <b>index</b>
+     */
+    public int get(final int index) {
+        return (int)((m_words[index >>> m_valuesPerWordShift] >>> shift(index)) & m_mask);
+    }
+
+    /**
+     * @param index the index of the value
+     * @param value the new value, between 0 and {@link #getMaxValue()}
+     */
+    public void set(final int index, final int value) {
+        if (value < 0 || value > m_mask) {
+            throw new IllegalArgumentException(
+                "The value " + value + " can not be stored with " + m_bitsPerValue + " bits per value.");
+        }
+        final int word = index >>> m_valuesPerWordShift;
+        final int shift = shift(index);
+        m_words[word] = (m_words[word] & ~(m_mask << shift)) | (((long)value) << shift);
+    }
+
+    /**
+     * @return the number of values
+     */
+    public int length() {
+        return m_length;
+    }
+
+    /**
+     * @return the number of bits per value
+     */
+    public int getBitsPerValue() {
+        return m_bitsPerValue;
+    }
+
+    /**
+     * @return the largest value that can be stored
+     */
+    public int getMaxValue() {
+        return (int)Math.min(m_mask, Integer.MAX_VALUE);
+    }
+
+}
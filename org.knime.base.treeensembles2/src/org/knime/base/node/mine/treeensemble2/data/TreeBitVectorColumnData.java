@@ -60,12 +60,14 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 
 /**
+ * Splits are evaluated word by word on the bits of the column and the row masks of the node, see
+ * {@link BitVectorNodeMasks}. If the row weights can't be represented by masks, the rows of the node are iterated.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public final class TreeBitVectorColumnData extends TreeAttributeColumnData {
 
-    private final BitSet m_columnBitSet;
+    private final long[] m_columnWords;
 
     private final int m_length;
 
@@ -76,7 +78,7 @@ public final class TreeBitVectorColumnData extends TreeAttributeColumnData {
     TreeBitVectorColumnData(final TreeBitColumnMetaData metaData, final TreeEnsembleLearnerConfiguration configuration,
         final BitSet columnBitSet, final int length) {
         super(metaData, configuration);
-        m_columnBitSet = columnBitSet;
+        m_columnWords = columnBitSet.toLongArray();
         m_length = length;
     }
 
@@ -99,21 +101,33 @@ public SplitCandidate calcBestSplitClassification(final DataMemberships dataMemb
         double onWeights = 0.0;
         double offWeights = 0.0;
 
-        final ColumnMemberships columnMemberships = dataMemberships.getColumnMemberships(getMetaData().getAttributeIndex());
-
-        while (columnMemberships.next()) {
-            final double weight = columnMemberships.getRowWeight();
-            if (weight < EPSILON) {
-                // ignore record: not in current branch or not in sample
-                assert false : "This code should never be reached!";
-            } else {
-                final int target = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
-                if (m_columnBitSet.get(columnMemberships.getIndexInColumn())) {
-                    onWeights += weight;
-                    onTargetWeights[target] += weight;
+        final int attributeIndex = getMetaData().getAttributeIndex();
+        final BitVectorNodeMasks masks = dataMemberships.getNodeData(BitVectorNodeMasks.class,
+            d -> BitVectorNodeMasks.createClassificationMasks(d.getColumnMemberships(attributeIndex), targetColumn));
+
+        if (masks.isSupported()) {
+            masks.calcOnWeights(m_columnWords, onTargetWeights);
+            for (int i = 0; i < targetVals.length; i++) {
+                offTargetWeights[i] = masks.getGroupWeight(i) - onTargetWeights[i];
+                onWeights += onTargetWeights[i];
+                offWeights += offTargetWeights[i];
+            }
+        } else {
+            final ColumnMemberships columnMemberships = dataMemberships.getColumnMemberships(attributeIndex);
+            while (columnMemberships.next()) {
+                final double weight = columnMemberships.getRowWeight();
+                if (weight < EPSILON) {
+                    // ignore record: not in current branch or not in sample
+                    assert false : "This code should never be reached!";
                 } else {
-                    offWeights += weight;
-                    offTargetWeights[target] += weight;
+                    final int target = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
+                    if (getBit(columnMemberships.getIndexInColumn())) {
+                        onWeights += weight;
+                        onTargetWeights[target] += weight;
+                    } else {
+                        offWeights += weight;
+                        offTargetWeights[target] += weight;
+                    }
                 }
             }
         }
@@ -140,24 +154,36 @@ public SplitCandidate calcBestSplitRegression(final DataMemberships dataMembersh
         final double criterionTotal = ySumTotal * ySumTotal / nrRecordsTotal;
         final int minChildSize = getConfiguration().getMinChildSize();
 
-        final ColumnMemberships columnMemberships = dataMemberships.getColumnMemberships(getMetaData().getAttributeIndex());
+        final int attributeIndex = getMetaData().getAttributeIndex();
+        final BitVectorNodeMasks masks = dataMemberships.getNodeData(BitVectorNodeMasks.class,
+            d -> BitVectorNodeMasks.createRegressionMasks(d.getColumnMemberships(attributeIndex), targetColumn));
 
         double onWeights = 0.0;
         double offWeights = 0.0;
         double ySumOn = 0.0;
         double ySumOff = 0.0;
-        while (columnMemberships.next()) {
-            final double weight = columnMemberships.getRowWeight();
-            if (weight < EPSILON) {
-                // ignore record: not in current branch or not in sample
-            } else {
-                final double y = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
-                if (m_columnBitSet.get(columnMemberships.getIndexInColumn())) {
-                    onWeights += weight;
-                    ySumOn += weight * y;
+        if (masks.isSupported()) {
+            final double[] onGroupWeights = new double[1];
+            masks.calcOnWeights(m_columnWords, onGroupWeights);
+            onWeights = onGroupWeights[0];
+            offWeights = masks.getGroupWeight(0) - onWeights;
+            ySumOn = masks.calcOnWeightedTargetSum(m_columnWords, targetColumn);
+            ySumOff = masks.getWeightedTargetSum() - ySumOn;
+        } else {
+            final ColumnMemberships columnMemberships = dataMemberships.getColumnMemberships(attributeIndex);
+            while (columnMemberships.next()) {
+                final double weight = columnMemberships.getRowWeight();
+                if (weight < EPSILON) {
+                    // ignore record: not in current branch or not in sample
                 } else {
-                    offWeights += weight;
-                    ySumOff += weight * y;
+                    final double y = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
+                    if (getBit(columnMemberships.getIndexInColumn())) {
+                        onWeights += weight;
+                        ySumOn += weight * y;
+                    } else {
+                        offWeights += weight;
+                        ySumOff += weight * y;
+                    }
                 }
             }
         }
@@ -184,13 +210,20 @@ public BitSet updateChildMemberships(final TreeNodeCondition childCondition,
         assert getMetaData().getAttributeName().equals(bitCondition.getColumnMetaData().getAttributeName());
         final boolean value = bitCondition.getValue();
 
+        // the masks are created by the split search, they are not worth creating for a single child
+        final BitVectorNodeMasks masks =
+            parentMemberships.getNodeData(BitVectorNodeMasks.class, d -> BitVectorNodeMasks.unsupported());
+        if (masks.isSupported()) {
+            return masks.createChildMemberships(m_columnWords, value, parentMemberships.getRowCountInRoot());
+        }
+
         final ColumnMemberships columnMemberships = parentMemberships.getColumnMemberships(getMetaData().getAttributeIndex());
         BitSet inChild = new BitSet(columnMemberships.size());
         columnMemberships.reset();
         columnMemberships.next();
 
         for (int i = columnMemberships.getIndexInColumn(); ; i = columnMemberships.getIndexInColumn()) {
-            if (m_columnBitSet.get(i) == value) {
+            if (getBit(i) == value) {
                 inChild.set(columnMemberships.getIndexInDataMemberships());
             }
             if (!columnMemberships.next()) {
@@ -225,7 +258,12 @@ public boolean containsMissingValues() {
      */
     @Override
     public Object getValueAt(final int indexInColumn) {
-        return m_columnBitSet.get(indexInColumn);
+        return getBit(indexInColumn);
+    }
+
+    private boolean getBit(final int indexInColumn) {
+        final int wordIndex = indexInColumn >>> 6;
+        return wordIndex < m_columnWords.length && (m_columnWords[wordIndex] & (1L << indexInColumn)) != 0;
     }
 
 
@@ -126,4 +126,16 @@ public TreeType getTreeType() {
         return m_treeType;
     }
 
+    /**
+     * Releases the columns that are stored off-heap (see {@link TreeDataCreator}). Must only be called once the
+     * learning is done, the data can't be used afterwards.
+     */
+    public void releaseOffHeapColumns() {
+        for (TreeAttributeColumnData column : m_columns) {
+            if (column instanceof TreeOrdinaryNumericColumnData) {
+                ((TreeOrdinaryNumericColumnData)column).releaseOffHeap();
+            }
+        }
+    }
+
 }
@@ -53,6 +53,8 @@
 
 import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
@@ -83,6 +85,19 @@
  */
 public class TreeDataCreator {
 
+    /**
+     * The numeric attribute columns are read off-heap if their peak footprint on the heap would exceed this fraction
+     * of the maximum heap size.
+     */
+    static final double MAX_HEAP_FRACTION_NUMERIC_VALUES = 0.5;
+
+    /**
+     * Peak heap bytes per numeric value while the data is read into memory: each value is collected as a tuple
+     * object (24 bytes with compressed references) in an array list (4 bytes per reference plus the spare capacity),
+     * and the tuples of all columns are alive at the same time.
+     */
+    static final int PEAK_BYTES_PER_NUMERIC_VALUE = 32;
+
     private final TreeEnsembleLearnerConfiguration m_configuration;
 
     private final TreeAttributeColumnDataCreator[] m_attrColCreators;
@@ -114,6 +129,7 @@ public TreeDataCreator(final TreeEnsembleLearnerConfiguration configuration, fin
         final DataColumnSpec targetCSpec = learnSpec.getColumnSpec(nrLearnCols);
         m_targetColCreator = getTargetColumnCreator(isRegression, targetCSpec);
         TreeType treeType = null;
+        final boolean offHeap = isOffHeapRequired(learnSpec, nrLearnCols, nrRows, Runtime.getRuntime().maxMemory());
         for (int i = 0; i < nrLearnCols; i++) {
             DataColumnSpec col = learnSpec.getColumnSpec(i);
             DataType colType = col.getType();
@@ -121,7 +137,7 @@ public TreeDataCreator(final TreeEnsembleLearnerConfiguration configuration, fin
                 m_attrColCreators[i] = new TreeNominalColumnDataCreator(col);
                 treeType = TreeType.Ordinary;
             } else if (colType.isCompatible(DoubleValue.class)) {
-                m_attrColCreators[i] = new TreeOrdinaryNumericColumnDataCreator(col);
+                m_attrColCreators[i] = new TreeOrdinaryNumericColumnDataCreator(col, offHeap);
                 treeType = TreeType.Ordinary;
             } else if (colType.isCompatible(BitVectorValue.class)) {
                 m_attrColCreators[i] = new TreeBitVectorColumnDataCreator(col);
@@ -156,6 +172,23 @@ public TreeDataCreator(final TreeEnsembleLearnerConfiguration configuration, fin
         m_treeType = treeType;
     }
 
+    /**
+     * Estimates whether reading the numeric attribute columns takes too much of the heap, in which case their values
+     * are streamed to temporary files while reading and the sorted values are stored in memory-mapped files.
+     */
+    static boolean isOffHeapRequired(final DataTableSpec learnSpec, final int nrLearnCols, final long nrRows,
+        final long maxHeapBytes) {
+        int nrNumericCols = 0;
+        for (int i = 0; i < nrLearnCols; i++) {
+            final DataType colType = learnSpec.getColumnSpec(i).getType();
+            if (!colType.isCompatible(NominalValue.class) && colType.isCompatible(DoubleValue.class)) {
+                nrNumericCols++;
+            }
+        }
+        final double peakBytes = (double)nrRows * nrNumericCols * PEAK_BYTES_PER_NUMERIC_VALUE;
+        return peakBytes > MAX_HEAP_FRACTION_NUMERIC_VALUES * maxHeapBytes;
+    }
+
     private static TreeTargetColumnDataCreator getTargetColumnCreator(final boolean isRegression,
         final DataColumnSpec targetCSpec) {
         if (isRegression) {
@@ -179,9 +212,40 @@ private static TreeTargetColumnDataCreator getTargetColumnCreator(final boolean
      */
     public TreeData readData(final BufferedDataTable learnData, final TreeEnsembleLearnerConfiguration configuration,
         final ExecutionMonitor exec) throws CanceledExecutionException {
+        return readData(learnData, configuration, exec, PhaseMetrics.DISABLED);
+    }
+
+    /**
+     * Reads the data from <b>learnData</b> into memory and records the time spent for sorting the table, reading the
+     * rows and creating the columns.
+     *
+     * @param learnData
+     * @param configuration
+     * @param exec
+     * @param metrics the metrics the phases are recorded in
+     * @return the TreeData object that holds all data in memory
+     * @throws CanceledExecutionException
+     */
+    public TreeData readData(final BufferedDataTable learnData, final TreeEnsembleLearnerConfiguration configuration,
+        final ExecutionMonitor exec, final PhaseMetrics metrics) throws CanceledExecutionException {
         if (learnData.size() <= 1) {
             throw new IllegalArgumentException("The input table must contain at least 2 rows!");
         }
+        try {
+            return readDataInternal(learnData, configuration, exec, metrics);
+        } finally {
+            // no-op for the columns that were created, the others would keep their files until the JVM exits
+            for (TreeAttributeColumnDataCreator creator : m_attrColCreators) {
+                if (creator instanceof TreeOrdinaryNumericColumnDataCreator) {
+                    ((TreeOrdinaryNumericColumnDataCreator)creator).discardStagingFile();
+                }
+            }
+        }
+    }
+
+    private TreeData readDataInternal(final BufferedDataTable learnData,
+        final TreeEnsembleLearnerConfiguration configuration, final ExecutionMonitor exec, final PhaseMetrics metrics)
+        throws CanceledExecutionException {
         int index = 0;
         final long nrRows = learnData.size();
         final int nrLearnCols = m_attrColCreators.length;
@@ -193,7 +257,10 @@ public TreeData readData(final BufferedDataTable learnData, final TreeEnsembleLe
         final int nrHilitePatterns = m_configuration.getNrHilitePatterns();
 
         // sort learnData according to the target column to enable equal size sampling
+        final long sortStart = metrics.start();
         try (final CloseableTable sortedTable = sortAccordingToTarget(learnData, exec.createSubProgress(0.5))) {
+            metrics.stop(Phase.SORT_TABLE, sortStart);
+            final long readStart = metrics.start();
             final ExecutionMonitor readExec = exec.createSubProgress(0.5);
             for (DataRow r : sortedTable) {
                 double progress = index / (double)nrRows;
@@ -226,6 +293,7 @@ public TreeData readData(final BufferedDataTable learnData, final TreeEnsembleLe
                 m_targetColCreator.add(key, targetCell);
                 index++;
             }
+            metrics.stop(Phase.READ_ROWS, readStart);
         }
         if (nrHilitePatterns > 0 && index > nrHilitePatterns) {
             m_viewMessage = "Hilite (& color graphs) are based on a subset of " + "the data (" + nrHilitePatterns + "/"
@@ -245,17 +313,29 @@ public TreeData readData(final BufferedDataTable learnData, final TreeEnsembleLe
         for (int i = 0; i < m_attrColCreators.length; i++) {
             nrLearnAttributes += m_attrColCreators[i].getNrAttributes();
         }
+        final long createStart = metrics.start();
         TreeAttributeColumnData[] columns = new TreeAttributeColumnData[nrLearnAttributes];
         int learnAttributeIndex = 0;
-        for (int i = 0; i < m_attrColCreators.length; i++) {
-            TreeAttributeColumnDataCreator creator = m_attrColCreators[i];
-            for (int a = 0; a < creator.getNrAttributes(); a++) {
-                final TreeAttributeColumnData columnData = creator.createColumnData(a, configuration);
-                columnData.getMetaData().setAttributeIndex(learnAttributeIndex);
-                columns[learnAttributeIndex++] = columnData;
+        try {
+            for (int i = 0; i < m_attrColCreators.length; i++) {
+                TreeAttributeColumnDataCreator creator = m_attrColCreators[i];
+                for (int a = 0; a < creator.getNrAttributes(); a++) {
+                    final TreeAttributeColumnData columnData = creator.createColumnData(a, configuration);
+                    columnData.getMetaData().setAttributeIndex(learnAttributeIndex);
+                    columns[learnAttributeIndex++] = columnData;
+                }
+            }
+        } catch (RuntimeException e) {
+            // release the mappings of the columns created so far
+            for (int i = 0; i < learnAttributeIndex; i++) {
+                if (columns[i] instanceof TreeOrdinaryNumericColumnData) {
+                    ((TreeOrdinaryNumericColumnData)columns[i]).releaseOffHeap();
+                }
             }
+            throw e;
         }
         TreeTargetColumnData targetCol = m_targetColCreator.createColumnData();
+        metrics.stop(Phase.CREATE_COLUMNS, createStart);
         return new TreeData(columns, targetCol, m_treeType);
     }
 
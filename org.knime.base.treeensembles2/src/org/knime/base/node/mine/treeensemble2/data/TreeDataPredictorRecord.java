@@ -0,0 +1,139 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.knime.base.node.mine.treeensemble2.data.memberships.IDataIndexManager;
+
+/**
+ * A {@link PredictorRecord} that reads the attribute values of a single row of the {@link TreeData} on demand. The
+ * record is positioned on a row via {@link #setRow(int)} and can be reused for many rows, only the values of the
+ * columns that are actually tested by a tree are looked up. Missing values are reported in the same way as for records
+ * created from the input table. The value of one attribute can be read from a different row, which allows to evaluate
+ * a tree on permuted attribute values without creating the permuted data.
+ *
+ * A record keeps state and must not be used concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class TreeDataPredictorRecord extends PredictorRecord {
+
+    private final TreeAttributeColumnData[] m_columns;
+
+    private final Map<String, Integer> m_nameToColumnIndex;
+
+    private final IDataIndexManager m_indexManager;
+
+    private int m_row = -1;
+
+    private int m_replacedColumnIndex = -1;
+
+    private int m_replacementRow = -1;
+
+    /**
+     * @param data the data the rows are read from
+     * @param indexManager the index manager of <b>data</b>
+     */
+    public TreeDataPredictorRecord(final TreeData data, final IDataIndexManager indexManager) {
+        super(Collections.<String, Object> emptyMap());
+        m_columns = data.getColumns();
+        m_indexManager = indexManager;
+        m_nameToColumnIndex = new HashMap<String, Integer>((int)(m_columns.length / 0.75 + 1.0));
+        for (int i = 0; i < m_columns.length; i++) {
+            m_nameToColumnIndex.put(m_columns[i].getMetaData().getAttributeName(), i);
+        }
+    }
+
+    /**
+     * @param row the original position of the row in the {@link TreeData} the record should represent
+     */
+    public void setRow(final int row) {
+        m_row = row;
+    }
+
+    /**
+     * Reads the value of a single attribute from a different row than the one set via {@link #setRow(int)}.
+     *
+     * @param attributeIndex the index of the attribute whose value is replaced or -1 if no value should be replaced
+     * @param replacementRow the original position of the row the value of the attribute is read from
+     */
+    public void setReplacement(final int attributeIndex, final int replacementRow) {
+        m_replacedColumnIndex = attributeIndex;
+        m_replacementRow = replacementRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object getValue(final String attributeIdentifier) {
+        Integer colIndex = m_nameToColumnIndex.get(attributeIdentifier);
+        if (colIndex == null) {
+            throw new IllegalArgumentException("Unknown attribute identifier \"" + attributeIdentifier + "\"");
+        }
+        TreeAttributeColumnData column = m_columns[colIndex];
+        final int attributeIndex = column.getMetaData().getAttributeIndex();
+        final int row = attributeIndex == m_replacedColumnIndex ? m_replacementRow : m_row;
+        Object value = column.getValueAt(m_indexManager.getPositionInColumn(attributeIndex, row));
+        if (column instanceof TreeNumericColumnData) {
+            // NaNs are treated as missing values
+            if (((Double)value).isNaN()) {
+                return null;
+            }
+        } else if (column instanceof TreeNominalColumnData && column.containsMissingValues()) {
+            // missing values are always represented by the last nominal value
+            int missingValue = ((TreeNominalColumnData)column).getMetaData().getValues().length - 1;
+            if ((Integer)value == missingValue) {
+                return null;
+            }
+        }
+        return value;
+    }
+
+}
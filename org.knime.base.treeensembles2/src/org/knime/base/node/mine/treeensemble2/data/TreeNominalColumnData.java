@@ -71,9 +71,9 @@
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeNominalBinaryCondition;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeNominalCondition;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.MissingValueHandling;
 
-import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.Lists;
 
 /**
@@ -143,6 +143,9 @@ public SplitCandidate calcBestSplitClassification(final DataMemberships dataMemb
             if (targetVals.length == 2) {
                 return calcBestSplitClassificationBinaryTwoClass(columnMemberships, targetPriors, targetColumn,
                     impCriterion, nomVals, targetVals, rd);
+            } else if (getConfiguration().getBinaryNominalSplitMethod() == BinaryNominalSplitMethod.PowerIteration) {
+                return calcBestSplitClassificationBinaryPowerIteration(columnMemberships, targetPriors, targetColumn,
+                    impCriterion, nomVals, targetVals, rd);
             } else {
                 return calcBestSplitClassificationBinaryPCA(columnMemberships, targetPriors, targetColumn, impCriterion,
                     nomVals, targetVals, rd);
@@ -644,6 +647,237 @@ private NominalBinarySplitCandidate calcBestSplitClassificationBinaryPCA(final C
         return null;
     }
 
+    /**
+     * Alternative to {@link #calcBestSplitClassificationBinaryPCA} for columns with many nominal values. The class
+     * frequencies of the values are collected in primitive arrays, the values are ordered by power iteration (see
+     * {@link BinaryNominalSplitsPowerIteration}) and the partition bit mask is only created for the best split.
+     *
+     * @return the best binary split candidate or null if there is no valid split with positive gain
+     */
+    private NominalBinarySplitCandidate calcBestSplitClassificationBinaryPowerIteration(
+        final ColumnMemberships columnMemberships, final ClassificationPriors targetPriors,
+        final TreeTargetNominalColumnData targetColumn, final IImpurity impCriterion,
+        final NominalValueRepresentation[] nomVals, final NominalValueRepresentation[] targetVals,
+        final RandomData rd) {
+        final TreeEnsembleLearnerConfiguration config = getConfiguration();
+        final int minChildSize = config.getMinChildSize();
+        final boolean useXGBoostMissingValueHandling = config.getMissingValueHandling() == MissingValueHandling.XGBoost;
+        final int nrClasses = targetVals.length;
+        final int lengthNonMissing = containsMissingValues() ? nomVals.length - 1 : nomVals.length;
+
+        // at most one value per row can occur in this branch
+        final int maxNrValues = Math.min(lengthNonMissing, columnMemberships.size());
+        // class frequencies of the occurring values, one row of length nrClasses per value
+        final double[] classFrequencies = new double[maxNrValues * nrClasses];
+        final double[] valueWeights = new double[maxNrValues];
+        final int[] valueIndices = new int[maxNrValues];
+        int nrValues = 0;
+
+        columnMemberships.next();
+        double totalWeight = 0.0;
+        int start = 0;
+        for (int att = 0; att < lengthNonMissing; att++) {
+            final int end = start + m_nominalValueCounts[att];
+            final int offset = nrValues * nrClasses;
+            double attWeight = 0.0;
+            boolean reachedEnd = false;
+            for (int index = columnMemberships.getIndexInColumn(); index < end; index =
+                columnMemberships.getIndexInColumn()) {
+                final double weight = columnMemberships.getRowWeight();
+
+                assert weight > EPSILON : "Instances in columnMemberships must have weights larger than EPSILON.";
+
+                classFrequencies[offset + targetColumn.getValueFor(columnMemberships.getOriginalIndex())] += weight;
+                attWeight += weight;
+                if (!columnMemberships.next()) {
+                    // reached end of columnMemberships
+                    reachedEnd = true;
+                    break;
+                }
+            }
+            start = end;
+
+            if (attWeight < EPSILON) {
+                // attribute value did not occur in this branch or sample
+                Arrays.fill(classFrequencies, offset, offset + nrClasses, 0.0);
+            } else {
+                valueWeights[nrValues] = attWeight;
+                valueIndices[nrValues] = att;
+                totalWeight += attWeight;
+                nrValues++;
+            }
+
+            if (reachedEnd) {
+                break;
+            }
+        }
+
+        // account for missing values and their weight
+        double missingWeight = 0.0;
+        final double[] missingClassCounts = new double[nrClasses];
+        // if there are missing values in the branch, start represents the beginning of the missing values
+        // otherwise the current indexInColumn won't be larger than start
+        if (columnMemberships.getIndexInColumn() >= start) {
+            do {
+                final double recordWeight = columnMemberships.getRowWeight();
+                final int recordClass = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
+                missingWeight += recordWeight;
+                missingClassCounts[recordClass] += recordWeight;
+            } while (columnMemberships.next());
+        }
+        final boolean branchContainsMissingValues = missingWeight > EPSILON;
+
+        if (nrValues < 2) {
+            // at least one value must remain on the other side of the split
+            return null;
+        }
+        final int[] order = BinaryNominalSplitsPowerIteration.calculateOrdering(classFrequencies, valueWeights,
+            nrValues, nrClasses, totalWeight);
+
+        // Start searching for split candidates
+        final int highestBitPosition = containsMissingValues() ? nomVals.length - 2 : nomVals.length - 1;
+
+        final double[] binaryImpurityValues = new double[2];
+        final double[] binaryPartitionWeights = new double[2];
+
+        final double[] targetFrequenciesCurrentPartition = new double[nrClasses];
+        final double[] targetFrequenciesRemaining = new double[nrClasses];
+        final double[] targetFrequenciesWithMissings = new double[nrClasses];
+        for (int v = 0; v < nrValues; v++) {
+            final int offset = v * nrClasses;
+            for (int c = 0; c < nrClasses; c++) {
+                targetFrequenciesRemaining[c] += classFrequencies[offset + c];
+            }
+        }
+        double sumRemainingWeights = totalWeight;
+        double sumCurrPartitionWeight = 0.0;
+        boolean partitionIsRightBranch = false;
+
+        double bestPartitionGain = Double.NEGATIVE_INFINITY;
+        int bestPartitionLength = -1;
+        boolean bestPartitionIsRightBranch = false;
+        boolean isBestSplitValid = false;
+        boolean missingsGoLeft = false;
+
+        final double priorImpurity =
+            useXGBoostMissingValueHandling ? targetPriors.getPriorImpurity() : impCriterion.getPartitionImpurity(
+                subtractMissingClassCounts(targetPriors.getDistribution(), missingClassCounts), totalWeight);
+
+        // no need to iterate over full list because at least one value must remain on the other side of the split
+        for (int i = 0; i < nrValues - 1; i++) {
+            final int value = order[i];
+            final int offset = value * nrClasses;
+            final double valueWeight = valueWeights[value];
+            sumCurrPartitionWeight += valueWeight;
+            sumRemainingWeights -= valueWeight;
+            for (int c = 0; c < nrClasses; c++) {
+                targetFrequenciesCurrentPartition[c] += classFrequencies[offset + c];
+                targetFrequenciesRemaining[c] -= classFrequencies[offset + c];
+            }
+            // by convention a split goes towards the right branch if the highest possible bit is set to 1
+            partitionIsRightBranch = partitionIsRightBranch
+                || nomVals[valueIndices[value]].getAssignedInteger() == highestBitPosition;
+
+            boolean isValidSplit;
+            double gain;
+            boolean tempMissingsGoLeft = true;
+
+            if (branchContainsMissingValues && useXGBoostMissingValueHandling) {
+                // send missing values with partition
+                final boolean isValidSplitFirst =
+                    sumCurrPartitionWeight + missingWeight >= minChildSize && sumRemainingWeights >= minChildSize;
+                addMissingClassCounts(targetFrequenciesCurrentPartition, missingClassCounts,
+                    targetFrequenciesWithMissings);
+                binaryImpurityValues[0] = impCriterion.getPartitionImpurity(targetFrequenciesWithMissings,
+                    sumCurrPartitionWeight + missingWeight);
+                binaryImpurityValues[1] =
+                    impCriterion.getPartitionImpurity(targetFrequenciesRemaining, sumRemainingWeights);
+                binaryPartitionWeights[0] = sumCurrPartitionWeight + missingWeight;
+                binaryPartitionWeights[1] = sumRemainingWeights;
+                double postSplitImpurity = impCriterion.getPostSplitImpurity(binaryImpurityValues,
+                    binaryPartitionWeights, totalWeight + missingWeight);
+                final double gainFirst = impCriterion.getGain(priorImpurity, postSplitImpurity,
+                    binaryPartitionWeights, totalWeight + missingWeight);
+
+                // send missing values with remaining
+                final boolean isValidSplitSecond =
+                    sumCurrPartitionWeight >= minChildSize && sumRemainingWeights + missingWeight >= minChildSize;
+                binaryImpurityValues[0] =
+                    impCriterion.getPartitionImpurity(targetFrequenciesCurrentPartition, sumCurrPartitionWeight);
+                addMissingClassCounts(targetFrequenciesRemaining, missingClassCounts, targetFrequenciesWithMissings);
+                binaryImpurityValues[1] = impCriterion.getPartitionImpurity(targetFrequenciesWithMissings,
+                    sumRemainingWeights + missingWeight);
+                binaryPartitionWeights[0] = sumCurrPartitionWeight;
+                binaryPartitionWeights[1] = sumRemainingWeights + missingWeight;
+                postSplitImpurity = impCriterion.getPostSplitImpurity(binaryImpurityValues, binaryPartitionWeights,
+                    totalWeight + missingWeight);
+                final double gainSecond = impCriterion.getGain(priorImpurity, postSplitImpurity,
+                    binaryPartitionWeights, totalWeight + missingWeight);
+
+                // choose alternative with better gain
+                if (gainFirst >= gainSecond) {
+                    gain = gainFirst;
+                    isValidSplit = isValidSplitFirst;
+                    tempMissingsGoLeft = !partitionIsRightBranch;
+                } else {
+                    gain = gainSecond;
+                    isValidSplit = isValidSplitSecond;
+                    tempMissingsGoLeft = partitionIsRightBranch;
+                }
+            } else {
+                isValidSplit = sumCurrPartitionWeight >= minChildSize && sumRemainingWeights >= minChildSize;
+
+                binaryImpurityValues[0] =
+                    impCriterion.getPartitionImpurity(targetFrequenciesCurrentPartition, sumCurrPartitionWeight);
+                binaryImpurityValues[1] =
+                    impCriterion.getPartitionImpurity(targetFrequenciesRemaining, sumRemainingWeights);
+                binaryPartitionWeights[0] = sumCurrPartitionWeight;
+                binaryPartitionWeights[1] = sumRemainingWeights;
+
+                final double postSplitImpurity =
+                    impCriterion.getPostSplitImpurity(binaryImpurityValues, binaryPartitionWeights, totalWeight);
+                gain = impCriterion.getGain(priorImpurity, postSplitImpurity, binaryPartitionWeights, totalWeight);
+            }
+            // use random tie breaker if gains are equal
+            final boolean randomTieBreaker = gain == bestPartitionGain ? rd.nextInt(0, 1) == 1 : false;
+            // store if better than before or first valid split
+            if (gain > bestPartitionGain || (!isBestSplitValid && isValidSplit) || randomTieBreaker) {
+                if (isValidSplit || !isBestSplitValid) {
+                    bestPartitionGain = gain;
+                    bestPartitionLength = i + 1;
+                    bestPartitionIsRightBranch = partitionIsRightBranch;
+                    isBestSplitValid = isValidSplit;
+                    if (branchContainsMissingValues) {
+                        missingsGoLeft = tempMissingsGoLeft;
+                    } else {
+                        // no missing values were encountered during the search for the best split
+                        // missing values should be sent with the majority
+                        missingsGoLeft = partitionIsRightBranch ? sumCurrPartitionWeight < sumRemainingWeights
+                            : sumCurrPartitionWeight >= sumRemainingWeights;
+                    }
+                }
+            }
+        }
+
+        if (isBestSplitValid && bestPartitionGain > 0.0) {
+            BigInteger partitionMask = BigInteger.ZERO;
+            for (int i = 0; i < bestPartitionLength; i++) {
+                partitionMask = partitionMask.setBit(nomVals[valueIndices[order[i]]].getAssignedInteger());
+            }
+            final BigInteger bestPartitionMask = bestPartitionIsRightBranch ? partitionMask
+                : BigInteger.ZERO.setBit(highestBitPosition + 1).subtract(BigInteger.ONE).xor(partitionMask);
+            if (useXGBoostMissingValueHandling) {
+                return new NominalBinarySplitCandidate(this, bestPartitionGain, bestPartitionMask, NO_MISSED_ROWS,
+                    missingsGoLeft ? NominalBinarySplitCandidate.MISSINGS_GO_LEFT
+                        : NominalBinarySplitCandidate.MISSINGS_GO_RIGHT);
+            }
+            return new NominalBinarySplitCandidate(this, bestPartitionGain, bestPartitionMask,
+                getMissedRows(columnMemberships), NominalBinarySplitCandidate.NO_MISSINGS);
+        }
+
+        return null;
+    }
+
     static double[] subtractMissingClassCounts(final double[] originalClassCounts,
         final double[] missingClassCounts) {
         final double[] result = new double[originalClassCounts.length];
@@ -662,6 +896,13 @@ private static double[] addMissingClassCounts(final double[] nonMissingClassCoun
         return result;
     }
 
+    private static void addMissingClassCounts(final double[] nonMissingClassCounts,
+        final double[] missingClassCounts, final double[] result) {
+        for (int i = 0; i < result.length; i++) {
+            result[i] = nonMissingClassCounts[i] + missingClassCounts[i];
+        }
+    }
+
     private static double truncateDouble(final int positions, final double value) {
         Double toTruncate = Double.valueOf(value);
         BigDecimal truncated = new BigDecimal(toTruncate).setScale(positions, BigDecimal.ROUND_HALF_UP);
@@ -1300,7 +1541,13 @@ private NominalBinarySplitCandidate calcBestSplitRegressionBinaryBreiman(final C
             criterionTotal = sumYTotal + sumYTotal / sumWeightTotal;
         }
 
-        final ArrayList<AttValTupleRegression> attValList = Lists.newArrayList();
+        // per value sums, only values that occur in this branch are stored
+        final double[] sumYs = new double[nomVals.length];
+        final double[] sumWeights = new double[nomVals.length];
+        final double[] meanYs = new double[nomVals.length];
+        final int[] values = new int[nomVals.length];
+        int nrValues = 0;
+        double sumWeightValues = 0.0;
 
         columnMemberships.next();
         int start = 0;
@@ -1335,40 +1582,49 @@ private NominalBinarySplitCandidate calcBestSplitRegressionBinaryBreiman(final C
                 continue;
             }
 
-            attValList.add(new AttValTupleRegression(sumY, sumWeight, sumY / sumWeight, nomVals[att]));
+            sumYs[nrValues] = sumY;
+            sumWeights[nrValues] = sumWeight;
+            meanYs[nrValues] = sumY / sumWeight;
+            values[nrValues] = nomVals[att].getAssignedInteger();
+            sumWeightValues += sumWeight;
+            nrValues++;
             if (reachedEnd) {
                 break;
             }
         }
-        assert sumWeights(
-            attValList) == sumWeightTotal : "The weights of the attribute values does not sum up to the total weight";
+        assert sumWeightValues == sumWeightTotal : "The weights of the attribute values does not sum up to the total weight";
 
         // sort attribute values according to their mean Y value
-        attValList.sort(null);
+        final int[] order = new int[nrValues];
+        for (int i = 0; i < nrValues; i++) {
+            order[i] = i;
+        }
+        BinaryNominalSplitsPowerIteration.sortByScore(order, meanYs, new int[nrValues], 0, nrValues);
 
-        BigInteger bestPartitionMask = null;
+        int bestPartitionLength = -1;
+        boolean bestPartitionContainsHighestBit = false;
         boolean isBestSplitValid = false;
         double bestPartitionGain = Double.NEGATIVE_INFINITY;
         final int highestBitPosition = containsMissingValues() ? nomVals.length - 2 : nomVals.length - 1;
 
         double sumYPartition = 0.0;
         double sumWeightPartition = 0.0;
-        BigInteger partitionMask = BigInteger.ZERO;
+        boolean partitionContainsHighestBit = false;
         double sumYRemaining = sumYTotal;
         double sumWeightRemaining = sumWeightTotal;
         boolean missingsGoLeft = true;
 
         // no need to iterate over full list because at least one value must remain on the other side of the split
-        for (int i = 0; i < attValList.size() - 1; i++) {
-            AttValTupleRegression attVal = attValList.get(i);
-            sumYPartition += attVal.m_sumY;
-            sumWeightPartition += attVal.m_sumWeight;
-            sumYRemaining -= attVal.m_sumY;
-            sumWeightRemaining -= attVal.m_sumWeight;
+        for (int i = 0; i < nrValues - 1; i++) {
+            final int value = order[i];
+            sumYPartition += sumYs[value];
+            sumWeightPartition += sumWeights[value];
+            sumYRemaining -= sumYs[value];
+            sumWeightRemaining -= sumWeights[value];
             assert AbsIsSmallerEpsilon(sumWeightTotal - sumWeightRemaining - sumWeightPartition) : "The weights left and right of the split do not add up to the total weight.";
             assert sumWeightPartition > 0.0 : "The weight of the partition is zero.";
             assert sumWeightRemaining > 0.0 : "The weight of the remaining is zero.";
-            partitionMask = partitionMask.or(attVal.m_bitMask);
+            partitionContainsHighestBit = partitionContainsHighestBit || values[value] == highestBitPosition;
 
             double gain;
             boolean isValidSplit;
@@ -1391,11 +1647,11 @@ assert sumWeights(
                 if (gainMissingWithPartition >= gainMissingWithRemaining) {
                     gain = gainMissingWithPartition;
                     isValidSplit = isValidSplitPartitionWithMissing;
-                    tempMissingsGoLeft = !partitionMask.testBit(highestBitPosition);
+                    tempMissingsGoLeft = !partitionContainsHighestBit;
                 } else {
                     gain = gainMissingWithRemaining;
                     isValidSplit = isValidSplitRemainingWithMissing;
-                    tempMissingsGoLeft = partitionMask.testBit(highestBitPosition);
+                    tempMissingsGoLeft = partitionContainsHighestBit;
                 }
             } else {
                 isValidSplit = sumWeightPartition >= minChildSize && sumWeightRemaining >= minChildSize;
@@ -1411,10 +1667,9 @@ assert sumWeights(
             if (gain > bestPartitionGain || (!isBestSplitValid && isValidSplit) || randomTieBreaker) {
                 if (isValidSplit || !isBestSplitValid) {
                     bestPartitionGain = gain;
-                    // right branch must by convention always contain the nominal value
-                    // with the highest assigned integer
-                    bestPartitionMask = partitionMask.testBit(highestBitPosition) ? partitionMask
-                        : BigInteger.ZERO.setBit(highestBitPosition + 1).subtract(BigInteger.ONE).xor(partitionMask);
+                    // the mask is only created for the final best split
+                    bestPartitionLength = i + 1;
+                    bestPartitionContainsHighestBit = partitionContainsHighestBit;
                     isBestSplitValid = isValidSplit;
                     if (branchContainsMissingValues) {
                         missingsGoLeft = tempMissingsGoLeft;
@@ -1422,8 +1677,8 @@ assert sumWeights(
                         // no missings in this branch, but we still have to provide a direction for missing values
                         // send missings in the direction the most records in the node are sent to
                         boolean sendWithPartition = sumWeightPartition >= sumWeightRemaining;
-                        missingsGoLeft = sendWithPartition ? !partitionMask.testBit(highestBitPosition)
-                            : partitionMask.testBit(highestBitPosition);
+                        missingsGoLeft =
+                            sendWithPartition ? !partitionContainsHighestBit : partitionContainsHighestBit;
                     }
                 }
             }
@@ -1431,6 +1686,14 @@ assert sumWeights(
         }
 
         if (bestPartitionGain > 0.0 && isBestSplitValid) {
+            BigInteger partitionMask = BigInteger.ZERO;
+            for (int i = 0; i < bestPartitionLength; i++) {
+                partitionMask = partitionMask.setBit(values[order[i]]);
+            }
+            // right branch must by convention always contain the nominal value
+            // with the highest assigned integer
+            final BigInteger bestPartitionMask = bestPartitionContainsHighestBit ? partitionMask
+                : BigInteger.ZERO.setBit(highestBitPosition + 1).subtract(BigInteger.ONE).xor(partitionMask);
             if (useXGBoostMissingValueHandling) {
                 return new NominalBinarySplitCandidate(this, bestPartitionGain, bestPartitionMask, NO_MISSED_ROWS,
                     missingsGoLeft ? NominalBinarySplitCandidate.MISSINGS_GO_LEFT
@@ -1443,65 +1706,6 @@ assert sumWeights(
         return null;
     }
 
-    private static double sumWeights(final ArrayList<AttValTupleRegression> attVals) {
-        double sum = 0.0;
-        for (final AttValTupleRegression attVal : attVals) {
-            sum += attVal.m_sumWeight;
-        }
-        return sum;
-    }
-
-    private static class AttValTupleRegression implements Comparable<AttValTupleRegression> {
-
-        private final double m_sumY;
-
-        private final double m_sumWeight;
-
-        private final double m_meanY;
-
-        private final BigInteger m_bitMask;
-
-        /**
-         *
-         */
-        public AttValTupleRegression(final double sumY, final double sumWeight, final double meanY,
-            final NominalValueRepresentation nomVal) {
-            m_sumY = sumY;
-            m_sumWeight = sumWeight;
-            m_meanY = meanY;
-            m_bitMask = BigInteger.ZERO.setBit(nomVal.getAssignedInteger());
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean equals(final Object obj) {
-            if (obj == null) {
-                return false;
-            }
-            if (obj == this) {
-                return true;
-            }
-            if (this.getClass() == obj.getClass()) {
-                final AttValTupleRegression that = (AttValTupleRegression)obj;
-                if (this.m_bitMask.equals(that.m_bitMask)) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public int compareTo(final AttValTupleRegression that) {
-            return ComparisonChain.start().compare(m_meanY, that.m_meanY).result();
-        }
-
-    }
-
     /** {@inheritDoc} */
     @Override
     public BitSet updateChildMemberships(final TreeNodeCondition childCondition,
@@ -91,6 +91,18 @@ public TreeNumericColumnMetaData getMetaData() {
      */
     public abstract double getSorted(int index);
 
+    /**
+     * Gets the (exclusive) end of the run of equal values that contains <b>index</b> in the sorted column. All indices
+     * from <b>index</b> up to the returned one have the same value, which allows to look up the value once per run.
+     * The default implementation doesn't know about runs and returns <code>index + 1</code>.
+     *
+     * @param index an index in the sorted column
+     * @return the first index after <b>index</b> that may have a different value
+     */
+    protected int getRunEnd(final int index) {
+        return index + 1;
+    }
+
     /**
      * @return the number of non missing values
      */
@@ -192,6 +204,9 @@ public NumericSplitCandidate calcBestSplitClassification(final DataMemberships d
         int lastSeenTarget = -1;
 
         int indexInCol = -1;
+        // value of the current run of equal values in the sorted column
+        double runValue = Double.NaN;
+        int runEnd = 0;
 
         // main loop: iterate the entire sorted column, search for reasonable
         // split points (i.e. where the attribute value changes and value of the
@@ -202,7 +217,11 @@ public NumericSplitCandidate calcBestSplitClassification(final DataMemberships d
         while (columnMemberships.next() && (indexInCol = columnMemberships.getIndexInColumn()) < lengthNonMissing) {
             final double weight = columnMemberships.getRowWeight();
             assert weight >= EPSILON : "Rows with zero row weight should never be seen!";
-            final double value = getSorted(indexInCol);
+            if (indexInCol >= runEnd) {
+                runValue = getSorted(indexInCol);
+                runEnd = getRunEnd(indexInCol);
+            }
+            final double value = runValue;
             final int target = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
             final boolean hasValueChanged = (value - lastSeenValue) >= EPSILON;
             final boolean hasTargetChanged = lastSeenTarget != target || indexInCol == lastValidSplitPosition;
@@ -376,6 +395,9 @@ public SplitCandidate calcBestSplitRegression(final DataMemberships dataMembersh
         double lastSeenY = Double.NaN;
         double lastSeenValue = Double.NEGATIVE_INFINITY;
         double lastSeenWeight = -1.0;
+        // value of the current run of equal values in the sorted column
+        double runValue = Double.NaN;
+        int runEnd = 0;
 
         // main loop: iterate the entire sorted column, and for each split point
         // compute the gain, keep the one that maximizes the split
@@ -389,7 +411,12 @@ public SplitCandidate calcBestSplitRegression(final DataMemberships dataMembersh
                     "weighted records (missing values?) not supported, " + "weight is " + weight);
             }
 
-            final double value = getSorted(columnMemberships.getIndexInColumn());
+            final int indexInColumn = columnMemberships.getIndexInColumn();
+            if (indexInColumn >= runEnd) {
+                runValue = getSorted(indexInColumn);
+                runEnd = getRunEnd(indexInColumn);
+            }
+            final double value = runValue;
 
             if (lastSeenWeight > 0.0) {
                 ySumLeft += lastSeenWeight * lastSeenY;
@@ -504,24 +531,30 @@ public BitSet updateChildMemberships(final TreeNodeCondition childCondition,
                 "The current columnMemberships object contains no element that satisfies the splitcondition");
         }
         final int lengthNonMissing = getLengthNonMissing();
+        // the condition is evaluated once per run of equal values in the sorted column
+        boolean matches = false;
+        int runEnd = 0;
         do {
-            final double value = getSorted(columnMemberships.getIndexInColumn());
-            boolean matches;
-            switch (numOperator) {
-                case LessThanOrEqual:
-                    matches = value <= splitValue;
-                    break;
-                case LargerThan:
-                    matches = value > splitValue;
-                    break;
-                case LessThanOrEqualOrMissing:
-                    matches = Double.isNaN(value) ? true : value <= splitValue;
-                    break;
-                case LargerThanOrMissing:
-                    matches = Double.isNaN(value) ? true : value > splitValue;
-                    break;
-                default:
-                    throw new IllegalStateException("Unknown operator " + numOperator);
+            final int indexInColumn = columnMemberships.getIndexInColumn();
+            if (indexInColumn >= runEnd) {
+                final double value = getSorted(indexInColumn);
+                runEnd = getRunEnd(indexInColumn);
+                switch (numOperator) {
+                    case LessThanOrEqual:
+                        matches = value <= splitValue;
+                        break;
+                    case LargerThan:
+                        matches = value > splitValue;
+                        break;
+                    case LessThanOrEqualOrMissing:
+                        matches = Double.isNaN(value) ? true : value <= splitValue;
+                        break;
+                    case LargerThanOrMissing:
+                        matches = Double.isNaN(value) ? true : value > splitValue;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown operator " + numOperator);
+                }
             }
             if (matches) {
                 inChild.set(columnMemberships.getIndexInDataMemberships());
@@ -52,12 +52,23 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 
 /**
+ * Numeric column data that keeps the sorted values as floats. Columns with few distinct values are stored run length
+ * encoded, i.e. as the distinct sorted values together with the (exclusive) end index of each run of equal values.
+ * Large columns can keep their sorted values off-heap in a {@link MappedFloatArray}.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public class TreeOrdinaryNumericColumnData extends TreeNumericColumnData {
 
+    /** sorted values, <code>null</code> if the column is run length encoded or off-heap. */
     private final float[] m_sortedData;
+    /** sorted values, <code>null</code> unless the column is off-heap. */
+    private final MappedFloatArray m_mappedData;
+    /** distinct sorted values, one per run, <code>null</code> if the column is not run length encoded. */
+    private final float[] m_runValues;
+    /** exclusive end index of each run, <code>null</code> if the column is not run length encoded. */
+    private final int[] m_runEnds;
+    private final int m_length;
     private final int m_indexFirstMissing;
     private final boolean m_containsMissingValues;
 
@@ -68,17 +79,81 @@ public class TreeOrdinaryNumericColumnData extends TreeNumericColumnData {
         final int[] orginalIndexInColumnList, final boolean containsMissingValues, final int indexFirstMissing) {
         super(metaData, configuration, orginalIndexInColumnList);
         m_sortedData = sortedData;
+        m_mappedData = null;
+        m_runValues = null;
+        m_runEnds = null;
+        m_length = sortedData.length;
         m_indexFirstMissing = indexFirstMissing;
         m_containsMissingValues = containsMissingValues;
 //        m_originalIndexInColumnList = orginalIndexInColumnList;
     }
 
+    /**
+     * Creates column data whose sorted values are stored off-heap.
+     *
+     * @param mappedData the sorted values
+     */
+    TreeOrdinaryNumericColumnData(final TreeNumericColumnMetaData metaData,
+        final TreeEnsembleLearnerConfiguration configuration, final MappedFloatArray mappedData,
+        final int[] orginalIndexInColumnList, final boolean containsMissingValues, final int indexFirstMissing) {
+        super(metaData, configuration, orginalIndexInColumnList);
+        m_sortedData = null;
+        m_mappedData = mappedData;
+        m_runValues = null;
+        m_runEnds = null;
+        m_length = mappedData.length();
+        m_indexFirstMissing = indexFirstMissing;
+        m_containsMissingValues = containsMissingValues;
+    }
+
+    /**
+     * Creates run length encoded column data.
+     *
+     * @param runValues the distinct sorted values (missing values are a single NaN run at the end)
+     * @param runEnds the exclusive end index of each run, strictly increasing
+     */
+    TreeOrdinaryNumericColumnData(final TreeNumericColumnMetaData metaData,
+        final TreeEnsembleLearnerConfiguration configuration, final float[] runValues, final int[] runEnds,
+        final int[] orginalIndexInColumnList, final boolean containsMissingValues, final int indexFirstMissing) {
+        super(metaData, configuration, orginalIndexInColumnList);
+        assert runValues.length == runEnds.length : "Each run needs a value and an end.";
+        m_sortedData = null;
+        m_mappedData = null;
+        m_runValues = runValues;
+        m_runEnds = runEnds;
+        m_length = runEnds.length == 0 ? 0 : runEnds[runEnds.length - 1];
+        m_indexFirstMissing = indexFirstMissing;
+        m_containsMissingValues = containsMissingValues;
+    }
+
     /** {@inheritDoc} */
     @Override
     public TreeNumericColumnMetaData getMetaData() {
         return super.getMetaData();
     }
 
+    /**
+     * @return true if the column is stored as runs of equal values
+     */
+    boolean isRunLengthEncoded() {
+        return m_runEnds != null;
+    }
+
+    /**
+     * @return true if the sorted values are stored off-heap
+     */
+    boolean isOffHeap() {
+        return m_mappedData != null;
+    }
+
+    /**
+     * Releases the off-heap values, the column must not be used afterwards.
+     */
+    void releaseOffHeap() {
+        if (m_mappedData != null) {
+            m_mappedData.close();
+        }
+    }
 
     /**
      * {@inheritDoc}
@@ -87,20 +162,56 @@ public TreeNumericColumnMetaData getMetaData() {
     public double getSorted(final int index) {
         if (index < 0) {
             throw new IndexOutOfBoundsException("A negative index is not allowed.");
-        } else if (index >= m_sortedData.length) {
+        } else if (index >= m_length) {
             throw new IndexOutOfBoundsException("The index is too large.");
         }
+        if (m_runEnds != null) {
+            return m_runValues[getRun(index)];
+        } else if (m_mappedData != null) {
+            return m_mappedData.get(index);
+        }
         return m_sortedData[index];
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getRunEnd(final int index) {
+        if (m_runEnds != null) {
+            return m_runEnds[getRun(index)];
+        }
+        return index + 1;
+    }
+
+    private int getRun(final int index) {
+        final int pos = Arrays.binarySearch(m_runEnds, index);
+        // an index equal to the end of a run is the start of the next run
+        return pos >= 0 ? pos + 1 : -(pos + 1);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected int getFirstIndexWithValue(final double value) {
+        if (m_runEnds != null) {
+            final int run = Arrays.binarySearch(m_runValues, (float)value);
+            if (run >= 0) {
+                return getRunStart(run);
+            }
+            // same contract as Arrays#binarySearch: -(insertion point) - 1
+            return -getRunStart(-(run + 1)) - 1;
+        } else if (m_mappedData != null) {
+            return m_mappedData.binarySearch((float)value);
+        }
         return Arrays.binarySearch(m_sortedData, (float)value);
     }
 
+    private int getRunStart(final int run) {
+        return run == 0 ? 0 : m_runEnds[run - 1];
+    }
+
     /**
      * {@inheritDoc}
      */
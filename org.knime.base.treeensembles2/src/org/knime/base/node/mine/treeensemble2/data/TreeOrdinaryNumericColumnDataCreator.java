@@ -47,6 +47,14 @@
  */
 package org.knime.base.node.mine.treeensemble2.data;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -56,21 +64,67 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.RowKey;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
 
 /**
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public class TreeOrdinaryNumericColumnDataCreator implements TreeAttributeColumnDataCreator {
+    /**
+     * A run costs a float and an int, a row in the plain layout a float. Columns whose runs are on average at least
+     * this long are stored run length encoded, which also lets the split search skip entire runs.
+     */
+    static final int MIN_AVERAGE_RUN_LENGTH = 4;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TreeOrdinaryNumericColumnDataCreator.class);
+
     private final DataColumnSpec m_column;
 
     private final List<Tuple> m_tuples;
 
+    /** whether the values are streamed to a temporary file, false if they are kept as tuples */
+    private boolean m_offHeap;
+
+    /** file the values are streamed to in the off-heap mode, created with the first value */
+    private File m_stagingFile;
+
+    private DataOutputStream m_stagingOut;
+
+    private int m_nrStagedValues;
+
     private int m_numMissing = 0;
 
     TreeOrdinaryNumericColumnDataCreator(final DataColumnSpec column) {
+        this(column, false);
+    }
+
+    /**
+     * @param column the column
+     * @param offHeap whether the values are streamed to a temporary file while the data is read and the sorted
+     *            values of columns that aren't run length encoded are stored off-heap
+     */
+    TreeOrdinaryNumericColumnDataCreator(final DataColumnSpec column, final boolean offHeap) {
         m_column = column;
         m_tuples = new ArrayList<Tuple>();
+        m_offHeap = offHeap;
+    }
+
+    /**
+     * Opens the staging file lazily, so that no file is created (and needs to be deleted) unless a value is read.
+     * Falls back to the tuples if the file can't be created.
+     */
+    private void openStagingFile() {
+        try {
+            m_stagingFile = FileUtil.createTempFile("treedata-", ".tmp", true);
+            m_stagingOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(m_stagingFile)));
+        } catch (IOException e) {
+            LOGGER.warn("Could not store column \"" + m_column.getName() + "\" off-heap, keeping it in memory: "
+                + e.getMessage(), e);
+            discardStagingFile();
+            m_offHeap = false;
+        }
     }
 
     /** {@inheritDoc} */
@@ -82,6 +136,27 @@ public boolean acceptsMissing() {
     /** {@inheritDoc} */
     @Override
     public void add(final RowKey rowKey, final DataCell cell) {
+        if (m_offHeap && m_stagingOut == null) {
+            openStagingFile();
+        }
+        if (m_stagingOut != null) {
+            final float value;
+            if (cell.isMissing()) {
+                value = Float.NaN;
+                m_numMissing++;
+            } else {
+                value = (float)((DoubleValue)cell).getDoubleValue();
+            }
+            try {
+                m_stagingOut.writeFloat(value);
+            } catch (IOException e) {
+                discardStagingFile();
+                throw new IllegalStateException(
+                    "Could not write column \"" + m_column.getName() + "\" to a temporary file: " + e.getMessage(), e);
+            }
+            m_nrStagedValues++;
+            return;
+        }
         Tuple t = new Tuple();
         if (cell.isMissing()) {
             //            throw new UnsupportedOperationException("missing vals not supported");
@@ -105,6 +180,16 @@ public int getNrAttributes() {
     public TreeOrdinaryNumericColumnData createColumnData(final int attributeIndex,
         final TreeEnsembleLearnerConfiguration configuration) {
 //        assert attributeIndex == 0;
+        if (m_stagingOut != null) {
+            try {
+                return createOffHeapColumnData(configuration);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read column \"" + m_column.getName()
+                    + "\" from a temporary file: " + e.getMessage(), e);
+            } finally {
+                discardStagingFile();
+            }
+        }
         Tuple[] tuples = m_tuples.toArray(new Tuple[m_tuples.size()]);
         Arrays.sort(tuples);
         final int length = tuples.length;
@@ -119,10 +204,120 @@ public TreeOrdinaryNumericColumnData createColumnData(final int attributeIndex,
         final TreeNumericColumnMetaData metaData = new TreeNumericColumnMetaData(n);
         final boolean containsMissingValues = m_numMissing > 0 ? true : false;
         final int numNonMissing = length - m_numMissing;
+        final int nrRuns = countRuns(sortedData);
+        if ((long)nrRuns * MIN_AVERAGE_RUN_LENGTH <= length) {
+            final float[] runValues = new float[nrRuns];
+            final int[] runEnds = new int[nrRuns];
+            int run = 0;
+            for (int i = 1; i <= length; i++) {
+                if (i == length || Float.compare(sortedData[i], sortedData[i - 1]) != 0) {
+                    runValues[run] = sortedData[i - 1];
+                    runEnds[run] = i;
+                    run++;
+                }
+            }
+            return new TreeOrdinaryNumericColumnData(metaData, configuration, runValues, runEnds, sortIndex,
+                containsMissingValues, numNonMissing);
+        }
         return new TreeOrdinaryNumericColumnData(metaData, configuration, sortedData, sortIndex, containsMissingValues,
             numNonMissing);
     }
 
+    /**
+     * Reads the staged values back and sorts them as one long per row, the order preserving bits of the value in the
+     * upper and the row index in the lower half. This is the same order as the one of the tuples but needs 8 bytes
+     * per row instead of an object. The sorted values are written directly to a {@link MappedFloatArray}, only the
+     * sort index and the runs of a run length encoded column are kept on the heap.
+     */
+    private TreeOrdinaryNumericColumnData createOffHeapColumnData(final TreeEnsembleLearnerConfiguration configuration)
+        throws IOException {
+        m_stagingOut.close();
+        final int length = m_nrStagedValues;
+        final long[] keys = new long[length];
+        try (DataInputStream in =
+            new DataInputStream(new BufferedInputStream(new FileInputStream(m_stagingFile)))) {
+            for (int i = 0; i < length; i++) {
+                keys[i] = ((long)toSortableBits(in.readFloat()) << 32) | i;
+            }
+        }
+        Arrays.sort(keys);
+        final int[] sortIndex = new int[length];
+        int nrRuns = 0;
+        for (int i = 0; i < length; i++) {
+            sortIndex[i] = (int)keys[i];
+            if (i == 0 || (keys[i] >>> 32) != (keys[i - 1] >>> 32)) {
+                nrRuns++;
+            }
+        }
+        final TreeNumericColumnMetaData metaData = new TreeNumericColumnMetaData(m_column.getName());
+        final boolean containsMissingValues = m_numMissing > 0;
+        final int numNonMissing = length - m_numMissing;
+        if ((long)nrRuns * MIN_AVERAGE_RUN_LENGTH <= length) {
+            final float[] runValues = new float[nrRuns];
+            final int[] runEnds = new int[nrRuns];
+            int run = 0;
+            for (int i = 1; i <= length; i++) {
+                if (i == length || (keys[i] >>> 32) != (keys[i - 1] >>> 32)) {
+                    runValues[run] = fromSortableBits((int)(keys[i - 1] >>> 32));
+                    runEnds[run] = i;
+                    run++;
+                }
+            }
+            return new TreeOrdinaryNumericColumnData(metaData, configuration, runValues, runEnds, sortIndex,
+                containsMissingValues, numNonMissing);
+        }
+        final MappedFloatArray sortedData = MappedFloatArray.create(length);
+        for (int i = 0; i < length; i++) {
+            sortedData.set(i, fromSortableBits((int)(keys[i] >>> 32)));
+        }
+        return new TreeOrdinaryNumericColumnData(metaData, configuration, sortedData, sortIndex,
+            containsMissingValues, numNonMissing);
+    }
+
+    /**
+     * Maps a float to an int whose signed order is the order of {@link Float#compare(float, float)}, including -0.0
+     * before 0.0 and NaN last.
+     */
+    static int toSortableBits(final float value) {
+        final int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    /** Inverse of {@link #toSortableBits(float)}. */
+    static float fromSortableBits(final int sortableBits) {
+        return Float.intBitsToFloat(sortableBits ^ ((sortableBits >> 31) & Integer.MAX_VALUE));
+    }
+
+    /**
+     * Closes and deletes the staging file of the off-heap mode, if any. Called once the column is created and by
+     * {@link TreeDataCreator} if reading the data fails or is canceled.
+     */
+    void discardStagingFile() {
+        if (m_stagingOut != null) {
+            try {
+                m_stagingOut.close();
+            } catch (IOException e) {
+                // the file is deleted anyway
+            }
+            m_stagingOut = null;
+        }
+        if (m_stagingFile != null) {
+            m_stagingFile.delete();
+            m_stagingFile = null;
+        }
+    }
+
+    /** Missing values (NaN) form a single run because {@link Float#compare(float, float)} treats them as equal. */
+    private static int countRuns(final float[] sortedData) {
+        int nrRuns = sortedData.length == 0 ? 0 : 1;
+        for (int i = 1; i < sortedData.length; i++) {
+            if (Float.compare(sortedData[i], sortedData[i - 1]) != 0) {
+                nrRuns++;
+            }
+        }
+        return nrRuns;
+    }
+
     private static class Tuple implements Comparable<Tuple> {
         private float m_value;
 
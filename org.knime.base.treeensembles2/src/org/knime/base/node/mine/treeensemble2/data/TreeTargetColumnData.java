@@ -60,12 +60,27 @@ public abstract class TreeTargetColumnData extends TreeColumnData {
      */
     protected final RowKey[] m_rowKeysAsArray;
 
+    private final int m_nrRows;
+
     /**
      * @param metaData
      */
     TreeTargetColumnData(final TreeTargetColumnMetaData metaData, final RowKey[] rowKeysAsArray) {
         super(metaData);
         m_rowKeysAsArray = rowKeysAsArray;
+        m_nrRows = rowKeysAsArray.length;
+    }
+
+    /**
+     * Creates a column without row keys, e.g. for temporary targets that are only used for the split search.
+     *
+     * @param metaData
+     * @param nrRows the number of rows in the column
+     */
+    TreeTargetColumnData(final TreeTargetColumnMetaData metaData, final int nrRows) {
+        super(metaData);
+        m_rowKeysAsArray = null;
+        m_nrRows = nrRows;
     }
 
     /** {@inheritDoc} */
@@ -78,17 +93,20 @@ public TreeTargetColumnMetaData getMetaData() {
      * @return the number of rows in this column
      */
     public int getNrRows() {
-        return m_rowKeysAsArray.length;
+        return m_nrRows;
     }
 
     /**
      * @param row
-     * @return rowkey for the row with index <b>row</b>
+     * @return rowkey for the row with index <b>row</b>, must not be called if the column has no row keys
      */
     public RowKey getRowKeyFor(final int row) {
         return m_rowKeysAsArray[row];
     }
 
+    /**
+     * @return the row keys or null if the column was created without row keys
+     */
     public RowKey[] getRowKeys() {
         return m_rowKeysAsArray;
     }
@@ -71,6 +71,19 @@ public TreeTargetNominalColumnData(final TreeTargetNominalColumnMetaData metaDat
         m_data = data;
     }
 
+    /**
+     * Creates a target column without row keys, which is sufficient for the split search. Only the rows that are
+     * visited during the split search need to be set in <b>data</b>.
+     *
+     * @param metaData
+     * @param data the assigned integers of the target values indexed by the original row index, its length is the
+     *            number of rows
+     */
+    public TreeTargetNominalColumnData(final TreeTargetNominalColumnMetaData metaData, final int[] data) {
+        super(metaData, data.length);
+        m_data = data;
+    }
+
     /**
      * Calculates the distribution of the target column for the given row weights.
      *
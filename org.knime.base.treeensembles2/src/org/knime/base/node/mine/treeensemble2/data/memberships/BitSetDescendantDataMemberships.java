@@ -49,7 +49,7 @@
 package org.knime.base.node.mine.treeensemble2.data.memberships;
 
 import java.util.BitSet;
-import java.util.HashMap;
+import java.util.function.Function;
 
 /**
  *
@@ -59,12 +59,25 @@ public class BitSetDescendantDataMemberships implements DataMemberships {
 
     private final RootDataMemberships m_root;
     private final BitSet m_included;
-    private final HashMap<Integer, ColumnMemberships> m_cachedColumnMemberships;
+    private final int m_rowCount;
+    private final ColumnMemberships[] m_cachedColumnMemberships;
+
+    private Object m_nodeData;
 
     public BitSetDescendantDataMemberships(final RootDataMemberships root, final BitSet included) {
+        this(root, included, included.cardinality());
+    }
+
+    /**
+     * @param root the root DataMemberships
+     * @param included marks the rows of the root that are included in this object, must not be changed afterwards
+     * @param cardinality the number of set bits in <b>included</b>
+     */
+    BitSetDescendantDataMemberships(final RootDataMemberships root, final BitSet included, final int cardinality) {
         m_root = root;
         m_included = included;
-        m_cachedColumnMemberships = new HashMap<Integer, ColumnMemberships>();
+        m_rowCount = cardinality;
+        m_cachedColumnMemberships = new ColumnMemberships[root.getNrColumns()];
     }
 
     /**
@@ -72,7 +85,7 @@ public BitSetDescendantDataMemberships(final RootDataMemberships root, final Bit
      */
     @Override
     public double[] getRowWeights() {
-        final double[] weights = new double[m_included.cardinality()];
+        final double[] weights = new double[m_rowCount];
         int iterator = 0;
         boolean overflow = false;
         for (int i = m_included.nextSetBit(0); i >= 0; i = m_included.nextSetBit(i + 1)) {
@@ -95,10 +108,10 @@ public double[] getRowWeights() {
      */
     @Override
     public ColumnMemberships getColumnMemberships(final int index) {
-        ColumnMemberships colMem = m_cachedColumnMemberships.get(index);
+        ColumnMemberships colMem = m_cachedColumnMemberships[index];
         if (colMem == null) {
             colMem = m_root.descendantGetColumnMemberships(index, m_included);
-            m_cachedColumnMemberships.put(index, colMem);
+            m_cachedColumnMemberships[index] = colMem;
         }
         return colMem;
     }
@@ -108,7 +121,7 @@ public ColumnMemberships getColumnMemberships(final int index) {
      */
     @Override
     public int[] getOriginalIndices() {
-        final int[] originalIndices = new int[m_included.cardinality()];
+        final int[] originalIndices = new int[m_rowCount];
         int iterator = 0;
         for (int i = m_included.nextSetBit(0); i >= 0; i = m_included.nextSetBit(i + 1)) {
             originalIndices[iterator++] = m_root.getOriginalIndex(i);
@@ -153,7 +166,7 @@ public int getOriginalIndex(final int index) {
     }
 
     private int getRootIndex(final int index) {
-        if (index > m_included.cardinality()) {
+        if (index > m_rowCount) {
             throw new IndexOutOfBoundsException("The BitSet does not contain that many set bits.");
         }
         int counter = 0;
@@ -173,7 +186,18 @@ private int getRootIndex(final int index) {
      */
     @Override
     public int getRowCount() {
-        return m_included.cardinality();
+        return m_rowCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized <T> T getNodeData(final Class<T> type, final Function<DataMemberships, T> factory) {
+        if (!type.isInstance(m_nodeData)) {
+            m_nodeData = factory.apply(this);
+        }
+        return type.cast(m_nodeData);
     }
 
     /**
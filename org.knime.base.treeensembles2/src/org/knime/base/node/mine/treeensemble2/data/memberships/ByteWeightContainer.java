@@ -72,6 +72,20 @@ class ByteWeightContainer implements WeightContainer {
         }
     }
 
+    ByteWeightContainer(final int[] counts, final int length) {
+        m_weights = new byte[length];
+        for (int i = 0; i < length; i++) {
+            final int count = counts[i];
+            if (count > 255) {
+                throw new IllegalArgumentException(
+                    "Counts larger than 255 can not be handled by this WeightContainer implementation.");
+            } else if (count < 0) {
+                throw new IllegalArgumentException("Counts smaller zero are not permitted.");
+            }
+            m_weights[i] = (byte)count;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -49,6 +49,7 @@
 package org.knime.base.node.mine.treeensemble2.data.memberships;
 
 import java.util.BitSet;
+import java.util.function.Function;
 
 /**
  *
@@ -100,4 +101,18 @@ public interface DataMemberships {
      */
     int getRowCountInRoot();
 
+    /**
+     * Returns data that is derived from the rows of this object and that is shared by all columns evaluated for the
+     * corresponding tree node, e.g. the row masks used by bit vector columns. Implementations compute the data once
+     * and cache it, the default implementation does not cache. The method may be called concurrently if the columns of
+     * a node are evaluated in parallel.
+     *
+     * @param type the class of the data
+     * @param factory creates the data if it is not cached yet
+     * @return the data for this object
+     */
+    default <T> T getNodeData(final Class<T> type, final Function<DataMemberships, T> factory) {
+        return factory.apply(this);
+    }
+
 }
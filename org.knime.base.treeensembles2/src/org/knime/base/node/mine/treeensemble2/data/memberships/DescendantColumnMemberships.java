@@ -61,6 +61,9 @@ public class DescendantColumnMemberships implements ColumnMemberships {
 
     private int m_internalIndex = -1;
 
+    // the bit set is not changed, so its cardinality is only computed once
+    private int m_size = -1;
+
     /**
      * Creates a DescendantColumnMemberships object
      *
@@ -77,7 +80,10 @@ public DescendantColumnMemberships(final IntArrayColumnMemberships root, final B
      */
     @Override
     public int size() {
-        return m_includedIndices.cardinality();
+        if (m_size < 0) {
+            m_size = m_includedIndices.cardinality();
+        }
+        return m_size;
     }
 
     /**
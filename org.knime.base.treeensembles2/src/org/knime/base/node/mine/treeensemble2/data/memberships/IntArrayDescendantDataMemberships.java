@@ -0,0 +1,175 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data.memberships;
+
+import java.util.BitSet;
+import java.util.function.Function;
+
+/**
+ * Descendant DataMemberships for nodes that contain only a small fraction of the rows in the root.
+ * The rows are stored as sorted array of indices in the root instead of a {@link BitSet} of the size of the root,
+ * this also applies to the {@link ColumnMemberships} of the node.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class IntArrayDescendantDataMemberships implements DataMemberships {
+
+    private final RootDataMemberships m_root;
+    private final int[] m_indicesInRoot;
+    private final ColumnMemberships[] m_cachedColumnMemberships;
+
+    private Object m_nodeData;
+
+    /**
+     * @param root the root DataMemberships
+     * @param indicesInRoot the sorted indices in <b>root</b> of the rows in this node
+     */
+    public IntArrayDescendantDataMemberships(final RootDataMemberships root, final int[] indicesInRoot) {
+        m_root = root;
+        m_indicesInRoot = indicesInRoot;
+        m_cachedColumnMemberships = new ColumnMemberships[root.getNrColumns()];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getRowWeights() {
+        final double[] weights = new double[m_indicesInRoot.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = m_root.getRowWeight(m_indicesInRoot[i]);
+        }
+        return weights;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ColumnMemberships getColumnMemberships(final int index) {
+        ColumnMemberships colMem = m_cachedColumnMemberships[index];
+        if (colMem == null) {
+            colMem = m_root.descendantGetColumnMemberships(index, m_indicesInRoot);
+            m_cachedColumnMemberships[index] = colMem;
+        }
+        return colMem;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getOriginalIndices() {
+        final int[] originalIndices = new int[m_indicesInRoot.length];
+        for (int i = 0; i < originalIndices.length; i++) {
+            originalIndices[i] = m_root.getOriginalIndex(m_indicesInRoot[i]);
+        }
+        return originalIndices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DataMemberships createChildMemberships(final BitSet inChild) {
+        return m_root.createDescendantMemberships(inChild);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getRowWeight(final int index) {
+        return m_root.getRowWeight(m_indicesInRoot[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getOriginalIndex(final int index) {
+        return m_root.getOriginalIndex(m_indicesInRoot[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRowCount() {
+        return m_indicesInRoot.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRowCountInRoot() {
+        return m_root.getRowCountInRoot();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized <T> T getNodeData(final Class<T> type, final Function<DataMemberships, T> factory) {
+        if (!type.isInstance(m_nodeData)) {
+            m_nodeData = factory.apply(this);
+        }
+        return type.cast(m_nodeData);
+    }
+
+    /**
+     * For testing purposes
+     *
+     * @return the sorted indices in the root of the included rows
+     */
+    int[] getIndicesInRoot() {
+        return m_indicesInRoot;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data.memberships;
+
+import org.knime.base.node.mine.treeensemble2.data.PackedIntArray;
+
+/**
+ * Stores small non-negative integer weights (row counts) with 1, 2 or 4 bits per row packed into longs. With plain
+ * bootstrapping almost all counts are smaller than 16, so this needs a fraction of the memory of a byte per row.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class PackedWeightContainer implements WeightContainer {
+
+    private final PackedIntArray m_weights;
+
+    /**
+     * @param counts the counts, only the first <b>length</b> entries are used
+     * @param length the number of rows
+     * @param bitsPerWeight 1, 2 or 4
+     */
+    PackedWeightContainer(final int[] counts, final int length, final int bitsPerWeight) {
+        if (bitsPerWeight != 1 && bitsPerWeight != 2 && bitsPerWeight != 4) {
+            throw new IllegalArgumentException("Only 1, 2 or 4 bits per weight are supported.");
+        }
+        m_weights = new PackedIntArray(length, bitsPerWeight);
+        final int maxWeight = m_weights.getMaxValue();
+        for (int i = 0; i < length; i++) {
+            final int count = counts[i];
+            if (count < 0) {
+                throw new IllegalArgumentException("Counts smaller zero are not permitted.");
+            } else if (count > maxWeight) {
+                throw new IllegalArgumentException("Counts larger than " + maxWeight + " can not be handled with "
+                    + bitsPerWeight + " bits per weight.");
+            }
+            m_weights.set(i, count);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getWeight(final int index) {
+        return m_weights.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getAllWeights() {
+        final double[] weights = new double[m_weights.length()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = m_weights.get(i);
+        }
+        return weights;
+    }
+
+}
@@ -48,8 +48,9 @@
  */
 package org.knime.base.node.mine.treeensemble2.data.memberships;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.function.Function;
 
 import org.knime.base.node.mine.treeensemble2.data.TreeColumnData;
 import org.knime.base.node.mine.treeensemble2.data.TreeData;
@@ -58,7 +59,6 @@
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.Lists;
 
 /**
  *
@@ -73,6 +73,10 @@ public class RootDataMemberships implements DataMemberships {
 
     private static final long CACHE_SIZE = 1000;
 
+    // descendants with less than 1/SPARSE_DESCENDANT_FACTOR of the rows in the root store their rows as int array
+    // because it is smaller than a bit set that covers all rows in the root (an int takes 32 bits)
+    private static final int SPARSE_DESCENDANT_FACTOR = Integer.SIZE;
+
     final private int m_numCols;
 
 //    private final HashMap<Integer, ColumnMembershipsEntry> m_cacheHashMap;
@@ -89,39 +93,36 @@ public class RootDataMemberships implements DataMemberships {
 
     private final IDataIndexManager m_indexManager;
 
+    private Object m_nodeData;
+
     /**
      * @param rowSample
      * @param data
      * @param indexManager
      */
     public RootDataMemberships(final RowSample rowSample, final TreeData data, final IDataIndexManager indexManager) {
-        final int numRows = rowSample.getNrRows();
         m_numCols = data.getNrAttributes();
 //        m_cacheHashMap = new HashMap<Integer, ColumnMembershipsEntry>((int)(m_numCols * 1.5));
         m_cache = CacheBuilder.newBuilder()
                 .softValues()
                 .build(new ColumnMembershipsEntryCacheLoader(this));
         m_indexManager = indexManager;
-        int approximatedNumRows = (int)(numRows * 0.7);
-        ArrayList<Integer> rowCounts = new ArrayList<Integer>(approximatedNumRows);
-        ArrayList<Integer> originalIndices = new ArrayList<Integer>(approximatedNumRows);
-
-        for (int originalIndex = 0; originalIndex < data.getNrRows(); originalIndex++) {
+        final int nrRows = data.getNrRows();
+        final int[] rowCounts = new int[nrRows];
+        final int[] originalIndices = new int[nrRows];
+        int rowCountInRoot = 0;
+        for (int originalIndex = 0; originalIndex < nrRows; originalIndex++) {
             final int count = rowSample.getCountFor(originalIndex);
             if (count > 0) {
-                rowCounts.add(count);
-                originalIndices.add(originalIndex);
+                rowCounts[rowCountInRoot] = count;
+                originalIndices[rowCountInRoot] = originalIndex;
+                rowCountInRoot++;
             }
         }
-        m_rowCountInRoot = rowCounts.size();
-        m_weights = new ByteWeightContainer(rowCounts);
-//        m_rowWeights = new double[m_rowCountInRoot];
-        m_originalIndices = new int[m_rowCountInRoot];
-
-        for (int i = 0; i < rowCounts.size(); i++) {
-//            m_rowWeights[i] = rowCounts.get(i);
-            m_originalIndices[i] = originalIndices.get(i);
-        }
+        m_rowCountInRoot = rowCountInRoot;
+        // the container is chosen based on the largest count in the sample
+        m_weights = WeightContainers.create(rowCounts, rowCountInRoot);
+        m_originalIndices = Arrays.copyOf(originalIndices, rowCountInRoot);
     }
 
     /**
@@ -138,25 +139,22 @@ public RootDataMemberships(final double[] rowWeights, final TreeData data, final
                 .maximumSize(CACHE_SIZE)
                 .build(new ColumnMembershipsEntryCacheLoader(this));
         m_indexManager = indexManager;
-        ArrayList<Integer> weights = Lists.newArrayList();
-        ArrayList<Integer> originalIndices = Lists.newArrayList();
-
-        for (int originalIndex = 0; originalIndex < data.getNrRows(); originalIndex++) {
+        final int nrRows = data.getNrRows();
+        final double[] weights = new double[nrRows];
+        final int[] originalIndices = new int[nrRows];
+        int rowCountInRoot = 0;
+        for (int originalIndex = 0; originalIndex < nrRows; originalIndex++) {
             final double weight = rowWeights[originalIndex];
             if (weight > TreeColumnData.EPSILON) {
-                weights.add((int)weight);
-                originalIndices.add(originalIndex);
+                weights[rowCountInRoot] = weight;
+                originalIndices[rowCountInRoot] = originalIndex;
+                rowCountInRoot++;
             }
         }
-        m_rowCountInRoot = weights.size();
-//        m_rowWeights = new double[m_rowCountInRoot];
-        m_weights = new ByteWeightContainer(weights);
-        m_originalIndices = new int[m_rowCountInRoot];
-        for (int i = 0; i < weights.size(); i++) {
-//            m_rowWeights[i] = weights.get(i);
-            m_originalIndices[i] = originalIndices.get(i);
-        }
-
+        m_rowCountInRoot = rowCountInRoot;
+        // integer weights are stored as counts, real valued weights (e.g. observation weights) as floats
+        m_weights = WeightContainers.create(weights, rowCountInRoot);
+        m_originalIndices = Arrays.copyOf(originalIndices, rowCountInRoot);
     }
 
     private RootDataMemberships(final int numCols, final IDataIndexManager indexManager, final int[] originalIndices,
@@ -176,13 +174,12 @@ ColumnMemberships descendantGetColumnMemberships(final int index, final int[] in
         final ColumnMembershipsEntry colMemEntry = m_cache.getUnchecked(index);
         final IntArrayColumnMemberships rootColMemberships = colMemEntry.m_colMem;
         final int[] indicesInColMemberships = colMemEntry.m_indicesInColMem;
-        final BitSet colMemBs = new BitSet(m_originalIndices.length);
-
-        for (int indexInRoot : indicesInRoot) {
-            colMemBs.set(indicesInColMemberships[indexInRoot]);
+        final int[] includedIndices = new int[indicesInRoot.length];
+        for (int i = 0; i < indicesInRoot.length; i++) {
+            includedIndices[i] = indicesInColMemberships[indicesInRoot[i]];
         }
-
-        return new DescendantColumnMemberships(rootColMemberships, colMemBs);
+        Arrays.sort(includedIndices);
+        return new IntArrayDescendantColumnMemberships(rootColMemberships, includedIndices);
     }
 
     ColumnMemberships descendantGetColumnMemberships(final int index, final BitSet included) {
@@ -236,15 +233,20 @@ public DataMemberships createChildMemberships(final BitSet inChild) {
     }
 
     DataMemberships createDescendantMemberships(final BitSet inDescendant) {
-        return new BitSetDescendantDataMemberships(this, inDescendant);
-        //        final int descendantSize = inDescendant.cardinality();
-        //        final int[] indicesInRoot = new int[descendantSize];
-        //        int index = 0;
-        //        for (int i = inDescendant.nextSetBit(0); i >= 0; i = inDescendant.nextSetBit(i+1)) {
-        //            indicesInRoot[index++] = i;
-        //        }
-        //
-        //        return new DescendantDataMemberships(this, indicesInRoot);
+        final int descendantSize = inDescendant.cardinality();
+        if (descendantSize < m_originalIndices.length / SPARSE_DESCENDANT_FACTOR) {
+            final int[] indicesInRoot = new int[descendantSize];
+            int index = 0;
+            for (int i = inDescendant.nextSetBit(0); i >= 0; i = inDescendant.nextSetBit(i + 1)) {
+                indicesInRoot[index++] = i;
+            }
+            return new IntArrayDescendantDataMemberships(this, indicesInRoot);
+        }
+        return new BitSetDescendantDataMemberships(this, inDescendant, descendantSize);
+    }
+
+    int getNrColumns() {
+        return m_numCols;
     }
 
     /**
@@ -279,6 +281,17 @@ public int getRowCount() {
         return m_originalIndices.length;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized <T> T getNodeData(final Class<T> type, final Function<DataMemberships, T> factory) {
+        if (!type.isInstance(m_nodeData)) {
+            m_nodeData = factory.apply(this);
+        }
+        return type.cast(m_nodeData);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,117 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.data.memberships;
+
+/**
+ * Creates the smallest {@link WeightContainer} that can represent the given weights exactly (up to single precision
+ * for real valued weights).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class WeightContainers {
+
+    // float represents all integers up to 2^24 exactly
+    private static final int MAX_EXACT_FLOAT_INTEGER = 1 << 24;
+
+    private WeightContainers() {
+        // utility class
+    }
+
+    /**
+     * @param counts the row counts, only the first <b>length</b> entries are used
+     * @param length the number of rows
+     * @return a container for the counts
+     */
+    static WeightContainer create(final int[] counts, final int length) {
+        int max = 0;
+        for (int i = 0; i < length; i++) {
+            if (counts[i] < 0) {
+                throw new IllegalArgumentException("Counts smaller zero are not permitted.");
+            }
+            max = Math.max(max, counts[i]);
+        }
+        if (max <= 1) {
+            return new PackedWeightContainer(counts, length, 1);
+        } else if (max <= 3) {
+            return new PackedWeightContainer(counts, length, 2);
+        } else if (max <= 15) {
+            return new PackedWeightContainer(counts, length, 4);
+        } else if (max <= 0xFF) {
+            return new ByteWeightContainer(counts, length);
+        } else if (max <= 0xFFFF) {
+            return new ShortWeightContainer(counts, length);
+        }
+        if (max > MAX_EXACT_FLOAT_INTEGER) {
+            throw new IllegalArgumentException("Counts larger than " + MAX_EXACT_FLOAT_INTEGER
+                + " can not be handled by any WeightContainer implementation.");
+        }
+        final double[] weights = new double[length];
+        for (int i = 0; i < length; i++) {
+            weights[i] = counts[i];
+        }
+        return new FloatWeightContainer(weights, length);
+    }
+
+    /**
+     * @param weights the row weights, only the first <b>length</b> entries are used
+     * @param length the number of rows
+     * @return a container for integer counts if all weights are integers, otherwise a {@link FloatWeightContainer}
+     */
+    static WeightContainer create(final double[] weights, final int length) {
+        final int[] counts = new int[length];
+        for (int i = 0; i < length; i++) {
+            final double weight = weights[i];
+            if (weight != Math.rint(weight) || weight > MAX_EXACT_FLOAT_INTEGER || weight < 0) {
+                return new FloatWeightContainer(weights, length);
+            }
+            counts[i] = (int)weight;
+        }
+        return create(counts, length);
+    }
+
+}
@@ -54,6 +54,7 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.sample.column.ColumnSampleStrategy;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 
@@ -77,6 +78,10 @@ public abstract class AbstractTreeLearner {
 
     private final TreeNodeSignatureFactory m_signatureFactory;
 
+    private final double[] m_impurityDecrease;
+
+    private PhaseMetrics m_metrics = PhaseMetrics.DISABLED;
+
     /**
      * @param config
      * @param data
@@ -92,6 +97,7 @@ public AbstractTreeLearner(final TreeEnsembleLearnerConfiguration config, final
         m_colSamplingStrategy = m_config.createColumnSampleStrategy(m_data, randomData);
         m_indexManager = indexManager;
         m_signatureFactory = signatureFactory;
+        m_impurityDecrease = new double[data.getNrAttributes()];
     }
 
     final IDataIndexManager getIndexManager() {
@@ -139,6 +145,39 @@ final TreeNodeSignatureFactory getSignatureFactory() {
         return m_signatureFactory;
     }
 
+    /**
+     * Records the decrease in (weighted) impurity of a split. Must only be called from the thread that learns the
+     * tree.
+     *
+     * @param attributeIndex the index of the split attribute
+     * @param decrease the impurity of the parent node minus the impurities of its children, each weighted with the
+     *            number of records in the node
+     */
+    final void addImpurityDecrease(final int attributeIndex, final double decrease) {
+        m_impurityDecrease[attributeIndex] += decrease;
+    }
+
+    /**
+     * @return the total decrease in impurity per attribute of the splits in the learned tree
+     */
+    public final double[] getImpurityDecrease() {
+        return m_impurityDecrease;
+    }
+
+    /**
+     * Sets the metrics the phases of the tree learning (split search, membership updates, surrogates) are recorded
+     * in. By default nothing is recorded.
+     *
+     * @param metrics the metrics
+     */
+    public final void setMetrics(final PhaseMetrics metrics) {
+        m_metrics = metrics;
+    }
+
+    final PhaseMetrics getMetrics() {
+        return m_metrics;
+    }
+
     /**
      * Learns a single decision tree model
      *
@@ -0,0 +1,211 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.learner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Runs the tasks of the tree ensemble learners, predictors and model translators on the
+ * {@link KNIMEConstants#GLOBAL_THREAD_POOL global thread pool}. The calling thread waits invisibly, i.e. it doesn't
+ * occupy a slot of the pool, and pending tasks are cancelled if one of them fails.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() {
+        // utility class
+    }
+
+    /**
+     * @return the number of tasks that keep the processors busy, a small multiple of the number of processors
+     */
+    public static int getMaxNrParallelTasks() {
+        return 3 * Runtime.getRuntime().availableProcessors() / 2;
+    }
+
+    /**
+     * @param nrItems the number of items that are processed
+     * @return the number of tasks to split <b>nrItems</b> items into, at least 1 and at most
+     *         {@link #getMaxNrParallelTasks()}
+     */
+    public static int getNrTasks(final int nrItems) {
+        return Math.max(1, Math.min(getMaxNrParallelTasks(), nrItems));
+    }
+
+    /**
+     * Runs the tasks in parallel and waits until all of them are done.
+     *
+     * @param tasks the tasks to run
+     * @throws IllegalStateException if a task fails with a checked exception or waiting is interrupted, runtime
+     *             exceptions of the tasks are rethrown as they are
+     */
+    public static void runInParallel(final List<? extends Callable<?>> tasks) {
+        final ThreadPool tp = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final Callable<Void> runner = () -> {
+            final List<Future<?>> futures = new ArrayList<>(tasks.size());
+            try {
+                for (Callable<?> task : tasks) {
+                    futures.add(tp.enqueue(task));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+            }
+            return null;
+        };
+        try {
+            tp.runInvisible(runner);
+        } catch (ExecutionException e) {
+            final Throwable cause = getCause(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException("A parallel task failed.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Waiting for the parallel tasks was interrupted.", e);
+        }
+    }
+
+    /**
+     * Runs the tasks in parallel and hands their results to the consumer in task order. At most
+     * {@link #getMaxNrParallelTasks()} results are computed ahead of the one that is consumed.
+     *
+     * @param tasks the tasks to run
+     * @param consumer receives the results in the order of <b>tasks</b>, called from a single thread
+     * @param exec for cancelation, checked after each result, may be <code>null</code>
+     * @throws CanceledExecutionException if execution has been canceled
+     * @throws IllegalStateException if a task fails with a checked exception, runtime exceptions of the tasks are
+     *             rethrown as they are
+     */
+    public static <T> void runOrdered(final List<? extends Callable<T>> tasks, final Consumer<T> consumer,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        final ThreadPool tp = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final int procCount = getMaxNrParallelTasks();
+        final Callable<Void> runner = () -> {
+            @SuppressWarnings("unchecked")
+            final Future<T>[] futures = new Future[tasks.size()];
+            try {
+                for (int i = 0; i < Math.min(procCount, futures.length); i++) {
+                    futures[i] = tp.enqueue(tasks.get(i));
+                }
+                for (int i = 0; i < futures.length; i++) {
+                    final T result = futures[i].get();
+                    futures[i] = null;
+                    if (i + procCount < futures.length) {
+                        futures[i + procCount] = tp.enqueue(tasks.get(i + procCount));
+                    }
+                    consumer.accept(result);
+                    if (exec != null) {
+                        exec.checkCanceled();
+                    }
+                }
+            } finally {
+                for (Future<T> future : futures) {
+                    if (future != null) {
+                        future.cancel(true);
+                    }
+                }
+            }
+            return null;
+        };
+        try {
+            tp.runInvisible(runner);
+        } catch (ExecutionException e) {
+            final Throwable cause = getCause(e);
+            if (cause instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException("A parallel task failed.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException("Waiting for the parallel tasks was interrupted.");
+        }
+    }
+
+    /**
+     * Waits for a task that has been enqueued in the global thread pool without occupying a slot of the pool.
+     *
+     * @param future the future of the task
+     * @return the result of the task
+     * @throws ExecutionException if the task failed, {@link #getCause(ExecutionException)} provides its exception
+     * @throws InterruptedException if waiting is interrupted
+     */
+    public static <T> T await(final Future<T> future) throws ExecutionException, InterruptedException {
+        return KNIMEConstants.GLOBAL_THREAD_POOL.runInvisible(future::get);
+    }
+
+    /**
+     * {@link ThreadPool#runInvisible(Callable)} wraps the exception of a task that is awaited within the invisible
+     * callable twice.
+     *
+     * @param e the exception thrown by {@link ThreadPool#runInvisible(Callable)}
+     * @return the exception the task failed with
+     */
+    public static Throwable getCause(final ExecutionException e) {
+        return e.getCause() instanceof ExecutionException ? e.getCause().getCause() : e.getCause();
+    }
+}
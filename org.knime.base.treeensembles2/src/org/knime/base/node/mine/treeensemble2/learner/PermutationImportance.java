@@ -0,0 +1,166 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.learner;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import org.knime.base.node.mine.treeensemble2.data.AbstractTreeTargetNominalColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeDataPredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNumericColumnData;
+import org.knime.base.node.mine.treeensemble2.data.memberships.IDataIndexManager;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeModel;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNode;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNodeSurrogateCondition;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeClassification;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeColumnCondition;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeCondition;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Calculates the out-of-bag permutation importance of the attributes for a single tree. The importance of an attribute
+ * is the increase of the out-of-bag error (misclassification rate or mean squared error) if the values of the
+ * attribute are permuted among the out-of-bag rows. The permuted values are read directly from the {@link TreeData},
+ * no permuted copy of the data is created. Attributes that are not used in any condition of the tree can't change its
+ * predictions and are skipped.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class PermutationImportance {
+
+    private final TreeData m_data;
+
+    private final IDataIndexManager m_indexManager;
+
+    /**
+     * @param data the training data
+     * @param indexManager the index manager of <b>data</b>
+     */
+    PermutationImportance(final TreeData data, final IDataIndexManager indexManager) {
+        m_data = data;
+        m_indexManager = indexManager;
+    }
+
+    /**
+     * @param model the tree
+     * @param rows the out-of-bag rows of the tree
+     * @param leaves the leaves the out-of-bag rows end up in
+     * @param count the number of out-of-bag rows
+     * @param seed the seed for the permutations
+     * @param exec for cancellation
+     * @return the importance of each attribute, 0 for attributes that are not used in <b>model</b>
+     * @throws CanceledExecutionException if the execution is canceled
+     */
+    double[] calculate(final AbstractTreeModel<?> model, final int[] rows, final AbstractTreeNode[] leaves,
+        final int count, final long seed, final ExecutionMonitor exec) throws CanceledExecutionException {
+        final double[] importance = new double[m_data.getNrAttributes()];
+        if (count == 0) {
+            return importance;
+        }
+        double baseError = 0.0;
+        for (int i = 0; i < count; i++) {
+            baseError += getError(leaves[i], rows[i]);
+        }
+        final BitSet usedAttributes = new BitSet(importance.length);
+        collectUsedAttributes(model.getRootNode(), usedAttributes);
+        final SplittableRandom random = new SplittableRandom(seed);
+        final int[] permutation = new int[count];
+        final TreeDataPredictorRecord record = new TreeDataPredictorRecord(m_data, m_indexManager);
+        for (int att = usedAttributes.nextSetBit(0); att >= 0; att = usedAttributes.nextSetBit(att + 1)) {
+            exec.checkCanceled();
+            System.arraycopy(rows, 0, permutation, 0, count);
+            for (int i = count - 1; i > 0; i--) {
+                final int j = random.nextInt(i + 1);
+                final int tmp = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = tmp;
+            }
+            double permutedError = 0.0;
+            for (int i = 0; i < count; i++) {
+                record.setRow(rows[i]);
+                record.setReplacement(att, permutation[i]);
+                permutedError += getError(model.findMatchingNode(record), rows[i]);
+            }
+            importance[att] = (permutedError - baseError) / count;
+        }
+        return importance;
+    }
+
+    private double getError(final AbstractTreeNode leaf, final int row) {
+        final TreeTargetColumnData targetColumn = m_data.getTargetColumn();
+        if (targetColumn instanceof TreeTargetNumericColumnData) {
+            final double diff =
+                ((TreeNodeRegression)leaf).getMean() - ((TreeTargetNumericColumnData)targetColumn).getValueFor(row);
+            return diff * diff;
+        }
+        final int trueClass = ((AbstractTreeTargetNominalColumnData)targetColumn).getValueFor(row);
+        return ((TreeNodeClassification)leaf).getMajorityClassIndex() == trueClass ? 0.0 : 1.0;
+    }
+
+    private static void collectUsedAttributes(final AbstractTreeNode node, final BitSet usedAttributes) {
+        for (int i = 0; i < node.getNrChildren(); i++) {
+            final AbstractTreeNode child = node.getChild(i);
+            final TreeNodeCondition condition = child.getCondition();
+            if (condition instanceof TreeNodeColumnCondition) {
+                usedAttributes.set(((TreeNodeColumnCondition)condition).getColumnMetaData().getAttributeIndex());
+            } else if (condition instanceof AbstractTreeNodeSurrogateCondition) {
+                final AbstractTreeNodeSurrogateCondition surrogateCondition =
+                    (AbstractTreeNodeSurrogateCondition)condition;
+                for (int j = 0; j < surrogateCondition.getNumSurrogates() + 1; j++) {
+                    usedAttributes.set(surrogateCondition.getColumnCondition(j).getColumnMetaData().getAttributeIndex());
+                }
+            }
+            collectUsedAttributes(child, usedAttributes);
+        }
+    }
+
+}
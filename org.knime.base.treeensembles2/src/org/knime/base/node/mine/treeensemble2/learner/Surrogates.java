@@ -49,8 +49,10 @@
 package org.knime.base.node.mine.treeensemble2.learner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.math.random.RandomData;
 import org.knime.base.node.mine.treeensemble2.data.ClassificationPriors;
@@ -67,7 +69,6 @@
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeSurrogateOnlyDefDirCondition;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.sample.column.ColumnSample;
-import org.knime.core.data.RowKey;
 
 /**
  *
@@ -75,6 +76,9 @@
  */
 public class Surrogates {
 
+    /** Columns are only evaluated in parallel if each task gets at least this many columns. */
+    private static final int MIN_COLUMNS_PER_TASK = 8;
+
     private static final TreeTargetNominalColumnMetaData SURROGATE_TARGET_META =
         new TreeTargetNominalColumnMetaData("SurrogateTarget", new NominalValueRepresentation[]{
             new NominalValueRepresentation("L", 0, -1), new NominalValueRepresentation("R", 1, -1)});
@@ -111,6 +115,10 @@ public static SurrogateSplit createSurrogateSplitWithDefaultDirection(final Data
     /**
      * This function searches for splits in the remaining columns of <b>colSample</b>. It is doing so by taking the
      * directions (left or right) that are induced by the <b>bestSplit</b> as new target.
+     * Small column samples are evaluated one after the other with <b>rd</b>, exactly as before. Large column samples
+     * (at least twice {@link #MIN_COLUMNS_PER_TASK} columns) are evaluated in parallel and each column gets its own
+     * random generator that is seeded from <b>rd</b> in column order. Which of the two is used only depends on the
+     * sample size, so the result neither depends on the scheduling nor on the number of processors.
      *
      * @param dataMemberships provides information which rows are in the current branch
      * @param bestSplit the best split for the current node
@@ -126,6 +134,9 @@ public static SurrogateSplit learnSurrogates(final DataMemberships dataMembershi
 
         TreeAttributeColumnData bestSplitCol = bestSplit.getColumnData();
         TreeNodeCondition[] bestSplitChildConditions = bestSplit.getChildConditions();
+        if (bestSplitChildConditions.length != 2) {
+            throw new IllegalArgumentException("Surrogates can only be calculated for binary splits.");
+        }
 
         // calculate new Target
         BitSet bestSplitLeft = bestSplitCol.updateChildMemberships(bestSplitChildConditions[0], dataMemberships);
@@ -135,31 +146,84 @@ public static SurrogateSplit learnSurrogates(final DataMemberships dataMembershi
         surrogateBitSet.or(bestSplitRight);
 
         DataMemberships surrogateCalcDataMemberships = dataMemberships.createChildMemberships(surrogateBitSet);
-        TreeTargetNominalColumnData newTarget =
-            createNewTargetColumn(bestSplitLeft, bestSplitRight, oldData.getNrRows(), surrogateCalcDataMemberships);
+        final TreeTargetNominalColumnData newTarget =
+            createNewTargetColumn(bestSplitLeft, bestSplitRight, oldData.getNrRows(), dataMemberships);
 
         // find best splits on new target
-        ArrayList<SplitCandidate> candidates = new ArrayList<SplitCandidate>();
-        ClassificationPriors newTargetPriors = newTarget.getDistribution(surrogateCalcDataMemberships, config);
+        final ClassificationPriors newTargetPriors = newTarget.getDistribution(surrogateCalcDataMemberships, config);
+        final List<TreeAttributeColumnData> surrogateCols = new ArrayList<TreeAttributeColumnData>();
         for (TreeAttributeColumnData col : colSample) {
             if (col != bestSplitCol) {
-                SplitCandidate candidate =
-                    col.calcBestSplitClassification(surrogateCalcDataMemberships, newTargetPriors, newTarget, rd);
-                if (candidate != null) {
-                    candidates.add(candidate);
-                }
+                surrogateCols.add(col);
             }
         }
+        final int nrCols = surrogateCols.size();
+        final RandomData[] colRandomData = new RandomData[nrCols];
+        final SplitCandidate[] colCandidates = new SplitCandidate[nrCols];
+        final int nrTasks;
+        if (nrCols < 2 * MIN_COLUMNS_PER_TASK) {
+            // keep the random stream of the sequential search
+            Arrays.fill(colRandomData, rd);
+            nrTasks = 1;
+        } else {
+            for (int i = 0; i < nrCols; i++) {
+                colRandomData[i] =
+                    TreeEnsembleLearnerConfiguration.createRandomData(rd.nextLong(Long.MIN_VALUE, Long.MAX_VALUE));
+            }
+            nrTasks = Math.min(ParallelTasks.getMaxNrParallelTasks(), nrCols / MIN_COLUMNS_PER_TASK);
+        }
+        if (nrTasks <= 1) {
+            calcSurrogateCandidates(surrogateCols, 0, nrCols, surrogateCalcDataMemberships, newTargetPriors, newTarget,
+                colRandomData, colCandidates);
+        } else {
+            calcSurrogateCandidatesInParallel(surrogateCols, nrTasks, surrogateCalcDataMemberships, newTargetPriors,
+                newTarget, colRandomData, colCandidates);
+        }
 
-        SplitCandidate[] candidatesWithBestAtHead = new SplitCandidate[candidates.size() + 1];
-        candidatesWithBestAtHead[0] = bestSplit;
-        for (int i = 1; i < candidatesWithBestAtHead.length; i++) {
-            candidatesWithBestAtHead[i] = candidates.get(i - 1);
+        final List<SplitCandidate> candidates = new ArrayList<SplitCandidate>(nrCols + 1);
+        candidates.add(bestSplit);
+        for (SplitCandidate candidate : colCandidates) {
+            if (candidate != null) {
+                candidates.add(candidate);
+            }
         }
 
-        return calculateSurrogates(dataMemberships, candidatesWithBestAtHead);
+        return calculateSurrogates(dataMemberships, candidates.toArray(new SplitCandidate[candidates.size()]),
+            bestSplitLeft, bestSplitRight, config.getMaxNrSurrogates());
     }
 
+    private static void calcSurrogateCandidates(final List<TreeAttributeColumnData> cols, final int from,
+        final int to, final DataMemberships dataMemberships, final ClassificationPriors targetPriors,
+        final TreeTargetNominalColumnData target, final RandomData[] colRandomData,
+        final SplitCandidate[] colCandidates) {
+        for (int i = from; i < to; i++) {
+            colCandidates[i] =
+                cols.get(i).calcBestSplitClassification(dataMemberships, targetPriors, target, colRandomData[i]);
+        }
+    }
+
+    private static void calcSurrogateCandidatesInParallel(final List<TreeAttributeColumnData> cols,
+        final int nrTasks, final DataMemberships dataMemberships, final ClassificationPriors targetPriors,
+        final TreeTargetNominalColumnData target, final RandomData[] colRandomData,
+        final SplitCandidate[] colCandidates) {
+        final int nrCols = cols.size();
+        final List<Callable<Void>> tasks = new ArrayList<>(nrTasks);
+        for (int t = 0; t < nrTasks; t++) {
+            final int from = (int)((long)nrCols * t / nrTasks);
+            final int to = (int)((long)nrCols * (t + 1) / nrTasks);
+            tasks.add(() -> {
+                calcSurrogateCandidates(cols, from, to, dataMemberships, targetPriors, target, colRandomData,
+                    colCandidates);
+                return null;
+            });
+        }
+        ParallelTasks.runInParallel(tasks);
+    }
+
+    /**
+     * Creates the target for the surrogate search: "L" for rows the best split sends left, "R" for rows it sends
+     * right. Only the rows in <b>dataMemberships</b> are set.
+     */
     private static TreeTargetNominalColumnData createNewTargetColumn(final BitSet bestSplitLeft,
         final BitSet bestSplitRight, final int nrRows, final DataMemberships dataMemberships) {
 
@@ -168,16 +232,15 @@ private static TreeTargetNominalColumnData createNewTargetColumn(final BitSet be
         for (int i = 0; i < relevantIndices.length; i++) {
             if (bestSplitLeft.get(i)) {
                 // corresponds to nominal value "L"
-                data[i] = 0;
+                data[relevantIndices[i]] = 0;
             } else if (bestSplitRight.get(i)) {
                 // corresponds to nominal value "R"
-                data[i] = 1;
+                data[relevantIndices[i]] = 1;
             }
-            // all other indices are left 0 but they will not be encountered because
-            // we only look at the instances indexed by the dataMemberships
+            // rows missed by the best split are not part of the surrogate search
         }
 
-        return new TreeTargetNominalColumnData(SURROGATE_TARGET_META, new RowKey[nrRows], data);
+        return new TreeTargetNominalColumnData(SURROGATE_TARGET_META, data);
     }
 
     /**
@@ -201,6 +264,23 @@ public static SurrogateSplit calculateSurrogates(final DataMemberships dataMembe
 
         BitSet bestSplitLeft = bestSplitCol.updateChildMemberships(bestSplitChildConditions[0], dataMemberships);
         BitSet bestSplitRight = bestSplitCol.updateChildMemberships(bestSplitChildConditions[1], dataMemberships);
+        return calculateSurrogates(dataMemberships, candidates, bestSplitLeft, bestSplitRight,
+            TreeEnsembleLearnerConfiguration.MAX_NR_SURROGATES_ALL);
+    }
+
+    /**
+     * Same as {@link #calculateSurrogates(DataMemberships, SplitCandidate[])} but with the child markers of the best
+     * split already computed. Only the <b>maxNrSurrogates</b> candidates with the highest association are retained
+     * (the earlier candidate wins ties).
+     */
+    private static SurrogateSplit calculateSurrogates(final DataMemberships dataMemberships,
+        final SplitCandidate[] candidates, final BitSet bestSplitLeft, final BitSet bestSplitRight,
+        final int maxNrSurrogates) {
+        final SplitCandidate bestSplit = candidates[0];
+        TreeNodeCondition[] bestSplitChildConditions = bestSplit.getChildConditions();
+        if (bestSplitChildConditions.length != 2) {
+            throw new IllegalArgumentException("Surrogates can only be calculated for binary splits.");
+        }
 
         final double numRowsInNode = dataMemberships.getRowCount();
         // probability for a row to be in the current node
@@ -216,8 +296,13 @@ public static SurrogateSplit calculateSurrogates(final DataMemberships dataMembe
         // see calculatAssociationMeasure() for more information
         final double errorMajorityRule = majorityGoesLeft ? bestSplitProbRight : bestSplitProbLeft;
 
-        // stores association measure for candidates
+        // stores the retained candidates sorted descending by association measure
+        final int maxRetained =
+            maxNrSurrogates == TreeEnsembleLearnerConfiguration.MAX_NR_SURROGATES_ALL ? Integer.MAX_VALUE
+                : maxNrSurrogates;
         ArrayList<SurrogateCandidate> surrogateCandidates = new ArrayList<SurrogateCandidate>();
+        // scratch set for the intersections of the child markers
+        final BitSet intersection = new BitSet();
 
         for (int i = 1; i < candidates.length; i++) {
             SplitCandidate surrogate = candidates[i];
@@ -229,24 +314,18 @@ public static SurrogateSplit calculateSurrogates(final DataMemberships dataMembe
             BitSet surrogateLeft = surrogateCol.updateChildMemberships(surrogateChildConditions[0], dataMemberships);
             BitSet surrogateRight = surrogateCol.updateChildMemberships(surrogateChildConditions[1], dataMemberships);
 
-            BitSet bothLeft = (BitSet)bestSplitLeft.clone();
-            bothLeft.and(surrogateLeft);
-            BitSet bothRight = (BitSet)bestSplitRight.clone();
-            bothRight.and(surrogateRight);
-            // the complement of a split (switching the children) has the same gain value as the original split
-            BitSet complementBothLeft = (BitSet)bestSplitLeft.clone();
-            complementBothLeft.and(surrogateRight);
-            BitSet complementBothRight = (BitSet)bestSplitRight.clone();
-            complementBothRight.and(surrogateLeft);
-
             // calculating the probability that the surrogate candidate and the best split send a case both in the same
             // direction is necessary because there might be missing values which are not send in either direction
-            double probBothLeft = (bothLeft.cardinality() / numRowsInNode);
-            double probBothRight = (bothRight.cardinality() / numRowsInNode);
+            double probBothLeft = intersectionCardinality(intersection, bestSplitLeft, surrogateLeft) / numRowsInNode;
+            double probBothRight =
+                intersectionCardinality(intersection, bestSplitRight, surrogateRight) / numRowsInNode;
             // the relative probability that the surrogate predicts the best split correctly
             double predictProb = probBothLeft + probBothRight;
-            double probComplementBothLeft = (complementBothLeft.cardinality() / numRowsInNode);
-            double probComplementBothRight = (complementBothRight.cardinality() / numRowsInNode);
+            // the complement of a split (switching the children) has the same gain value as the original split
+            double probComplementBothLeft =
+                intersectionCardinality(intersection, bestSplitLeft, surrogateRight) / numRowsInNode;
+            double probComplementBothRight =
+                intersectionCardinality(intersection, bestSplitRight, surrogateLeft) / numRowsInNode;
             double complementPredictProb = probComplementBothLeft + probComplementBothRight;
 
             double associationMeasure = calculateAssociationMeasure(errorMajorityRule, predictProb);
@@ -255,9 +334,20 @@ public static SurrogateSplit calculateSurrogates(final DataMemberships dataMembe
             double betterAssociationMeasure = useComplement ? complementAssociationMeasure : associationMeasure;
             assert betterAssociationMeasure <= 1 : "Association measure can not be greater than 1.";
             if (betterAssociationMeasure > 0) {
-                BitSet[] childMarkers = new BitSet[]{surrogateLeft, surrogateRight};
-                surrogateCandidates
-                    .add(new SurrogateCandidate(surrogate, useComplement, betterAssociationMeasure, childMarkers));
+                // insert behind all candidates with an equal or higher association measure
+                int insertionPoint = surrogateCandidates.size();
+                while (insertionPoint > 0
+                    && surrogateCandidates.get(insertionPoint - 1).m_associationMeasure < betterAssociationMeasure) {
+                    insertionPoint--;
+                }
+                if (insertionPoint < maxRetained) {
+                    BitSet[] childMarkers = new BitSet[]{surrogateLeft, surrogateRight};
+                    surrogateCandidates.add(insertionPoint,
+                        new SurrogateCandidate(surrogate, useComplement, betterAssociationMeasure, childMarkers));
+                    if (surrogateCandidates.size() > maxRetained) {
+                        surrogateCandidates.remove(surrogateCandidates.size() - 1);
+                    }
+                }
             }
         }
 
@@ -273,8 +363,6 @@ public static SurrogateSplit calculateSurrogates(final DataMemberships dataMembe
                 childMarkers);
         }
 
-        surrogateCandidates.sort(null);
-
         int condSize = surrogateCandidates.size() + 1;
 
         TreeNodeColumnCondition[] conditionsLeftChild = new TreeNodeColumnCondition[condSize];
@@ -377,6 +465,13 @@ private static void fillInMissingChildMarkersWithDefault(final SplitCandidate be
         }
     }
 
+    private static int intersectionCardinality(final BitSet intersection, final BitSet first, final BitSet second) {
+        intersection.clear();
+        intersection.or(first);
+        intersection.and(second);
+        return intersection.cardinality();
+    }
+
     /**
      *
      * @param errorMajorityRule is the error made (in relation to the best split) if we take the direction with the
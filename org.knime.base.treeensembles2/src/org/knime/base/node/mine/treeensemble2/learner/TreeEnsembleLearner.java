@@ -47,6 +47,7 @@
  */
 package org.knime.base.node.mine.treeensemble2.learner;
 
+import java.util.BitSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -56,6 +57,7 @@
 import org.apache.commons.math.random.RandomData;
 import org.knime.base.node.mine.treeensemble2.data.TreeAttributeColumnData;
 import org.knime.base.node.mine.treeensemble2.data.TreeData;
+import org.knime.base.node.mine.treeensemble2.data.TreeDataPredictorRecord;
 import org.knime.base.node.mine.treeensemble2.data.memberships.BitVectorDataIndexManager;
 import org.knime.base.node.mine.treeensemble2.data.memberships.DefaultDataIndexManager;
 import org.knime.base.node.mine.treeensemble2.data.memberships.IDataIndexManager;
@@ -69,11 +71,15 @@
 import org.knime.base.node.mine.treeensemble2.sample.column.ColumnSampleStrategy;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSampler;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
+import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
@@ -97,8 +103,6 @@ public class TreeEnsembleLearner {
 
     private final TreeData m_data;
 
-    private RowSample[] m_rowSamples;
-
     private ColumnSampleStrategy[] m_columnSampleStrategies;
 
     private TreeEnsembleModel m_ensembleModel;
@@ -109,6 +113,14 @@ public class TreeEnsembleLearner {
 
     private final RowSampler m_rowSampler;
 
+    private OutOfBagAggregator m_outOfBagAggregator;
+
+    private final boolean m_computeVariableImportance;
+
+    private VariableImportanceStatistics m_variableImportance;
+
+    private PhaseMetrics m_metrics = PhaseMetrics.DISABLED;
+
     /**
      * @param config
      * @param data
@@ -116,6 +128,7 @@ public class TreeEnsembleLearner {
     public TreeEnsembleLearner(final TreeEnsembleLearnerConfiguration config, final TreeData data) {
         m_config = config;
         m_data = data;
+        m_computeVariableImportance = config.isComputeVariableImportance();
         if (data.getTreeType() == TreeType.BitVector) {
             m_indexManager = new BitVectorDataIndexManager(m_data.getNrRows());
         } else {
@@ -133,6 +146,25 @@ public TreeEnsembleLearner(final TreeEnsembleLearnerConfiguration config, final
         }
     }
 
+    /**
+     * Sets the aggregator that receives the out-of-bag rows of each tree while the ensemble is learned.
+     *
+     * @param outOfBagAggregator the aggregator or null if no out-of-bag predictions should be collected
+     */
+    public void setOutOfBagAggregator(final OutOfBagAggregator outOfBagAggregator) {
+        m_outOfBagAggregator = outOfBagAggregator;
+    }
+
+    /**
+     * Sets the metrics the phases of the learning (tree learning, split search, out-of-bag scoring, ...) are
+     * recorded in. By default nothing is recorded.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(final PhaseMetrics metrics) {
+        m_metrics = metrics;
+    }
+
     public TreeEnsembleModel learnEnsemble(final ExecutionMonitor exec) throws CanceledExecutionException,
         ExecutionException, InterruptedException {
         final int nrModels = m_config.getNrModels();
@@ -143,6 +175,8 @@ public TreeEnsembleModel learnEnsemble(final ExecutionMonitor exec) throws Cance
         final Future<TreeLearnerResult>[] modelFutures = new Future[nrModels];
         final int procCount = 3 * Runtime.getRuntime().availableProcessors() / 2;
         final Semaphore semaphore = new Semaphore(procCount);
+        final OutOfBagMerger outOfBagMerger = m_outOfBagAggregator == null ? null
+            : new OutOfBagMerger(m_outOfBagAggregator, nrModels, semaphore, learnThrowableRef, m_metrics);
         Callable<TreeLearnerResult[]> learnCallable = new Callable<TreeLearnerResult[]>() {
             @Override
             public TreeLearnerResult[] call() throws Exception {
@@ -155,7 +189,8 @@ public TreeLearnerResult[] call() throws Exception {
                         TreeEnsembleLearnerConfiguration.createRandomData(rd.nextLong(Long.MIN_VALUE, Long.MAX_VALUE));
                     ExecutionMonitor subExec = exec.createSubProgress(0.0);
                     modelFutures[i] =
-                        tp.enqueue(new TreeLearnerCallable(subExec, rdSingle, learnThrowableRef, semaphore));
+                        tp.enqueue(new TreeLearnerCallable(subExec, rdSingle, learnThrowableRef, semaphore, i,
+                            outOfBagMerger));
                 }
                 for (int i = 0; i < procCount; i++) {
                     semaphore.acquire();
@@ -180,24 +215,31 @@ private void finishedTree(final int treeIndex, final ExecutionMonitor progMon) {
         TreeLearnerResult[] modelResults = tp.runInvisible(learnCallable);
         checkThrowable(learnThrowableRef);
         AbstractTreeModel[] models = new AbstractTreeModel[nrModels];
-        m_rowSamples = new RowSample[nrModels];
         m_columnSampleStrategies = new ColumnSampleStrategy[nrModels];
+        m_variableImportance =
+            m_computeVariableImportance ? new VariableImportanceStatistics(m_data.getNrAttributes()) : null;
         for (int i = 0; i < nrModels; i++) {
             models[i] = modelResults[i].m_treeModel;
-            m_rowSamples[i] = modelResults[i].m_rowSample;
             m_columnSampleStrategies[i] = modelResults[i].m_rootColumnSampleStrategy;
+            if (m_variableImportance != null) {
+                // summed up in tree order so that the result doesn't depend on the thread scheduling
+                m_variableImportance.add(modelResults[i].m_treeImportance);
+            }
         }
         m_ensembleModel = new TreeEnsembleModel(m_config, m_data.getMetaData(), models, m_data.getTreeType());
         return m_ensembleModel;
     }
 
-    /** @return the rowSamples */
-    public RowSample[] getRowSamples() {
-        return m_rowSamples;
-    }
-
+    /**
+     * Creates the attribute statistics table. If the variable importance was computed while learning (see
+     * {@link TreeEnsembleLearnerConfiguration#isComputeVariableImportance()}), the importance columns are appended.
+     *
+     * @param exec for table creation and cancellation
+     * @return a table with one row per attribute, see {@link #getColumnStatisticTableSpec(boolean)}
+     * @throws CanceledExecutionException if the execution is canceled
+     */
     public BufferedDataTable createColumnStatisticTable(final ExecutionContext exec) throws CanceledExecutionException {
-        BufferedDataContainer c = exec.createDataContainer(getColumnStatisticTableSpec());
+        BufferedDataContainer c = exec.createDataContainer(getColumnStatisticTableSpec(m_variableImportance != null));
         final int nrModels = m_ensembleModel.getNrModels();
         final TreeAttributeColumnData[] columns = m_data.getColumns();
         final int nrAttributes = columns.length;
@@ -225,12 +267,17 @@ public BufferedDataTable createColumnStatisticTable(final ExecutionContext exec)
 
         for (int i = 0; i < nrAttributes; i++) {
             String name = columns[i].getMetaData().getAttributeName();
-            int[] counts = new int[2 * REPORT_LEVEL];
+            DataCell[] cells = new DataCell[2 * REPORT_LEVEL + (m_variableImportance != null ? 3 : 0)];
             for (int level = 0; level < REPORT_LEVEL; level++) {
-                counts[level] = columnOnLevelCounts[level][i];
-                counts[REPORT_LEVEL + level] = columnInLevelSampleCounts[level][i];
+                cells[level] = new IntCell(columnOnLevelCounts[level][i]);
+                cells[REPORT_LEVEL + level] = new IntCell(columnInLevelSampleCounts[level][i]);
+            }
+            if (m_variableImportance != null) {
+                cells[2 * REPORT_LEVEL] = new DoubleCell(m_variableImportance.getImpurityDecrease(i, nrModels));
+                cells[2 * REPORT_LEVEL + 1] = new DoubleCell(m_variableImportance.getPermutationImportance(i));
+                cells[2 * REPORT_LEVEL + 2] = new DoubleCell(m_variableImportance.getPermutationImportanceStdDev(i));
             }
-            DataRow row = new DefaultRow(name, counts);
+            DataRow row = new DefaultRow(name, cells);
             c.addRowToTable(row);
             exec.checkCanceled();
         }
@@ -254,6 +301,27 @@ public synchronized static DataTableSpec getColumnStatisticTableSpec() {
         return COLUMN_STAT_TABLE_SPEC;
     }
 
+    private static DataTableSpec COLUMN_STAT_TABLE_SPEC_WITH_IMPORTANCE;
+
+    /**
+     * @param withVariableImportance if the variable importance columns (impurity decrease, permutation importance
+     *            and its standard deviation) are appended
+     * @return the spec of the table created by {@link #createColumnStatisticTable(ExecutionContext)}
+     */
+    public synchronized static DataTableSpec getColumnStatisticTableSpec(final boolean withVariableImportance) {
+        if (!withVariableImportance) {
+            return getColumnStatisticTableSpec();
+        }
+        if (COLUMN_STAT_TABLE_SPEC_WITH_IMPORTANCE == null) {
+            COLUMN_STAT_TABLE_SPEC_WITH_IMPORTANCE = new DataTableSpec("Tree Ensemble Column Statistic",
+                getColumnStatisticTableSpec(),
+                new DataTableSpec(new DataColumnSpecCreator("Impurity decrease", DoubleCell.TYPE).createSpec(),
+                    new DataColumnSpecCreator("Permutation importance", DoubleCell.TYPE).createSpec(),
+                    new DataColumnSpecCreator("Permutation importance (std. dev.)", DoubleCell.TYPE).createSpec()));
+        }
+        return COLUMN_STAT_TABLE_SPEC_WITH_IMPORTANCE;
+    }
+
     private void checkThrowable(final AtomicReference<Throwable> learnThrowableRef) throws CanceledExecutionException {
         Throwable th = learnThrowableRef.get();
         if (th != null) {
@@ -277,19 +345,27 @@ private final class TreeLearnerCallable implements Callable<TreeLearnerResult> {
 
         private final AtomicReference<Throwable> m_throwableReference;
 
+        private final int m_treeIndex;
+
+        private final OutOfBagMerger m_outOfBagMerger;
+
         /**
          *  */
         public TreeLearnerCallable(final ExecutionMonitor exec, final RandomData rd,
-            final AtomicReference<Throwable> th, final Semaphore semaphore) {
+            final AtomicReference<Throwable> th, final Semaphore semaphore, final int treeIndex,
+            final OutOfBagMerger outOfBagMerger) {
             m_exec = exec;
             m_rd = rd;
             m_throwableReference = th;
             m_releaseSemaphore = semaphore;
+            m_treeIndex = treeIndex;
+            m_outOfBagMerger = outOfBagMerger;
         }
 
         /** {@inheritDoc} */
         @Override
         public TreeLearnerResult call() throws Exception {
+            OutOfBagRows outOfBagRows = null;
             try {
                 AbstractTreeLearner learner;
                 final RowSample rowSample = m_rowSampler.createRowSample(m_rd);
@@ -298,16 +374,136 @@ public TreeLearnerResult call() throws Exception {
                 } else {
                     learner = new TreeLearnerClassification(m_config, m_data, m_indexManager, m_signatureFactory, m_rd, rowSample);
                 }
+                learner.setMetrics(m_metrics);
+                final long learnStart = m_metrics.start();
                 AbstractTreeModel model = learner.learnSingleTree(m_exec, m_rd);
+                m_metrics.stop(Phase.TREE_LEARNING, learnStart);
                 final ColumnSampleStrategy colSamplingStrategy = learner.getColSamplingStrategy();
-                TreeLearnerResult result = new TreeLearnerResult(model, rowSample, colSamplingStrategy);
+                TreeLearnerResult result = new TreeLearnerResult(model, colSamplingStrategy);
+                if (m_outOfBagMerger != null || m_computeVariableImportance) {
+                    final long outOfBagStart = m_metrics.start();
+                    outOfBagRows = findOutOfBagLeaves(model, rowSample);
+                    m_metrics.stop(Phase.OUT_OF_BAG, outOfBagStart);
+                }
+                if (m_computeVariableImportance) {
+                    final long importanceStart = m_metrics.start();
+                    double[] permutationImportance = new PermutationImportance(m_data, m_indexManager).calculate(
+                        model, outOfBagRows.m_rows, outOfBagRows.m_leaves, outOfBagRows.m_count,
+                        m_rd.nextLong(Long.MIN_VALUE, Long.MAX_VALUE), m_exec);
+                    m_metrics.stop(Phase.VARIABLE_IMPORTANCE, importanceStart);
+                    result.m_treeImportance = new TreeImportance(learner.getImpurityDecrease(),
+                        permutationImportance, outOfBagRows.m_count > 0);
+                }
                 m_exec.setProgress(1.0);
                 return result;
             } catch (Throwable t) {
                 m_throwableReference.compareAndSet(null, t);
                 return null;
             } finally {
-                m_releaseSemaphore.release();
+                if (m_outOfBagMerger == null) {
+                    m_releaseSemaphore.release();
+                } else {
+                    // the merger releases the semaphore once the tree is merged
+                    m_outOfBagMerger.submit(m_treeIndex, outOfBagRows);
+                }
+            }
+        }
+
+        private OutOfBagRows findOutOfBagLeaves(final AbstractTreeModel<?> model, final RowSample rowSample)
+            throws CanceledExecutionException {
+            final int nrRows = m_data.getNrRows();
+            int count = 0;
+            for (int i = 0; i < nrRows; i++) {
+                if (rowSample.getCountFor(i) == 0) {
+                    count++;
+                }
+            }
+            final int[] rows = new int[count];
+            final AbstractTreeNode[] leaves = new AbstractTreeNode[count];
+            final TreeDataPredictorRecord record = new TreeDataPredictorRecord(m_data, m_indexManager);
+            int index = 0;
+            for (int i = 0; i < nrRows; i++) {
+                if (rowSample.getCountFor(i) == 0) {
+                    record.setRow(i);
+                    rows[index] = i;
+                    leaves[index] = model.findMatchingNode(record);
+                    index++;
+                }
+                if ((i & 0xFFF) == 0) {
+                    m_exec.checkCanceled();
+                }
+            }
+            return new OutOfBagRows(rows, leaves, count);
+        }
+    }
+
+    /**
+     * The out-of-bag rows of a single tree and the leaves they end up in.
+     */
+    private static final class OutOfBagRows {
+
+        private static final OutOfBagRows EMPTY = new OutOfBagRows(new int[0], new AbstractTreeNode[0], 0);
+
+        private final int[] m_rows;
+
+        private final AbstractTreeNode[] m_leaves;
+
+        private final int m_count;
+
+        private OutOfBagRows(final int[] rows, final AbstractTreeNode[] leaves, final int count) {
+            m_rows = rows;
+            m_leaves = leaves;
+            m_count = count;
+        }
+    }
+
+    /**
+     * Passes the out-of-bag rows of the trees to the {@link OutOfBagAggregator} in the order of the tree index so that
+     * the aggregated predictions don't depend on the order in which the trees finish. A tree keeps its permit of the
+     * semaphore until it is merged, which limits the number of trees waiting for their predecessors.
+     */
+    private static final class OutOfBagMerger {
+
+        private final OutOfBagAggregator m_aggregator;
+
+        private final OutOfBagRows[] m_pending;
+
+        private final Semaphore m_releaseSemaphore;
+
+        private final AtomicReference<Throwable> m_throwableReference;
+
+        private final PhaseMetrics m_metrics;
+
+        private int m_nextTreeIndex;
+
+        private OutOfBagMerger(final OutOfBagAggregator aggregator, final int nrModels, final Semaphore semaphore,
+            final AtomicReference<Throwable> th, final PhaseMetrics metrics) {
+            m_aggregator = aggregator;
+            m_pending = new OutOfBagRows[nrModels];
+            m_releaseSemaphore = semaphore;
+            m_throwableReference = th;
+            m_metrics = metrics;
+        }
+
+        /**
+         * @param treeIndex the index of the tree
+         * @param outOfBagRows the out-of-bag rows of the tree or null if the tree could not be learned
+         */
+        private synchronized void submit(final int treeIndex, final OutOfBagRows outOfBagRows) {
+            m_pending[treeIndex] = outOfBagRows == null ? OutOfBagRows.EMPTY : outOfBagRows;
+            while (m_nextTreeIndex < m_pending.length && m_pending[m_nextTreeIndex] != null) {
+                final OutOfBagRows next = m_pending[m_nextTreeIndex];
+                m_pending[m_nextTreeIndex] = null;
+                m_nextTreeIndex++;
+                final long start = m_metrics.start();
+                try {
+                    m_aggregator.addTree(next.m_rows, next.m_leaves, next.m_count);
+                    m_metrics.stop(Phase.OUT_OF_BAG, start);
+                } catch (Throwable t) {
+                    m_throwableReference.compareAndSet(null, t);
+                } finally {
+                    m_releaseSemaphore.release();
+                }
             }
         }
     }
@@ -315,22 +511,108 @@ public TreeLearnerResult call() throws Exception {
     private final static class TreeLearnerResult {
         private final AbstractTreeModel m_treeModel;
 
-        private final RowSample m_rowSample;
-
         private final ColumnSampleStrategy m_rootColumnSampleStrategy;
 
+        /** only set if the variable importance is calculated */
+        private TreeImportance m_treeImportance;
+
         /**
          * @param treeModel
-         * @param rowSample
          * @param columnSampleStrategy
          */
-        private TreeLearnerResult(final AbstractTreeModel treeModel, final RowSample rowSample,
-            final ColumnSampleStrategy columnSampleStrategy) {
+        private TreeLearnerResult(final AbstractTreeModel treeModel, final ColumnSampleStrategy columnSampleStrategy) {
             m_treeModel = treeModel;
-            m_rowSample = rowSample;
             m_rootColumnSampleStrategy = columnSampleStrategy;
         }
 
     }
 
+    /**
+     * The (sparse) variable importance of a single tree, only attributes used in the tree have a non-zero importance.
+     */
+    private static final class TreeImportance {
+
+        private final int[] m_attributes;
+
+        private final double[] m_impurityDecrease;
+
+        private final double[] m_permutationImportance;
+
+        private final boolean m_hasOutOfBagRows;
+
+        private TreeImportance(final double[] impurityDecrease, final double[] permutationImportance,
+            final boolean hasOutOfBagRows) {
+            BitSet attributes = new BitSet(impurityDecrease.length);
+            for (int i = 0; i < impurityDecrease.length; i++) {
+                if (impurityDecrease[i] != 0.0 || permutationImportance[i] != 0.0) {
+                    attributes.set(i);
+                }
+            }
+            m_attributes = attributes.stream().toArray();
+            m_impurityDecrease = new double[m_attributes.length];
+            m_permutationImportance = new double[m_attributes.length];
+            for (int i = 0; i < m_attributes.length; i++) {
+                m_impurityDecrease[i] = impurityDecrease[m_attributes[i]];
+                m_permutationImportance[i] = permutationImportance[m_attributes[i]];
+            }
+            m_hasOutOfBagRows = hasOutOfBagRows;
+        }
+    }
+
+    /**
+     * Sums up the variable importance of the trees.
+     */
+    private static final class VariableImportanceStatistics {
+
+        private final double[] m_impurityDecreaseSum;
+
+        private final double[] m_permutationImportanceSum;
+
+        private final double[] m_permutationImportanceSquareSum;
+
+        private int m_nrTreesWithOutOfBagRows;
+
+        private VariableImportanceStatistics(final int nrAttributes) {
+            m_impurityDecreaseSum = new double[nrAttributes];
+            m_permutationImportanceSum = new double[nrAttributes];
+            m_permutationImportanceSquareSum = new double[nrAttributes];
+        }
+
+        private void add(final TreeImportance treeImportance) {
+            for (int i = 0; i < treeImportance.m_attributes.length; i++) {
+                final int att = treeImportance.m_attributes[i];
+                final double permutationImportance = treeImportance.m_permutationImportance[i];
+                m_impurityDecreaseSum[att] += treeImportance.m_impurityDecrease[i];
+                m_permutationImportanceSum[att] += permutationImportance;
+                m_permutationImportanceSquareSum[att] += permutationImportance * permutationImportance;
+            }
+            if (treeImportance.m_hasOutOfBagRows) {
+                m_nrTreesWithOutOfBagRows++;
+            }
+        }
+
+        /** mean decrease in impurity per tree */
+        private double getImpurityDecrease(final int att, final int nrModels) {
+            return m_impurityDecreaseSum[att] / nrModels;
+        }
+
+        /** mean increase of the out-of-bag error over all trees with out-of-bag rows */
+        private double getPermutationImportance(final int att) {
+            if (m_nrTreesWithOutOfBagRows == 0) {
+                return Double.NaN;
+            }
+            return m_permutationImportanceSum[att] / m_nrTreesWithOutOfBagRows;
+        }
+
+        private double getPermutationImportanceStdDev(final int att) {
+            final int n = m_nrTreesWithOutOfBagRows;
+            if (n < 2) {
+                return n == 0 ? Double.NaN : 0.0;
+            }
+            final double mean = m_permutationImportanceSum[att] / n;
+            final double variance = (m_permutationImportanceSquareSum[att] - n * mean * mean) / (n - 1);
+            return Math.sqrt(Math.max(variance, 0.0));
+        }
+    }
+
 }
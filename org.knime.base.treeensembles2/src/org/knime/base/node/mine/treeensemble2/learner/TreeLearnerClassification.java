@@ -69,6 +69,8 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.MissingValueHandling;
 import org.knime.base.node.mine.treeensemble2.sample.column.ColumnSample;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 
@@ -131,20 +133,29 @@ private TreeNodeClassification buildTreeNode(final ExecutionMonitor exec, final
         final TreeTargetNominalColumnData targetColumn = (TreeTargetNominalColumnData)data.getTargetColumn();
         TreeNodeClassification[] childNodes;
         int attributeIndex = -1;
+        final PhaseMetrics metrics = getMetrics();
         if (useSurrogates) {
+            final long splitStart = metrics.start();
             SplitCandidate[] candidates = findBestSplitsClassification(currentDepth, dataMemberships, columnSample,
                 treeNodeSignature, targetPriors, forbiddenColumnSet);
+            metrics.stop(Phase.SPLIT_SEARCH, splitStart);
             if (candidates == null) {
                 return new TreeNodeClassification(treeNodeSignature, targetPriors, config);
             }
+            final long surrogateStart = metrics.start();
             SurrogateSplit surrogateSplit =
                 Surrogates.learnSurrogates(dataMemberships, candidates[0], data, columnSample, config, getRandomData());
+            metrics.stop(Phase.SURROGATES, surrogateStart);
             childConditions = surrogateSplit.getChildConditions();
             BitSet[] childMarkers = surrogateSplit.getChildMarkers();
             childNodes = new TreeNodeClassification[2];
+            double impurityDecrease = getWeightedImpurity(targetPriors);
             for (int i = 0; i < 2; i++) {
+                final long membershipStart = metrics.start();
                 DataMemberships childMemberships = dataMemberships.createChildMemberships(childMarkers[i]);
                 ClassificationPriors childTargetPriors = targetColumn.getDistribution(childMemberships, config);
+                metrics.stop(Phase.MEMBERSHIP_UPDATE, membershipStart);
+                impurityDecrease -= getWeightedImpurity(childTargetPriors);
                 TreeNodeSignature childSignature =
                     getSignatureFactory().getChildSignatureFor(treeNodeSignature, (byte)i);
                 ColumnSample childColumnSample = getColSamplingStrategy().getColumnSampleForTreeNode(childSignature);
@@ -152,10 +163,13 @@ private TreeNodeClassification buildTreeNode(final ExecutionMonitor exec, final
                     childSignature, childTargetPriors, forbiddenColumnSet);
                 childNodes[i].setTreeNodeCondition(childConditions[i]);
             }
+            addImpurityDecrease(candidates[0].getColumnData().getMetaData().getAttributeIndex(), impurityDecrease);
         } else {
             // handle non surrogate case
+            final long splitStart = metrics.start();
             SplitCandidate bestSplit = findBestSplitClassification(currentDepth, dataMemberships, columnSample,
                 treeNodeSignature, targetPriors, forbiddenColumnSet);
+            metrics.stop(Phase.SPLIT_SEARCH, splitStart);
             if (bestSplit == null) {
                 return new TreeNodeClassification(treeNodeSignature, targetPriors, config);
             }
@@ -172,18 +186,23 @@ private TreeNodeClassification buildTreeNode(final ExecutionMonitor exec, final
                         + " (maximum supported: " + Short.MAX_VALUE + "): " + childConditions.length);
             }
             // Build child nodes
+            double impurityDecrease = getWeightedImpurity(targetPriors);
             for (int i = 0; i < childConditions.length; i++) {
                 DataMemberships childMemberships = null;
                 TreeNodeCondition cond = childConditions[i];
+                final long membershipStart = metrics.start();
                 childMemberships =
                     dataMemberships.createChildMemberships(splitColumn.updateChildMemberships(cond, dataMemberships));
                 ClassificationPriors childTargetPriors = targetColumn.getDistribution(childMemberships, config);
+                metrics.stop(Phase.MEMBERSHIP_UPDATE, membershipStart);
+                impurityDecrease -= getWeightedImpurity(childTargetPriors);
                 TreeNodeSignature childSignature = treeNodeSignature.createChildSignature((byte)i);
                 ColumnSample childColumnSample = getColSamplingStrategy().getColumnSampleForTreeNode(childSignature);
                 childNodes[i] = buildTreeNode(exec, currentDepth + 1, childMemberships, childColumnSample,
                     childSignature, childTargetPriors, forbiddenColumnSet);
                 childNodes[i].setTreeNodeCondition(cond);
             }
+            addImpurityDecrease(attributeIndex, impurityDecrease);
         }
         if (markAttributeAsForbidden) {
             forbiddenColumnSet.set(attributeIndex, false);
@@ -191,6 +210,10 @@ private TreeNodeClassification buildTreeNode(final ExecutionMonitor exec, final
         return new TreeNodeClassification(treeNodeSignature, targetPriors, childNodes, getConfig());
     }
 
+    private static double getWeightedImpurity(final ClassificationPriors priors) {
+        return priors.getNrRecords() * priors.getPriorImpurity();
+    }
+
     /**
      * Returns a list of SplitCandidates sorted (descending) by their gain
      *
@@ -48,11 +48,17 @@
 package org.knime.base.node.mine.treeensemble2.learner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.apache.commons.math.random.AbstractRandomGenerator;
 import org.apache.commons.math.random.RandomData;
+import org.apache.commons.math.random.RandomDataImpl;
 import org.knime.base.node.mine.treeensemble2.data.RegressionPriors;
 import org.knime.base.node.mine.treeensemble2.data.TreeAttributeColumnData;
 import org.knime.base.node.mine.treeensemble2.data.TreeColumnData;
@@ -71,8 +77,12 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.MissingValueHandling;
 import org.knime.base.node.mine.treeensemble2.sample.column.ColumnSample;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
 
 /**
  *
@@ -80,8 +90,23 @@
  */
 public class TreeLearnerRegression extends AbstractTreeLearner {
 
+    /** In parallel learning, the subtrees of tree nodes with at least this many rows are learned in parallel. */
+    static final int MIN_ROWS_PARALLEL_SUBTREES = 10000;
+
+    /** In parallel learning, tree nodes with at least this many rows evaluate their columns in parallel. */
+    static final int MIN_ROWS_PARALLEL_COLUMNS = 50000;
+
+    /**
+     * Random generator of the subtrees and columns that are learned in parallel before it is known where they start
+     * in the random sequence. Any draw fails the speculation, the subtree or column is then learned again in
+     * sequential order with the random generator of its parent.
+     */
+    private static final RandomData SPECULATIVE_RANDOM_DATA = new RandomDataImpl(new SpeculativeRandomGenerator());
+
     private List<TreeNodeRegression> m_leafs;
 
+    private boolean m_parallel;
+
     /**
      * Constructor for TreeLearnerRegression
      *
@@ -100,6 +125,19 @@ public TreeLearnerRegression(final TreeEnsembleLearnerConfiguration config, fina
         }
     }
 
+    /**
+     * Enables the parallel learning of a single tree (disabled by default). Tree nodes with many rows evaluate their
+     * columns in parallel and learn their subtrees in parallel. Columns and subtrees that need random numbers (for
+     * instance for random tie breaking) are evaluated again in sequential order, hence the learned tree is the same as
+     * with the sequential learning. Must not be used for gradient boosting (it's ignored there) and makes no sense if
+     * several trees are learned in parallel anyway.
+     *
+     * @param parallel true if the tree should be learned in parallel
+     */
+    public void setParallel(final boolean parallel) {
+        m_parallel = parallel;
+    }
+
     private TreeTargetNumericColumnData getTargetData() {
         return (TreeTargetNumericColumnData)getData().getTargetColumn();
     }
@@ -122,8 +160,14 @@ public TreeModelRegression learnSingleTree(final ExecutionMonitor exec, final Ra
         }
         final TreeNodeSignature rootSignature = TreeNodeSignature.ROOT_SIGNATURE;
         final ColumnSample rootColumnSample = getColSamplingStrategy().getColumnSampleForTreeNode(rootSignature);
+        // the leaf list of gradient boosting must be in sequential order
+        final ImpurityDecreaseLog decreaseLog =
+            m_parallel && !isGradientBoosting ? new ImpurityDecreaseLog() : null;
         TreeNodeRegression rootNode = buildTreeNode(exec, 0, rootDataMemberships, rootColumnSample, getSignatureFactory().getRootSignature(),
-            targetPriors, forbiddenColumnSet);
+            targetPriors, forbiddenColumnSet, getRandomData(), decreaseLog);
+        if (decreaseLog != null) {
+            decreaseLog.replay(this);
+        }
         assert forbiddenColumnSet.cardinality() == 0;
         rootNode.setTreeNodeCondition(TreeNodeTrueCondition.INSTANCE);
         if (isGradientBoosting) {
@@ -132,11 +176,14 @@ public TreeModelRegression learnSingleTree(final ExecutionMonitor exec, final Ra
         return new TreeModelRegression(rootNode);
     }
 
+    /**
+     * @param rd the random generator of the tree node
+     * @param parallelColumns if true, the columns are evaluated in parallel
+     */
     private SplitCandidate findBestSplitRegression(final int currentDepth, final DataMemberships dataMemberships, final ColumnSample columnSample,
         final RegressionPriors targetPriors,
-        final BitSet forbiddenColumnSet) {
+        final BitSet forbiddenColumnSet, final RandomData rd, final boolean parallelColumns) {
         final TreeData data = getData();
-        final RandomData rd = getRandomData();
         final TreeEnsembleLearnerConfiguration config = getConfig();
         final int maxLevels = config.getMaxLevels();
         if (maxLevels != TreeEnsembleLearnerConfiguration.MAX_LEVEL_INFINITE && currentDepth >= maxLevels) {
@@ -157,6 +204,25 @@ private SplitCandidate findBestSplitRegression(final int currentDepth, final Dat
         if (currentDepth == 0 && config.getHardCodedRootColumn() != null) {
             final TreeAttributeColumnData rootColumn = data.getColumn(config.getHardCodedRootColumn());
             return rootColumn.calcBestSplitRegression(dataMemberships, targetPriors, targetColumn, rd);
+        } else if (parallelColumns) {
+            final List<TreeAttributeColumnData> cols = new ArrayList<TreeAttributeColumnData>();
+            for (TreeAttributeColumnData col : columnSample) {
+                if (!forbiddenColumnSet.get(col.getMetaData().getAttributeIndex())) {
+                    cols.add(col);
+                }
+            }
+            final SplitCandidate[] colSplits = calcBestSplitsInParallel(cols, dataMemberships, targetPriors, rd);
+            double bestGainValue = 0.0;
+            for (SplitCandidate currentColSplit : colSplits) {
+                if (currentColSplit != null) {
+                    double gainValue = currentColSplit.getGainValue();
+                    if (gainValue > bestGainValue) {
+                        bestGainValue = gainValue;
+                        splitCandidate = currentColSplit;
+                    }
+                }
+            }
+            return splitCandidate;
         } else {
             double bestGainValue = 0.0;
             for (TreeAttributeColumnData col : columnSample) {
@@ -177,6 +243,39 @@ private SplitCandidate findBestSplitRegression(final int currentDepth, final Dat
         }
     }
 
+    private SplitCandidate[] calcBestSplitsInParallel(final List<TreeAttributeColumnData> cols,
+        final DataMemberships dataMemberships, final RegressionPriors targetPriors, final RandomData rd) {
+        final TreeTargetNumericColumnData targetColumn = getTargetData();
+        final int nrCols = cols.size();
+        final SplitCandidate[] colSplits = new SplitCandidate[nrCols];
+        final boolean[] speculationFailed = new boolean[nrCols];
+        final int nrTasks = ParallelTasks.getNrTasks(nrCols);
+        final List<Callable<Void>> tasks = new ArrayList<>(nrTasks);
+        for (int t = 0; t < nrTasks; t++) {
+            final int from = (int)((long)nrCols * t / nrTasks);
+            final int to = (int)((long)nrCols * (t + 1) / nrTasks);
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    try {
+                        colSplits[i] = cols.get(i).calcBestSplitRegression(dataMemberships, targetPriors,
+                            targetColumn, SPECULATIVE_RANDOM_DATA);
+                    } catch (SpeculationFailedException e) {
+                        speculationFailed[i] = true;
+                    }
+                }
+                return null;
+            });
+        }
+        ParallelTasks.runInParallel(tasks);
+        // the columns that need random numbers draw them in column order, as in the sequential learning
+        for (int i = 0; i < nrCols; i++) {
+            if (speculationFailed[i]) {
+                colSplits[i] = cols.get(i).calcBestSplitRegression(dataMemberships, targetPriors, targetColumn, rd);
+            }
+        }
+        return colSplits;
+    }
+
     private SplitCandidate[] findBestSplitsRegression(final int currentDepth, final DataMemberships dataMemberships, final ColumnSample columnSample,
         final RegressionPriors targetPriors,
         final BitSet forbiddenColumnSet) {
@@ -230,15 +329,25 @@ public int compare(final SplitCandidate arg0, final SplitCandidate arg1) {
         return splitCandidates.toArray(new SplitCandidate[splitCandidates.size()]);
     }
 
+    /**
+     * @param rd the random generator of the tree node, passed on to the children that are learned in sequential order
+     * @param decreaseLog collects the impurity decreases in parallel learning, <code>null</code> if the tree is
+     *            learned sequentially
+     */
     private TreeNodeRegression buildTreeNode(final ExecutionMonitor exec, final int currentDepth,
         final DataMemberships dataMemberships, final ColumnSample columnSample, final TreeNodeSignature treeNodeSignature,
-        final RegressionPriors targetPriors, final BitSet forbiddenColumnSet) throws CanceledExecutionException {
+        final RegressionPriors targetPriors, final BitSet forbiddenColumnSet, final RandomData rd,
+        final ImpurityDecreaseLog decreaseLog) throws CanceledExecutionException {
         final TreeData data = getData();
-        final RandomData rd = getRandomData();
         final TreeEnsembleLearnerConfiguration config = getConfig();
         exec.checkCanceled();
-        final SplitCandidate candidate =
-            findBestSplitRegression(currentDepth, dataMemberships, columnSample, targetPriors, forbiddenColumnSet);
+        final PhaseMetrics metrics = getMetrics();
+        final boolean parallel = decreaseLog != null;
+        final int rowCount = dataMemberships.getRowCount();
+        final long splitStart = metrics.start();
+        final SplitCandidate candidate = findBestSplitRegression(currentDepth, dataMemberships, columnSample,
+            targetPriors, forbiddenColumnSet, rd, parallel && rowCount >= MIN_ROWS_PARALLEL_COLUMNS);
+        metrics.stop(Phase.SPLIT_SEARCH, splitStart);
         if (candidate == null) {
             if (config instanceof GradientBoostingLearnerConfiguration) {
                 TreeNodeRegression leaf =
@@ -250,23 +359,44 @@ private TreeNodeRegression buildTreeNode(final ExecutionMonitor exec, final int
         }
         final TreeTargetNumericColumnData targetColumn = (TreeTargetNumericColumnData)data.getTargetColumn();
         boolean useSurrogates = config.getMissingValueHandling() == MissingValueHandling.Surrogate;
+        // the decision only depends on the data, hence the result doesn't depend on the number of threads
+        final boolean parallelSubtrees = parallel && rowCount >= MIN_ROWS_PARALLEL_SUBTREES;
         TreeNodeCondition[] childConditions;
         TreeNodeRegression[] childNodes;
         if (useSurrogates) {
+            final long surrogateStart = metrics.start();
             SurrogateSplit surrogateSplit = Surrogates.learnSurrogates(dataMemberships, candidate, data, columnSample, config, rd);
+            metrics.stop(Phase.SURROGATES, surrogateStart);
             childConditions = surrogateSplit.getChildConditions();
             BitSet[] childMarkers = surrogateSplit.getChildMarkers();
             assert childMarkers[0].cardinality() + childMarkers[1].cardinality() == dataMemberships.getRowCount(): "Sum of rows in children does not add up to number of rows in parent.";
             childNodes = new TreeNodeRegression[2];
+            final Subtree[] subtrees = parallelSubtrees ? createSubtrees(2) : null;
+            double impurityDecrease = targetPriors.getSumSquaredDeviation();
             for (int i = 0; i < 2; i++) {
+                final long membershipStart = metrics.start();
                 DataMemberships childMemberships = dataMemberships.createChildMemberships(childMarkers[i]);
+                RegressionPriors childTargetPriors = targetColumn.getPriors(childMemberships, config);
+                metrics.stop(Phase.MEMBERSHIP_UPDATE, membershipStart);
                 TreeNodeSignature childSignature = getSignatureFactory().getChildSignatureFor(treeNodeSignature, (byte)i);
                 ColumnSample childColumnSample = getColSamplingStrategy().getColumnSampleForTreeNode(childSignature);
-                RegressionPriors childTargetPriors = targetColumn.getPriors(childMemberships, config);
-                childNodes[i] = buildTreeNode(exec, currentDepth + 1, childMemberships, childColumnSample, childSignature,
-                    childTargetPriors, forbiddenColumnSet);
+                impurityDecrease -= childTargetPriors.getSumSquaredDeviation();
+                if (subtrees != null) {
+                    subtrees[i].set(currentDepth + 1, childMemberships, childColumnSample, childSignature,
+                        childTargetPriors, forbiddenColumnSet);
+                } else {
+                    childNodes[i] = buildTreeNode(exec, currentDepth + 1, childMemberships, childColumnSample,
+                        childSignature, childTargetPriors, forbiddenColumnSet, rd, decreaseLog);
+                }
+            }
+            if (subtrees != null) {
+                childNodes = learnSubtrees(exec, subtrees, rd, decreaseLog);
+            }
+            for (int i = 0; i < 2; i++) {
                 childNodes[i].setTreeNodeCondition(childConditions[i]);
             }
+            addImpurityDecrease(candidate.getColumnData().getMetaData().getAttributeIndex(), impurityDecrease,
+                decreaseLog);
         } else {
             SplitCandidate bestSplit = candidate;
             TreeAttributeColumnData splitColumn = bestSplit.getColumnData();
@@ -280,17 +410,33 @@ private TreeNodeRegression buildTreeNode(final ExecutionMonitor exec, final int
                         + " (maximum supported: " + Short.MAX_VALUE + "): " + childConditions.length);
             }
             childNodes = new TreeNodeRegression[childConditions.length];
+            final Subtree[] subtrees = parallelSubtrees ? createSubtrees(childConditions.length) : null;
+            double impurityDecrease = targetPriors.getSumSquaredDeviation();
             for (int i = 0; i < childConditions.length; i++) {
                 TreeNodeCondition cond = childConditions[i];
+                final long membershipStart = metrics.start();
                 DataMemberships childMemberships =
                     dataMemberships.createChildMemberships(splitColumn.updateChildMemberships(cond, dataMemberships));
                 RegressionPriors childTargetPriors = targetColumn.getPriors(childMemberships, config);
+                metrics.stop(Phase.MEMBERSHIP_UPDATE, membershipStart);
+                impurityDecrease -= childTargetPriors.getSumSquaredDeviation();
                 TreeNodeSignature childSignature = treeNodeSignature.createChildSignature((byte)i);
                 ColumnSample childColumnSample = getColSamplingStrategy().getColumnSampleForTreeNode(childSignature);
-                childNodes[i] = buildTreeNode(exec, currentDepth + 1, childMemberships, childColumnSample, childSignature,
-                    childTargetPriors, forbiddenColumnSet);
-                childNodes[i].setTreeNodeCondition(cond);
+                if (subtrees != null) {
+                    subtrees[i].set(currentDepth + 1, childMemberships, childColumnSample, childSignature,
+                        childTargetPriors, forbiddenColumnSet);
+                } else {
+                    childNodes[i] = buildTreeNode(exec, currentDepth + 1, childMemberships, childColumnSample,
+                        childSignature, childTargetPriors, forbiddenColumnSet, rd, decreaseLog);
+                }
+            }
+            if (subtrees != null) {
+                childNodes = learnSubtrees(exec, subtrees, rd, decreaseLog);
+            }
+            for (int i = 0; i < childConditions.length; i++) {
+                childNodes[i].setTreeNodeCondition(childConditions[i]);
             }
+            addImpurityDecrease(attributeIndex, impurityDecrease, decreaseLog);
             if (markAttributeAsForbidden) {
                 forbiddenColumnSet.set(attributeIndex, false);
             }
@@ -298,7 +444,183 @@ private TreeNodeRegression buildTreeNode(final ExecutionMonitor exec, final int
         return new TreeNodeRegression(treeNodeSignature, targetPriors, childNodes);
     }
 
+    private void addImpurityDecrease(final int attributeIndex, final double decrease,
+        final ImpurityDecreaseLog decreaseLog) {
+        if (decreaseLog != null) {
+            decreaseLog.add(attributeIndex, decrease);
+        } else {
+            addImpurityDecrease(attributeIndex, decrease);
+        }
+    }
+
+    private static Subtree[] createSubtrees(final int nrChildren) {
+        final Subtree[] subtrees = new Subtree[nrChildren];
+        for (int i = 0; i < nrChildren; i++) {
+            subtrees[i] = new Subtree();
+        }
+        return subtrees;
+    }
+
+    private TreeNodeRegression learnSubtree(final ExecutionMonitor exec, final Subtree subtree, final RandomData rd)
+        throws CanceledExecutionException {
+        // a failed speculation may leave the log and the forbidden columns in any state
+        subtree.m_decreaseLog = new ImpurityDecreaseLog();
+        return buildTreeNode(exec, subtree.m_depth, subtree.m_dataMemberships, subtree.m_columnSample,
+            subtree.m_signature, subtree.m_targetPriors, (BitSet)subtree.m_forbiddenColumnSet.clone(), rd,
+            subtree.m_decreaseLog);
+    }
+
+    /**
+     * Learns the first subtree in the current thread with <b>rd</b> and the others speculatively in parallel. The
+     * subtrees whose speculation fails because they need random numbers are learned again with <b>rd</b> in child
+     * order, i.e. they draw the same random numbers as in the sequential learning. The impurity decreases of the
+     * subtrees are appended to <b>decreaseLog</b> in child order, too.
+     */
+    private TreeNodeRegression[] learnSubtrees(final ExecutionMonitor exec, final Subtree[] subtrees,
+        final RandomData rd, final ImpurityDecreaseLog decreaseLog) throws CanceledExecutionException {
+        final ThreadPool tp = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final TreeNodeRegression[] childNodes = new TreeNodeRegression[subtrees.length];
+        @SuppressWarnings("unchecked")
+        final Future<TreeNodeRegression>[] futures = new Future[subtrees.length];
+        try {
+            for (int i = 1; i < subtrees.length; i++) {
+                final Subtree subtree = subtrees[i];
+                futures[i] = tp.enqueue(() -> learnSubtree(exec, subtree, SPECULATIVE_RANDOM_DATA));
+            }
+            childNodes[0] = learnSubtree(exec, subtrees[0], rd);
+            for (int i = 1; i < subtrees.length; i++) {
+                childNodes[i] = awaitSpeculation(futures[i]);
+                if (childNodes[i] == null) {
+                    if (rd == SPECULATIVE_RANDOM_DATA) {
+                        // this subtree is speculative itself, learning the child again would fail the same way
+                        throw new SpeculationFailedException();
+                    }
+                    childNodes[i] = learnSubtree(exec, subtrees[i], rd);
+                }
+            }
+        } finally {
+            for (Future<TreeNodeRegression> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+        for (Subtree subtree : subtrees) {
+            decreaseLog.addAll(subtree.m_decreaseLog);
+        }
+        return childNodes;
+    }
+
+    /** @return the speculatively learned subtree or <code>null</code> if the speculation failed */
+    private static TreeNodeRegression awaitSpeculation(final Future<TreeNodeRegression> future)
+        throws CanceledExecutionException {
+        try {
+            return ParallelTasks.await(future);
+        } catch (ExecutionException e) {
+            final Throwable cause = ParallelTasks.getCause(e);
+            if (cause instanceof SpeculationFailedException) {
+                return null;
+            } else if (cause instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException("Learning a subtree failed.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Learning a subtree was interrupted.", e);
+        }
+    }
+
     private synchronized void addToLeafList(final TreeNodeRegression leaf) {
         m_leafs.add(leaf);
     }
+
+    /** The input of a subtree that is learned in parallel. */
+    private static final class Subtree {
+
+        private ImpurityDecreaseLog m_decreaseLog;
+
+        private int m_depth;
+
+        private DataMemberships m_dataMemberships;
+
+        private ColumnSample m_columnSample;
+
+        private TreeNodeSignature m_signature;
+
+        private RegressionPriors m_targetPriors;
+
+        private BitSet m_forbiddenColumnSet;
+
+        /** The forbidden columns are copied because the subtrees modify them concurrently (see learnSubtree). */
+        void set(final int depth, final DataMemberships dataMemberships, final ColumnSample columnSample,
+            final TreeNodeSignature signature, final RegressionPriors targetPriors, final BitSet forbiddenColumnSet) {
+            m_depth = depth;
+            m_dataMemberships = dataMemberships;
+            m_columnSample = columnSample;
+            m_signature = signature;
+            m_targetPriors = targetPriors;
+            m_forbiddenColumnSet = (BitSet)forbiddenColumnSet.clone();
+        }
+    }
+
+    /**
+     * The impurity decreases of a subtree in the order the sequential learning adds them (post-order). Replaying the
+     * log adds the decreases in exactly the same order, so the sums don't depend on the scheduling.
+     */
+    private static final class ImpurityDecreaseLog {
+
+        private int[] m_attributeIndices = new int[8];
+
+        private double[] m_decreases = new double[8];
+
+        private int m_size;
+
+        void add(final int attributeIndex, final double decrease) {
+            if (m_size == m_attributeIndices.length) {
+                m_attributeIndices = Arrays.copyOf(m_attributeIndices, 2 * m_size);
+                m_decreases = Arrays.copyOf(m_decreases, 2 * m_size);
+            }
+            m_attributeIndices[m_size] = attributeIndex;
+            m_decreases[m_size] = decrease;
+            m_size++;
+        }
+
+        void addAll(final ImpurityDecreaseLog other) {
+            for (int i = 0; i < other.m_size; i++) {
+                add(other.m_attributeIndices[i], other.m_decreases[i]);
+            }
+        }
+
+        void replay(final AbstractTreeLearner learner) {
+            for (int i = 0; i < m_size; i++) {
+                learner.addImpurityDecrease(m_attributeIndices[i], m_decreases[i]);
+            }
+        }
+    }
+
+    /** Thrown if a speculatively learned subtree or column needs a random number. */
+    @SuppressWarnings("serial")
+    private static final class SpeculationFailedException extends RuntimeException {
+
+        SpeculationFailedException() {
+            // thrown frequently and never reported, hence without stack trace
+            super(null, null, false, false);
+        }
+    }
+
+    /** Generator that fails the speculation on any draw (all other draw methods delegate to nextDouble). */
+    private static final class SpeculativeRandomGenerator extends AbstractRandomGenerator {
+
+        @Override
+        public void setSeed(final long seed) {
+            // nothing is drawn, hence there is no seed
+        }
+
+        @Override
+        public double nextDouble() {
+            throw new SpeculationFailedException();
+        }
+    }
 }
@@ -48,31 +48,30 @@
  */
 package org.knime.base.node.mine.treeensemble2.learner;
 
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
 
-import com.google.common.collect.ArrayListMultimap;
-
 /**
- * This class creates and stores TreeNodeSignature for reuse in the building process of new trees.
- * Needs to be synchronized because trees are build in parallel.
+ * This class creates TreeNodeSignatures in the building process of new trees.
+ * Signatures of binary trees are compact and created without any lookup, all other signatures are stored
+ * for reuse in a concurrent map because trees are build in parallel.
  *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  */
 public class TreeNodeSignatureFactory {
     private static final int DEFAULT_CAPACITY = 2048;
-    private static final int DEFAULT_NUMBER_OF_CHILDREN = 2;
 
-    private final ArrayListMultimap<TreeNodeSignature, TreeNodeSignature> m_knownSignatures;
+    private final ConcurrentHashMap<TreeNodeSignature, TreeNodeSignature> m_knownSignatures;
 
     /**
-     * Creates a TreeNodeSignature that initially is able to store <b>capacity</b> many signatures.
+     * Creates a TreeNodeSignatureFactory that initially is able to store <b>capacity</b> many signatures.
      * In case the depth of trees is limited, this can be calculated easily (2^^numLevels).
+     * Only signatures that are not compact are stored, so the capacity is limited to the default capacity.
      * @param capacity
      */
     public TreeNodeSignatureFactory(final int capacity) {
-        m_knownSignatures = ArrayListMultimap.create(2 * capacity / 3, DEFAULT_NUMBER_OF_CHILDREN);
+        m_knownSignatures = new ConcurrentHashMap<>(Math.min(capacity, DEFAULT_CAPACITY));
     }
 
     /**
@@ -90,33 +89,22 @@ public TreeNodeSignature getRootSignature() {
     }
 
     /**
-     * Looks up whether a signature with given <b>parent</b> and <b>childIndex</b> exists and returns
-     * it if it does and otherwise creates a new signature stores it and returns the newly created signature.
-     * This function is synchronized because different threads will access it during the tree building process.
+     * Returns the signature of the child with index <b>childIndex</b> of <b>parentSignature</b>. Compact signatures
+     * are cheaper to create than to look up and are returned directly, all other signatures are looked up and
+     * stored if they don't exist yet. This function does not lock, different threads will access it during the
+     * tree building process.
      *
      * @param parentSignature
      * @param childIndex
      * @return signature for child node
      */
-    public synchronized TreeNodeSignature getChildSignatureFor(final TreeNodeSignature parentSignature, final byte childIndex) {
-        List<TreeNodeSignature> knownChildren = m_knownSignatures.get(parentSignature);
-        // case that the child signature does not exist yet
-        if (knownChildren.size() <= childIndex) {
-            TreeNodeSignature childSignature = parentSignature.createChildSignature(childIndex);
-            knownChildren.add(childIndex, childSignature);
-            return childSignature;
-        } else {
-            // there are already signatures registered for parent
-            TreeNodeSignature childSignature = knownChildren.get(childIndex);
-            // Unlikely but possible case that a signature with larger childIndex already exists
-            // but not the signature we currently want to get
-            // (unlikely because we usually build the children in order)
-            if (childSignature == null) {
-                childSignature = parentSignature.createChildSignature(childIndex);
-                knownChildren.add(childIndex, childSignature);
-            }
+    public TreeNodeSignature getChildSignatureFor(final TreeNodeSignature parentSignature, final byte childIndex) {
+        final TreeNodeSignature childSignature = parentSignature.createChildSignature(childIndex);
+        if (childSignature.isCompact()) {
             return childSignature;
         }
+        final TreeNodeSignature knownSignature = m_knownSignatures.putIfAbsent(childSignature, childSignature);
+        return knownSignature == null ? childSignature : knownSignature;
     }
 
 
@@ -71,6 +71,7 @@
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSampler;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 
@@ -97,6 +98,8 @@ public abstract class AbstractGradientBoostingLearner {
      */
     private final boolean m_fixNominalValueMixup;
 
+    private PhaseMetrics m_metrics = PhaseMetrics.DISABLED;
+
     /**
      * @param config the configuration for the learner
      * @param data the initial data as it is provided by the user
@@ -156,6 +159,23 @@ public GradientBoostingLearnerConfiguration getConfig() {
         return m_config;
     }
 
+    /**
+     * Sets the metrics the phases of the learning (tree learning, gradient updates, ...) are recorded in. By default
+     * nothing is recorded.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(final PhaseMetrics metrics) {
+        m_metrics = metrics;
+    }
+
+    /**
+     * @return the metrics the phases of the learning are recorded in
+     */
+    protected PhaseMetrics getMetrics() {
+        return m_metrics;
+    }
+
     /**
      * @return the {@link RowSampler} to provide {@link RowSample} objects to learn trees
      */
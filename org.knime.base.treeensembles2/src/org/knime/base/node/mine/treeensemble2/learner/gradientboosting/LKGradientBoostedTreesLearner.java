@@ -75,6 +75,8 @@
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.KNIMEConstants;
@@ -176,9 +178,11 @@ public MultiClassGradientBoostedTreesModel learn(final ExecutionMonitor exec)
             final Semaphore semaphore = new Semaphore(procCount);
             final ArrayList<Map<TreeNodeSignature, Double>> classCoefficientMaps = new ArrayList<>(numClasses);
             // prepare calculation of pseudoResiduals
+            final long softmaxStart = getMetrics().start();
             for (int r = 0; r < nrRows; r++) {
                 softmax(previousFunctions, probs, r, numClasses);
             }
+            getMetrics().stop(Phase.GRADIENT_UPDATE, softmaxStart);
 
             final Future<?>[] treeCoefficientMapPairs = new Future<?>[numClasses];
             for (int j = 0; j < numClasses; j++) {
@@ -303,6 +307,8 @@ public TreeLearnerCallable(final RandomData rd, final double[] probs, final Tree
         @Override
         public Pair<TreeModelRegression, Map<TreeNodeSignature, Double>> call() throws Exception {
             try {
+                final PhaseMetrics metrics = getMetrics();
+                final long residualStart = metrics.start();
                 final int nrRows = m_probs.length;
                 final double[] residualData = new double[nrRows];
                 final TreeTargetNumericColumnData classProbTarget =
@@ -313,13 +319,19 @@ public Pair<TreeModelRegression, Map<TreeNodeSignature, Double>> call() throws E
                     residualData[r] = gtProb - predictedProb;
                 }
                 final TreeData pseudoResiduals = createResidualDataFromArray(residualData, m_actual);
+                metrics.stop(Phase.GRADIENT_UPDATE, residualStart);
                 final RowSample rowSample = getRowSampler().createRowSample(m_rd);
                 final TreeLearnerRegression treeLearner = new TreeLearnerRegression(getConfig(), pseudoResiduals,
                     getIndexManager(), m_signatureFactory, m_rd, rowSample);
+                treeLearner.setMetrics(metrics);
+                final long learnStart = metrics.start();
                 final TreeModelRegression tree = treeLearner.learnSingleTree(m_subExec, m_rd);
+                metrics.stop(Phase.TREE_LEARNING, learnStart);
+                final long coefficientStart = metrics.start();
                 final Map<TreeNodeSignature, Double> coefficientMap =
                     calculateCoefficientMap(tree, pseudoResiduals, m_numClasses);
                 adaptPreviousFunction(m_previousFunction, tree, coefficientMap);
+                metrics.stop(Phase.GRADIENT_UPDATE, coefficientStart);
                 return new Pair<>(tree, coefficientMap);
             } catch (Throwable t) {
                 m_learnThrowableRef.compareAndSet(null, t);
@@ -68,6 +68,8 @@
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 
@@ -131,8 +133,10 @@ public AbstractGradientBoostingModel learn(final ExecutionMonitor exec) throws C
             signatureFactory = new TreeNodeSignatureFactory();
         }
         exec.setMessage("Learning model");
+        final PhaseMetrics metrics = getMetrics();
         TreeData residualData;
         for (int i = 0; i < nrModels; i++) {
+            final long gradientStart = metrics.start();
             final double[] residuals = new double[actualTarget.getNrRows()];
             for (int j = 0; j < actualTarget.getNrRows(); j++) {
                 residuals[j] = actualTarget.getValueFor(j) - previousPrediction[j];
@@ -143,14 +147,20 @@ public AbstractGradientBoostingModel learn(final ExecutionMonitor exec) throws C
                 gradients[j] = Math.abs(residuals[j]) <= quantile ? residuals[j] : quantile * Math.signum(residuals[j]);
             }
             residualData = createResidualDataFromArray(gradients, actualData);
+            metrics.stop(Phase.GRADIENT_UPDATE, gradientStart);
             final RandomData rdSingle =
                 TreeEnsembleLearnerConfiguration.createRandomData(rd.nextLong(Long.MIN_VALUE, Long.MAX_VALUE));
             final RowSample rowSample = getRowSampler().createRowSample(rdSingle);
             final TreeLearnerRegression treeLearner =
                 new TreeLearnerRegression(getConfig(), residualData, getIndexManager(), signatureFactory, rdSingle, rowSample);
+            treeLearner.setMetrics(metrics);
+            final long learnStart = metrics.start();
             final TreeModelRegression tree = treeLearner.learnSingleTree(exec, rdSingle);
+            metrics.stop(Phase.TREE_LEARNING, learnStart);
+            final long coefficientStart = metrics.start();
             final Map<TreeNodeSignature, Double> coefficientMap = calcCoefficientMap(residuals, quantile, tree);
             adaptPreviousPrediction(previousPrediction, tree, coefficientMap);
+            metrics.stop(Phase.GRADIENT_UPDATE, coefficientStart);
             models.add(tree);
             coefficientMaps.add(coefficientMap);
             exec.setProgress(((double)i) / nrModels, "Finished level " + i +"/" + nrModels);
@@ -52,6 +52,10 @@
 import java.util.Arrays;
 
 /**
+ * The path from the root to a tree node. Paths that only consist of binary splits and are not deeper than
+ * {@link #MAX_CODE_DEPTH} levels are encoded in a single <code>long</code> (the root is 1, the children of the node
+ * with code <i>c</i> have the codes <i>2c</i> and <i>2c + 1</i>), all other paths are stored as byte array.
+ * Signatures are immutable and can be created concurrently.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
@@ -59,34 +63,94 @@ public final class TreeNodeSignature {
 
     public static final TreeNodeSignature ROOT_SIGNATURE = new TreeNodeSignature();
 
+    /** Paths with more levels are stored as byte array. */
+    private static final int MAX_CODE_DEPTH = Long.SIZE - 2;
+
+    private static final long NO_CODE = -1L;
+
+    private final long m_code;
+
+    // only used if the path can't be encoded in m_code
     private final byte[] m_signature;
 
     /**
      *  */
     private TreeNodeSignature() {
-        this(new byte[]{0});
+        this(1L, null);
     }
 
-    private TreeNodeSignature(final byte[] signature) {
+    private TreeNodeSignature(final long code, final byte[] signature) {
+        m_code = code;
         m_signature = signature;
     }
 
+    private static TreeNodeSignature create(final byte[] signature) {
+        if (signature.length == 0 || signature.length > MAX_CODE_DEPTH + 1 || signature[0] != 0) {
+            return new TreeNodeSignature(NO_CODE, signature);
+        }
+        long code = 1L;
+        for (int i = 1; i < signature.length; i++) {
+            if (signature[i] != 0 && signature[i] != 1) {
+                return new TreeNodeSignature(NO_CODE, signature);
+            }
+            code = (code << 1) | signature[i];
+        }
+        return new TreeNodeSignature(code, null);
+    }
+
+    /**
+     * @return true if the path is encoded in a long, see {@link #getCode()}
+     */
+    public boolean isCompact() {
+        return m_code != NO_CODE;
+    }
+
+    /**
+     * @return the code of the path or -1 if the path is not compact
+     */
+    public long getCode() {
+        return m_code;
+    }
+
+    /**
+     * @return the number of entries in the path, i.e. the depth of the node plus one
+     */
+    public int getLength() {
+        return isCompact() ? Long.SIZE - Long.numberOfLeadingZeros(m_code) : m_signature.length;
+    }
+
+    /**
+     * @return the child indices of the path, starting with 0 for the root (a new array for compact signatures)
+     */
     public byte[] getSignaturePath() {
-        return m_signature;
+        if (!isCompact()) {
+            return m_signature;
+        }
+        final int length = getLength();
+        final byte[] path = new byte[length];
+        for (int i = 1; i < length; i++) {
+            path[i] = (byte)((m_code >>> (length - 1 - i)) & 1L);
+        }
+        return path;
     }
 
     public TreeNodeSignature createChildSignature(final byte childIndex) {
-        byte[] newArray = Arrays.copyOf(m_signature, m_signature.length + 1);
-        newArray[m_signature.length] = childIndex;
-        return new TreeNodeSignature(newArray);
+        if (isCompact() && (childIndex == 0 || childIndex == 1) && getLength() <= MAX_CODE_DEPTH) {
+            return new TreeNodeSignature((m_code << 1) | childIndex, null);
+        }
+        byte[] parent = getSignaturePath();
+        byte[] newArray = Arrays.copyOf(parent, parent.length + 1);
+        newArray[parent.length] = childIndex;
+        return new TreeNodeSignature(NO_CODE, newArray);
     }
 
     /** {@inheritDoc} */
     @Override
     public String toString() {
+        byte[] signature = getSignaturePath();
         StringBuilder b = new StringBuilder();
-        for (int i = 0; i < m_signature.length; i++) {
-            b.append(i == 0 ? "" : "-").append(m_signature[i]);
+        for (int i = 0; i < signature.length; i++) {
+            b.append(i == 0 ? "" : "-").append(signature[i]);
         }
         return b.toString();
     }
@@ -94,7 +158,7 @@ public String toString() {
     /** {@inheritDoc} */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(m_signature);
+        return isCompact() ? Long.hashCode(m_code) : Arrays.hashCode(m_signature);
     }
 
     /** {@inheritDoc} */
@@ -104,16 +168,18 @@ public boolean equals(final Object obj) {
             return true;
         }
         if (obj instanceof TreeNodeSignature) {
-            byte[] oSignature = ((TreeNodeSignature)obj).m_signature;
-            return Arrays.equals(oSignature, m_signature);
+            // a path always has the same representation
+            TreeNodeSignature o = (TreeNodeSignature)obj;
+            return o.m_code == m_code && Arrays.equals(o.m_signature, m_signature);
         }
         return false;
     }
 
     public void save(final DataOutputStream out) throws IOException {
-        out.writeInt(m_signature.length);
-        for (int i = 0; i < m_signature.length; i++) {
-            out.writeByte(m_signature[i]);
+        byte[] signature = getSignaturePath();
+        out.writeInt(signature.length);
+        for (int i = 0; i < signature.length; i++) {
+            out.writeByte(signature[i]);
         }
     }
 
@@ -123,7 +189,7 @@ public static TreeNodeSignature load(final TreeModelDataInputStream in) throws I
         for (int i = 0; i < length; i++) {
             signature[i] = in.readByte();
         }
-        return new TreeNodeSignature(signature);
+        return create(signature);
     }
 
 }
@@ -48,9 +48,12 @@
  */
 package org.knime.base.node.mine.treeensemble2.model.pmml;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.xmlbeans.SchemaType;
 import org.dmg.pmml.MININGFUNCTION.Enum;
@@ -59,10 +62,12 @@
 import org.dmg.pmml.SegmentDocument.Segment;
 import org.dmg.pmml.SegmentationDocument.Segmentation;
 import org.dmg.pmml.TreeModelDocument.TreeModel;
+import org.knime.base.node.mine.treeensemble2.learner.ParallelTasks;
 import org.knime.base.node.mine.treeensemble2.model.AbstractGradientBoostingModel;
 import org.knime.base.node.mine.treeensemble2.model.GradientBoostedTreesModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeModelRegression;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.port.pmml.PMMLMiningSchemaTranslator;
 import org.knime.core.node.port.pmml.PMMLPortObjectSpec;
 import org.knime.core.node.port.pmml.preproc.DerivedFieldMapper;
@@ -102,18 +107,39 @@ public SchemaType writeModelToPMML(final MiningModel model, final PMMLPortObject
 
     protected abstract void doWrite(final MiningModel model);
 
+    /**
+     * Writes the trees as segments of a sum segmentation.
+     * The trees are translated in parallel, each into a standalone tree model document because XMLBeans documents
+     * must not be modified concurrently. The tree models are then set into their segments by a single thread in
+     * segment order, at most 3/2 * cores trees are translated ahead of the segment that is written.
+     *
+     * @param segmentation the segmentation to write to
+     * @param trees the trees (in segment order)
+     * @param coefficientMaps the leaf coefficients of the trees (same order as <b>trees</b>)
+     */
     protected void writeSumSegmentation(final Segmentation segmentation, final Collection<TreeModelRegression> trees,
         final Collection<Map<TreeNodeSignature, Double>> coefficientMaps) {
         assert trees.size() == coefficientMaps.size() :
             "The number of trees does not match the number of coefficient maps.";
+        assert m_pmmlSpec != null : "The pmml spec is null, this indicates an implementation mistake.";
         segmentation.setMultipleModelMethod(MULTIPLEMODELMETHOD.SUM);
+        final List<Callable<TreeModel>> treeExports = new ArrayList<>(trees.size());
         Iterator<TreeModelRegression> treeIterator = trees.iterator();
         Iterator<Map<TreeNodeSignature, Double>> coefficientMapIterator = coefficientMaps.iterator();
-        for (int i = 1; i <= trees.size(); i++) {
-            Segment segment = segmentation.addNewSegment();
-            segment.setId(Integer.toString(i));
-            segment.addNewTrue();
-            writeTreeIntoSegment(segment, treeIterator.next(), coefficientMapIterator.next());
+        while (treeIterator.hasNext()) {
+            treeExports.add(createTreeExport(treeIterator.next(), coefficientMapIterator.next()));
+        }
+        final int[] nrSegments = {0};
+        try {
+            ParallelTasks.runOrdered(treeExports, treeModel -> {
+                Segment segment = segmentation.addNewSegment();
+                segment.setId(Integer.toString(++nrSegments[0]));
+                segment.addNewTrue();
+                segment.setTreeModel(treeModel);
+            }, null);
+        } catch (CanceledExecutionException e) {
+            // without execution monitor this only happens if the thread is interrupted
+            throw new IllegalStateException("The export of the trees was interrupted.", e);
         }
     }
 
@@ -125,16 +151,24 @@ protected PMMLPortObjectSpec getPMMLSpec() {
         return m_pmmlSpec;
     }
 
-    private void writeTreeIntoSegment(final Segment segment, final TreeModelRegression tree,
+    /**
+     * Creates a task that translates a single tree into a new tree model document.
+     * Warnings of the tree exporter are added to this exporter when the task is created because the warning holder
+     * is not thread-safe.
+     */
+    private Callable<TreeModel> createTreeExport(final TreeModelRegression tree,
         final Map<TreeNodeSignature, Double> coefficientMap) {
-        assert m_pmmlSpec != null : "The pmml spec is null, this indicates an implementation mistake.";
         GBTRegressionTreeModelExporter exporter =
                 new GBTRegressionTreeModelExporter(tree, m_derivedFieldMapper, coefficientMap);
         if (exporter.hasWarning()) {
             addWarning(exporter.getWarning());
         }
-        TreeModel treeModel = segment.addNewTreeModel();
-        exporter.writeModelToPMML(treeModel, m_pmmlSpec);
+        final PMMLPortObjectSpec pmmlSpec = m_pmmlSpec;
+        return () -> {
+            final TreeModel treeModel = TreeModel.Factory.newInstance();
+            exporter.writeModelToPMML(treeModel, pmmlSpec);
+            return treeModel;
+        };
     }
 
 }
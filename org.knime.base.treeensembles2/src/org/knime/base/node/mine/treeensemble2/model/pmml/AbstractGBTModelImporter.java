@@ -51,17 +51,20 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.dmg.pmml.MiningModelDocument.MiningModel;
 import org.dmg.pmml.SegmentDocument.Segment;
 import org.dmg.pmml.SegmentationDocument.Segmentation;
 import org.dmg.pmml.TreeModelDocument.TreeModel;
 import org.knime.base.node.mine.treeensemble2.data.TreeTargetNumericColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.learner.ParallelTasks;
 import org.knime.base.node.mine.treeensemble2.learner.TreeNodeSignatureFactory;
 import org.knime.base.node.mine.treeensemble2.model.AbstractGradientBoostingModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeModelRegression;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.util.Pair;
 
 /**
@@ -103,15 +106,32 @@ public final M importFromPMML(final MiningModel miningModel) {
         return importFromPMMLInternal(miningModel);
     }
 
+    /**
+     * Reads the trees and leaf coefficients of a sum segmentation.
+     * The segments are imported in parallel on the global thread pool, at most 3/2 * cores segments are imported
+     * ahead of the one that is collected. The returned lists are in segment order.
+     *
+     * @param segmentation the segmentation to read
+     * @return the trees and their coefficient maps (in segment order)
+     */
     protected Pair<List<TreeModelRegression>, List<Map<TreeNodeSignature, Double>>> readSumSegmentation(
         final Segmentation segmentation) {
-        List<Segment> segments = segmentation.getSegmentList();
-        List<TreeModelRegression> trees = new ArrayList<>(segments.size());
-        List<Map<TreeNodeSignature, Double>> coefficientMaps = new ArrayList<>(segments.size());
+        final List<Segment> segments = segmentation.getSegmentList();
+        final List<TreeModelRegression> trees = new ArrayList<>(segments.size());
+        final List<Map<TreeNodeSignature, Double>> coefficientMaps = new ArrayList<>(segments.size());
+        final List<Callable<Pair<TreeModelRegression, Map<TreeNodeSignature, Double>>>> treeImports =
+            new ArrayList<>(segments.size());
         for (Segment segment : segments) {
-            Pair<TreeModelRegression, Map<TreeNodeSignature, Double>> treeCoeffientMapPair = readTreeModel(segment);
-            trees.add(treeCoeffientMapPair.getFirst());
-            coefficientMaps.add(treeCoeffientMapPair.getSecond());
+            treeImports.add(createTreeImport(segment));
+        }
+        try {
+            ParallelTasks.runOrdered(treeImports, treeCoefficientMapPair -> {
+                trees.add(treeCoefficientMapPair.getFirst());
+                coefficientMaps.add(treeCoefficientMapPair.getSecond());
+            }, null);
+        } catch (CanceledExecutionException e) {
+            // without execution monitor this only happens if the thread is interrupted
+            throw new IllegalStateException("The import of the trees was interrupted.", e);
         }
         return new Pair<>(trees, coefficientMaps);
     }
@@ -120,6 +140,15 @@ protected MetaDataMapper<TreeTargetNumericColumnMetaData> getMetaDataMapper() {
         return m_metaDataMapper;
     }
 
+    private Callable<Pair<TreeModelRegression, Map<TreeNodeSignature, Double>>> createTreeImport(
+        final Segment segment) {
+        return () -> readTreeModel(segment);
+    }
+
+    /**
+     * Imports a single segment. The condition parser, signature factory, tree factory and meta data mapper are shared
+     * between the segments and only read, the content parser is created per segment.
+     */
     private Pair<TreeModelRegression, Map<TreeNodeSignature, Double>> readTreeModel(final Segment segment) {
         GBTRegressionContentParser contentParser = new GBTRegressionContentParser();
         TreeModelImporter<TreeNodeRegression, TreeModelRegression, TreeTargetNumericColumnMetaData> treeImporter =
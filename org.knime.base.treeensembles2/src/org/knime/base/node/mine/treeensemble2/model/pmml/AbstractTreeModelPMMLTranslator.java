@@ -53,6 +53,8 @@
 
 import org.apache.xmlbeans.SchemaType;
 import org.dmg.pmml.FIELDUSAGETYPE;
+import org.dmg.pmml.MISSINGVALUESTRATEGY;
+import org.dmg.pmml.NOTRUECHILDSTRATEGY;
 import org.dmg.pmml.PMMLDocument;
 import org.dmg.pmml.PMMLDocument.PMML;
 import org.dmg.pmml.TreeModelDocument;
@@ -151,6 +153,19 @@ public static void checkPMMLSpec(final PMMLPortObjectSpec pmmlSpec) {
         AbstractMetaDataMapper.createMetaDataMapper(pmmlSpec.getDataTableSpec());
     }
 
+    /**
+     * Checks if the missing value and no true child strategies of the provided tree model are the ones used by the
+     * tree ensemble models, i.e. if a tree imported by a translator predicts the same as the PMML tree it was read
+     * from.
+     *
+     * @param treeModel a PMML tree model
+     * @return true if a tree imported from <b>treeModel</b> preserves its prediction behavior
+     */
+    public static boolean hasCompatibleStrategies(final TreeModel treeModel) {
+        return treeModel.getMissingValueStrategy() == MISSINGVALUESTRATEGY.NONE
+            && treeModel.getNoTrueChildStrategy() == NOTRUECHILDSTRATEGY.RETURN_LAST_PREDICTION;
+    }
+
     /**
      * {@inheritDoc}
      */
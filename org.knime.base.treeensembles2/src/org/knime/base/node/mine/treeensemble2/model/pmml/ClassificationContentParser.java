@@ -81,24 +81,40 @@ public ClassificationContentParser(final NomValMapper nomValMapper) {
     public TreeNodeClassification createNode(final Node node,
         final TargetColumnHelper<TreeTargetNominalColumnMetaData> targetMetaData, final TreeNodeSignature signature,
         final List<TreeNodeClassification> children) {
-        float[] scoreDistribution = parseDistribution(node);
+        float[] scoreDistribution = parseDistribution(node, targetMetaData.getMetaData().getValues().length);
         int majorityIndex = parseMajorityIndex(node);
         return new TreeNodeClassification(signature, targetMetaData.getMetaData(), majorityIndex, scoreDistribution,
             children.toArray(new TreeNodeClassification[children.size()]));
     }
 
-    private float[] parseDistribution(final Node node) {
+    /**
+     * The distribution is indexed by the classes of the target, a node may list only some of them (the others have
+     * a record count of 0).
+     */
+    private float[] parseDistribution(final Node node, final int nrClasses) {
         List<ScoreDistribution> list = node.getScoreDistributionList();
-        float[] targetDistribution = new float[list.size()];
+        float[] targetDistribution = new float[nrClasses];
         for (ScoreDistribution x : list) {
-            int idx = m_nomValMapper.getRepresentation(x.getValue()).getAssignedInteger();
+            int idx = getClassIndex(x.getValue());
             targetDistribution[idx] = (float)x.getRecordCount();
         }
         return targetDistribution;
     }
 
     private int parseMajorityIndex(final Node node) {
-        return m_nomValMapper.getRepresentation(node.getScore()).getAssignedInteger();
+        return getClassIndex(node.getScore());
+    }
+
+    /**
+     * The mapper fails with a NPE for unknown values, a PMML node referring to a value that is not a class of the
+     * target is malformed input, though.
+     */
+    private int getClassIndex(final String value) {
+        try {
+            return m_nomValMapper.getRepresentation(value).getAssignedInteger();
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
     }
 
 
@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.model.pmml;
+
+import org.dmg.pmml.PMMLDocument;
+import org.knime.base.node.mine.treeensemble2.data.TreeMetaData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNominalColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.learner.TreeNodeSignatureFactory;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelClassification;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeClassification;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.port.pmml.preproc.DerivedFieldMapper;
+
+/**
+ * Translates classification tree models to and from PMML.
+ * Importing a PMML TreeModel with this translator yields the same node representation the tree ensemble learners
+ * produce, which allows to predict such trees without going through the generic PMML decision tree.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ClassificationTreeModelPMMLTranslator extends
+AbstractTreeModelPMMLTranslator<TreeNodeClassification, TreeModelClassification, TreeTargetNominalColumnMetaData> {
+
+    /**
+     * Constructor to be called when the model should be initialized from PMML.
+     */
+    public ClassificationTreeModelPMMLTranslator() {
+        // nothing to do
+    }
+
+    /**
+     * Constructor for the export of a model to PMML.
+     *
+     * @param treeModel a tree model that should be translated to pmml
+     * @param metaData the meta data associated with the tree model
+     * @param learnSpec the {@link DataTableSpec table spec} of the training data
+     */
+    public ClassificationTreeModelPMMLTranslator(final AbstractTreeModel<TreeNodeClassification> treeModel,
+        final TreeMetaData metaData, final DataTableSpec learnSpec) {
+        super(treeModel, metaData, learnSpec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TreeModelClassification getTree() {
+        return (TreeModelClassification)super.getTree();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected AbstractTreeModelExporter<TreeNodeClassification> createExporter(
+        final DerivedFieldMapper derivedFieldMapper) {
+        return new ClassificationTreeModelExporter(getTree(), derivedFieldMapper);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected TreeModelImporter<TreeNodeClassification, TreeModelClassification, TreeTargetNominalColumnMetaData>
+    createImporter(final MetaDataMapper<TreeTargetNominalColumnMetaData> metaDataMapper) {
+        // the target helper of a classification mapper maps the class labels to their indices
+        final NomValMapper targetValueMapper = (NomValMapper)metaDataMapper.getTargetColumnHelper();
+        return new TreeModelImporter<>(metaDataMapper, new LiteralConditionParser(metaDataMapper),
+                new TreeNodeSignatureFactory(), new ClassificationContentParser(targetValueMapper),
+                ClassificationTreeFactory.INSTANCE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected MetaDataMapper<TreeTargetNominalColumnMetaData> createMetaDataMapper(final PMMLDocument pmmlDoc,
+        final String targetName) {
+        return new ClassificationMetaDataMapper(pmmlDoc, targetName);
+    }
+
+}
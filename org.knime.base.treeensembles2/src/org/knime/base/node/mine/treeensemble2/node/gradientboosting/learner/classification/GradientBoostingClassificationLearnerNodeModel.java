@@ -64,6 +64,7 @@
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.FilterLearnColumnRearranger;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -163,23 +164,22 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
         ExecutionMonitor readInExec = exec.createSubProgress(0.1);
         ExecutionMonitor learnExec = exec.createSubProgress(0.8);
         exec.setProgress("Reading data into memory");
-        TreeData data = createTreeData(warnings, learnTable, readInExec);
+        final PhaseMetrics metrics = PhaseMetrics.create();
+        TreeData data = createTreeData(warnings, learnTable, readInExec, metrics);
         readInExec.setProgress(1.0);
         exec.setMessage("Learning trees");
         AbstractGradientBoostingLearner learner = new LKGradientBoostedTreesLearner(m_configuration, data, m_safeSoftmax, m_fixNominalValueMixup);
+        learner.setMetrics(metrics);
         AbstractGradientBoostingModel model;
 //        m_configuration.setMissingValueHandling(MissingValueHandling.XGBoost);
-//        try {
+        try {
             model = learner.learn(learnExec);
-//        } catch (ExecutionException e) {
-//            Throwable cause = e.getCause();
-//            if (cause instanceof Exception) {
-//                throw (Exception)cause;
-//            }
-//            throw e;
-//        }
+        } finally {
+            data.releaseOffHeapColumns();
+        }
         GradientBoostingModelPortObject modelPortObject = new GradientBoostingModelPortObject(ensembleSpec, model);
         learnExec.setProgress(1.0);
+        metrics.pushFlowVariables(this::pushFlowVariableDouble);
         var warn = warnings.stream()//
             .filter(Objects::nonNull)//
             .filter(s -> !s.isBlank())//
@@ -191,10 +191,10 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
     }
 
     private TreeData createTreeData(final List<String> warnings, final BufferedDataTable learnTable,
-        final ExecutionMonitor readInExec) throws CanceledExecutionException {
+        final ExecutionMonitor readInExec, final PhaseMetrics metrics) throws CanceledExecutionException {
         TreeDataCreator dataCreator =
             new TreeDataCreator(m_configuration, learnTable.getDataTableSpec(), learnTable.getRowCount());
-        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec);
+        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec, metrics);
         String dataCreationWarning = dataCreator.getAndClearWarningMessage();
         warnings.add(dataCreationWarning);
         return data;
@@ -60,6 +60,7 @@
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.learner.GradientBoostingLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.FilterLearnColumnRearranger;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -147,7 +148,8 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
         ExecutionMonitor outOfBagExec = exec.createSubProgress(0.1);
         TreeDataCreator dataCreator = new TreeDataCreator(m_configuration, learnSpec, learnTable.getRowCount());
         exec.setProgress("Reading data into memory");
-        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec);
+        final PhaseMetrics metrics = PhaseMetrics.create();
+        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec, metrics);
         //        m_hiliteRowSample = dataCreator.getDataRowsForHilite();
         //        m_viewMessage = dataCreator.getViewMessage();
         String dataCreationWarning = dataCreator.getAndClearWarningMessage();
@@ -162,18 +164,16 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
         exec.setMessage("Learning trees");
         AbstractGradientBoostingLearner learner =
             new MGradientBoostedTreesLearner(m_configuration, data, m_fixNominalValueMixup);
+        learner.setMetrics(metrics);
         AbstractGradientBoostingModel model;
-        //        try {
-        model = learner.learn(learnExec);
-        //        } catch (ExecutionException e) {
-        //            Throwable cause = e.getCause();
-        //            if (cause instanceof Exception) {
-        //                throw (Exception)cause;
-        //            }
-        //            throw e;
-        //        }
+        try {
+            model = learner.learn(learnExec);
+        } finally {
+            data.releaseOffHeapColumns();
+        }
         GradientBoostingModelPortObject modelPortObject = new GradientBoostingModelPortObject(ensembleSpec, model);
         learnExec.setProgress(1.0);
+        metrics.pushFlowVariables(this::pushFlowVariableDouble);
         if (warn != null) {
             setWarningMessage(warn);
         }
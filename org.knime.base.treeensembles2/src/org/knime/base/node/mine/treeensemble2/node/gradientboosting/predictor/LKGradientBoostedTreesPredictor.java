@@ -4,11 +4,14 @@
 package org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.function.Function;
 
 import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
 import org.knime.base.node.mine.treeensemble2.model.MultiClassGradientBoostedTreesModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeCondition;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
 import org.knime.base.node.mine.treeensemble2.node.predictor.AbstractPredictor;
 import org.knime.base.node.mine.treeensemble2.node.predictor.ClassificationPrediction;
 import org.knime.core.data.DataRow;
@@ -24,6 +27,9 @@ public class LKGradientBoostedTreesPredictor extends AbstractPredictor<Classific
 
     private final boolean m_useSafeSoftmax;
 
+    // trees with resolved leaf coefficients in level order (all classes of a level are adjacent)
+    private final CoefficientNode[] m_trees;
+
     /**
      * Constructor for classification gbt predictors.
      *
@@ -39,6 +45,15 @@ public LKGradientBoostedTreesPredictor(final MultiClassGradientBoostedTreesModel
         m_model = model;
         m_calculateProbabilities = calculateProbabilities;
         m_useSafeSoftmax = useSafeSoftmax;
+        final int nrClasses = model.getNrClasses();
+        final int nrLevels = model.getNrLevels();
+        m_trees = new CoefficientNode[nrLevels * nrClasses];
+        for (int i = 0; i < nrLevels; i++) {
+            for (int j = 0; j < nrClasses; j++) {
+                m_trees[i * nrClasses + j] =
+                    new CoefficientNode(model.getModel(i, j).getRootNode(), model.getCoefficientMap(i, j));
+            }
+        }
     }
 
     /**
@@ -62,28 +77,31 @@ public LKGradientBoostedTreesPredictor(final MultiClassGradientBoostedTreesModel
     public ClassificationPrediction predictRecord(final PredictorRecord record) {
         double[] logits = calculateLogits(record);
         if (m_calculateProbabilities) {
-            transformToProbabilities(logits);
-            return new LKGBTPrediction(argmax(logits), logits);
+            final int winningClassIdx = transformToProbabilities(logits);
+            return new LKGBTPrediction(winningClassIdx, logits);
         } else {
             return new LKGBTPrediction(argmax(logits));
         }
     }
 
     private double[] calculateLogits(final PredictorRecord record) {
-        int nrClasses = m_model.getNrClasses();
-        int nrLevels = m_model.getNrLevels();
-        final double[] logits = new double[nrClasses];
+        final double[] logits = new double[m_model.getNrClasses()];
         Arrays.fill(logits, m_model.getInitialValue());
-        for (int i = 0; i < nrLevels; i++) {
-            for (int j = 0; j < nrClasses; j++) {
-                final TreeNodeRegression matchingNode = m_model.getModel(i, j).findMatchingNode(record);
-                logits[j] += m_model.getCoefficientMap(i, j).get(matchingNode.getSignature());
-            }
+        int j = 0;
+        for (int t = 0; t < m_trees.length; t++) {
+            logits[j] += m_trees[t].findMatchingLeaf(record).getCoefficient();
+            j = j + 1 == logits.length ? 0 : j + 1;
         }
         return logits;
     }
 
-    private void transformToProbabilities(final double[] logits) {
+    /**
+     * Replaces the logits by the softmax probabilities and determines the most probable class while normalizing,
+     * which saves a separate pass over the probabilities.
+     *
+     * @return the index of the first class with the highest probability
+     */
+    private int transformToProbabilities(final double[] logits) {
         double[] probabilities = logits;
         double expSum = 0;
         final double constant = getNormalizationConstant(logits);
@@ -93,9 +111,17 @@ private void transformToProbabilities(final double[] logits) {
             expSum += exp;
         }
         assert expSum > 0 : "The exponential sum was zero.";
+        int argmax = -1;
+        double max = Double.NEGATIVE_INFINITY;
         for (int i = 0; i < probabilities.length; i++) {
-            probabilities[i] /= expSum;
+            final double probability = probabilities[i] / expSum;
+            probabilities[i] = probability;
+            if (probability > max) {
+                max = probability;
+                argmax = i;
+            }
         }
+        return argmax;
     }
 
     private double getNormalizationConstant(final double[] logits) {
@@ -131,6 +157,62 @@ private static int argmax(final double[] vector) {
         return argmax;
     }
 
+    /**
+     * Mirror of a tree node that holds the coefficient of the node, so that predicting a record neither hashes the
+     * signatures of the leaves nor unboxes their coefficients. The children are tested in the same order as in
+     * {@link TreeNodeRegression#findMatchingChild(PredictorRecord)}.
+     */
+    private static final class CoefficientNode {
+
+        private final TreeNodeSignature m_signature;
+
+        private final TreeNodeCondition m_condition;
+
+        private final CoefficientNode[] m_children;
+
+        // NaN if the coefficient map contains no coefficient for the node (inner nodes)
+        private final double m_coefficient;
+
+        private final boolean m_hasCoefficient;
+
+        CoefficientNode(final TreeNodeRegression node, final Map<TreeNodeSignature, Double> coefficientMap) {
+            m_signature = node.getSignature();
+            m_condition = node.getCondition();
+            m_children = new CoefficientNode[node.getNrChildren()];
+            for (int i = 0; i < m_children.length; i++) {
+                m_children[i] = new CoefficientNode(node.getChild(i), coefficientMap);
+            }
+            final Double coefficient = coefficientMap.get(m_signature);
+            m_hasCoefficient = coefficient != null;
+            m_coefficient = m_hasCoefficient ? coefficient : Double.NaN;
+        }
+
+        CoefficientNode findMatchingLeaf(final PredictorRecord record) {
+            CoefficientNode matchingNode = this;
+            CoefficientNode nextChild;
+            while ((nextChild = matchingNode.findMatchingChild(record)) != null) {
+                matchingNode = nextChild;
+            }
+            return matchingNode;
+        }
+
+        private CoefficientNode findMatchingChild(final PredictorRecord record) {
+            for (CoefficientNode child : m_children) {
+                if (child.m_condition.testCondition(record)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        double getCoefficient() {
+            if (!m_hasCoefficient) {
+                throw new IllegalStateException("The model contains no coefficient for tree node " + m_signature);
+            }
+            return m_coefficient;
+        }
+    }
+
     private final class LKGBTPrediction implements ClassificationPrediction {
 
         private final int m_winningClassIdx;
@@ -0,0 +1,207 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.pmml;
+
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.knime.base.node.mine.treeensemble2.model.GradientBoostingModelPortObject;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.port.pmml.PMMLPortObject;
+
+/**
+ * Caches Gradient Boosted Trees models imported from PMML, keyed by the SHA-256 hash of the PMML document.
+ * Scoring the same PMML document repeatedly (e.g. small batches in a loop or a deployed workflow) then only costs the
+ * serialization and hashing of the document instead of the complete import of all trees.
+ * The imported models are not modified by the predictors and can therefore be shared between executions and nodes.
+ * The warning of the import is cached along with the model so that every execution can report it.
+ * Only the {@link #MAX_ENTRIES} most recently used models are kept, and only softly referenced so that they don't
+ * cause memory shortages.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class GBTPMMLModelCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(GBTPMMLModelCache.class);
+
+    /** The maximal number of models kept in the cache. */
+    static final int MAX_ENTRIES = 4;
+
+    private static final GBTPMMLModelCache INSTANCE = new GBTPMMLModelCache();
+
+    private final Map<String, SoftReference<ImportedModel>> m_models =
+        new LinkedHashMap<>(MAX_ENTRIES + 1, 0.75f, true);
+
+    private GBTPMMLModelCache() {
+        // singleton
+    }
+
+    /**
+     * @return the cache shared by all Gradient Boosted Trees PMML predictors
+     */
+    static GBTPMMLModelCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param pmmlPO a PMML port object
+     * @return the key of the PMML document in the cache
+     */
+    static String createKey(final PMMLPortObject pmmlPO) {
+        return hash(pmmlPO.getPMMLValue().toString());
+    }
+
+    /**
+     * Returns the cached model for the given key or imports and caches it if it is not cached yet.
+     * The import runs without holding the lock of the cache, the same document may therefore be imported
+     * concurrently by several nodes in which case the last import is kept.
+     *
+     * @param key the key of the PMML document, see {@link #createKey(PMMLPortObject)}
+     * @param importer imports the model from the PMML document
+     * @return the imported model and the warning of its import
+     */
+    ImportedModel getOrImport(final String key, final Supplier<ImportedModel> importer) {
+        ImportedModel model = get(key);
+        if (model != null) {
+            LOGGER.debug("Using the cached import of the Gradient Boosted Trees PMML model.");
+            return model;
+        }
+        model = importer.get();
+        put(key, model);
+        return model;
+    }
+
+    private synchronized ImportedModel get(final String key) {
+        final SoftReference<ImportedModel> ref = m_models.get(key);
+        final ImportedModel model = ref == null ? null : ref.get();
+        if (ref != null && model == null) {
+            m_models.remove(key);
+        }
+        return model;
+    }
+
+    private synchronized void put(final String key, final ImportedModel model) {
+        m_models.put(key, new SoftReference<>(model));
+        // drop models that were garbage collected and the least recently used ones
+        m_models.values().removeIf(r -> r.get() == null);
+        for (Iterator<String> it = m_models.keySet().iterator(); m_models.size() > MAX_ENTRIES;) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes all models from the cache.
+     */
+    synchronized void clear() {
+        m_models.clear();
+    }
+
+    /**
+     * @return the number of models currently in the cache (including models that were already garbage collected)
+     */
+    synchronized int size() {
+        return m_models.size();
+    }
+
+    static String hash(final String pmml) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        final byte[] hash = digest.digest(pmml.getBytes(StandardCharsets.UTF_8));
+        final StringBuilder sb = new StringBuilder(2 * hash.length);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A model imported from PMML together with the warning of the import.
+     */
+    static final class ImportedModel {
+
+        private final GradientBoostingModelPortObject m_model;
+
+        private final String m_warning;
+
+        /**
+         * @param model the imported model
+         * @param warning the warning of the import or <code>null</code> if there is none
+         */
+        ImportedModel(final GradientBoostingModelPortObject model, final String warning) {
+            m_model = model;
+            m_warning = warning;
+        }
+
+        /**
+         * @return the imported model
+         */
+        GradientBoostingModelPortObject getModel() {
+            return m_model;
+        }
+
+        /**
+         * @return the warning of the import or <code>null</code> if there is none
+         */
+        String getWarning() {
+            return m_warning;
+        }
+    }
+
+}
@@ -64,6 +64,7 @@
 import org.knime.base.node.mine.treeensemble2.model.pmml.RegressionGBTModelPMMLTranslator;
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.GBTRegressionPredictor;
 import org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.LKGradientBoostedTreesPredictor;
+import org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.pmml.GBTPMMLModelCache.ImportedModel;
 import org.knime.base.node.mine.treeensemble2.node.predictor.PredictionRearrangerCreator;
 import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictionUtil;
 import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictorConfiguration;
@@ -250,8 +251,21 @@ private DataType extractTargetType(final PMMLPortObjectSpec pmmlSpec) {
         return pmmlSpec.getTargetCols().get(0).getType();
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Returns the model of the PMML. The import is cached by the content of the PMML document, repeated executions
+     * on the same document reuse the previously imported model. The warning of the import is set on every call.
+     */
     private GradientBoostingModelPortObject importModel(final PMMLPortObject pmmlPO) {
+        final ImportedModel imported = GBTPMMLModelCache.getInstance()
+            .getOrImport(GBTPMMLModelCache.createKey(pmmlPO), () -> importModelFromPMML(pmmlPO));
+        if (imported.getWarning() != null) {
+            setWarningMessage(imported.getWarning());
+        }
+        return imported.getModel();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImportedModel importModelFromPMML(final PMMLPortObject pmmlPO) {
         AbstractGBTModelPMMLTranslator<M> pmmlTranslator;
         DataType targetType = extractTargetType(pmmlPO.getSpec());
         if (targetType.isCompatible(DoubleValue.class)) {
@@ -262,11 +276,10 @@ private GradientBoostingModelPortObject importModel(final PMMLPortObject pmmlPO)
             throw new IllegalArgumentException("Currently only regression models are supported.");
         }
         pmmlPO.initializeModelTranslator(pmmlTranslator);
-        if (pmmlTranslator.hasWarning()) {
-            setWarningMessage(pmmlTranslator.getWarning());
-        }
-        return new GradientBoostingModelPortObject(new TreeEnsembleModelPortObjectSpec(pmmlTranslator.getLearnSpec()),
-            pmmlTranslator.getGBTModel());
+        return new ImportedModel(
+            new GradientBoostingModelPortObject(new TreeEnsembleModelPortObjectSpec(pmmlTranslator.getLearnSpec()),
+                pmmlTranslator.getGBTModel()),
+            pmmlTranslator.hasWarning() ? pmmlTranslator.getWarning() : null);
     }
 
     /**
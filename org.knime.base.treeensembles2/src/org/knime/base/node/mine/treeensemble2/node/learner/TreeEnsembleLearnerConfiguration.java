@@ -127,10 +127,16 @@ public class TreeEnsembleLearnerConfiguration {
 
     public static final String KEY_USE_BINARY_NOMINAL_SPLITS = "useBinaryNominalSplits";
 
+    public static final String KEY_BINARY_NOMINAL_SPLIT_METHOD = "binaryNominalSplitMethod";
+
     public static final String KEY_SPLIT_CRITERION = "splitCriterion";
 
     public static final String KEY_MISSING_VALUE_HANDLING = "missingValueHandling";
 
+    public static final String KEY_MAX_NR_SURROGATES = "maxNrSurrogates";
+
+    public static final String KEY_PARALLEL_SINGLE_TREE_LEARNING = "parallelSingleTreeLearning";
+
     public static final String KEY_NR_MODELS = "nrModels";
 
     public static final String KEY_COLUMN_FRACTION_LINEAR = "columnFractionPerTree";
@@ -155,6 +161,8 @@ public class TreeEnsembleLearnerConfiguration {
 
     public static final String KEY_SAVE_TARGET_DISTRIBUTION_IN_NODES = "saveTargetDistributionInNodes";
 
+    public static final String KEY_COMPUTE_VARIABLE_IMPORTANCE = "computeVariableImportance";
+
     public static final String KEY_COLUMN_FILTER_CONFIG = "columnFilterConfig";
 
     public static final String KEY_ROW_SAMPLING_MODE = "rowSamplingMode";
@@ -182,6 +190,35 @@ public String toString() {
         }
     }
 
+    /**
+     * Enum that lists the available methods to order the nominal values for binary splits in classification tasks with
+     * more than two classes.
+     */
+    public enum BinaryNominalSplitMethod {
+            /**
+             * Order by the first principal component of the class probabilities computed by an eigen decomposition
+             */
+        PCA("PCA"),
+
+        /**
+         * Order by the first principal component of the class probabilities computed by power iteration, faster for
+         * nominal columns with many values
+         */
+        PowerIteration("Power Iteration");
+
+        private final String m_string;
+
+        private BinaryNominalSplitMethod(final String str) {
+            m_string = str;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return m_string;
+        }
+    }
+
     /**
      * Enum that lists the available split criteria for classification tasks.
      *
@@ -255,6 +292,14 @@ public enum ColumnSamplingMode {
 
     static final int DEF_MAX_LEVEL = MAX_LEVEL_INFINITE;
 
+    /** indicates that all surrogates with a positive association are kept. */
+    public static final int MAX_NR_SURROGATES_ALL = -1;
+
+    static final int DEF_MAX_NR_SURROGATES = MAX_NR_SURROGATES_ALL;
+
+    /** Default for learning a single tree in parallel. */
+    public static final boolean DEF_PARALLEL_SINGLE_TREE_LEARNING = true;
+
     static final RowSamplingMode DEF_ROW_SAMPLING_MODE = RowSamplingMode.Random;
 
     /**
@@ -297,8 +342,18 @@ public enum ColumnSamplingMode {
      */
     public static final boolean DEF_SAVE_TARGET_DISTRIBUTION_IN_NODES = false;
 
+    /**
+     * Default for computing the variable importance while learning
+     */
+    public static final boolean DEF_COMPUTE_VARIABLE_IMPORTANCE = false;
+
     private static final MissingValueHandling DEF_MISSING_VALUE_HANDLING = MissingValueHandling.XGBoost;
 
+    /**
+     * Default method to order nominal values for binary splits in multi-class problems
+     */
+    public static final BinaryNominalSplitMethod DEF_BINARY_NOMINAL_SPLIT_METHOD = BinaryNominalSplitMethod.PCA;
+
     private String m_targetColumn;
 
     private Long m_seed = System.currentTimeMillis();
@@ -328,10 +383,16 @@ public enum ColumnSamplingMode {
 
     private boolean m_useBinaryNominalSplits = DEF_BINARY_NOMINAL_SPLITS;
 
+    private BinaryNominalSplitMethod m_binaryNominalSplitMethod = DEF_BINARY_NOMINAL_SPLIT_METHOD;
+
     private SplitCriterion m_splitCriterion;
 
     private MissingValueHandling m_missingValueHandling = DEF_MISSING_VALUE_HANDLING;
 
+    private int m_maxNrSurrogates = DEF_MAX_NR_SURROGATES;
+
+    private boolean m_parallelSingleTreeLearning = DEF_PARALLEL_SINGLE_TREE_LEARNING;
+
     private String m_fingerprintColumn;
 
     private String m_hardCodedRootColumn;
@@ -342,6 +403,8 @@ public enum ColumnSamplingMode {
 
     private boolean m_saveTargetDistributionInNodes = DEF_SAVE_TARGET_DISTRIBUTION_IN_NODES;
 
+    private boolean m_computeVariableImportance = DEF_COMPUTE_VARIABLE_IMPORTANCE;
+
     private DataColumnSpecFilterConfiguration m_columnFilterConfig;
 
     private final boolean m_isRegression;
@@ -673,6 +736,45 @@ public void setMissingValueHandling(final MissingValueHandling missingValueHandl
         m_missingValueHandling = missingValueHandling;
     }
 
+    /**
+     * The maximum number of surrogate splits that are stored per tree node if the missing value handling is
+     * {@link MissingValueHandling#Surrogate}, or {@link #MAX_NR_SURROGATES_ALL} to keep all surrogates with a positive
+     * association. The majority direction is always used as the last resort and does not count.
+     *
+     * @return the maximum number of surrogates as described above
+     */
+    public int getMaxNrSurrogates() {
+        return m_maxNrSurrogates;
+    }
+
+    /**
+     * @param maxNrSurrogates the maximum number of surrogates, see {@link #getMaxNrSurrogates()} for details.
+     * @throws InvalidSettingsException if bounds are violated, see get method for details.
+     */
+    public void setMaxNrSurrogates(final int maxNrSurrogates) throws InvalidSettingsException {
+        if (maxNrSurrogates != MAX_NR_SURROGATES_ALL && maxNrSurrogates <= 0) {
+            throw new InvalidSettingsException("Invalid value for maximum number of surrogates: " + maxNrSurrogates);
+        }
+        m_maxNrSurrogates = maxNrSurrogates;
+    }
+
+    /**
+     * Whether the nodes that learn a single tree split large tree nodes in parallel. The learned tree is the same as
+     * with the sequential learning. Not used by the ensemble learners, which learn their trees in parallel anyway.
+     *
+     * @return true if a single tree is learned in parallel
+     */
+    public boolean isParallelSingleTreeLearning() {
+        return m_parallelSingleTreeLearning;
+    }
+
+    /**
+     * @param parallelSingleTreeLearning see {@link #isParallelSingleTreeLearning()}
+     */
+    public void setParallelSingleTreeLearning(final boolean parallelSingleTreeLearning) {
+        m_parallelSingleTreeLearning = parallelSingleTreeLearning;
+    }
+
     /**
      * @return the useAverageSplitPoints
      */
@@ -701,6 +803,26 @@ public void setUseBinaryNominalSplits(final boolean useBinaryNominalSplits) {
         m_useBinaryNominalSplits = useBinaryNominalSplits;
     }
 
+    /**
+     * @return the method used to order the nominal values for binary splits if there are more than two classes
+     */
+    public BinaryNominalSplitMethod getBinaryNominalSplitMethod() {
+        return m_binaryNominalSplitMethod;
+    }
+
+    /**
+     * @param binaryNominalSplitMethod the method used to order the nominal values for binary splits if there are more
+     *            than two classes
+     * @throws InvalidSettingsException if <b>binaryNominalSplitMethod</b> is null
+     */
+    public void setBinaryNominalSplitMethod(final BinaryNominalSplitMethod binaryNominalSplitMethod)
+        throws InvalidSettingsException {
+        if (binaryNominalSplitMethod == null) {
+            throw new InvalidSettingsException("Binary nominal split method must not be null");
+        }
+        m_binaryNominalSplitMethod = binaryNominalSplitMethod;
+    }
+
     /**
      * @return the name of the fingerprint column to learn from (each bit position is an binary attribute) or null if to
      *         learn from a set of columns.
@@ -775,6 +897,26 @@ public void setSaveTargetDistributionInNodes(final boolean value) {
         m_saveTargetDistributionInNodes = value;
     }
 
+    /**
+     * Whether the ensemble learners compute the variable importance (impurity decrease and out-of-bag permutation
+     * importance) of each attribute and append it to the attribute statistics table. The permutation importance
+     * requires the out-of-bag rows, so it's only meaningful if rows are sampled.
+     *
+     * @return that property.
+     */
+    public boolean isComputeVariableImportance() {
+        return m_computeVariableImportance;
+    }
+
+    /**
+     * Setter for {@link #isComputeVariableImportance()}.
+     *
+     * @param value The value
+     */
+    public void setComputeVariableImportance(final boolean value) {
+        m_computeVariableImportance = value;
+    }
+
     /**
      * @return the ignoreColumnsWithoutDomain
      */
@@ -825,8 +967,11 @@ public void save(final NodeSettingsWO settings) {
         settings.addInt(KEY_NR_MODELS, m_nrModels);
         settings.addString(KEY_SPLIT_CRITERION, m_splitCriterion.name());
         settings.addString(KEY_MISSING_VALUE_HANDLING, m_missingValueHandling.name());
+        settings.addInt(KEY_MAX_NR_SURROGATES, m_maxNrSurrogates);
+        settings.addBoolean(KEY_PARALLEL_SINGLE_TREE_LEARNING, m_parallelSingleTreeLearning);
         settings.addBoolean(KEY_USE_AVERAGE_SPLIT_POINTS, m_useAverageSplitPoints);
         settings.addBoolean(KEY_USE_BINARY_NOMINAL_SPLITS, m_useBinaryNominalSplits);
+        settings.addString(KEY_BINARY_NOMINAL_SPLIT_METHOD, m_binaryNominalSplitMethod.name());
         settings.addString(KEY_FINGERPRINT_COLUMN, m_fingerprintColumn);
         //        m_columnFilterConfig = new DataColumnSpecFilterConfiguration(KEY_COLUMN_FILTER_CONFIG);
         m_columnFilterConfig.saveConfiguration(settings);
@@ -834,6 +979,7 @@ public void save(final NodeSettingsWO settings) {
         settings.addBoolean(KEY_IGNORE_COLUMNS_WITHOUT_DOMAIN, m_ignoreColumnsWithoutDomain);
         settings.addInt(KEY_NR_HILITE_PATTERNS, m_nrHilitePatterns);
         settings.addBoolean(KEY_SAVE_TARGET_DISTRIBUTION_IN_NODES, m_saveTargetDistributionInNodes);
+        settings.addBoolean(KEY_COMPUTE_VARIABLE_IMPORTANCE, m_computeVariableImportance);
         settings.addString(KEY_ROW_SAMPLING_MODE, m_rowSamplingMode.name());
     }
 
@@ -900,8 +1046,22 @@ public void loadInModel(final NodeSettingsRO settings) throws InvalidSettingsExc
             throw new InvalidSettingsException(
                 "Unable to parse missing value handling \"" + missingValueHandlingS + "\"", e);
         }
+        // added in 5.11, be backward compatible (keep all surrogates)
+        setMaxNrSurrogates(settings.getInt(KEY_MAX_NR_SURROGATES, DEF_MAX_NR_SURROGATES));
+        // added in 5.11, parallel learning learns the same trees as the sequential learning
+        setParallelSingleTreeLearning(
+            settings.getBoolean(KEY_PARALLEL_SINGLE_TREE_LEARNING, DEF_PARALLEL_SINGLE_TREE_LEARNING));
         setUseAverageSplitPoints(settings.getBoolean(KEY_USE_AVERAGE_SPLIT_POINTS));
         setUseBinaryNominalSplits(settings.getBoolean(KEY_USE_BINARY_NOMINAL_SPLITS, false));
+        // added in 5.11, be backward compatible (PCA as default)
+        final String binaryNominalSplitMethodS =
+            settings.getString(KEY_BINARY_NOMINAL_SPLIT_METHOD, DEF_BINARY_NOMINAL_SPLIT_METHOD.name());
+        try {
+            m_binaryNominalSplitMethod = BinaryNominalSplitMethod.valueOf(binaryNominalSplitMethodS);
+        } catch (Exception e) {
+            throw new InvalidSettingsException(
+                "Unable to parse binary nominal split method \"" + binaryNominalSplitMethodS + "\"", e);
+        }
         setFingerprintColumn(settings.getString(KEY_FINGERPRINT_COLUMN));
         m_columnFilterConfig.loadConfigurationInModel(settings);
         //        setIncludeAllColumns(settings.getBoolean(KEY_INCLUDE_ALL_COLUMNS));
@@ -920,6 +1080,9 @@ public void loadInModel(final NodeSettingsRO settings) throws InvalidSettingsExc
         setNrHilitePatterns(settings.getInt(KEY_NR_HILITE_PATTERNS, -1));
         // added in 2.10
         setSaveTargetDistributionInNodes(settings.getBoolean(KEY_SAVE_TARGET_DISTRIBUTION_IN_NODES, true));
+        // added in 5.11, be backward compatible (no variable importance)
+        setComputeVariableImportance(
+            settings.getBoolean(KEY_COMPUTE_VARIABLE_IMPORTANCE, DEF_COMPUTE_VARIABLE_IMPORTANCE));
 
         setRowSamplingMode(
             RowSamplingMode.valueOf(settings.getString(KEY_ROW_SAMPLING_MODE, DEF_ROW_SAMPLING_MODE.name())));
@@ -1086,6 +1249,12 @@ public void loadInDialog(final NodeSettingsRO settings, final DataTableSpec inSp
         m_splitCriterion = splitCriterion;
         m_useAverageSplitPoints = settings.getBoolean(KEY_USE_AVERAGE_SPLIT_POINTS, DEF_AVERAGE_SPLIT_POINTS);
         m_useBinaryNominalSplits = settings.getBoolean(KEY_USE_BINARY_NOMINAL_SPLITS, DEF_BINARY_NOMINAL_SPLITS);
+        try {
+            m_binaryNominalSplitMethod = BinaryNominalSplitMethod.valueOf(
+                settings.getString(KEY_BINARY_NOMINAL_SPLIT_METHOD, DEF_BINARY_NOMINAL_SPLIT_METHOD.name()));
+        } catch (Exception e) {
+            m_binaryNominalSplitMethod = DEF_BINARY_NOMINAL_SPLIT_METHOD;
+        }
 
         String missingValueHandlingS =
             settings.getString(KEY_MISSING_VALUE_HANDLING, DEF_MISSING_VALUE_HANDLING.name());
@@ -1101,6 +1270,13 @@ public void loadInDialog(final NodeSettingsRO settings, final DataTableSpec inSp
         }
         m_missingValueHandling = missingValueHandling;
 
+        m_maxNrSurrogates = settings.getInt(KEY_MAX_NR_SURROGATES, DEF_MAX_NR_SURROGATES);
+        if (m_maxNrSurrogates != MAX_NR_SURROGATES_ALL && m_maxNrSurrogates <= 0) {
+            m_maxNrSurrogates = DEF_MAX_NR_SURROGATES;
+        }
+        m_parallelSingleTreeLearning =
+            settings.getBoolean(KEY_PARALLEL_SINGLE_TREE_LEARNING, DEF_PARALLEL_SINGLE_TREE_LEARNING);
+
         FilterResult filterResult = m_columnFilterConfig.applyTo(inSpec);
         if (m_fingerprintColumn != null) {
             // use fingerprint data, OK
@@ -1118,6 +1294,8 @@ public void loadInDialog(final NodeSettingsRO settings, final DataTableSpec inSp
         m_nrHilitePatterns = settings.getInt(KEY_NR_HILITE_PATTERNS, -1);
         m_saveTargetDistributionInNodes =
             settings.getBoolean(KEY_SAVE_TARGET_DISTRIBUTION_IN_NODES, DEF_SAVE_TARGET_DISTRIBUTION_IN_NODES);
+        m_computeVariableImportance =
+            settings.getBoolean(KEY_COMPUTE_VARIABLE_IMPORTANCE, DEF_COMPUTE_VARIABLE_IMPORTANCE);
 
         setRowSamplingMode(
             RowSamplingMode.valueOf(settings.getString(KEY_ROW_SAMPLING_MODE, DEF_ROW_SAMPLING_MODE.name())));
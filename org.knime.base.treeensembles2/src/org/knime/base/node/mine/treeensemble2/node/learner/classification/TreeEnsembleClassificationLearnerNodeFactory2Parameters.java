@@ -72,6 +72,7 @@ public void modify(final Modification.WidgetGroupModifier group) {
             AbstractTreeLearnerOptions.showSplitCriterion(group);
             AbstractTreeLearnerOptions.showUseMidpointSplits(group);
             AbstractTreeLearnerOptions.showUseBinarySplitsForNominal(group);
+            AbstractTreeLearnerOptions.showBinaryNominalSplitMethod(group);
             AbstractTreeLearnerOptions.showMaxTreeDepthOption(group);
             MinNodeSizesParameters.showSplitNodeSizes(group);
             ClassificationTreeLearnerOptions.setMinSplitNodeSizeDefaultToTwo(group);
@@ -91,6 +92,7 @@ public void modify(final Modification.WidgetGroupModifier group) {
             // advanced
             AbstractTreeLearnerOptions.showHiliteCountOption(group);
             AbstractTreeLearnerOptions.showSaveTargetDistribution(group);
+            AbstractTreeLearnerOptions.showComputeVariableImportance(group);
             AbstractTreeLearnerOptions.showRandomSeedOptions(group);
         }
     }
@@ -71,6 +71,8 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerNodeView.ViewContentProvider;
 import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictionUtil;
 import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictorConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.predictor.classification.OutOfBagVotes;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
@@ -162,7 +164,8 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 
         Optional<DataTableSpec> outOfBagSpec = TreeEnsemblePredictionUtil.createPRCForClassificationRF(
             inSpec, ensembleSpec, null, null, null, createOOBConfig(), m_pre36).createSpec();
-        DataTableSpec colStatsSpec = TreeEnsembleLearner.getColumnStatisticTableSpec();
+        DataTableSpec colStatsSpec =
+            TreeEnsembleLearner.getColumnStatisticTableSpec(m_configuration.isComputeVariableImportance());
 
         return new PortObjectSpec[]{outOfBagSpec.orElse(null), colStatsSpec, ensembleSpec};
     }
@@ -200,7 +203,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         ExecutionMonitor outOfBagExec = exec.createSubProgress(0.1);
         TreeDataCreator dataCreator = new TreeDataCreator(m_configuration, learnSpec, learnTable.getRowCount());
         exec.setProgress("Reading data into memory");
-        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec);
+        final PhaseMetrics metrics = PhaseMetrics.create();
+        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec, metrics);
         m_hiliteRowSample = dataCreator.getDataRowsForHilite();
         m_viewMessage = dataCreator.getViewMessage();
         String dataCreationWarning = dataCreator.getAndClearWarningMessage();
@@ -214,6 +218,11 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         readInExec.setProgress(1.0);
         exec.setMessage("Learning trees");
         TreeEnsembleLearner learner = new TreeEnsembleLearner(m_configuration, data);
+        final TreeEnsemblePredictorConfiguration ooBConfig = createOOBConfig();
+        final OutOfBagVotes outOfBagVotes =
+            TreeEnsemblePredictionUtil.createOutOfBagVotes(ensembleSpec, data.getNrRows(), ooBConfig);
+        learner.setOutOfBagAggregator(outOfBagVotes);
+        learner.setMetrics(metrics);
         TreeEnsembleModel model;
         try {
             model = learner.learnEnsemble(learnExec);
@@ -223,18 +232,22 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 throw (Exception)cause;
             }
             throw e;
+        } finally {
+            data.releaseOffHeapColumns();
         }
         learnExec.setProgress(1.0);
         exec.setMessage("Writing ensemble to disk");
         TreeEnsembleModelPortObject modelPortObject =TreeEnsembleModelPortObject.createPortObject(ensembleSpec, model,
             exec.createFileStore(UUID.randomUUID().toString() + ""));
         exec.setMessage("Out of bag prediction");
-        ColumnRearranger outOfBagRearranger = TreeEnsemblePredictionUtil.createPRCForClassificationRF(
-            spec, ensembleSpec, model, learner.getRowSamples(), data.getTargetColumn(), createOOBConfig(), m_pre36)
+        // the out-of-bag votes were collected while learning the trees
+        ColumnRearranger outOfBagRearranger = TreeEnsemblePredictionUtil.createOutOfBagPRCForClassificationRF(
+            spec, ensembleSpec, model, outOfBagVotes, data.getTargetColumn(), ooBConfig, m_pre36)
                 .createExecutionRearranger();
         BufferedDataTable outOfBagTable = exec.createColumnRearrangeTable(t, outOfBagRearranger, outOfBagExec);
         BufferedDataTable colStatsTable = learner.createColumnStatisticTable(exec.createSubExecutionContext(0.0));
         m_ensembleModelPortObject = modelPortObject;
+        metrics.pushFlowVariables(this::pushFlowVariableDouble);
         if (warn != null) {
             setWarningMessage(warn);
         }
@@ -366,6 +366,32 @@ public static void showUseBinarySplitsForNominal(final Modification.WidgetGroupM
             .modify();
     }
 
+    @Layout(TreeOptionsSection.class)
+    @Persistor(Persistors.BinaryNominalSplitMethodPersistor.class)
+    @Modification.WidgetReference(BinaryNominalSplitMethodWidgetRef.class)
+    EnumOptions.BinaryNominalSplitMethodOption m_binaryNominalSplitMethod =
+        EnumOptions.BinaryNominalSplitMethodOption.PCA;
+
+    private interface BinaryNominalSplitMethodWidgetRef extends Modification.Reference {
+    }
+
+    /**
+     * Only used by Tree Ensemble Classification, the regression learners order the nominal values by their mean.
+     *
+     * @param groupModifier the group modifier
+     */
+    public static void showBinaryNominalSplitMethod(final Modification.WidgetGroupModifier groupModifier) {
+        groupModifier.find(BinaryNominalSplitMethodWidgetRef.class) //
+            .addAnnotation(Widget.class) //
+            .withProperty("title", "Binary nominal split method") //
+            .withProperty("description", """
+                    Only used for binary splits of nominal columns if the target has more than two classes. The \
+                    nominal values are ordered along the first principal component of the class probabilities, which \
+                    is computed with the selected method.
+                    """) //
+            .modify();
+    }
+
     @Layout(TreeOptionsSection.class)
     @OptionalWidget(defaultProvider = DefaultProviders.MaxTreeDepthDefaultProvider.class)
     @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
@@ -753,4 +779,50 @@ public static void showSaveTargetDistribution(final Modification.WidgetGroupModi
                     </ul>""").modify();
     }
 
+    @Layout(AdvancedSection.class)
+    @Modification.WidgetReference(ComputeVariableImportanceRef.class)
+    @Persist(configKey = TreeEnsembleLearnerConfiguration.KEY_COMPUTE_VARIABLE_IMPORTANCE)
+    boolean m_computeVariableImportance = TreeEnsembleLearnerConfiguration.DEF_COMPUTE_VARIABLE_IMPORTANCE;
+
+    private interface ComputeVariableImportanceRef extends Modification.Reference {
+    }
+
+    /**
+     * Only used by the ensemble nodes (Tree Ensemble and Random Forest), which report it in the attribute statistics.
+     *
+     * @param groupModifier the group modifier
+     */
+    public static void showComputeVariableImportance(final Modification.WidgetGroupModifier groupModifier) {
+        groupModifier.find(ComputeVariableImportanceRef.class).addAnnotation(Widget.class)
+            .withProperty("title", "Compute variable importance").withProperty("description", """
+                    If selected, the importance of each attribute is appended to the attribute statistics table:
+                    the mean impurity decrease per tree caused by the splits on the attribute and the mean increase
+                    of the out-of-bag error if the values of the attribute are permuted among the out-of-bag rows
+                    of a tree (including its standard deviation over the trees). The permutation importance is only
+                    available if the trees have out-of-bag rows, i.e. if the rows are sampled.
+                    """).modify();
+    }
+
+    @Layout(AdvancedSection.class)
+    @Modification.WidgetReference(ParallelSingleTreeLearningRef.class)
+    @Persist(configKey = TreeEnsembleLearnerConfiguration.KEY_PARALLEL_SINGLE_TREE_LEARNING)
+    boolean m_parallelSingleTreeLearning = TreeEnsembleLearnerConfiguration.DEF_PARALLEL_SINGLE_TREE_LEARNING;
+
+    private interface ParallelSingleTreeLearningRef extends Modification.Reference {
+    }
+
+    /**
+     * Only used by the nodes that learn a single tree (Simple Regression Tree), the ensemble nodes learn their trees
+     * in parallel anyway.
+     *
+     * @param groupModifier the group modifier
+     */
+    public static void showParallelSingleTreeLearning(final Modification.WidgetGroupModifier groupModifier) {
+        groupModifier.find(ParallelSingleTreeLearningRef.class).addAnnotation(Widget.class)
+            .withProperty("title", "Learn tree in parallel").withProperty("description", """
+                    If selected, tree nodes with many rows evaluate their attributes and learn their subtrees in
+                    parallel. The learned tree is the same as with sequential learning.
+                    """).modify();
+    }
+
 }
@@ -139,6 +139,34 @@ static SplitCriterionOption fromLegacy(final TreeEnsembleLearnerConfiguration.Sp
         private final TreeEnsembleLearnerConfiguration.SplitCriterion m_delegate;
     }
 
+    enum BinaryNominalSplitMethodOption {
+            @Label(value = "PCA", description = """
+                    Compute the first principal component with an eigen decomposition (default).
+                    """)
+            PCA(TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod.PCA),
+            @Label(value = "Power iteration", description = """
+                    Approximate the first principal component by power iteration, which is faster for nominal \
+                    columns with many values.
+                    """)
+            POWER_ITERATION(TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod.PowerIteration);
+
+        BinaryNominalSplitMethodOption(final TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod delegate) {
+            m_delegate = delegate;
+        }
+
+        TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod toLegacy() {
+            return m_delegate;
+        }
+
+        static BinaryNominalSplitMethodOption
+            fromLegacy(final TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod legacy) {
+            return legacy == TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod.PowerIteration
+                ? POWER_ITERATION : PCA;
+        }
+
+        private final TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod m_delegate;
+    }
+
     enum RowSamplingModeOption {
             @Label(value = "Random", description = """
                     Sample rows uniformly at random.
@@ -288,6 +288,35 @@ public String[][] getConfigPaths() {
         }
     }
 
+    static final class BinaryNominalSplitMethodPersistor
+        implements NodeParametersPersistor<EnumOptions.BinaryNominalSplitMethodOption> {
+        @Override
+        public EnumOptions.BinaryNominalSplitMethodOption load(final NodeSettingsRO settings)
+            throws InvalidSettingsException {
+            // added in 5.11, older settings use the eigen decomposition
+            final var stringValue = settings.getString(TreeEnsembleLearnerConfiguration.KEY_BINARY_NOMINAL_SPLIT_METHOD,
+                TreeEnsembleLearnerConfiguration.DEF_BINARY_NOMINAL_SPLIT_METHOD.name());
+            try {
+                var legacy = TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod.valueOf(stringValue);
+                return EnumOptions.BinaryNominalSplitMethodOption.fromLegacy(legacy);
+            } catch (IllegalArgumentException iae) {
+                throw new InvalidSettingsException(createInvalidSettingsExceptionMessage(
+                    TreeEnsembleLearnerConfiguration.BinaryNominalSplitMethod.class, stringValue), iae);
+            }
+        }
+
+        @Override
+        public void save(final EnumOptions.BinaryNominalSplitMethodOption value, final NodeSettingsWO settings) {
+            settings.addString(TreeEnsembleLearnerConfiguration.KEY_BINARY_NOMINAL_SPLIT_METHOD,
+                value.toLegacy().name());
+        }
+
+        @Override
+        public String[][] getConfigPaths() {
+            return new String[][]{{TreeEnsembleLearnerConfiguration.KEY_BINARY_NOMINAL_SPLIT_METHOD}};
+        }
+    }
+
     private static <E extends Enum<E>> String createInvalidSettingsExceptionMessage(final Class<E> enumClass,
         final String name) {
         var values = Arrays.stream(enumClass.getEnumConstants()).map(Enum::name).collect(Collectors.joining(", "));
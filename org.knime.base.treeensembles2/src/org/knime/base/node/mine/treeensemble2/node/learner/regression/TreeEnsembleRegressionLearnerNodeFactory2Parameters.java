@@ -90,6 +90,7 @@ public void modify(final Modification.WidgetGroupModifier group) {
 
             // advanced options
             AbstractTreeLearnerOptions.showHiliteCountOption(group);
+            AbstractTreeLearnerOptions.showComputeVariableImportance(group);
             AbstractTreeLearnerOptions.showRandomSeedOptions(group);
         }
     }
@@ -70,6 +70,8 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerNodeView.ViewContentProvider;
 import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictionUtil;
 import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictorConfiguration;
+import org.knime.base.node.mine.treeensemble2.node.predictor.regression.OutOfBagMeans;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.ColumnRearranger;
@@ -139,7 +141,8 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         TreeEnsembleModelPortObjectSpec ensembleSpec = m_configuration.createPortObjectSpec(learnSpec);
         Optional<DataTableSpec> outOfBagSpec = TreeEnsemblePredictionUtil.createPRCForRegressionRF(
             inSpec, ensembleSpec, null, null, null, createOOBConfig()).createSpec();
-        DataTableSpec colStatsSpec = TreeEnsembleLearner.getColumnStatisticTableSpec();
+        DataTableSpec colStatsSpec =
+            TreeEnsembleLearner.getColumnStatisticTableSpec(m_configuration.isComputeVariableImportance());
 
         return new PortObjectSpec[]{outOfBagSpec.orElse(null), colStatsSpec, ensembleSpec};
     }
@@ -171,7 +174,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         ExecutionMonitor outOfBagExec = exec.createSubProgress(0.1);
         TreeDataCreator dataCreator = new TreeDataCreator(m_configuration, learnSpec, learnTable.getRowCount());
         exec.setProgress("Reading data into memory");
-        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec);
+        final PhaseMetrics metrics = PhaseMetrics.create();
+        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec, metrics);
         m_hiliteRowSample = dataCreator.getDataRowsForHilite();
         m_viewMessage = dataCreator.getViewMessage();
         String dataCreationWarning = dataCreator.getAndClearWarningMessage();
@@ -185,6 +189,9 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         readInExec.setProgress(1.0);
         exec.setMessage("Learning trees");
         TreeEnsembleLearner learner = new TreeEnsembleLearner(m_configuration, data);
+        final OutOfBagMeans outOfBagMeans = new OutOfBagMeans(data.getNrRows());
+        learner.setOutOfBagAggregator(outOfBagMeans);
+        learner.setMetrics(metrics);
         TreeEnsembleModel model;
         try {
             model = learner.learnEnsemble(learnExec);
@@ -194,18 +201,22 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 throw (Exception)cause;
             }
             throw e;
+        } finally {
+            data.releaseOffHeapColumns();
         }
         learnExec.setProgress(1.0);
         exec.setMessage("Writing ensemble to disk");
         TreeEnsembleModelPortObject modelPortObject = TreeEnsembleModelPortObject.createPortObject(ensembleSpec, model,
             exec.createFileStore(UUID.randomUUID().toString() + ""));
         exec.setMessage("Out of bag prediction");
-        ColumnRearranger outOfBagRearranger = TreeEnsemblePredictionUtil.createPRCForRegressionRF(
-            spec, ensembleSpec, model, learner.getRowSamples(), data.getTargetColumn(), createOOBConfig())
+        // the out-of-bag predictions were collected while learning the trees
+        ColumnRearranger outOfBagRearranger = TreeEnsemblePredictionUtil.createOutOfBagPRCForRegressionRF(
+            spec, ensembleSpec, model, outOfBagMeans, data.getTargetColumn(), createOOBConfig())
                 .createExecutionRearranger();
         BufferedDataTable outOfBagTable = exec.createColumnRearrangeTable(t, outOfBagRearranger, outOfBagExec);
         BufferedDataTable colStatsTable = learner.createColumnStatisticTable(exec.createSubExecutionContext(0.0));
         m_ensembleModelPortObject = modelPortObject;
+        metrics.pushFlowVariables(this::pushFlowVariableDouble);
         if (warn != null) {
             setWarningMessage(warn);
         }
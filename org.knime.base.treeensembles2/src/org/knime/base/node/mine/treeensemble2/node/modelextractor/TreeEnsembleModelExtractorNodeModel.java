@@ -49,7 +49,12 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
+import org.knime.base.node.mine.treeensemble2.learner.ParallelTasks;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObject;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpecCreator;
@@ -101,19 +106,32 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         TreeEnsembleModelPortObject treeEnsembleModel = (TreeEnsembleModelPortObject)inObjects[0];
         DataTableSpec outSpec = createOutSpec();
         BufferedDataContainer container = exec.createDataContainer(outSpec, false, 0);
-        int nrModels = treeEnsembleModel.getEnsembleModel().getNrModels();
+        // keeps the (weakly referenced) ensemble alive while the trees are exported
+        final TreeEnsembleModel ensembleModel = treeEnsembleModel.getEnsembleModel();
+        final int nrModels = ensembleModel.getNrModels();
+        // the trees are translated in parallel but added in order
+        final List<Callable<DataCell>> cellCallables = new ArrayList<>(nrModels);
         for (int i = 0; i < nrModels; i++) {
-            PMMLPortObject pmmlObject = treeEnsembleModel.createDecisionTreePMMLPortObject(i);
-            DataCell cell = PMMLCellFactory.create(pmmlObject.getPMMLValue().toString());
-            RowKey key = RowKey.createRowKey(i);
-            container.addRowToTable(new DefaultRow(key, cell));
-            exec.checkCanceled();
-            exec.setProgress(i / (double)nrModels, "Exported model " + (i + 1) + "/" + nrModels);
+            cellCallables.add(createCellCallable(treeEnsembleModel, i));
         }
+        final int[] nrAdded = {0};
+        ParallelTasks.runOrdered(cellCallables, cell -> {
+            final int i = nrAdded[0]++;
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey(i), cell));
+            exec.setProgress(i / (double)nrModels, "Exported model " + (i + 1) + "/" + nrModels);
+        }, exec);
         container.close();
         return new BufferedDataTable[]{container.getTable()};
     }
 
+    private static Callable<DataCell> createCellCallable(final TreeEnsembleModelPortObject treeEnsembleModel,
+        final int modelIndex) {
+        return () -> {
+            PMMLPortObject pmmlObject = treeEnsembleModel.createDecisionTreePMMLPortObject(modelIndex);
+            return PMMLCellFactory.create(pmmlObject.getPMMLValue().toString());
+        };
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void reset() {
@@ -0,0 +1,103 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.predictor;
+
+import java.util.function.IntFunction;
+
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnData;
+import org.knime.base.node.mine.treeensemble2.learner.OutOfBagAggregator;
+import org.knime.core.data.DataRow;
+
+/**
+ * A {@link Predictor} that returns the out-of-bag predictions that were collected by an {@link OutOfBagAggregator}
+ * while the model was learned. The rows of the training data are a subsequence (in the same order) of the table that
+ * is predicted, so the training row of a predicted row is found by advancing a cursor over the target column instead
+ * of looking up its row key. Rows that are not part of the training data (e.g. rows with a missing target value) are
+ * predicted with the full model.
+ *
+ * The rows must be predicted in the order of the table, i.e. the predictor must not be used with parallel
+ * processing.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @param <P> the type of prediction
+ */
+public final class OutOfBagPredictor<P extends OutOfBagPrediction> implements Predictor<P> {
+
+    private final Predictor<P> m_modelPredictor;
+
+    private final TreeTargetColumnData m_targetColumnData;
+
+    private final IntFunction<P> m_outOfBagPredictions;
+
+    private int m_cursor;
+
+    /**
+     * @param modelPredictor predicts rows that are not part of the training data
+     * @param targetColumnData the target column of the training data
+     * @param outOfBagPredictions provides the out-of-bag prediction for a position in the training data
+     */
+    public OutOfBagPredictor(final Predictor<P> modelPredictor, final TreeTargetColumnData targetColumnData,
+        final IntFunction<P> outOfBagPredictions) {
+        m_modelPredictor = modelPredictor;
+        m_targetColumnData = targetColumnData;
+        m_outOfBagPredictions = outOfBagPredictions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public P predict(final DataRow row) {
+        if (m_cursor < m_targetColumnData.getNrRows()
+            && m_targetColumnData.getRowKeyFor(m_cursor).equals(row.getKey())) {
+            return m_outOfBagPredictions.apply(m_cursor++);
+        }
+        return m_modelPredictor.predict(row);
+    }
+
+}
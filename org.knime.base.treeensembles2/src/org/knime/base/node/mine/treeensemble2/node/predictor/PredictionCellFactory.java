@@ -50,10 +50,13 @@
 
 import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
 import org.knime.base.node.mine.treeensemble2.node.predictor.parser.PredictionParser;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics.Phase;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.CellFactory;
+import org.knime.core.node.NodeLogger;
 
 /**
  * A {@link CellFactory} that appends predictions of a tree ensemble model.
@@ -63,10 +66,14 @@
  */
 public final class PredictionCellFactory<P extends Prediction> extends AbstractCellFactory {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PredictionCellFactory.class);
+
     private final Predictor<P> m_predictor;
 
     private final PredictionParser<P> m_predictionParser;
 
+    private final PhaseMetrics m_metrics = PhaseMetrics.create();
+
     /**
      * Constructor for a PredictionCellFactory.
      *
@@ -74,16 +81,37 @@
      * @param predictionParser parses predictions produced by the <b>predictor</b> into {@link DataCell}s
      */
     public PredictionCellFactory(final Predictor<P> predictor, final PredictionParser<P> predictionParser) {
+        this(predictor, predictionParser, true);
+    }
+
+    /**
+     * Constructor for a PredictionCellFactory.
+     *
+     * @param predictor produces predictions from {@link PredictorRecord}s
+     * @param predictionParser parses predictions produced by the <b>predictor</b> into {@link DataCell}s
+     * @param parallelProcessing false if the <b>predictor</b> relies on seeing the rows in the order of the table
+     */
+    public PredictionCellFactory(final Predictor<P> predictor, final PredictionParser<P> predictionParser,
+        final boolean parallelProcessing) {
         super(predictionParser.getAppendSpecs());
-        setParallelProcessing(true);
+        setParallelProcessing(parallelProcessing);
         m_predictor = predictor;
         m_predictionParser = predictionParser;
     }
 
     @Override
     public final DataCell[] getCells(final DataRow row) {
+        final long start = m_metrics.start();
         P prediction = m_predictor.predict(row);
+        m_metrics.stop(Phase.PREDICTION, start);
         return m_predictionParser.parse(prediction);
     }
 
+    @Override
+    public void afterProcessing() {
+        if (m_metrics.isEnabled()) {
+            LOGGER.info("Prediction metrics: " + m_metrics.getSummary());
+        }
+    }
+
 }
@@ -78,6 +78,8 @@ public final class PredictionRearrangerCreator {
 
     private Predictor<? extends Prediction> m_predictor;
 
+    private final boolean m_parallelProcessing;
+
     /**
      * Abstract constructor.
      *
@@ -86,8 +88,21 @@ public final class PredictionRearrangerCreator {
      */
     public PredictionRearrangerCreator(final DataTableSpec predictSpec,
         final Predictor<? extends Prediction> predictor) {
+        this(predictSpec, predictor, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param predictSpec {@link DataTableSpec} of the table to predict
+     * @param predictor performs the actual prediction (may be null during configure)
+     * @param parallelProcessing false if the <b>predictor</b> relies on seeing the rows in the order of the table
+     */
+    public PredictionRearrangerCreator(final DataTableSpec predictSpec,
+        final Predictor<? extends Prediction> predictor, final boolean parallelProcessing) {
         m_testSpec = predictSpec;
         m_predictor = predictor;
+        m_parallelProcessing = parallelProcessing;
     }
 
 
@@ -130,7 +145,7 @@ private ColumnRearranger createRearranger() {
         @SuppressWarnings({"rawtypes", "unchecked"})
         PredictionParser parser = new DefaultPredictionParser(m_testSpec, m_itemParsers);
         @SuppressWarnings({"rawtypes", "unchecked"})
-        PredictionCellFactory pcf = new PredictionCellFactory<>(m_predictor, parser);
+        PredictionCellFactory pcf = new PredictionCellFactory<>(m_predictor, parser, m_parallelProcessing);
         cr.append(pcf);
         return cr;
     }
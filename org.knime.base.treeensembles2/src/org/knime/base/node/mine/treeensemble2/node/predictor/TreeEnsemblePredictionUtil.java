@@ -61,9 +61,11 @@
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
 import org.knime.base.node.mine.treeensemble2.node.predictor.classification.HardVotingFactory;
+import org.knime.base.node.mine.treeensemble2.node.predictor.classification.OutOfBagVotes;
 import org.knime.base.node.mine.treeensemble2.node.predictor.classification.RandomForestClassificationPredictor;
 import org.knime.base.node.mine.treeensemble2.node.predictor.classification.SoftVotingFactory;
 import org.knime.base.node.mine.treeensemble2.node.predictor.classification.VotingFactory;
+import org.knime.base.node.mine.treeensemble2.node.predictor.regression.OutOfBagMeans;
 import org.knime.base.node.mine.treeensemble2.node.predictor.regression.RandomForestRegressionPredictor;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
 import org.knime.core.data.DataCell;
@@ -181,21 +183,73 @@ public static PredictionRearrangerCreator createPRCForClassificationRF(final Dat
         final TreeEnsembleModelPortObjectSpec modelSpec, final TreeEnsembleModel model,
         final RowSample[] modelRowSamples, final TreeTargetColumnData targetColumnData,
         final TreeEnsemblePredictorConfiguration config, final boolean pre36) throws InvalidSettingsException {
+        return createPRCForClassificationRF(dataSpec, modelSpec, config, pre36, true,
+            votingFactory -> modelRowSamples == null
+                ? new RandomForestClassificationPredictor(model, modelSpec, dataSpec, votingFactory)
+                : new RandomForestClassificationPredictor(model, modelSpec, dataSpec, modelRowSamples,
+                    targetColumnData, votingFactory));
+    }
 
+    /**
+     * Creates the {@link OutOfBagVotes} that collect the out-of-bag predictions of a classification random forest
+     * while it is learned.
+     *
+     * @param modelSpec the spec of the (classification) random forest
+     * @param nrRows the number of rows in the training data
+     * @param config for the out-of-bag prediction
+     * @return the out-of-bag votes or null if the possible values of the target column are unknown
+     */
+    public static OutOfBagVotes createOutOfBagVotes(final TreeEnsembleModelPortObjectSpec modelSpec,
+        final int nrRows, final TreeEnsemblePredictorConfiguration config) {
         Map<String, DataCell> targetValueMap = modelSpec.getTargetColumnPossibleValueMap();
-        RandomForestClassificationPredictor predictor = null;
+        if (targetValueMap == null) {
+            return null;
+        }
+        return new OutOfBagVotes(createTargetValueToIndexMap(targetValueMap), config.isUseSoftVoting(), nrRows);
+    }
+
+    /**
+     * Creates a {@link PredictionRearrangerCreator} for creation of a {@link ColumnRearranger} that appends the
+     * out-of-bag predictions of a classification random forest that were collected while learning the forest. The
+     * rearranger must be applied to the table the forest was learned on.
+     *
+     * @param dataSpec the spec of the table the forest was learned on
+     * @param modelSpec the spec of the (classification) random forest
+     * @param model the (classification) random forest
+     * @param outOfBagVotes the out-of-bag votes collected while learning <b>model</b>
+     * @param targetColumnData the target column of the training data
+     * @param config for the prediction, must be the one <b>outOfBagVotes</b> were created with
+     * @param pre36 flag that indicates if the node was created prior to version 3.6.0
+     * @return a creator that allows to create a rearranger for the out-of-bag predictions
+     * @throws InvalidSettingsException if <b>dataSpec</b> is missing some columns the model needs
+     */
+    public static PredictionRearrangerCreator createOutOfBagPRCForClassificationRF(final DataTableSpec dataSpec,
+        final TreeEnsembleModelPortObjectSpec modelSpec, final TreeEnsembleModel model,
+        final OutOfBagVotes outOfBagVotes, final TreeTargetColumnData targetColumnData,
+        final TreeEnsemblePredictorConfiguration config, final boolean pre36) throws InvalidSettingsException {
+        return createPRCForClassificationRF(dataSpec, modelSpec, config, pre36, false,
+            votingFactory -> new OutOfBagPredictor<>(
+                new RandomForestClassificationPredictor(model, modelSpec, dataSpec, votingFactory), targetColumnData,
+                outOfBagVotes::getPrediction));
+    }
+
+    private static PredictionRearrangerCreator createPRCForClassificationRF(final DataTableSpec dataSpec,
+        final TreeEnsembleModelPortObjectSpec modelSpec, final TreeEnsemblePredictorConfiguration config,
+        final boolean pre36, final boolean parallelProcessing,
+        final PredictorFactory<RandomForestClassificationPrediction> predictorFactory)
+        throws InvalidSettingsException {
+
+        Map<String, DataCell> targetValueMap = modelSpec.getTargetColumnPossibleValueMap();
+        Predictor<RandomForestClassificationPrediction> predictor = null;
         String[] classLabels = null;
         if (targetValueMap != null) {
             Map<String, Integer> targetVal2Idx = createTargetValueToIndexMap(targetValueMap);
             VotingFactory votingFactory =
                 config.isUseSoftVoting() ? new SoftVotingFactory(targetVal2Idx) : new HardVotingFactory(targetVal2Idx);
-            predictor = modelRowSamples == null
-                ? new RandomForestClassificationPredictor(model, modelSpec, dataSpec, votingFactory)
-                : new RandomForestClassificationPredictor(model, modelSpec, dataSpec, modelRowSamples, targetColumnData,
-                    votingFactory);
+            predictor = predictorFactory.create(votingFactory);
             classLabels = targetValueMap.keySet().stream().map(o -> o).toArray(i -> new String[i]);
         }
-        PredictionRearrangerCreator prc = new PredictionRearrangerCreator(dataSpec, predictor);
+        PredictionRearrangerCreator prc = new PredictionRearrangerCreator(dataSpec, predictor, parallelProcessing);
 
         if (pre36) {
             prc.addClassPrediction(config.getPredictionColumnName());
@@ -252,7 +306,35 @@ public static PredictionRearrangerCreator createPRCForRegressionRF(final DataTab
         RandomForestRegressionPredictor predictor =
             modelRowSamples == null ? new RandomForestRegressionPredictor(model, modelSpec, dataSpec)
                 : new RandomForestRegressionPredictor(model, modelSpec, dataSpec, modelRowSamples, targetColumnData);
-        PredictionRearrangerCreator prc = new PredictionRearrangerCreator(dataSpec, predictor);
+        return createPRCForRegressionRF(new PredictionRearrangerCreator(dataSpec, predictor), config);
+    }
+
+    /**
+     * Creates a {@link PredictionRearrangerCreator} for creation of a {@link ColumnRearranger} that appends the
+     * out-of-bag predictions of a regression random forest that were collected while learning the forest. The
+     * rearranger must be applied to the table the forest was learned on.
+     *
+     * @param dataSpec the spec of the table the forest was learned on
+     * @param modelSpec the spec of the (regression) random forest
+     * @param model the (regression) random forest
+     * @param outOfBagMeans the out-of-bag predictions collected while learning <b>model</b>
+     * @param targetColumnData the target column of the training data
+     * @param config for the prediction
+     * @return a creator that allows to create a rearranger for the out-of-bag predictions
+     * @throws InvalidSettingsException if <b>dataSpec</b> is missing some columns the model needs
+     */
+    public static PredictionRearrangerCreator createOutOfBagPRCForRegressionRF(final DataTableSpec dataSpec,
+        final TreeEnsembleModelPortObjectSpec modelSpec, final TreeEnsembleModel model,
+        final OutOfBagMeans outOfBagMeans, final TreeTargetColumnData targetColumnData,
+        final TreeEnsemblePredictorConfiguration config) throws InvalidSettingsException {
+        OutOfBagPredictor<RandomForestRegressionPrediction> predictor = new OutOfBagPredictor<>(
+            new RandomForestRegressionPredictor(model, modelSpec, dataSpec), targetColumnData,
+            outOfBagMeans::getPrediction);
+        return createPRCForRegressionRF(new PredictionRearrangerCreator(dataSpec, predictor, false), config);
+    }
+
+    private static PredictionRearrangerCreator createPRCForRegressionRF(final PredictionRearrangerCreator prc,
+        final TreeEnsemblePredictorConfiguration config) {
         prc.addRegressionPrediction(config.getPredictionColumnName());
         prc.addPredictionVariance(config.getPredictionColumnName());
         if (config.isAppendModelCount()) {
@@ -260,4 +342,9 @@ public static PredictionRearrangerCreator createPRCForRegressionRF(final DataTab
         }
         return prc;
     }
+
+    @FunctionalInterface
+    private interface PredictorFactory<P extends Prediction> {
+        Predictor<P> create(VotingFactory votingFactory) throws InvalidSettingsException;
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.predictor.classification;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.base.node.mine.treeensemble2.data.NominalValueRepresentation;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNominalColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.learner.OutOfBagAggregator;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNode;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeClassification;
+import org.knime.base.node.mine.treeensemble2.node.predictor.RandomForestClassificationPrediction;
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * Collects the out-of-bag votes of a classification random forest for all rows of the training data while the forest
+ * is learned. The votes of all rows are kept in a single flat array, the resulting predictions are the same as the ones
+ * of a {@link RandomForestClassificationPredictor} with an out-of-bag filter that uses {@link HardVoting} or
+ * {@link SoftVoting} respectively.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class OutOfBagVotes implements OutOfBagAggregator {
+
+    private final Map<String, Integer> m_targetValueToIndexMap;
+
+    private final boolean m_softVoting;
+
+    private final int m_nrClasses;
+
+    // votes of row r for class c are at r * m_nrClasses + c
+    private final float[] m_votes;
+
+    private final int[] m_nrVotes;
+
+    // maps the nominal values of the last seen target meta data to the voting index
+    private TreeTargetNominalColumnMetaData m_cachedTargetMetaData;
+
+    private int[] m_cachedVotingIndices;
+
+    /**
+     * @param targetValueToIndexMap a map that assigns a unique index to each target value
+     * @param softVoting true if the probabilities of the trees should be aggregated instead of their votes
+     * @param nrRows the number of rows in the training data
+     */
+    public OutOfBagVotes(final Map<String, Integer> targetValueToIndexMap, final boolean softVoting,
+        final int nrRows) {
+        m_targetValueToIndexMap = targetValueToIndexMap;
+        m_softVoting = softVoting;
+        m_nrClasses = targetValueToIndexMap.size();
+        m_votes = new float[nrRows * m_nrClasses];
+        m_nrVotes = new int[nrRows];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addTree(final int[] rows, final AbstractTreeNode[] leaves, final int count) {
+        for (int i = 0; i < count; i++) {
+            final TreeNodeClassification leaf = (TreeNodeClassification)leaves[i];
+            final int offset = rows[i] * m_nrClasses;
+            final int[] votingIndices = getVotingIndices(leaf.getTargetMetaData());
+            m_nrVotes[rows[i]]++;
+            if (m_softVoting) {
+                final float[] targetDistribution = leaf.getTargetDistribution();
+                float nrRecordsInLeaf = 0;
+                for (float classCount : targetDistribution) {
+                    nrRecordsInLeaf += classCount;
+                }
+                for (int j = 0; j < m_nrClasses; j++) {
+                    m_votes[offset + votingIndices[j]] += targetDistribution[j] / nrRecordsInLeaf;
+                }
+            } else {
+                m_votes[offset + votingIndices[leaf.getMajorityClassIndex()]] += 1.0f;
+            }
+        }
+    }
+
+    private int[] getVotingIndices(final TreeTargetNominalColumnMetaData targetMetaData) {
+        if (targetMetaData != m_cachedTargetMetaData) {
+            /* the nominal values in the meta data are in the order in which they first appeared in the
+             training table. This is not necessarily the same as the order in the domain information of
+             the target column
+             */
+            final NominalValueRepresentation[] targetVals = targetMetaData.getValues();
+            final int[] votingIndices = new int[targetVals.length];
+            for (int i = 0; i < targetVals.length; i++) {
+                final String classValue = targetVals[i].getNominalValue();
+                final Integer idx = m_targetValueToIndexMap.get(classValue);
+                CheckUtils.checkArgumentNotNull(idx, "The class \"%s\" is unknown.", classValue);
+                votingIndices[i] = idx.intValue();
+            }
+            m_cachedTargetMetaData = targetMetaData;
+            m_cachedVotingIndices = votingIndices;
+        }
+        return m_cachedVotingIndices;
+    }
+
+    /**
+     * @param row the position of a row in the training data
+     * @return the out-of-bag prediction for <b>row</b>
+     */
+    public RandomForestClassificationPrediction getPrediction(final int row) {
+        return new OutOfBagClassificationPrediction(row);
+    }
+
+    private final class OutOfBagClassificationPrediction implements RandomForestClassificationPrediction {
+
+        private final int m_row;
+
+        private int m_majorityClassIdx = -1;
+
+        private String m_majorityClass;
+
+        OutOfBagClassificationPrediction(final int row) {
+            m_row = row;
+        }
+
+        @Override
+        public String getClassPrediction() {
+            if (m_majorityClass == null) {
+                findMajorityClass();
+            }
+            return m_majorityClass;
+        }
+
+        @Override
+        public int getWinningClassIdx() {
+            if (m_majorityClassIdx == -1) {
+                findMajorityClass();
+            }
+            return m_majorityClassIdx;
+        }
+
+        private void findMajorityClass() {
+            // same iteration order and tie breaking as in AbstractVoting
+            float highestProb = -1.0f;
+            for (Entry<String, Integer> entry : m_targetValueToIndexMap.entrySet()) {
+                final float prob = getClassProbability(entry.getValue());
+                if (prob > highestProb) {
+                    highestProb = prob;
+                    m_majorityClass = entry.getKey();
+                    m_majorityClassIdx = entry.getValue();
+                }
+            }
+        }
+
+        @Override
+        public double getProbability(final int classIdx) {
+            return getClassProbability(classIdx);
+        }
+
+        private float getClassProbability(final int classIdx) {
+            return m_votes[m_row * m_nrClasses + classIdx] / m_nrVotes[m_row];
+        }
+
+        @Override
+        public int getModelCount() {
+            return m_nrVotes[m_row];
+        }
+
+        @Override
+        public boolean hasPrediction() {
+            return m_nrVotes[m_row] > 0;
+        }
+
+    }
+
+}
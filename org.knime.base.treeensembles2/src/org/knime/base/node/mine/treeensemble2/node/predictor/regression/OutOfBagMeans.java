@@ -0,0 +1,143 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.predictor.regression;
+
+import org.apache.commons.math.stat.descriptive.moment.Mean;
+import org.apache.commons.math.stat.descriptive.moment.Variance;
+import org.knime.base.node.mine.treeensemble2.learner.OutOfBagAggregator;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeNode;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
+import org.knime.base.node.mine.treeensemble2.node.predictor.RandomForestRegressionPrediction;
+
+/**
+ * Collects the out-of-bag predictions of a regression random forest for all rows of the training data while the
+ * forest is learned. Only the number of predictions, their mean and the sum of squared deviations are kept per row.
+ * They are updated with the same formulas as {@link Mean} and {@link Variance}, i.e. the resulting predictions are
+ * the same as the ones of a {@link RandomForestRegressionPredictor} with an out-of-bag filter.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class OutOfBagMeans implements OutOfBagAggregator {
+
+    private final int[] m_counts;
+
+    private final double[] m_means;
+
+    private final double[] m_squaredDeviations;
+
+    /**
+     * @param nrRows the number of rows in the training data
+     */
+    public OutOfBagMeans(final int nrRows) {
+        m_counts = new int[nrRows];
+        m_means = new double[nrRows];
+        m_squaredDeviations = new double[nrRows];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addTree(final int[] rows, final AbstractTreeNode[] leaves, final int count) {
+        for (int i = 0; i < count; i++) {
+            final int row = rows[i];
+            final double nodeMean = ((TreeNodeRegression)leaves[i]).getMean();
+            final double n = ++m_counts[row];
+            final double dev = nodeMean - m_means[row];
+            final double nDev = dev / n;
+            m_means[row] += nDev;
+            m_squaredDeviations[row] += (n - 1) * dev * nDev;
+        }
+    }
+
+    /**
+     * @param row the position of a row in the training data
+     * @return the out-of-bag prediction for <b>row</b>
+     */
+    public RandomForestRegressionPrediction getPrediction(final int row) {
+        return new OutOfBagRegressionPrediction(row);
+    }
+
+    private final class OutOfBagRegressionPrediction implements RandomForestRegressionPrediction {
+
+        private final int m_row;
+
+        OutOfBagRegressionPrediction(final int row) {
+            m_row = row;
+        }
+
+        @Override
+        public double getPrediction() {
+            return m_counts[m_row] == 0 ? Double.NaN : m_means[m_row];
+        }
+
+        @Override
+        public double getVariance() {
+            final int n = m_counts[m_row];
+            if (n == 0) {
+                return Double.NaN;
+            } else if (n == 1) {
+                return 0.0;
+            }
+            // bias corrected like the default Variance
+            return m_squaredDeviations[m_row] / (n - 1.0);
+        }
+
+        @Override
+        public int getModelCount() {
+            return m_counts[m_row];
+        }
+
+        @Override
+        public boolean hasPrediction() {
+            return m_counts[m_row] != 0;
+        }
+
+    }
+
+}
@@ -92,6 +92,7 @@ public void modify(final Modification.WidgetGroupModifier group) {
             // advanced
             AbstractTreeLearnerOptions.showHiliteCountOption(group);
             AbstractTreeLearnerOptions.showSaveTargetDistribution(group);
+            AbstractTreeLearnerOptions.showComputeVariableImportance(group);
             AbstractTreeLearnerOptions.showRandomSeedOptions(group);
         }
     }
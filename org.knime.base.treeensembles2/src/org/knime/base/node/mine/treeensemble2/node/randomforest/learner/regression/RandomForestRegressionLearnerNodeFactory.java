@@ -154,6 +154,10 @@ contains the number of models used for the voting (number of models not using th
             the number of models. Note, these numbers are uncorrected, i.e. if an attribute is selected on level 0
             but is also in the candidate set of level 1 (but is not split on level 1 because it has been split one
             level up), the #candidate number will still count the attribute as candidate.
+            If the variable importance is computed, three columns are appended: <i>Impurity decrease</i> is the
+            mean decrease of the impurity per tree by the splits on the attribute, <i>Permutation importance</i> is the
+            mean increase of the out-of-bag error if the values of the attribute are permuted among the out-of-bag
+            rows of a tree and <i>Permutation importance (std. dev.)</i> is its standard deviation over the trees.
             """), fixedPort("Random Forest Model", """
             The trained model.
             """));
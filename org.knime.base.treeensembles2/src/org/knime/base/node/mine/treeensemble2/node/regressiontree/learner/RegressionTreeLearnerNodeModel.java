@@ -68,6 +68,7 @@
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
 import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration.FilterLearnColumnRearranger;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
+import org.knime.base.node.mine.treeensemble2.statistics.PhaseMetrics;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.DataContainer;
@@ -148,7 +149,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         ExecutionMonitor learnExec = exec.createSubProgress(0.9);
         TreeDataCreator dataCreator = new TreeDataCreator(m_configuration, learnSpec, learnTable.getRowCount());
         exec.setProgress("Reading data into memory");
-        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec);
+        final PhaseMetrics metrics = PhaseMetrics.create();
+        TreeData data = dataCreator.readData(learnTable, m_configuration, readInExec, metrics);
         m_hiliteRowSample = dataCreator.getDataRowsForHilite();
         m_viewMessage = dataCreator.getViewMessage();
         String dataCreationWarning = dataCreator.getAndClearWarningMessage();
@@ -179,7 +181,16 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         }
         final RowSample rowSample = m_configuration.createRowSampler(data).createRowSample(rd);
         TreeLearnerRegression treeLearner = new TreeLearnerRegression(m_configuration, data, indexManager, signatureFactory, rd, rowSample);
-        TreeModelRegression regTree = treeLearner.learnSingleTree(learnExec, rd);
+        treeLearner.setMetrics(metrics);
+        treeLearner.setParallel(m_configuration.isParallelSingleTreeLearning());
+        final long learnStart = metrics.start();
+        final TreeModelRegression regTree;
+        try {
+            regTree = treeLearner.learnSingleTree(learnExec, rd);
+        } finally {
+            data.releaseOffHeapColumns();
+        }
+        metrics.stop(PhaseMetrics.Phase.TREE_LEARNING, learnStart);
 
         RegressionTreeModel model = new RegressionTreeModel(m_configuration, data.getMetaData(), regTree, data.getTreeType());
         RegressionTreeModelPortObjectSpec treePortObjectSpec = new RegressionTreeModelPortObjectSpec(learnSpec);
@@ -187,6 +198,7 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 
         learnExec.setProgress(1.0);
         m_treeModelPortObject = treePortObject;
+        metrics.pushFlowVariables(this::pushFlowVariableDouble);
         if (warn != null) {
             setWarningMessage(warn);
         }
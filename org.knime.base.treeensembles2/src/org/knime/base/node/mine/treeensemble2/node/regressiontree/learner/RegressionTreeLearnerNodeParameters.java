@@ -85,6 +85,7 @@ public void modify(final Modification.WidgetGroupModifier group) {
 
             // advanced options
             AbstractTreeLearnerOptions.showHiliteCountOption(group);
+            AbstractTreeLearnerOptions.showParallelSingleTreeLearning(group);
         }
 
         private static class MinSplitNodeSizeDefaultProvider implements OptionalWidget.DefaultValueProvider<Integer> {
@@ -0,0 +1,243 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.knime.base.node.mine.treeensemble2.learner.ParallelTasks;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Greedily shrinks a tree ensemble by repeatedly removing the tree whose removal scores best on an evaluation data
+ * set (Zhang and Wang, Search for the smallest random forest). The predictions of the single trees are computed once
+ * by the subclasses, which keep the aggregated prediction of the remaining trees up to date so that a candidate
+ * removal can be scored without touching the other trees. The candidates of a round are scored in parallel.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public abstract class AbstractTreeEnsembleShrinker {
+
+    /** the remaining trees (indices into the initial ensemble) in ascending order */
+    private final int[] m_remaining;
+
+    private int m_nrRemaining;
+
+    /**
+     * @param nrTrees the number of trees in the initial ensemble
+     */
+    protected AbstractTreeEnsembleShrinker(final int nrTrees) {
+        if (nrTrees < 1) {
+            throw new IllegalArgumentException("The ensemble must contain at least one tree.");
+        }
+        m_remaining = new int[nrTrees];
+        Arrays.setAll(m_remaining, i -> i);
+        m_nrRemaining = nrTrees;
+    }
+
+    /**
+     * @return the score of the current sub-ensemble, larger is better
+     */
+    public abstract double getScore();
+
+    /**
+     * Called once per round before the candidates are scored, allows to precompute everything that is shared by the
+     * candidates of a round.
+     */
+    protected abstract void prepareRound();
+
+    /**
+     * Scores the current sub-ensemble without the given tree. Called concurrently for different trees after
+     * {@link #prepareRound()}, hence implementations must not modify any state.
+     *
+     * @param tree index of a remaining tree in the initial ensemble
+     * @return the score of the sub-ensemble without <b>tree</b>, larger is better
+     */
+    protected abstract double getScoreWithout(int tree);
+
+    /**
+     * Removes a tree from the aggregated predictions. Always called right after the candidates of a round have been
+     * scored, i.e. the state computed in {@link #prepareRound()} is still valid.
+     *
+     * @param tree index of a remaining tree in the initial ensemble
+     */
+    protected abstract void removeTree(int tree);
+
+    /**
+     * Adds a previously removed tree to the aggregated predictions.
+     *
+     * @param tree index of a removed tree in the initial ensemble
+     */
+    protected abstract void addTree(int tree);
+
+    /**
+     * @return the number of trees in the current sub-ensemble
+     */
+    public final int getNrTrees() {
+        return m_nrRemaining;
+    }
+
+    /**
+     * @return the indices of the trees of the current sub-ensemble in the initial ensemble, in ascending order
+     */
+    public final int[] getTrees() {
+        return Arrays.copyOf(m_remaining, m_nrRemaining);
+    }
+
+    /**
+     * Shrinks the ensemble to the given size.
+     *
+     * @param nrTrees the number of trees left after shrinking
+     * @param exec for progress and cancelation
+     * @throws CanceledExecutionException if execution has been canceled
+     */
+    public void shrinkTo(final int nrTrees, final ExecutionMonitor exec) throws CanceledExecutionException {
+        if (nrTrees < 1) {
+            throw new IllegalArgumentException("The shrunk ensemble must contain at least one tree.");
+        }
+        final long nrCalcs = getNrCalculations(m_nrRemaining, nrTrees);
+        long calcsDone = 0;
+        while (m_nrRemaining > nrTrees) {
+            exec.setProgress(calcsDone / (double)nrCalcs, calcsDone + " of " + nrCalcs + " calculations done");
+            calcsDone += m_nrRemaining;
+            removeBestCandidate(exec);
+        }
+        exec.setProgress(1.0);
+    }
+
+    /**
+     * Automatically shrinks to the best size found. Does a greedy shrink down to a single tree and picks the smallest
+     * sub-ensemble with the best score.
+     *
+     * @param exec for progress and cancelation
+     * @throws CanceledExecutionException if execution has been canceled
+     */
+    public void autoShrink(final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int[] removalOrder = new int[m_nrRemaining];
+        int nrRemoved = 0;
+        int bestNrRemoved = 0;
+        double bestScore = getScore();
+        final long nrCalcs = getNrCalculations(m_nrRemaining, 1);
+        long calcsDone = 0;
+        while (m_nrRemaining > 1) {
+            exec.setProgress(calcsDone / (double)nrCalcs, calcsDone + " of " + nrCalcs + " calculations done");
+            calcsDone += m_nrRemaining;
+            removalOrder[nrRemoved++] = removeBestCandidate(exec);
+            final double score = getScore();
+            // prefer the smaller ensemble if the scores are equal
+            if (score >= bestScore) {
+                bestScore = score;
+                bestNrRemoved = nrRemoved;
+            }
+        }
+        // undo the removals after the best sub-ensemble
+        for (int i = nrRemoved - 1; i >= bestNrRemoved; i--) {
+            final int tree = removalOrder[i];
+            addTree(tree);
+            int pos = -Arrays.binarySearch(m_remaining, 0, m_nrRemaining, tree) - 1;
+            System.arraycopy(m_remaining, pos, m_remaining, pos + 1, m_nrRemaining - pos);
+            m_remaining[pos] = tree;
+            m_nrRemaining++;
+        }
+        exec.setProgress(1.0);
+    }
+
+    private static long getNrCalculations(final int treesInEnsemble, final int targetNumberOfTrees) {
+        final long treesToRemove = treesInEnsemble - (long)targetNumberOfTrees;
+        // n + (n - 1) + ... + (n - r + 1)
+        return treesInEnsemble * treesToRemove - (treesToRemove - 1) * treesToRemove / 2;
+    }
+
+    /**
+     * Scores all remaining trees in parallel and removes the one whose removal scores best. On ties the tree that
+     * comes first in the initial ensemble is removed.
+     */
+    private int removeBestCandidate(final ExecutionMonitor exec) throws CanceledExecutionException {
+        exec.checkCanceled();
+        prepareRound();
+        final int nrCandidates = m_nrRemaining;
+        final int nrChunks = ParallelTasks.getNrTasks(nrCandidates);
+        final List<Callable<double[]>> chunks = new ArrayList<>(nrChunks);
+        for (int c = 0; c < nrChunks; c++) {
+            final int from = (int)((long)c * nrCandidates / nrChunks);
+            final int to = (int)((long)(c + 1) * nrCandidates / nrChunks);
+            chunks.add(() -> scoreCandidates(from, to));
+        }
+        final double[] best = {Double.NEGATIVE_INFINITY, -1};
+        ParallelTasks.runOrdered(chunks, chunkBest -> {
+            // strictly greater, so the first candidate wins ties
+            if (best[1] < 0 || chunkBest[0] > best[0]) {
+                best[0] = chunkBest[0];
+                best[1] = chunkBest[1];
+            }
+        }, exec);
+        final int pos = (int)best[1];
+        final int tree = m_remaining[pos];
+        removeTree(tree);
+        System.arraycopy(m_remaining, pos + 1, m_remaining, pos, m_nrRemaining - pos - 1);
+        m_nrRemaining--;
+        return tree;
+    }
+
+    /** @return the best score and its position in the remaining trees */
+    private double[] scoreCandidates(final int from, final int to) {
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestPos = from;
+        for (int pos = from; pos < to; pos++) {
+            final double score = getScoreWithout(m_remaining[pos]);
+            if (score > bestScore) {
+                bestScore = score;
+                bestPos = pos;
+            }
+        }
+        return new double[]{bestScore, bestPos};
+    }
+}
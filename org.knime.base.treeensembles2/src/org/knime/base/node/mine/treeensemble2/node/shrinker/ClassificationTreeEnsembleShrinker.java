@@ -0,0 +1,197 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+/**
+ * Shrinks a classification ensemble with respect to the accuracy of the majority vote. The votes of the remaining
+ * trees are counted per row. Removing a tree only changes the prediction of rows where it voted for the current
+ * winner and the winner would lose its lead, so each round first collects these rows together with the change in
+ * correctness, and a candidate is scored by looking at only those rows. Vote ties are resolved in favor of the class
+ * with the lower index.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class ClassificationTreeEnsembleShrinker extends AbstractTreeEnsembleShrinker {
+
+    /** first index is tree, second index is row */
+    private final int[][] m_predictions;
+
+    private final int[] m_targets;
+
+    private final int m_nrClasses;
+
+    /** row major vote counts of the remaining trees */
+    private final int[] m_votes;
+
+    private final int[] m_winners;
+
+    private int m_nrCorrect;
+
+    // rows whose correctness changes if their winner loses a vote, set up in prepareRound
+    private final int[] m_sensitiveRows;
+
+    private final int[] m_sensitiveGains;
+
+    private int m_nrSensitiveRows;
+
+    /**
+     * @param predictions the index of the class predicted by each tree (first index) for each row (second index)
+     * @param targets the index of the true class of each row, a negative value if the class is unknown to the model
+     * @param nrClasses the number of classes
+     */
+    public ClassificationTreeEnsembleShrinker(final int[][] predictions, final int[] targets, final int nrClasses) {
+        super(predictions.length);
+        m_predictions = predictions;
+        m_targets = targets;
+        m_nrClasses = nrClasses;
+        final int nrRows = targets.length;
+        m_votes = new int[nrRows * nrClasses];
+        for (int[] treePredictions : predictions) {
+            for (int i = 0; i < nrRows; i++) {
+                m_votes[i * nrClasses + treePredictions[i]]++;
+            }
+        }
+        m_winners = new int[nrRows];
+        m_sensitiveRows = new int[nrRows];
+        m_sensitiveGains = new int[nrRows];
+        m_nrCorrect = updateWinners();
+    }
+
+    /**
+     * @return the accuracy of the current sub-ensemble on the evaluation data
+     */
+    @Override
+    public double getScore() {
+        return m_targets.length == 0 ? 0 : m_nrCorrect / (double)m_targets.length;
+    }
+
+    @Override
+    protected void prepareRound() {
+        final int nrClasses = m_nrClasses;
+        int nrSensitive = 0;
+        for (int i = 0; i < m_targets.length; i++) {
+            final int offset = i * nrClasses;
+            final int winner = m_winners[i];
+            // the class that wins if the winner loses one vote
+            int alternative = winner;
+            int alternativeVotes = m_votes[offset + winner] - 1;
+            for (int c = 0; c < nrClasses; c++) {
+                final int votes = m_votes[offset + c];
+                if (c != winner && (votes > alternativeVotes || (votes == alternativeVotes && c < alternative))) {
+                    alternative = c;
+                    alternativeVotes = votes;
+                }
+            }
+            final int target = m_targets[i];
+            final int gain = (alternative == target ? 1 : 0) - (winner == target ? 1 : 0);
+            if (gain != 0) {
+                m_sensitiveRows[nrSensitive] = i;
+                m_sensitiveGains[nrSensitive] = gain;
+                nrSensitive++;
+            }
+        }
+        m_nrSensitiveRows = nrSensitive;
+    }
+
+    @Override
+    protected double getScoreWithout(final int tree) {
+        return (m_nrCorrect + getCorrectChangeWithout(tree)) / (double)m_targets.length;
+    }
+
+    private int getCorrectChangeWithout(final int tree) {
+        final int[] treePredictions = m_predictions[tree];
+        int change = 0;
+        for (int j = 0; j < m_nrSensitiveRows; j++) {
+            final int row = m_sensitiveRows[j];
+            if (treePredictions[row] == m_winners[row]) {
+                change += m_sensitiveGains[j];
+            }
+        }
+        return change;
+    }
+
+    @Override
+    protected void removeTree(final int tree) {
+        m_nrCorrect += getCorrectChangeWithout(tree);
+        final int[] treePredictions = m_predictions[tree];
+        for (int i = 0; i < m_targets.length; i++) {
+            m_votes[i * m_nrClasses + treePredictions[i]]--;
+        }
+        final int nrCorrect = updateWinners();
+        assert nrCorrect == m_nrCorrect : "Incremental accuracy update is inconsistent.";
+    }
+
+    @Override
+    protected void addTree(final int tree) {
+        final int[] treePredictions = m_predictions[tree];
+        for (int i = 0; i < m_targets.length; i++) {
+            m_votes[i * m_nrClasses + treePredictions[i]]++;
+        }
+        m_nrCorrect = updateWinners();
+    }
+
+    /** @return the number of correctly predicted rows */
+    private int updateWinners() {
+        int nrCorrect = 0;
+        for (int i = 0; i < m_targets.length; i++) {
+            final int offset = i * m_nrClasses;
+            int winner = 0;
+            for (int c = 1; c < m_nrClasses; c++) {
+                // only strictly more votes win, so ties go to the lower class index
+                if (m_votes[offset + c] > m_votes[offset + winner]) {
+                    winner = c;
+                }
+            }
+            m_winners[i] = winner;
+            if (winner == m_targets[i]) {
+                nrCorrect++;
+            }
+        }
+        return nrCorrect;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
+import org.knime.base.node.mine.treeensemble2.learner.ParallelTasks;
+import org.knime.base.node.mine.treeensemble2.model.GradientBoostedTreesModel;
+import org.knime.base.node.mine.treeensemble2.model.MultiClassGradientBoostedTreesModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelRegression;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeRegression;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Shrinks gradient boosted trees models by truncation. Unlike the trees of a random forest the trees of a boosting
+ * model depend on their predecessors, so the only sub-ensembles that make sense are the first trees (or levels of
+ * trees in the multiclass case). The contributions of the trees are computed in parallel and accumulated in order, so
+ * the quality of every prefix is known after a single pass.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class GradientBoostedTreesTruncator {
+
+    private GradientBoostedTreesTruncator() {
+        // utility class
+    }
+
+    /**
+     * Finds the number of trees with the smallest mean squared error on the evaluation data. On ties the smaller
+     * number of trees is returned.
+     *
+     * @param model the regression model
+     * @param records the evaluation data
+     * @param targets the true value of each record
+     * @param exec for progress and cancelation
+     * @return the best number of trees, at least 1
+     * @throws CanceledExecutionException if execution has been canceled
+     */
+    public static int findBestNrTrees(final GradientBoostedTreesModel model, final PredictorRecord[] records,
+        final double[] targets, final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int nrTrees = model.getNrModels();
+        final List<Map<TreeNodeSignature, Double>> coefficientMaps = new ArrayList<>(model.getCoeffientMaps());
+        final List<Callable<double[]>> tasks = new ArrayList<>(nrTrees);
+        for (int t = 0; t < nrTrees; t++) {
+            final TreeModelRegression tree = model.getTreeModelRegression(t);
+            final Map<TreeNodeSignature, Double> coefficientMap = coefficientMaps.get(t);
+            tasks.add(() -> calcContributions(tree, coefficientMap, records));
+        }
+        final double[] predictions = new double[records.length];
+        Arrays.fill(predictions, model.getInitialValue());
+        final int[] prefix = {0, 1};
+        final double[] bestError = {Double.POSITIVE_INFINITY};
+        ParallelTasks.runOrdered(tasks, contributions -> {
+            double sumSquaredErrors = 0;
+            for (int i = 0; i < predictions.length; i++) {
+                predictions[i] += contributions[i];
+                final double error = predictions[i] - targets[i];
+                sumSquaredErrors += error * error;
+            }
+            prefix[0]++;
+            if (sumSquaredErrors < bestError[0]) {
+                bestError[0] = sumSquaredErrors;
+                prefix[1] = prefix[0];
+            }
+            exec.setProgress(prefix[0] / (double)nrTrees);
+        }, exec);
+        return prefix[1];
+    }
+
+    /**
+     * Finds the number of levels with the highest accuracy on the evaluation data. On ties the smaller number of
+     * levels is returned.
+     *
+     * @param model the multiclass model
+     * @param records the evaluation data
+     * @param targets the index of the true class of each record in
+     *            {@link MultiClassGradientBoostedTreesModel#getClassLabels()}, a negative value if the class is unknown
+     *            to the model
+     * @param exec for progress and cancelation
+     * @return the best number of levels, at least 1
+     * @throws CanceledExecutionException if execution has been canceled
+     */
+    public static int findBestNrLevels(final MultiClassGradientBoostedTreesModel model,
+        final PredictorRecord[] records, final int[] targets, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final int nrLevels = model.getNrLevels();
+        final int nrClasses = model.getNrClasses();
+        final int nrRows = records.length;
+        final List<Callable<double[]>> tasks = new ArrayList<>(nrLevels);
+        for (int l = 0; l < nrLevels; l++) {
+            final int level = l;
+            tasks.add(() -> {
+                // row major contributions of all classes
+                final double[] contributions = new double[nrRows * nrClasses];
+                for (int c = 0; c < nrClasses; c++) {
+                    final double[] classContributions =
+                        calcContributions(model.getModel(level, c), model.getCoefficientMap(level, c), records);
+                    for (int i = 0; i < nrRows; i++) {
+                        contributions[i * nrClasses + c] = classContributions[i];
+                    }
+                }
+                return contributions;
+            });
+        }
+        final double[] logits = new double[nrRows * nrClasses];
+        Arrays.fill(logits, model.getInitialValue());
+        final int[] prefix = {0, 1};
+        final int[] bestNrCorrect = {-1};
+        ParallelTasks.runOrdered(tasks, contributions -> {
+            int nrCorrect = 0;
+            for (int i = 0; i < nrRows; i++) {
+                final int offset = i * nrClasses;
+                int argmax = 0;
+                for (int c = 0; c < nrClasses; c++) {
+                    logits[offset + c] += contributions[offset + c];
+                    if (logits[offset + c] > logits[offset + argmax]) {
+                        argmax = c;
+                    }
+                }
+                if (argmax == targets[i]) {
+                    nrCorrect++;
+                }
+            }
+            prefix[0]++;
+            if (nrCorrect > bestNrCorrect[0]) {
+                bestNrCorrect[0] = nrCorrect;
+                prefix[1] = prefix[0];
+            }
+            exec.setProgress(prefix[0] / (double)nrLevels);
+        }, exec);
+        return prefix[1];
+    }
+
+    private static double[] calcContributions(final TreeModelRegression tree,
+        final Map<TreeNodeSignature, Double> coefficientMap, final PredictorRecord[] records) {
+        final double[] contributions = new double[records.length];
+        for (int i = 0; i < records.length; i++) {
+            final TreeNodeRegression leaf = tree.findMatchingNode(records[i]);
+            contributions[i] = coefficientMap.get(leaf.getSignature());
+        }
+        return contributions;
+    }
+
+    /**
+     * @param model the regression model
+     * @param nrTrees the number of trees to keep
+     * @return a model consisting of the first <b>nrTrees</b> trees of <b>model</b>
+     */
+    public static GradientBoostedTreesModel truncate(final GradientBoostedTreesModel model, final int nrTrees) {
+        if (nrTrees < 1 || nrTrees > model.getNrModels()) {
+            throw new IllegalArgumentException("Invalid number of trees: " + nrTrees);
+        }
+        final TreeModelRegression[] trees = new TreeModelRegression[nrTrees];
+        Arrays.setAll(trees, model::getTreeModelRegression);
+        final List<Map<TreeNodeSignature, Double>> coefficientMaps =
+            new ArrayList<>(new ArrayList<>(model.getCoeffientMaps()).subList(0, nrTrees));
+        return new GradientBoostedTreesModel(model.getMetaData(), trees, model.getType(), model.getInitialValue(),
+            coefficientMaps);
+    }
+
+    /**
+     * @param model the multiclass model
+     * @param nrLevels the number of levels to keep
+     * @return a model consisting of the first <b>nrLevels</b> levels of <b>model</b>
+     */
+    public static MultiClassGradientBoostedTreesModel truncate(final MultiClassGradientBoostedTreesModel model,
+        final int nrLevels) {
+        if (nrLevels < 1 || nrLevels > model.getNrLevels()) {
+            throw new IllegalArgumentException("Invalid number of levels: " + nrLevels);
+        }
+        final int nrClasses = model.getNrClasses();
+        final List<List<TreeModelRegression>> trees = new ArrayList<>(nrClasses);
+        final List<List<Map<TreeNodeSignature, Double>>> coefficientMaps = new ArrayList<>(nrClasses);
+        for (int c = 0; c < nrClasses; c++) {
+            final List<TreeModelRegression> classTrees = new ArrayList<>(nrLevels);
+            final List<Map<TreeNodeSignature, Double>> classCoefficientMaps = new ArrayList<>(nrLevels);
+            for (int l = 0; l < nrLevels; l++) {
+                classTrees.add(model.getModel(l, c));
+                classCoefficientMaps.add(model.getCoefficientMap(l, c));
+            }
+            trees.add(classTrees);
+            coefficientMaps.add(classCoefficientMaps);
+        }
+        return MultiClassGradientBoostedTreesModel.create(model.getMetaData(), trees, coefficientMaps,
+            model.getInitialValue(), model.getType(), Arrays.asList(model.getClassLabels()));
+    }
+}
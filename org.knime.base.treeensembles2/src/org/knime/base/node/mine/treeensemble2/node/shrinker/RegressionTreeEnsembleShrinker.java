@@ -0,0 +1,149 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+/**
+ * Shrinks a regression ensemble with respect to the mean squared error of the averaged tree predictions. The sum of
+ * the predictions of the remaining trees is kept per row, so a candidate is scored in a single pass over the rows.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class RegressionTreeEnsembleShrinker extends AbstractTreeEnsembleShrinker {
+
+    /** first index is tree, second index is row */
+    private final double[][] m_predictions;
+
+    private final double[] m_targets;
+
+    private final double[] m_sums;
+
+    private int m_nrSummedTrees;
+
+    private double m_meanSquaredError;
+
+    /**
+     * @param predictions the prediction of each tree (first index) for each row (second index)
+     * @param targets the true value of each row
+     */
+    public RegressionTreeEnsembleShrinker(final double[][] predictions, final double[] targets) {
+        super(predictions.length);
+        m_predictions = predictions;
+        m_targets = targets;
+        m_sums = new double[targets.length];
+        for (double[] treePredictions : predictions) {
+            for (int i = 0; i < m_sums.length; i++) {
+                m_sums[i] += treePredictions[i];
+            }
+        }
+        m_nrSummedTrees = predictions.length;
+        m_meanSquaredError = calcMeanSquaredError(null);
+    }
+
+    /**
+     * @return the negated mean squared error of the current sub-ensemble on the evaluation data
+     */
+    @Override
+    public double getScore() {
+        return -m_meanSquaredError;
+    }
+
+    /**
+     * @return the mean squared error of the current sub-ensemble on the evaluation data
+     */
+    public double getMeanSquaredError() {
+        return m_meanSquaredError;
+    }
+
+    @Override
+    protected void prepareRound() {
+        // nothing shared between the candidates
+    }
+
+    @Override
+    protected double getScoreWithout(final int tree) {
+        return -calcMeanSquaredError(m_predictions[tree]);
+    }
+
+    @Override
+    protected void removeTree(final int tree) {
+        final double[] treePredictions = m_predictions[tree];
+        for (int i = 0; i < m_sums.length; i++) {
+            m_sums[i] -= treePredictions[i];
+        }
+        m_nrSummedTrees--;
+        m_meanSquaredError = calcMeanSquaredError(null);
+    }
+
+    @Override
+    protected void addTree(final int tree) {
+        final double[] treePredictions = m_predictions[tree];
+        for (int i = 0; i < m_sums.length; i++) {
+            m_sums[i] += treePredictions[i];
+        }
+        m_nrSummedTrees++;
+        m_meanSquaredError = calcMeanSquaredError(null);
+    }
+
+    /**
+     * @param excluded the predictions of a tree to leave out or null
+     */
+    private double calcMeanSquaredError(final double[] excluded) {
+        final int nrRows = m_targets.length;
+        if (nrRows == 0) {
+            return 0;
+        }
+        final double nrTrees = excluded == null ? m_nrSummedTrees : (m_nrSummedTrees - 1);
+        double sumSquaredErrors = 0;
+        for (int i = 0; i < nrRows; i++) {
+            final double sum = excluded == null ? m_sums[i] : (m_sums[i] - excluded[i]);
+            final double error = sum / nrTrees - m_targets[i];
+            sumSquaredErrors += error * error;
+        }
+        return sumSquaredErrors / nrRows;
+    }
+}
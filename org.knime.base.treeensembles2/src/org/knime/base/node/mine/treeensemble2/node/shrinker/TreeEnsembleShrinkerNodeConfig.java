@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings of the tree ensemble shrinker.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TreeEnsembleShrinkerNodeConfig {
+
+    public static final String SIZE_TYPE_RELATIVE = "relative";
+
+    public static final String SIZE_TYPE_ABSOLUTE = "absolute";
+
+    public static final String SIZE_TYPE_AUTOMATIC = "automatic";
+
+    static final String RESULT_SIZE_TYPE_CFG = "resultSizeType";
+
+    static final String RESULT_SIZE_RELATIVE_CFG = "resultSizeRelative";
+
+    static final String RESULT_SIZE_ABSOLUTE_CFG = "resultSizeAbsolute";
+
+    static final String TARGET_COLUMN_CFG = "targetColumn";
+
+    static final String RESULT_SIZE_TYPE_DEFAULT = SIZE_TYPE_AUTOMATIC;
+
+    static final int RESULT_SIZE_RELATIVE_DEFAULT = 10;
+
+    static final int RESULT_SIZE_ABSOLUTE_DEFAULT = 10;
+
+    static final String TARGET_COLUMN_DEFAULT = "";
+
+    private String m_resultSizeType = RESULT_SIZE_TYPE_DEFAULT;
+
+    private int m_resultSizeRelative = RESULT_SIZE_RELATIVE_DEFAULT;
+
+    private int m_resultSizeAbsolute = RESULT_SIZE_ABSOLUTE_DEFAULT;
+
+    private String m_targetColumn = TARGET_COLUMN_DEFAULT;
+
+    public String getResultSizeType() {
+        return m_resultSizeType;
+    }
+
+    public void setResultSizeType(final String resultSizeType) {
+        m_resultSizeType = resultSizeType;
+    }
+
+    public int getResultSizeRelative() {
+        return m_resultSizeRelative;
+    }
+
+    public void setResultSizeRelative(final int resultSizeRelative) {
+        m_resultSizeRelative = resultSizeRelative;
+    }
+
+    public int getResultSizeAbsolute() {
+        return m_resultSizeAbsolute;
+    }
+
+    public void setResultSizeAbsolute(final int resultSizeAbsolute) {
+        m_resultSizeAbsolute = resultSizeAbsolute;
+    }
+
+    public boolean isResultSizeAutomatic() {
+        return m_resultSizeType.equals(SIZE_TYPE_AUTOMATIC);
+    }
+
+    /**
+     * @param originalSize Size of the original ensemble
+     * @return The absolute size based on the configuration or -1 if automatic
+     */
+    public int getResultSize(final int originalSize) {
+        if (m_resultSizeType.equals(SIZE_TYPE_RELATIVE)) {
+            return (int)Math.round((m_resultSizeRelative / (double)100) * originalSize);
+        } else if (m_resultSizeType.equals(SIZE_TYPE_ABSOLUTE)) {
+            return m_resultSizeAbsolute;
+        } else {
+            return -1;
+        }
+    }
+
+    public String getTargetColumn() {
+        return m_targetColumn;
+    }
+
+    public void setTargetColumn(final String targetColumn) {
+        m_targetColumn = targetColumn;
+    }
+
+    public void load(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_resultSizeType = settings.getString(RESULT_SIZE_TYPE_CFG);
+        m_resultSizeRelative = settings.getInt(RESULT_SIZE_RELATIVE_CFG);
+        m_resultSizeAbsolute = settings.getInt(RESULT_SIZE_ABSOLUTE_CFG);
+        m_targetColumn = settings.getString(TARGET_COLUMN_CFG);
+    }
+
+    public void save(final NodeSettingsWO settings) {
+        settings.addString(RESULT_SIZE_TYPE_CFG, m_resultSizeType);
+        settings.addInt(RESULT_SIZE_RELATIVE_CFG, m_resultSizeRelative);
+        settings.addInt(RESULT_SIZE_ABSOLUTE_CFG, m_resultSizeAbsolute);
+        settings.addString(TARGET_COLUMN_CFG, m_targetColumn);
+    }
+
+}
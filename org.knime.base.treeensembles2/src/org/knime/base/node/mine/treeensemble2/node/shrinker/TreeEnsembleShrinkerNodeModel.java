@@ -0,0 +1,401 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import org.knime.base.data.filter.column.FilterColumnRow;
+import org.knime.base.node.mine.treeensemble2.data.NominalValueRepresentation;
+import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetNominalColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.learner.ParallelTasks;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObject;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelClassification;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelRegression;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+
+/**
+ * Shrinks a random forest or tree ensemble model on an evaluation table. The output is again a tree ensemble model so
+ * that it can be used by the predictor nodes.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TreeEnsembleShrinkerNodeModel extends NodeModel {
+
+    /** number of rows whose predictor records are held in memory at the same time */
+    private static final int CHUNK_SIZE = 4096;
+
+    private TreeEnsembleShrinkerNodeConfig m_config = new TreeEnsembleShrinkerNodeConfig();
+
+    TreeEnsembleShrinkerNodeModel() {
+        super(new PortType[]{TreeEnsembleModelPortObject.TYPE, BufferedDataTable.TYPE},
+            new PortType[]{TreeEnsembleModelPortObject.TYPE});
+    }
+
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+        final TreeEnsembleModelPortObject modelPortObject = (TreeEnsembleModelPortObject)inObjects[0];
+        final TreeEnsembleModel treeEnsemble = modelPortObject.getEnsembleModel();
+        final int nrModels = treeEnsemble.getNrModels();
+        int resultSize = m_config.getResultSize(nrModels);
+        if (!m_config.isResultSizeAutomatic()) {
+            if (resultSize < 1) {
+                setWarningMessage("The configured result size is smaller than 1, defaulting to 1");
+                resultSize = 1;
+            } else if (resultSize > nrModels) {
+                setWarningMessage("The configured result size is bigger than the size of the input ensemble, "
+                    + "defaulting to the input ensembles size");
+                return new PortObject[]{modelPortObject};
+            } else if (resultSize == nrModels) {
+                return new PortObject[]{modelPortObject};
+            }
+        }
+        final BufferedDataTable inData = (BufferedDataTable)inObjects[1];
+        final TreeEnsembleModelPortObjectSpec modelSpec = modelPortObject.getSpec();
+        final boolean isRegression = treeEnsemble.getMetaData().isRegression();
+        final DataTableSpec learnSpec = modelSpec.getLearnTableSpec();
+        final int[] filterIndices = modelSpec.calculateFilterIndices(inData.getDataTableSpec());
+        final int targetIndex = inData.getDataTableSpec().findColumnIndex(m_config.getTargetColumn());
+
+        exec.setMessage("Predicting evaluation data");
+        final ExecutionMonitor predictProgress = exec.createSubProgress(0.4);
+        final int capacity = (int)Math.min(inData.size(), Integer.MAX_VALUE - 8);
+        final PredictionCollector collector = isRegression ? new RegressionPredictionCollector(treeEnsemble, capacity)
+            : new ClassificationPredictionCollector(treeEnsemble, capacity);
+        // the predictor records are only held for one chunk of rows at a time
+        final PredictorRecord[] chunk = new PredictorRecord[CHUNK_SIZE];
+        int chunkSize = 0;
+        long nrSkipped = 0;
+        long rowIndex = 0;
+        final long nrRows = inData.size();
+        for (DataRow row : inData) {
+            predictProgress.checkCanceled();
+            predictProgress.setProgress(rowIndex++ / (double)nrRows);
+            final DataCell targetCell = row.getCell(targetIndex);
+            if (targetCell.isMissing()) {
+                continue;
+            }
+            final PredictorRecord record =
+                treeEnsemble.createPredictorRecord(new FilterColumnRow(row, filterIndices), learnSpec);
+            if (record == null) {
+                // missing vector cell
+                nrSkipped++;
+                continue;
+            }
+            if (collector.getNrRows() + chunkSize == capacity) {
+                throw new IllegalStateException("The evaluation data contains too many rows.");
+            }
+            collector.setTarget(collector.getNrRows() + chunkSize, targetCell);
+            chunk[chunkSize++] = record;
+            if (chunkSize == CHUNK_SIZE) {
+                predictChunk(collector, chunk, chunkSize, predictProgress);
+                chunkSize = 0;
+            }
+        }
+        if (chunkSize > 0) {
+            predictChunk(collector, chunk, chunkSize, predictProgress);
+        }
+        if (collector.getNrRows() == 0) {
+            throw new InvalidSettingsException(
+                "The evaluation data contains no rows with a non-missing target and non-missing attributes.");
+        }
+        if (nrSkipped > 0) {
+            setWarningMessage(nrSkipped + " row(s) with a missing attribute value were ignored.");
+        }
+        final AbstractTreeEnsembleShrinker shrinker = collector.createShrinker();
+
+        exec.setMessage("Shrinking");
+        final ExecutionMonitor shrinkProgress = exec.createSubProgress(0.6);
+        if (m_config.isResultSizeAutomatic()) {
+            shrinker.autoShrink(shrinkProgress);
+        } else {
+            shrinker.shrinkTo(resultSize, shrinkProgress);
+        }
+        if (isRegression) {
+            pushFlowVariableDouble("Tree Ensemble Shrinker Mean Squared Error",
+                ((RegressionTreeEnsembleShrinker)shrinker).getMeanSquaredError());
+        } else {
+            pushFlowVariableDouble("Tree Ensemble Shrinker Prediction Accuracy", shrinker.getScore());
+        }
+
+        final int[] trees = shrinker.getTrees();
+        final AbstractTreeModel<?>[] models = new AbstractTreeModel[trees.length];
+        for (int i = 0; i < trees.length; i++) {
+            models[i] = treeEnsemble.getTreeModel(trees[i]);
+        }
+        final TreeEnsembleModel shrunkEnsemble = new TreeEnsembleModel(treeEnsemble.getMetaData(), models,
+            treeEnsemble.getType(), treeEnsemble.containsClassDistribution());
+        exec.setMessage("Writing ensemble to disk");
+        return new PortObject[]{TreeEnsembleModelPortObject.createPortObject(modelSpec, shrunkEnsemble,
+            exec.createFileStore(UUID.randomUUID().toString() + ""))};
+    }
+
+    /**
+     * Predicts a chunk of rows with all trees in parallel, one task per tree, and stores the predictions behind the
+     * rows that have already been collected.
+     */
+    private static void predictChunk(final PredictionCollector collector, final PredictorRecord[] chunk,
+        final int chunkSize, final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int offset = collector.getNrRows();
+        final int nrTrees = collector.getNrTrees();
+        final List<Callable<Void>> tasks = new ArrayList<>(nrTrees);
+        for (int t = 0; t < nrTrees; t++) {
+            final int tree = t;
+            tasks.add(() -> {
+                for (int i = 0; i < chunkSize; i++) {
+                    collector.predict(tree, chunk[i], offset + i);
+                }
+                return null;
+            });
+        }
+        ParallelTasks.runOrdered(tasks, done -> {
+            // the predictions are written directly into the collector
+        }, exec);
+        collector.addRows(chunkSize);
+        Arrays.fill(chunk, 0, chunkSize, null);
+    }
+
+    /**
+     * Collects the target and the prediction of each tree for the rows of the evaluation data. Different trees may be
+     * predicted concurrently, as they write to different arrays.
+     */
+    private abstract static class PredictionCollector {
+
+        private final int m_nrTrees;
+
+        private int m_nrRows;
+
+        PredictionCollector(final int nrTrees) {
+            m_nrTrees = nrTrees;
+        }
+
+        final int getNrTrees() {
+            return m_nrTrees;
+        }
+
+        final int getNrRows() {
+            return m_nrRows;
+        }
+
+        final void addRows(final int nrRows) {
+            m_nrRows += nrRows;
+        }
+
+        abstract void setTarget(int row, DataCell targetCell);
+
+        abstract void predict(int tree, PredictorRecord record, int row);
+
+        abstract AbstractTreeEnsembleShrinker createShrinker();
+    }
+
+    private static final class ClassificationPredictionCollector extends PredictionCollector {
+
+        private final TreeModelClassification[] m_trees;
+
+        private final Map<String, Integer> m_classIndices = new HashMap<>();
+
+        private final int[] m_targets;
+
+        /** first index is tree, second index is row */
+        private final int[][] m_predictions;
+
+        ClassificationPredictionCollector(final TreeEnsembleModel ensemble, final int capacity) {
+            super(ensemble.getNrModels());
+            final NominalValueRepresentation[] classes =
+                ((TreeTargetNominalColumnMetaData)ensemble.getMetaData().getTargetMetaData()).getValues();
+            for (int c = 0; c < classes.length; c++) {
+                m_classIndices.put(classes[c].getNominalValue(), c);
+            }
+            m_trees = new TreeModelClassification[getNrTrees()];
+            Arrays.setAll(m_trees, ensemble::getTreeModelClassification);
+            m_targets = new int[capacity];
+            m_predictions = new int[getNrTrees()][capacity];
+        }
+
+        @Override
+        void setTarget(final int row, final DataCell targetCell) {
+            // classes that are unknown to the model are never predicted correctly
+            m_targets[row] = m_classIndices.getOrDefault(((StringValue)targetCell).getStringValue(), -1);
+        }
+
+        @Override
+        void predict(final int tree, final PredictorRecord record, final int row) {
+            m_predictions[tree][row] = m_trees[tree].findMatchingNode(record).getMajorityClassIndex();
+        }
+
+        @Override
+        AbstractTreeEnsembleShrinker createShrinker() {
+            final int nrRows = getNrRows();
+            if (nrRows < m_targets.length) {
+                // trim one tree at a time to keep the peak memory low
+                for (int t = 0; t < m_predictions.length; t++) {
+                    m_predictions[t] = Arrays.copyOf(m_predictions[t], nrRows);
+                }
+            }
+            return new ClassificationTreeEnsembleShrinker(m_predictions, Arrays.copyOf(m_targets, nrRows),
+                m_classIndices.size());
+        }
+    }
+
+    private static final class RegressionPredictionCollector extends PredictionCollector {
+
+        private final TreeModelRegression[] m_trees;
+
+        private final double[] m_targets;
+
+        /** first index is tree, second index is row */
+        private final double[][] m_predictions;
+
+        RegressionPredictionCollector(final TreeEnsembleModel ensemble, final int capacity) {
+            super(ensemble.getNrModels());
+            m_trees = new TreeModelRegression[getNrTrees()];
+            Arrays.setAll(m_trees, ensemble::getTreeModelRegression);
+            m_targets = new double[capacity];
+            m_predictions = new double[getNrTrees()][capacity];
+        }
+
+        @Override
+        void setTarget(final int row, final DataCell targetCell) {
+            m_targets[row] = ((DoubleValue)targetCell).getDoubleValue();
+        }
+
+        @Override
+        void predict(final int tree, final PredictorRecord record, final int row) {
+            m_predictions[tree][row] = m_trees[tree].findMatchingNode(record).getMean();
+        }
+
+        @Override
+        AbstractTreeEnsembleShrinker createShrinker() {
+            final int nrRows = getNrRows();
+            if (nrRows < m_targets.length) {
+                // trim one tree at a time to keep the peak memory low
+                for (int t = 0; t < m_predictions.length; t++) {
+                    m_predictions[t] = Arrays.copyOf(m_predictions[t], nrRows);
+                }
+            }
+            return new RegressionTreeEnsembleShrinker(m_predictions, Arrays.copyOf(m_targets, nrRows));
+        }
+    }
+
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        final TreeEnsembleModelPortObjectSpec modelSpec = (TreeEnsembleModelPortObjectSpec)inSpecs[0];
+        final DataTableSpec tableSpec = (DataTableSpec)inSpecs[1];
+        final boolean isRegression = modelSpec.getTargetColumn().getType().isCompatible(DoubleValue.class);
+        modelSpec.assertTargetTypeMatches(isRegression);
+        final Class<? extends DataValue> targetValue = isRegression ? DoubleValue.class : StringValue.class;
+        final int targetColumnIndex = tableSpec.findColumnIndex(m_config.getTargetColumn());
+        if (targetColumnIndex < 0
+            || !tableSpec.getColumnSpec(targetColumnIndex).getType().isCompatible(targetValue)) {
+            throw new InvalidSettingsException("No valid target column selected");
+        }
+        modelSpec.calculateFilterIndices(tableSpec);
+        return new PortObjectSpec[]{modelSpec};
+    }
+
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // no internals
+    }
+
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // no internals
+    }
+
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_config.save(settings);
+    }
+
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        new TreeEnsembleShrinkerNodeConfig().load(settings);
+    }
+
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final TreeEnsembleShrinkerNodeConfig config = new TreeEnsembleShrinkerNodeConfig();
+        config.load(settings);
+        m_config = config;
+    }
+
+    @Override
+    protected void reset() {
+        // nothing to reset
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.node.shrinker;
+
+import java.util.List;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.node.parameters.NodeParameters;
+import org.knime.node.parameters.NodeParametersInput;
+import org.knime.node.parameters.Widget;
+import org.knime.node.parameters.migration.LoadDefaultsForAbsentFields;
+import org.knime.node.parameters.persistence.NodeParametersPersistor;
+import org.knime.node.parameters.persistence.Persist;
+import org.knime.node.parameters.persistence.Persistor;
+import org.knime.node.parameters.updates.Effect;
+import org.knime.node.parameters.updates.Effect.EffectType;
+import org.knime.node.parameters.updates.EffectPredicate;
+import org.knime.node.parameters.updates.EffectPredicateProvider;
+import org.knime.node.parameters.updates.ParameterReference;
+import org.knime.node.parameters.updates.ValueReference;
+import org.knime.node.parameters.widget.choices.ChoicesProvider;
+import org.knime.node.parameters.widget.choices.ColumnChoicesProvider;
+import org.knime.node.parameters.widget.choices.Label;
+import org.knime.node.parameters.widget.choices.ValueSwitchWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsPositiveIntegerValidation;
+
+/**
+ * Node parameters for the Tree Ensemble Shrinker. The settings are stored like the ones of
+ * {@link TreeEnsembleShrinkerNodeConfig}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@LoadDefaultsForAbsentFields
+@SuppressWarnings("restriction")
+final class TreeEnsembleShrinkerNodeParameters implements NodeParameters {
+
+    enum ResultSizeType {
+            @Label(value = "Relative", description = "Calculate the size relative to the input size.")
+            RELATIVE(TreeEnsembleShrinkerNodeConfig.SIZE_TYPE_RELATIVE), //
+            @Label(value = "Absolute", description = "Select the exact result size.")
+            ABSOLUTE(TreeEnsembleShrinkerNodeConfig.SIZE_TYPE_ABSOLUTE), //
+            @Label(value = "Automatic", description = """
+                    Automatically determine a good result size. This will shrink the ensemble iteratively down to one \
+                    tree and then pick the smallest sub-ensemble that performed best on the evaluation data set.\
+                    """)
+            AUTOMATIC(TreeEnsembleShrinkerNodeConfig.SIZE_TYPE_AUTOMATIC);
+
+        private final String m_configValue;
+
+        ResultSizeType(final String configValue) {
+            m_configValue = configValue;
+        }
+
+        static ResultSizeType fromConfigValue(final String configValue) throws InvalidSettingsException {
+            for (ResultSizeType type : values()) {
+                if (type.m_configValue.equals(configValue)) {
+                    return type;
+                }
+            }
+            throw new InvalidSettingsException(String.format("Invalid result size type '%s'.", configValue));
+        }
+    }
+
+    @Widget(title = "Size of result ensemble", description = "How the size of the shrunk ensemble is determined.")
+    @ValueSwitchWidget
+    @Persistor(ResultSizeTypePersistor.class)
+    @ValueReference(ResultSizeTypeRef.class)
+    ResultSizeType m_resultSizeType = ResultSizeType.AUTOMATIC;
+
+    @Widget(title = "Relative size (%)", description = "The size of the result in percent of the input size.")
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Persist(configKey = TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_RELATIVE_CFG)
+    @Effect(predicate = IsRelative.class, type = EffectType.SHOW)
+    int m_resultSizeRelative = TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_RELATIVE_DEFAULT;
+
+    @Widget(title = "Absolute size", description = "The number of trees in the result.")
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Persist(configKey = TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_ABSOLUTE_CFG)
+    @Effect(predicate = IsAbsolute.class, type = EffectType.SHOW)
+    int m_resultSizeAbsolute = TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_ABSOLUTE_DEFAULT;
+
+    @Widget(title = "Target column", description = """
+            The target column in the evaluation data set, nominal for classification and numeric for regression
+            ensembles. Rows with a missing target are ignored.
+            """)
+    @ChoicesProvider(TargetColumnsProvider.class)
+    @Persist(configKey = TreeEnsembleShrinkerNodeConfig.TARGET_COLUMN_CFG)
+    String m_targetColumn = TreeEnsembleShrinkerNodeConfig.TARGET_COLUMN_DEFAULT;
+
+    static final class ResultSizeTypeRef implements ParameterReference<ResultSizeType> {
+    }
+
+    static final class IsRelative implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer initializer) {
+            return initializer.getEnum(ResultSizeTypeRef.class).isOneOf(ResultSizeType.RELATIVE);
+        }
+    }
+
+    static final class IsAbsolute implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer initializer) {
+            return initializer.getEnum(ResultSizeTypeRef.class).isOneOf(ResultSizeType.ABSOLUTE);
+        }
+    }
+
+    static final class ResultSizeTypePersistor implements NodeParametersPersistor<ResultSizeType> {
+        @Override
+        public ResultSizeType load(final NodeSettingsRO settings) throws InvalidSettingsException {
+            final String configValue = settings.getString(TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_TYPE_CFG,
+                TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_TYPE_DEFAULT);
+            return ResultSizeType.fromConfigValue(configValue);
+        }
+
+        @Override
+        public void save(final ResultSizeType value, final NodeSettingsWO settings) {
+            settings.addString(TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_TYPE_CFG, value.m_configValue);
+        }
+
+        @Override
+        public String[][] getConfigPaths() {
+            return new String[][]{{TreeEnsembleShrinkerNodeConfig.RESULT_SIZE_TYPE_CFG}};
+        }
+    }
+
+    /** Nominal and numeric columns of the evaluation data. */
+    static final class TargetColumnsProvider implements ColumnChoicesProvider {
+        @Override
+        public List<DataColumnSpec> columnChoices(final NodeParametersInput context) {
+            return context.getInTableSpec(1) //
+                .map(spec -> spec.stream() //
+                    .filter(col -> col.getType().isCompatible(StringValue.class)
+                        || col.getType().isCompatible(DoubleValue.class)) //
+                    .toList()) //
+                .orElse(List.of());
+        }
+    }
+
+}
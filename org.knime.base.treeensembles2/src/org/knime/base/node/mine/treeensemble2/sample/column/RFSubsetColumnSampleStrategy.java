@@ -48,14 +48,16 @@
 package org.knime.base.node.mine.treeensemble2.sample.column;
 
 import java.util.Arrays;
+import java.util.SplittableRandom;
 
-import org.apache.commons.math.random.JDKRandomGenerator;
 import org.apache.commons.math.random.RandomData;
-import org.apache.commons.math.random.RandomDataImpl;
 import org.knime.base.node.mine.treeensemble2.data.TreeData;
 import org.knime.base.node.mine.treeensemble2.model.TreeNodeSignature;
 
 /**
+ * Draws a new column subset for each tree node. The sample only depends on the seed and the path of the node, it is
+ * drawn from a random generator seeded with a hash of both using Floyd's algorithm, which costs O(subsetSize)
+ * independent of the number of columns.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
@@ -83,21 +85,66 @@ public RFSubsetColumnSampleStrategy(final TreeData data, final RandomData random
     /** {@inheritDoc} */
     @Override
     public ColumnSample getColumnSampleForTreeNode(final TreeNodeSignature treeNodeSignature) {
-        byte[] signature = treeNodeSignature.getSignaturePath();
-        JDKRandomGenerator generator = new JDKRandomGenerator();
-        generator.setSeed(m_seed);
-        int[] newSeed = new int[signature.length];
-        for (int i = 0; i < signature.length; i++) {
-            for (int p = 0; p <= signature[i]; p++) {
-                newSeed[i] = generator.nextInt();
-            }
-        }
-        generator.setSeed(newSeed);
         int totalColCount = m_data.getColumns().length;
-        RandomData rd = new RandomDataImpl(generator);
-        int[] includes = rd.nextPermutation(totalColCount, m_subsetSize);
+        SplittableRandom random = new SplittableRandom(hash(m_seed, treeNodeSignature));
+        int[] includes = sampleFloyd(random, totalColCount, m_subsetSize);
         Arrays.sort(includes);
         return new SubsetColumnSample(m_data, includes);
     }
 
+    private static long hash(final long seed, final TreeNodeSignature treeNodeSignature) {
+        if (treeNodeSignature.isCompact()) {
+            return mix(seed ^ mix(treeNodeSignature.getCode()));
+        }
+        long hash = mix(seed);
+        for (byte childIndex : treeNodeSignature.getSignaturePath()) {
+            hash = mix(hash + 0x9E3779B97F4A7C15L + (childIndex & 0xFF));
+        }
+        return hash;
+    }
+
+    /** Finalizer of the SplitMix64 generator. */
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Draws <b>k</b> distinct values from [0, n) using Floyd's algorithm. The drawn values are kept in an open
+     * addressing hash set so that the costs only depend on <b>k</b>.
+     */
+    static int[] sampleFloyd(final SplittableRandom random, final int n, final int k) {
+        final int[] sample = new int[k];
+        // power of two that is at least twice as large as k, empty slots are -1
+        final int[] table = new int[Integer.highestOneBit(Math.max(1, k) * 2 - 1) << 1];
+        Arrays.fill(table, -1);
+        final int mask = table.length - 1;
+        int size = 0;
+        for (int j = n - k; j < n; j++) {
+            int value = random.nextInt(j + 1);
+            if (!insert(table, mask, value)) {
+                // all values drawn so far are smaller than j
+                value = j;
+                insert(table, mask, value);
+            }
+            sample[size++] = value;
+        }
+        return sample;
+    }
+
+    /** @return true if the value was inserted, false if it was already contained */
+    private static boolean insert(final int[] table, final int mask, final int value) {
+        int slot = (int)mix(value) & mask;
+        while (table[slot] >= 0) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        return true;
+    }
+
 }
@@ -47,32 +47,50 @@
  */
 package org.knime.base.node.mine.treeensemble2.sample.row;
 
+import org.knime.base.node.mine.treeensemble2.data.PackedIntArray;
+
 /**
+ * Row sample that may contain rows more than once. The occurrence counts are bit-packed with as many bits per row as
+ * the largest count needs (rounded up to a power of two), which for bootstrap samples are typically 4 bits instead of
+ * the 32 bits of an int. This matters because the samples of all trees that are learned in parallel are alive at
+ * the same time.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public class SubsetWithReplacementRowSample implements RowSample {
 
-    private final int[] m_perRowCounts;
+    private final PackedIntArray m_counts;
 
     /**
-     * @param perRowCounts the array containing the counts for all rows.
+     * @param perRowCounts the array containing the counts for all rows (not retained).
      */
     public SubsetWithReplacementRowSample(final int[] perRowCounts) {
-        m_perRowCounts = perRowCounts;
+        int max = 0;
+        for (int count : perRowCounts) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Counts smaller zero are not permitted.");
+            }
+            max = Math.max(max, count);
+        }
+        m_counts = new PackedIntArray(perRowCounts.length, PackedIntArray.bitsNeeded(max));
+        for (int i = 0; i < perRowCounts.length; i++) {
+            m_counts.set(i, perRowCounts[i]);
+        }
     }
 
-
     /** {@inheritDoc} */
     @Override
     public int getNrRows() {
-        return m_perRowCounts.length;
+        return m_counts.length();
     }
 
     /** {@inheritDoc} */
     @Override
     public int getCountFor(final int rowIndex) {
-        return m_perRowCounts[rowIndex];
+        if (rowIndex < 0 || rowIndex >= m_counts.length()) {
+            throw new IndexOutOfBoundsException("Row index " + rowIndex + " is out of bounds.");
+        }
+        return m_counts.get(rowIndex);
     }
 
     /** {@inheritDoc} */
@@ -81,13 +99,15 @@ public String toString() {
         int max = 0;
         int sum = 0;
         int nonIncluded = 0;
-        for (int i : m_perRowCounts) {
+        final int nrRows = m_counts.length();
+        for (int r = 0; r < nrRows; r++) {
+            final int i = getCountFor(r);
             max = Math.max(max, i);
             sum += i;
             nonIncluded += (i == 0) ? 1 : 0;
         }
         StringBuilder b = new StringBuilder("Subset w/ repl");
-        b.append("; nrRows: ").append(m_perRowCounts.length);
+        b.append("; nrRows: ").append(nrRows);
         b.append(", max occurrence: ").append(max);
         b.append(", sum occurrence: ").append(sum);
         b.append(", #not included: ").append(nonIncluded);
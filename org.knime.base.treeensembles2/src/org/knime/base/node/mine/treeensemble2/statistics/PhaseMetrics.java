@@ -0,0 +1,293 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.base.node.mine.treeensemble2.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ObjDoubleConsumer;
+
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Accumulates the time spent in and the number of calls of the different phases of learning and predicting. Each
+ * thread writes into its own counters, so measuring only costs two calls to {@link System#nanoTime()} and is not
+ * synchronized. Phases measured in parallel threads add up, the reported times are therefore thread times and can
+ * exceed the wall clock time. Phases may also be nested (e.g. the split search is part of the tree learning).
+ *
+ * The metrics are only collected if the system property {@value #ENABLE_PROPERTY} is set to <code>true</code>,
+ * otherwise {@link #create()} returns {@link #DISABLED} whose methods do nothing.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class PhaseMetrics {
+
+    /** The system property that enables the collection of the metrics. */
+    public static final String ENABLE_PROPERTY = "knime.treeensemble.metrics";
+
+    /** Metrics that don't record anything. */
+    public static final PhaseMetrics DISABLED = new PhaseMetrics(false);
+
+    private static final String FLOW_VARIABLE_PREFIX = "Tree Ensemble Metrics - ";
+
+    /**
+     * The measured phases.
+     */
+    public enum Phase {
+            /** Sorting the input table according to the target column. */
+            SORT_TABLE("Table sorting"),
+            /** Reading the rows of the input table. */
+            READ_ROWS("Row reading"),
+            /** Creating the (sorted) columns from the read rows. */
+            CREATE_COLUMNS("Column creation"),
+            /** Learning a single tree, includes the split search and membership updates. */
+            TREE_LEARNING("Tree learning"),
+            /** Searching the best split of a node. */
+            SPLIT_SEARCH("Split search"),
+            /** Creating the memberships and target priors of the children of a node. */
+            MEMBERSHIP_UPDATE("Membership update"),
+            /** Learning the surrogate splits of a node. */
+            SURROGATES("Surrogate learning"),
+            /** Updating the gradients, residuals and leaf coefficients of a boosting iteration. */
+            GRADIENT_UPDATE("Gradient update"),
+            /** Predicting the out-of-bag rows of a tree and aggregating the predictions. */
+            OUT_OF_BAG("Out-of-bag scoring"),
+            /** Calculating the permutation importance of a tree. */
+            VARIABLE_IMPORTANCE("Variable importance"),
+            /** Predicting a row of the input table. */
+            PREDICTION("Prediction");
+
+        private final String m_label;
+
+        Phase(final String label) {
+            m_label = label;
+        }
+
+        /**
+         * @return a human readable name of the phase
+         */
+        public String getLabel() {
+            return m_label;
+        }
+    }
+
+    private static final int NR_PHASES = Phase.values().length;
+
+    private final boolean m_enabled;
+
+    /** the counters of all threads, two entries per phase (nanoseconds and calls) */
+    private final List<long[]> m_threadCounters = new ArrayList<>();
+
+    private final ThreadLocal<long[]> m_localCounters = ThreadLocal.withInitial(this::registerCounters);
+
+    private PhaseMetrics(final boolean enabled) {
+        m_enabled = enabled;
+    }
+
+    /**
+     * @return new metrics if they are enabled via the system property {@value #ENABLE_PROPERTY}, {@link #DISABLED}
+     *         otherwise
+     */
+    public static PhaseMetrics create() {
+        return Boolean.getBoolean(ENABLE_PROPERTY) ? new PhaseMetrics(true) : DISABLED;
+    }
+
+    /**
+     * @return new metrics that are enabled independent of the system property
+     */
+    public static PhaseMetrics createEnabled() {
+        return new PhaseMetrics(true);
+    }
+
+    private long[] registerCounters() {
+        final long[] counters = new long[2 * NR_PHASES];
+        synchronized (m_threadCounters) {
+            m_threadCounters.add(counters);
+        }
+        return counters;
+    }
+
+    /**
+     * @return true if the metrics are recorded
+     */
+    public boolean isEnabled() {
+        return m_enabled;
+    }
+
+    /**
+     * Marks the start of a phase.
+     *
+     * @return the start time that is passed to {@link #stop(Phase, long)}
+     */
+    public long start() {
+        return m_enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Marks the end of a phase that was started via {@link #start()} in the same thread.
+     *
+     * @param phase the phase that ends
+     * @param start the value returned by {@link #start()}
+     */
+    public void stop(final Phase phase, final long start) {
+        if (m_enabled) {
+            final long[] counters = m_localCounters.get();
+            final int index = 2 * phase.ordinal();
+            counters[index] += System.nanoTime() - start;
+            counters[index + 1]++;
+        }
+    }
+
+    /**
+     * Returns the total time of a phase over all threads. Only consistent once the measured work has finished.
+     *
+     * @param phase the phase
+     * @return the total time in nanoseconds
+     */
+    public long getNanos(final Phase phase) {
+        return sum(2 * phase.ordinal());
+    }
+
+    /**
+     * Returns the number of times a phase was measured over all threads. Only consistent once the measured work has
+     * finished.
+     *
+     * @param phase the phase
+     * @return the number of calls
+     */
+    public long getCalls(final Phase phase) {
+        return sum(2 * phase.ordinal() + 1);
+    }
+
+    private long sum(final int index) {
+        long sum = 0;
+        synchronized (m_threadCounters) {
+            for (long[] counters : m_threadCounters) {
+                sum += counters[index];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Passes the time (in seconds) and the number of calls of all measured phases to the given consumer, which is
+     * usually a method reference to <code>NodeModel#pushFlowVariableDouble</code>.
+     *
+     * @param flowVariablePusher receives the name and value of each flow variable
+     */
+    public void pushFlowVariables(final ObjDoubleConsumer<String> flowVariablePusher) {
+        for (Phase phase : Phase.values()) {
+            final long calls = getCalls(phase);
+            if (calls > 0) {
+                flowVariablePusher.accept(FLOW_VARIABLE_PREFIX + phase.getLabel() + " time (s)",
+                    getNanos(phase) / 1e9);
+                flowVariablePusher.accept(FLOW_VARIABLE_PREFIX + phase.getLabel() + " calls", calls);
+            }
+        }
+    }
+
+    /**
+     * @return a single line summary of all measured phases, e.g. for logging
+     */
+    public String getSummary() {
+        final StringBuilder b = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            final long calls = getCalls(phase);
+            if (calls > 0) {
+                if (b.length() > 0) {
+                    b.append(", ");
+                }
+                b.append(String.format(Locale.US, "%s: %.3fs (%d calls)", phase.getLabel(), getNanos(phase) / 1e9,
+                    calls));
+            }
+        }
+        return b.toString();
+    }
+
+    /**
+     * Creates a table with one row per phase.
+     *
+     * @param exec for table creation and cancellation
+     * @return the table, see {@link #getTableSpec()}
+     * @throws CanceledExecutionException if the execution is canceled
+     */
+    public BufferedDataTable createTable(final ExecutionContext exec) throws CanceledExecutionException {
+        BufferedDataContainer c = exec.createDataContainer(getTableSpec());
+        for (Phase phase : Phase.values()) {
+            DataRow row = new DefaultRow(phase.getLabel(), new DoubleCell(getNanos(phase) / 1e9),
+                new LongCell(getCalls(phase)));
+            c.addRowToTable(row);
+            exec.checkCanceled();
+        }
+        c.close();
+        return c.getTable();
+    }
+
+    private static DataTableSpec TABLE_SPEC;
+
+    /**
+     * @return the spec of the table created by {@link #createTable(ExecutionContext)}
+     */
+    public static synchronized DataTableSpec getTableSpec() {
+        if (TABLE_SPEC == null) {
+            TABLE_SPEC = new DataTableSpec("Tree Ensemble Metrics",
+                new DataColumnSpecCreator("Time (s)", DoubleCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("Calls", LongCell.TYPE).createSpec());
+        }
+        return TABLE_SPEC;
+    }
+}
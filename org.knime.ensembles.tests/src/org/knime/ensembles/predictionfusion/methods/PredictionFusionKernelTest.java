@@ -0,0 +1,109 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.ensembles.predictionfusion.methods;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests that {@link PredictionFusionKernel} fuses like {@link PredictionFusionMethod#fusePredictions(Prediction[],
+ * int[])}.
+ */
+final class PredictionFusionKernelTest {
+
+    private static final String[] CLASSES = {"a", "b", "c", "d"};
+
+    static String[] methods() {
+        return PredictionFusionMethodFactory.getAvailablePredictionFusionMethods();
+    }
+
+    @ParameterizedTest
+    @MethodSource("methods")
+    void testKernelMatchesPredictionFusion(final String methodName) {
+        final PredictionFusionMethod method = PredictionFusionMethodFactory.getPredictionFusionMethod(methodName);
+        final Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            final int nrPredictions = 1 + random.nextInt(6);
+            final int[] weights = new int[nrPredictions];
+            for (int i = 0; i < nrPredictions; i++) {
+                weights[i] = random.nextInt(4);
+            }
+            final PredictionFusionKernel kernel = new PredictionFusionKernel(method, weights, CLASSES.length);
+            final Prediction[] predictions = new Prediction[nrPredictions];
+            for (int i = 0; i < nrPredictions; i++) {
+                predictions[i] = new Prediction();
+                final boolean allZero = random.nextInt(5) == 0;
+                for (int c = 0; c < CLASSES.length; c++) {
+                    if (random.nextInt(6) == 0) {
+                        // missing confidence
+                        continue;
+                    }
+                    final double confidence = allZero ? 0 : random.nextDouble();
+                    predictions[i].setClassConfidence(CLASSES[c], confidence);
+                    kernel.setConfidence(i, c, confidence);
+                }
+            }
+            kernel.fuse();
+            final Prediction expected = method.fusePredictions(predictions, weights);
+            for (int c = 0; c < CLASSES.length; c++) {
+                final Double confidence = expected.getClassConfidence(CLASSES[c], true);
+                assertEquals(confidence != null, kernel.hasFusedConfidence(c), "presence of class " + CLASSES[c]);
+                if (confidence != null) {
+                    assertEquals(confidence, kernel.getFusedConfidence(c), 1e-12, "confidence of " + CLASSES[c]);
+                }
+            }
+            final String expectedClass = expected.getPredictedClass(CLASSES);
+            final int predictedClass = kernel.getPredictedClass();
+            assertEquals(expectedClass, predictedClass < 0 ? null : CLASSES[predictedClass], "predicted class");
+            kernel.clear();
+        }
+    }
+}
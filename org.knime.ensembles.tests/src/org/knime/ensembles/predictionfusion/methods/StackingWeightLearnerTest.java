@@ -0,0 +1,116 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.ensembles.predictionfusion.methods;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StackingWeightLearner}.
+ */
+final class StackingWeightLearnerTest {
+
+    @Test
+    void testPerfectPredictionGetsAllWeight() {
+        final int nrClasses = 3;
+        final StackingWeightLearner learner = new StackingWeightLearner(3, nrClasses);
+        final Random random = new Random(7);
+        for (int row = 0; row < 500; row++) {
+            final int trueClass = random.nextInt(nrClasses);
+            learner.clear();
+            for (int c = 0; c < nrClasses; c++) {
+                // perfect prediction
+                learner.setConfidence(0, c, c == trueClass ? 1 : 0);
+                // noise
+                learner.setConfidence(1, c, random.nextDouble());
+                // uninformed prediction
+                learner.setConfidence(2, c, 1);
+            }
+            learner.addRow(trueClass);
+        }
+        assertEquals(500, learner.getNrRows());
+        final double[] weights = learner.learnWeights();
+        assertArrayEquals(new double[]{1, 0, 0}, weights, 1e-6);
+        assertArrayEquals(new int[]{1000, 0, 0}, StackingWeightLearner.toIntegerWeights(weights, 1000));
+    }
+
+    @Test
+    void testMixtureOfPredictions() {
+        final int nrClasses = 2;
+        final StackingWeightLearner learner = new StackingWeightLearner(2, nrClasses);
+        final Random random = new Random(11);
+        for (int row = 0; row < 2000; row++) {
+            final int trueClass = random.nextInt(nrClasses);
+            learner.clear();
+            // both predictions are right more often than not
+            final double p0 = 0.5 + 0.4 * random.nextDouble();
+            final double p1 = 0.5 + 0.2 * random.nextDouble();
+            learner.setConfidence(0, trueClass, p0);
+            learner.setConfidence(0, 1 - trueClass, 1 - p0);
+            learner.setConfidence(1, trueClass, p1);
+            learner.setConfidence(1, 1 - trueClass, 1 - p1);
+            learner.addRow(trueClass);
+        }
+        final double[] weights = learner.learnWeights();
+        assertEquals(1, weights[0] + weights[1], 1e-12);
+        assertTrue(weights[0] > weights[1], "better prediction gets the larger weight");
+    }
+
+    @Test
+    void testIntegerWeightsSumUp() {
+        final double[] weights = {1 / 3.0, 1 / 3.0, 1 / 3.0};
+        final int[] intWeights = StackingWeightLearner.toIntegerWeights(weights, 1000);
+        assertEquals(1000, Arrays.stream(intWeights).sum());
+        assertArrayEquals(new int[]{334, 333, 333}, intWeights);
+    }
+}
@@ -44,9 +44,14 @@
  */
 package org.knime.ensembles.pmml;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.xmlbeans.XmlException;
 import org.dmg.pmml.DataFieldDocument.DataField;
@@ -66,7 +71,9 @@
 import org.knime.core.data.xml.PMMLValue;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.port.pmml.PMMLModelWrapper;
+import org.knime.core.util.ThreadPool;
 import org.w3c.dom.Document;
 
 /**
@@ -83,31 +90,78 @@ private PMMLEnsembleHelpers() {
     }
 
     /**
-     * Returns all PMMLDocuments from a table.
+     * Returns all PMMLDocuments from a table. The documents are parsed concurrently, the number of documents that are
+     * parsed at the same time is bounded so that only a few rows of the table are referenced in addition to the parsed
+     * documents.
      * @param inputTable the table with the documents
      * @param pmmlCol the column where the PMMLDocuments are stored
      * @param exec the execution context to check for cancellation
-     * @return a list of all PMMLDocuments in the table
+     * @return a list of all PMMLDocuments in the table, in the order of the rows
      * @throws CanceledExecutionException when the user cancels the execution
      * @throws XmlException when a document cannot be parsed
      */
     public static List<PMMLDocument> getPMMLDocumentsFromTable(final DataTable inputTable,
         final String pmmlCol, final ExecutionContext exec) throws CanceledExecutionException, XmlException {
-        ArrayList<PMMLDocument> docs = new ArrayList<PMMLDocument>();
         DataTableSpec dtspec = inputTable.getDataTableSpec();
-        int pmmlColIndex = dtspec.findColumnIndex(pmmlCol);
-        for (DataRow r : inputTable) {
-            if (exec != null) {
-                exec.checkCanceled();
+        final int pmmlColIndex = dtspec.findColumnIndex(pmmlCol);
+        final ThreadPool tp = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final int maxPending = 3 * Runtime.getRuntime().availableProcessors() / 2;
+        Callable<List<PMMLDocument>> parseCallable = new Callable<List<PMMLDocument>>() {
+            @Override
+            public List<PMMLDocument> call() throws Exception {
+                ArrayList<PMMLDocument> docs = new ArrayList<PMMLDocument>();
+                Deque<Future<PMMLDocument>> pending = new ArrayDeque<Future<PMMLDocument>>(maxPending);
+                try {
+                    for (DataRow r : inputTable) {
+                        if (exec != null) {
+                            exec.checkCanceled();
+                        }
+                        if (pending.size() >= maxPending) {
+                            docs.add(pending.removeFirst().get());
+                        }
+                        final PMMLValue val = (PMMLValue) r.getCell(pmmlColIndex);
+                        pending.addLast(tp.enqueue(() -> parse(val)));
+                    }
+                    while (!pending.isEmpty()) {
+                        if (exec != null) {
+                            exec.checkCanceled();
+                        }
+                        docs.add(pending.removeFirst().get());
+                    }
+                } finally {
+                    for (Future<PMMLDocument> future : pending) {
+                        future.cancel(true);
+                    }
+                }
+                return docs;
             }
-            PMMLValue val = (PMMLValue) r.getCell(pmmlColIndex);
-
-            try (LockedSupplier<Document> supplier = val.getDocumentSupplier()) {
-                PMMLDocument pmmldoc = PMMLDocument.Factory.parse(supplier.get());
-                docs.add(pmmldoc);
+        };
+        try {
+            return tp.runInvisible(parseCallable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException("Parsing of PMML documents was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // the outer callable rethrows failures of the parse tasks as ExecutionException
+            while (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof XmlException) {
+                throw (XmlException)cause;
+            } else if (cause instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
             }
+            throw new XmlException("Unable to parse PMML document: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static PMMLDocument parse(final PMMLValue val) throws XmlException {
+        try (LockedSupplier<Document> supplier = val.getDocumentSupplier()) {
+            return PMMLDocument.Factory.parse(supplier.get());
         }
-        return docs;
     }
 
     /**
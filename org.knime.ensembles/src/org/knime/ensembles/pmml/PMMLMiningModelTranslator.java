@@ -45,7 +45,6 @@
 
 package org.knime.ensembles.pmml;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -55,7 +54,6 @@
 
 import org.apache.xmlbeans.SchemaType;
 import org.dmg.pmml.DataDictionaryDocument.DataDictionary;
-import org.dmg.pmml.DataFieldDocument;
 import org.dmg.pmml.DataFieldDocument.DataField;
 import org.dmg.pmml.MiningFieldDocument.MiningField;
 import org.dmg.pmml.MiningModelDocument.MiningModel;
@@ -203,19 +201,17 @@ public SchemaType exportTo(final PMMLDocument pmmlDoc, final PMMLPortObjectSpec
         MiningModel miningModel = pmml.addNewMiningModel();
         Segmentation segm = miningModel.addNewSegmentation();
         segm.setMultipleModelMethod(m_multModelMethod);
-        pmml.setDataDictionary(null);
+        // the dictionaries and schemes of all documents are collected first and only copied into the result once,
+        // members of an ensemble usually share the same fields and contribute nothing new
+        Map<String, DataField> dataFields = new LinkedHashMap<String, DataField>();
+        Map<String, Taxonomy> taxonomies = new LinkedHashMap<String, Taxonomy>();
+        Map<String, MiningField> miningFields = new HashMap<String, MiningField>();
         //Each row contains one model that needs to be added to the mining model
         for (int i = 0; i < m_docs.size(); i++) {
             PMMLDocument pmmldoc = m_docs.get(i);
             PMML sourcePMML = pmmldoc.getPMML();
-            MiningSchema schema = mergeSchemes(sourcePMML);
-            pmml.setDataDictionary(mergeDictionaries(pmml.getDataDictionary(), sourcePMML.getDataDictionary()));
-
-            if (miningModel.getMiningSchema() == null) {
-                miningModel.setMiningSchema(schema);
-            } else {
-                miningModel.setMiningSchema(mergeSchemes(miningModel.getMiningSchema(), schema));
-            }
+            mergeDictionaries(dataFields, taxonomies, sourcePMML.getDataDictionary());
+            mergeSchemes(miningFields, sourcePMML);
 
             for (PMMLModelWrapper model : PMMLModelWrapper.getModelListFromPMMLDocument(pmmldoc)) {
                 if (miningModel.getFunctionName() == null) {
@@ -224,142 +220,49 @@ public SchemaType exportTo(final PMMLDocument pmmlDoc, final PMMLPortObjectSpec
                 model.addToSegment(createSegment(segm, m_weightAvailable ? m_weights.get(i) : 0));
             }
         }
-        return MiningModel.type;
-    }
-
-    // This method is used to merge two data dictionaries
-    private DataDictionary mergeDictionaries(final DataDictionary dict1, final DataDictionary dict2) {
-        if (dict1 == null && dict2 == null) {
-            return DataDictionary.Factory.newInstance();
-        } else if (dict1 == null) {
-            return dict2;
-        } else if (dict2 == null) {
-            return dict1;
+        DataDictionary dataDict = DataDictionary.Factory.newInstance();
+        if (!dataFields.isEmpty() || !taxonomies.isEmpty()) {
+            dataDict.setNumberOfFields(BigInteger.valueOf(dataFields.size()));
+            dataDict.setDataFieldArray(dataFields.values().toArray(new DataField[0]));
+            dataDict.setTaxonomyArray(taxonomies.values().toArray(new Taxonomy[0]));
         }
-
-        DataDictionary output = DataDictionary.Factory.newInstance();
-        Map<String, DataField> fields = new LinkedHashMap<String, DataFieldDocument.DataField>();
-
-        for (DataField df : dict1.getDataFieldList()) {
-            fields.put(df.getName(), df);
+        pmml.setDataDictionary(dataDict);
+        if (!m_docs.isEmpty()) {
+            MiningSchema schema = MiningSchema.Factory.newInstance();
+            schema.setMiningFieldArray(miningFields.values().toArray(new MiningField[0]));
+            miningModel.setMiningSchema(schema);
         }
+        return MiningModel.type;
+    }
 
-        for (DataField df : dict2.getDataFieldList()) {
-            if (!fields.containsKey(df.getName())) {
-                fields.put(df.getName(), df);
-            }
+    // This method is used to merge a data dictionary into the fields and taxonomies collected so far
+    private void mergeDictionaries(final Map<String, DataField> fields, final Map<String, Taxonomy> taxons,
+        final DataDictionary dict) {
+        if (dict == null) {
+            return;
         }
-
-        Map<String, Taxonomy> taxons = new LinkedHashMap<String, Taxonomy>();
-        for (Taxonomy tax : dict1.getTaxonomyList()) {
-            taxons.put(tax.getName(), tax);
+        for (DataField df : dict.getDataFieldList()) {
+            fields.putIfAbsent(df.getName(), df);
         }
-
-        for (Taxonomy tax : dict2.getTaxonomyList()) {
-            if (!taxons.containsKey(tax.getName())) {
-                taxons.put(tax.getName(), tax);
-            }
+        for (Taxonomy tax : dict.getTaxonomyList()) {
+            taxons.putIfAbsent(tax.getName(), tax);
         }
-
-        output.setNumberOfFields(BigInteger.valueOf(fields.size()));
-        output.setDataFieldArray(fields.values().toArray(new DataField[0]));
-        output.setTaxonomyArray(taxons.values().toArray(new Taxonomy[0]));
-        return output;
     }
 
     // This method is used to merge mining schemes from a set of models in a mining model
-    private MiningSchema mergeSchemes(final PMML pmml) {
-        MiningSchema schema = MiningSchema.Factory.newInstance();
-
+    private void mergeSchemes(final Map<String, MiningField> fields, final PMML pmml) {
         for (PMMLModelWrapper model : PMMLModelWrapper.getModelListFromPMML(pmml)) {
-            mergeSchemes(schema, model.getMiningSchema());
+            mergeSchemes(fields, model.getMiningSchema());
         }
-        return schema;
     }
 
-    // This method is used to merge two mining schemes from two different models
-    private MiningSchema mergeSchemes(final MiningSchema original, final MiningSchema s) {
-        Map<String, MiningField> fields = new HashMap<String, MiningField>();
-
-        for (MiningField mf2 : original.getMiningFieldList()) {
-            fields.put(mf2.getName(), mf2);
+    // This method is used to merge the mining scheme of a model into the mining fields collected so far.
+    // A field that is already known is kept: an equal field from another model would not change it and for differing
+    // fields the first one wins, so identical schemes of ensemble members are skipped without copying them.
+    private void mergeSchemes(final Map<String, MiningField> fields, final MiningSchema s) {
+        for (MiningField mf : s.getMiningFieldList()) {
+            fields.putIfAbsent(mf.getName(), mf);
         }
-
-        for (MiningField mf1 : s.getMiningFieldList()) {
-            boolean match = false;
-            MiningField mf2 = fields.get(mf1.getName());
-            if (mf2 != null) {
-                match = true;
-                if (miningFieldsAreEqual(mf1, mf2)) {
-                    MiningField merged = (MiningField) mf1.copy();
-                    merged.setHighValue(Math.max(mf1.getHighValue(), mf2.getHighValue()));
-                    merged.setLowValue(Math.min(mf1.getLowValue(), mf2.getLowValue()));
-
-                    BigDecimal imp1 = mf1.getImportance();
-                    BigDecimal imp2 = mf1.getImportance();
-                    if (imp1 == null && imp2 != null) {
-                        merged.setImportance(imp2);
-                    } else if (imp1 != null && imp2 == null) {
-                        merged.setImportance(imp1);
-                    } else if (imp1 != null && imp2 != null) {
-                        merged.setImportance((imp1.compareTo(imp2) == -1) ? imp1 : imp2);
-                    }
-
-                    fields.put(merged.getName(), merged);
-                }
-            }
-            if (!match) {
-                fields.put(mf1.getName(), mf1);
-            }
-        }
-        original.setMiningFieldArray(fields.values().toArray(new MiningField[0]));
-        return original;
-        /*
-        ArrayList<MiningField> fields = new ArrayList<MiningField>();
-        Map<String, MiningField> orgFields = new LinkedHashMap<String, MiningField>();
-        for (MiningField mf2 : original.getMiningFieldList()) {
-            orgFields.put(mf2.getName(), mf2);
-        }
-        for (MiningField mf1 : s.getMiningFieldList()) {
-            boolean match = false;
-            MiningField mf2 = orgFields.get(mf1.getName());
-            if (mf2 != null) {
-                match = true;
-                if (miningFieldsAreEqual(mf1, mf2)) {
-                    fields.add(mf1);
-                } else {
-                    MiningField merged = (MiningField) mf1.copy();
-                    merged.setHighValue(Math.max(mf1.getHighValue(), mf2.getHighValue()));
-                    merged.setLowValue(Math.min(mf1.getLowValue(), mf2.getLowValue()));
-                    merged.setImportance((mf1.getImportance().compareTo(mf2.getImportance()) == -1)
-                                            ? mf1.getImportance() : mf2.getImportance());
-                    fields.add(merged);
-                }
-            }
-            if (!match) {
-                fields.add(mf1);
-            }
-        }
-        original.setMiningFieldArray(fields.toArray(new MiningField[0]));
-        return original;
-        */
-    }
-
-    // Since MiningField does not provide a suitable equals method, this method is used to compare two mining fields
-    private boolean miningFieldsAreEqual(final MiningField f1, final MiningField f2) {
-        return     f1.getHighValue() == f2.getHighValue()
-                && f1.getLowValue() == f2.getLowValue()
-                && f1.getImportance() == f2.getImportance()
-                && f1.getInvalidValueTreatment() == f2.getInvalidValueTreatment()
-                && (
-                        (f1.getMissingValueReplacement() == null && f2.getMissingValueReplacement() == null)
-                        || (f1.getMissingValueReplacement() != null
-                        && f1.getMissingValueReplacement().equals(f2.getMissingValueReplacement()))
-                   )
-                && f1.getMissingValueTreatment() == f2.getMissingValueTreatment()
-                && f1.getOptype() == f2.getOptype()
-                && f1.getOutliers() == f2.getOutliers()
-                && f1.getUsageType() == f2.getUsageType();
     }
 
     private Segment createSegment(final Segmentation segm, final double weight) {
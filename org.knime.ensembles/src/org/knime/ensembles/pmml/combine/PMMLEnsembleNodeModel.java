@@ -47,6 +47,7 @@
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.dmg.pmml.PMMLDocument;
 import org.knime.core.data.DataColumnSpec;
@@ -55,7 +56,6 @@
 import org.knime.core.data.DataValue;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.def.DoubleCell;
-import org.knime.core.data.util.LockedSupplier;
 import org.knime.core.data.xml.PMMLValue;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -73,7 +73,7 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.port.pmml.PMMLPortObject;
-import org.w3c.dom.Document;
+import org.knime.ensembles.pmml.PMMLEnsembleHelpers;
 
 
 /**
@@ -237,25 +237,15 @@ protected PortObject[] execute(final PortObject[] inData,
                 }
             }
         }
-        ArrayList<PMMLDocument> documents = new ArrayList<PMMLDocument>();
+        exec.setMessage("Parsing models");
+        exec.setProgress(0.1);
+        List<PMMLDocument> documents = PMMLEnsembleHelpers.getPMMLDocumentsFromTable(inTable, pmmlColumnName, exec);
         ArrayList<Double> weights = null;
         if (m_weightAvailable.getBooleanValue()) {
             weights = new ArrayList<Double>();
-        }
-        DataTableSpec dtspec = inTable.getDataTableSpec();
-        int pmmlColIndex = dtspec.findColumnIndex(pmmlColumnName);
-        int weightColIndex = dtspec.findColumnIndex(m_weightColumn.getColumnName());
-        exec.setMessage("Parsing models");
-        exec.setProgress(0.1);
-        for (DataRow r : inTable) {
-            exec.checkCanceled();
-            PMMLValue val = (PMMLValue) r.getCell(pmmlColIndex);
-            try (LockedSupplier<Document> supplier = val.getDocumentSupplier()) {
-                PMMLDocument pmmldoc = PMMLDocument.Factory.parse(supplier.get());
-                documents.add(pmmldoc);
-            }
-
-            if (weights != null) {
+            int weightColIndex = inTable.getDataTableSpec().findColumnIndex(m_weightColumn.getColumnName());
+            for (DataRow r : inTable) {
+                exec.checkCanceled();
                 Double w = ((DoubleCell)r.getCell(weightColIndex)).getDoubleValue();
                 weights.add(w);
             }
@@ -57,6 +57,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.dmg.pmml.MININGFUNCTION;
 import org.dmg.pmml.MULTIPLEMODELMETHOD;
@@ -80,6 +82,7 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.MissingCell;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.DataContainer;
 import org.knime.core.data.def.DefaultRow;
@@ -91,9 +94,11 @@
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.config.Config;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.port.PortObject;
@@ -104,6 +109,16 @@
 import org.knime.core.node.port.pmml.PMMLPortObject;
 import org.knime.core.node.port.pmml.PMMLPortObjectSpec;
 import org.knime.core.node.port.pmml.PMMLPortObjectSpecCreator;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortObjectInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.StreamableFunction;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.node.streamable.StreamableOperatorInternals;
+import org.knime.core.node.streamable.simple.SimpleStreamableOperatorInternals;
 import org.knime.ensembles.pmml.ModelNotSupportedException;
 import org.w3c.dom.Document;
 
@@ -113,6 +128,10 @@
  */
 final class PMMLEnsemblePredictorNodeModel3 extends NodeModel {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PMMLEnsemblePredictorNodeModel3.class);
+
+    private static final String CFG_OUTPUT_SPEC = "outputSpec";
+
     private final SettingsModelString m_tieBreak = createTieBreakSettingsModel();
 
     /**
@@ -193,12 +212,35 @@ private static boolean methodValidFor(final org.dmg.pmml.MULTIPLEMODELMETHOD.Enu
     public PortObject[] execute(final PortObject[] inData, final ExecutionContext exec) throws Exception {
         exec.setMessage("PMML Ensemble Prediction");
         PMMLPortObject pmmlIn = ((PMMLPortObject)inData[0]);
-        PMMLDocument pmmldoc;
+        PMMLDocument pmmldoc = parseDocument(pmmlIn);
+        MiningModel usedModel = getMiningModel(pmmldoc);
+        BufferedDataTable inTable = (BufferedDataTable)inData[1];
+
+        // Retrieve a list of all models in the mining model
+        List<PMMLModelWrapper> wrappers = PMMLModelWrapper.getModelListFromMiningModel(usedModel);
+        // Predict all models in a single pass over the input if each of them can be compiled
+        Optional<List<SegmentScorer>> scorers =
+            compileSegments(wrappers, pmmldoc, pmmlIn.getSpec(), inTable.getDataTableSpec());
+        if (scorers.isPresent()) {
+            ColumnRearranger rearranger = createFusedRearranger(inTable.getDataTableSpec(), usedModel, scorers.get());
+            return new PortObject[]{exec.createColumnRearrangeTable(inTable, rearranger, exec)};
+        }
+        // Predict with each model in the mining model
+        Map<RowKey, ArrayList<DataCell>> results =
+            calculateAllPredictions(wrappers, inData, pmmldoc, usedModel.getFunctionName(), exec);
+        // Calculate the aggregated result depending on the MultipleModelsMethod
+        BufferedDataTable output = combine(inTable, results, usedModel, wrappers.size(), exec);
+
+        return new PortObject[]{output};
+    }
 
+    private static PMMLDocument parseDocument(final PMMLPortObject pmmlIn) throws Exception {
         try (LockedSupplier<Document> supplier = pmmlIn.getPMMLValue().getDocumentSupplier()) {
-            pmmldoc = PMMLDocument.Factory.parse(supplier.get());
+            return PMMLDocument.Factory.parse(supplier.get());
         }
+    }
 
+    private static MiningModel getMiningModel(final PMMLDocument pmmldoc) throws ModelNotSupportedException {
         List<MiningModel> models = pmmldoc.getPMML().getMiningModelList();
         if (models.size() == 0) {
             throw new ModelNotSupportedException("No mining models found");
@@ -211,16 +253,7 @@ public PortObject[] execute(final PortObject[] inData, final ExecutionContext ex
                 "Gradient Boosted Trees model as top level model detected. " + "Please use the Gradient "
                     + "Boosted Trees Predictor (PMML) or the PMML Predictor to predict this type of model.");
         }
-
-        // Retrieve a list of all models in the mining model
-        List<PMMLModelWrapper> wrappers = PMMLModelWrapper.getModelListFromMiningModel(usedModel);
-        // Predict with each model in the mining model
-        Map<RowKey, ArrayList<DataCell>> results =
-            calculateAllPredictions(wrappers, inData, pmmldoc, usedModel.getFunctionName(), exec);
-        // Calculate the aggregated result depending on the MultipleModelsMethod
-        BufferedDataTable output = combine((BufferedDataTable)inData[1], results, usedModel, wrappers.size(), exec);
-
-        return new PortObject[]{output};
+        return usedModel;
     }
 
     /**
@@ -233,6 +266,63 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         return new DataTableSpec[]{null};
     }
 
+    /**
+     * Compiles all segments into in-memory scorers.
+     *
+     * @return the scorers or an empty optional if at least one segment can only be predicted by its predictor node
+     */
+    private static Optional<List<SegmentScorer>> compileSegments(final List<PMMLModelWrapper> wrappers,
+        final PMMLDocument pmmldoc, final PMMLPortObjectSpec inPMMLSpec, final DataTableSpec dataSpec)
+        throws InvalidSettingsException {
+        // derived fields are only handled by the predictor nodes
+        TransformationDictionary transDict = pmmldoc.getPMML().getTransformationDictionary();
+        if (transDict != null && transDict.sizeOfDerivedFieldArray() > 0) {
+            return Optional.empty();
+        }
+        List<SegmentScorer> scorers = new ArrayList<>(wrappers.size());
+        for (PMMLModelWrapper modelwrapper : wrappers) {
+            PMMLDocument modelDoc = createSegmentDocument(modelwrapper, pmmldoc);
+            Optional<SegmentScorer> scorer = SegmentScorers.compile(modelwrapper, modelDoc,
+                createSegmentPort(modelDoc, inPMMLSpec, dataSpec), dataSpec);
+            if (!scorer.isPresent()) {
+                return Optional.empty();
+            }
+            scorers.add(scorer.get());
+        }
+        return Optional.of(scorers);
+    }
+
+    private static PMMLDocument createSegmentDocument(final PMMLModelWrapper modelwrapper,
+        final PMMLDocument pmmldoc) {
+        // Create a new document with only one model
+        PMMLDocument modelDoc = modelwrapper.createPMMLDocument(pmmldoc.getPMML().getDataDictionary());
+
+        // Fix for AP-5661
+        TransformationDictionary transDict = pmmldoc.getPMML().getTransformationDictionary();
+        if (transDict != null) {
+            modelDoc.getPMML().setTransformationDictionary(transDict);
+        }
+        return modelDoc;
+    }
+
+    private static PMMLPortObject createSegmentPort(final PMMLDocument modelDoc,
+        final PMMLPortObjectSpec inPMMLSpec, final DataTableSpec dataSpec) {
+        DataTableSpec datadictSpec = dataSpec;
+        DataColumnSpec targetCol = null;
+        if (inPMMLSpec.getTargetCols().size() > 0) {
+            targetCol = inPMMLSpec.getTargetCols().get(0);
+        }
+        if (targetCol != null && !datadictSpec.containsName(targetCol.getName())) {
+            datadictSpec = new DataTableSpec(dataSpec, new DataTableSpec(targetCol));
+        }
+
+        // Create a fake pmml port for using the predictors
+        PMMLPortObjectSpecCreator creator = new PMMLPortObjectSpecCreator(datadictSpec);
+        creator.setTargetCols(inPMMLSpec.getTargetCols());
+        creator.setLearningCols(inPMMLSpec.getLearningCols());
+        return new PMMLPortObject(creator.createSpec(), modelDoc);
+    }
+
     private Map<RowKey, ArrayList<DataCell>> calculateAllPredictions(final List<PMMLModelWrapper> wrappers,
         final PortObject[] inData, final PMMLDocument pmmldoc, final MININGFUNCTION.Enum funcName,
         final ExecutionContext exec) throws Exception {
@@ -244,28 +334,8 @@ private Map<RowKey, ArrayList<DataCell>> calculateAllPredictions(final List<PMML
         for (PMMLModelWrapper modelwrapper : wrappers) {
             exec.checkCanceled();
             exec.setProgress(count++ / wrappers.size());
-            // Create a new document with only one model
-            PMMLDocument modelDoc = modelwrapper.createPMMLDocument(pmmldoc.getPMML().getDataDictionary());
-
-            // Fix for AP-5661
-            TransformationDictionary transDict = pmmldoc.getPMML().getTransformationDictionary();
-            if (transDict != null) {
-                modelDoc.getPMML().setTransformationDictionary(transDict);
-            }
-            DataTableSpec datadictSpec = inTable.getDataTableSpec();
-            DataColumnSpec targetCol = null;
-            if (inPMMLSpec.getTargetCols().size() > 0) {
-                targetCol = inPMMLSpec.getTargetCols().get(0);
-            }
-            if (targetCol != null && !datadictSpec.containsName(targetCol.getName())) {
-                datadictSpec = new DataTableSpec(inTable.getDataTableSpec(), new DataTableSpec(targetCol));
-            }
-
-            // Create a fake pmml port for using the predictors
-            PMMLPortObjectSpecCreator creator = new PMMLPortObjectSpecCreator(datadictSpec);
-            creator.setTargetCols(inPMMLSpec.getTargetCols());
-            creator.setLearningCols(inPMMLSpec.getLearningCols());
-            PMMLPortObject fakePMMLPort = new PMMLPortObject(creator.createSpec(), modelDoc);
+            PMMLDocument modelDoc = createSegmentDocument(modelwrapper, pmmldoc);
+            PMMLPortObject fakePMMLPort = createSegmentPort(modelDoc, inPMMLSpec, inTable.getDataTableSpec());
             DataTable result = null;
             final ExecutionContext subexec = exec.createSubExecutionContext(1.0 / wrappers.size());
             switch (modelwrapper.getModelType()) {
@@ -357,34 +427,133 @@ private BufferedDataTable combine(final BufferedDataTable inTable, final Map<Row
         throws ModelNotSupportedException, CanceledExecutionException {
 
         MULTIPLEMODELMETHOD.Enum method = usedModel.getSegmentation().getMultipleModelMethod();
-        MININGFUNCTION.Enum funcName = usedModel.getFunctionName();
+        double[] weights = getSegmentWeights(usedModel);
+
+        // The types of the individual predictions are taken from the first row
+        DataType[] segmentTypes = new DataType[numModels];
+        for (Entry<RowKey, ArrayList<DataCell>> entry : results.entrySet()) {
+            int counter = 0;
+            for (DataCell c : entry.getValue()) {
+                segmentTypes[counter++] = c.getType();
+            }
+            break;
+        }
+
+        // Combine the cells in the results to one final result according to the multiple model method
+        final DataContainer cont = exec.createDataContainer(
+            new DataTableSpec(inTable.getDataTableSpec(), createResultSpec(usedModel, segmentTypes)));
+        for (DataRow row : inTable) {
+            exec.checkCanceled();
+            final RowKey key = row.getKey();
+            ArrayList<DataCell> list = results.get(key);
+            list.add(aggregate(list, method, weights));
+            int numCols = inTable.getDataTableSpec().getNumColumns();
+            DataCell[] cells =
+                new DataCell[(m_returnIndividualPredictions.getBooleanValue()) ? numCols + numModels + 1 : numCols + 1];
+
+            int counter = 0;
+            for (DataCell c : row) {
+                cells[counter++] = c;
+            }
+            if (m_returnIndividualPredictions.getBooleanValue()) {
+                for (DataCell c : list) {
+                    cells[counter++] = c;
+                }
+            } else {
+                cells[counter++] = list.get(list.size() - 1);
+            }
+            cont.addRowToTable(new DefaultRow(key, cells));
+        }
+        cont.close();
+        return (BufferedDataTable)cont.getTable();
+    }
+
+    private ColumnRearranger createFusedRearranger(final DataTableSpec dataSpec, final MiningModel usedModel,
+        final List<SegmentScorer> scorers) throws ModelNotSupportedException {
+        DataType[] segmentTypes = scorers.stream().map(SegmentScorer::getType).toArray(DataType[]::new);
+        DataTableSpec resultSpec = createResultSpec(usedModel, segmentTypes);
+        DataColumnSpec[] resultColumns = new DataColumnSpec[resultSpec.getNumColumns()];
+        for (int i = 0; i < resultColumns.length; i++) {
+            resultColumns[i] = resultSpec.getColumnSpec(i);
+        }
+        final MULTIPLEMODELMETHOD.Enum method = usedModel.getSegmentation().getMultipleModelMethod();
+        final double[] weights = getSegmentWeights(usedModel);
+        validateAggregation(method, weights, scorers.size());
+        ColumnRearranger rearranger = new ColumnRearranger(dataSpec);
+        rearranger.append(new FusedPredictionCellFactory(resultColumns, scorers, method, weights));
+        return rearranger;
+    }
+
+    /**
+     * Checks once that {@link #aggregate(List, MULTIPLEMODELMETHOD.Enum, double[])} supports the method and that
+     * there is a finite weight per segment, so that the fused cell factory only needs to handle failures of the
+     * individual rows.
+     */
+    private static void validateAggregation(final MULTIPLEMODELMETHOD.Enum method, final double[] weights,
+        final int nrSegments) throws ModelNotSupportedException {
+        if (method != org.dmg.pmml.MULTIPLEMODELMETHOD.AVERAGE
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_AVERAGE
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.MAJORITY_VOTE
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_MAJORITY_VOTE
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.MAX && method != org.dmg.pmml.MULTIPLEMODELMETHOD.MEDIAN
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.SUM
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.SELECT_FIRST
+            && method != org.dmg.pmml.MULTIPLEMODELMETHOD.SELECT_ALL) {
+            throw new ModelNotSupportedException("Multiple model method " + method + " is not supported");
+        }
+        if (weights.length != nrSegments) {
+            throw new ModelNotSupportedException(
+                "Expected " + nrSegments + " segment weights but found " + weights.length);
+        }
+        if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_AVERAGE
+            || method == org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_MAJORITY_VOTE) {
+            for (int i = 0; i < weights.length; i++) {
+                if (!Double.isFinite(weights[i])) {
+                    throw new ModelNotSupportedException(
+                        "The weight of segment " + (i + 1) + " is not a finite number: " + weights[i]);
+                }
+            }
+        }
+    }
 
-        /*
-         * Collect weights from the segments and store them in an array.
-         * Weights are automatically 1 if none is given in the segment declaration.
-         */
+    /**
+     * Collect weights from the segments and store them in an array.
+     * Weights are automatically 1 if none is given in the segment declaration.
+     */
+    private static double[] getSegmentWeights(final MiningModel usedModel) {
         double[] weights = new double[usedModel.getSegmentation().getSegmentList().size()];
         int counter = 0;
         for (Segment s : usedModel.getSegmentation().getSegmentList()) {
             weights[counter++] = s.getWeight();
         }
+        return weights;
+    }
+
+    /**
+     * Creates the spec of the columns appended to the input table.
+     *
+     * @param usedModel the mining model
+     * @param segmentTypes the types of the individual predictions
+     * @return the spec of the appended columns
+     * @throws ModelNotSupportedException if the multiple model method is not supported
+     */
+    private DataTableSpec createResultSpec(final MiningModel usedModel, final DataType[] segmentTypes)
+        throws ModelNotSupportedException {
+        MULTIPLEMODELMETHOD.Enum method = usedModel.getSegmentation().getMultipleModelMethod();
+        MININGFUNCTION.Enum funcName = usedModel.getFunctionName();
 
         // Collect specs for the columns in the result table
         String[] names;
         DataType[] types;
-        counter = 0;
+        int counter = 0;
 
         if (m_returnIndividualPredictions.getBooleanValue()) {
-            names = new String[numModels + 1];
-            types = new DataType[numModels + 1];
-            for (Entry<RowKey, ArrayList<DataCell>> entry : results.entrySet()) {
-                for (DataCell c : entry.getValue()) {
-                    names[counter] = "result" + counter;
-                    types[counter] = c.getType();
-                    counter++;
-                }
-                break;
-
+            names = new String[segmentTypes.length + 1];
+            types = new DataType[segmentTypes.length + 1];
+            for (DataType type : segmentTypes) {
+                names[counter] = "result" + counter;
+                types[counter] = type == null ? DataType.getType(DataCell.class) : type;
+                counter++;
             }
         } else {
             names = new String[1];
@@ -423,55 +592,189 @@ private BufferedDataTable combine(final BufferedDataTable inTable, final Map<Row
         } else {
             types[counter] = StringCell.TYPE;
         }
+        return new DataTableSpec(names, types);
+    }
 
-        // Combine the cells in the results to one final result according to the multiple model method
-        final DataContainer cont =
-            exec.createDataContainer(new DataTableSpec(inTable.getDataTableSpec(), new DataTableSpec(names, types)));
-        for (DataRow row : inTable) {
-            exec.checkCanceled();
-            final RowKey key = row.getKey();
-            ArrayList<DataCell> list = results.get(key);
-            if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.AVERAGE) {
-                list.add(average(list));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_AVERAGE) {
-                list.add(weightedAverage(list, weights));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.MAJORITY_VOTE) {
-                list.add(majorityVote(list));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_MAJORITY_VOTE) {
-                list.add(weightedMajorityVote(list, weights));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.MAX) {
-                list.add(max(list));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.MEDIAN) {
-                list.add(median(list));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.SUM) {
-                list.add(sum(list));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.SELECT_FIRST) {
-                list.add(list.get(0));
-            } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.SELECT_ALL) {
-                list.add(selectAll(list));
-            } else {
-                throw new ModelNotSupportedException(
-                    "Multiple model method " + method.toString() + " is not supported");
-            }
-            int numCols = inTable.getDataTableSpec().getNumColumns();
-            DataCell[] cells =
-                new DataCell[(m_returnIndividualPredictions.getBooleanValue()) ? numCols + numModels + 1 : numCols + 1];
+    /**
+     * Combines the individual predictions of a row according to the multiple model method.
+     */
+    private DataCell aggregate(final List<DataCell> list, final MULTIPLEMODELMETHOD.Enum method,
+        final double[] weights) throws ModelNotSupportedException {
+        if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.AVERAGE) {
+            return average(list);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_AVERAGE) {
+            return weightedAverage(list, weights);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.MAJORITY_VOTE) {
+            return majorityVote(list);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.WEIGHTED_MAJORITY_VOTE) {
+            return weightedMajorityVote(list, weights);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.MAX) {
+            return max(list);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.MEDIAN) {
+            return median(list);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.SUM) {
+            return sum(list);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.SELECT_FIRST) {
+            return list.get(0);
+        } else if (method == org.dmg.pmml.MULTIPLEMODELMETHOD.SELECT_ALL) {
+            return selectAll(list);
+        } else {
+            throw new ModelNotSupportedException(
+                "Multiple model method " + method.toString() + " is not supported");
+        }
+    }
 
-            counter = 0;
-            for (DataCell c : row) {
-                cells[counter++] = c;
+    /**
+     * Evaluates all segment scorers for a row and combines their predictions inline. If a segment fails on a row, its
+     * prediction and the combined prediction of that row are missing; the failed rows are reported as a warning. The
+     * multiple model method and the weights are validated up front, hence errors in combining the predictions fail
+     * the node.
+     */
+    private final class FusedPredictionCellFactory extends AbstractCellFactory {
+
+        private final List<SegmentScorer> m_scorers;
+
+        private final MULTIPLEMODELMETHOD.Enum m_method;
+
+        private final double[] m_weights;
+
+        private final AtomicLong m_failedRows = new AtomicLong();
+
+        FusedPredictionCellFactory(final DataColumnSpec[] colSpecs, final List<SegmentScorer> scorers,
+            final MULTIPLEMODELMETHOD.Enum method, final double[] weights) {
+            super(colSpecs);
+            m_scorers = scorers;
+            m_method = method;
+            m_weights = weights;
+        }
+
+        @Override
+        public DataCell[] getCells(final DataRow row) {
+            List<DataCell> list = new ArrayList<>(m_scorers.size() + 1);
+            String failure = null;
+            for (SegmentScorer scorer : m_scorers) {
+                try {
+                    list.add(scorer.score(row));
+                } catch (Exception e) {
+                    failure = "Prediction of row '" + row.getKey() + "' failed: " + e.getMessage();
+                    LOGGER.debug(failure, e);
+                    list.add(new MissingCell(e.getMessage()));
+                }
             }
-            if (m_returnIndividualPredictions.getBooleanValue()) {
-                for (DataCell c : list) {
-                    cells[counter++] = c;
+            if (failure == null) {
+                try {
+                    list.add(aggregate(list, m_method, m_weights));
+                } catch (ModelNotSupportedException e) {
+                    // the method is validated when the rearranger is created
+                    throw new IllegalStateException(e.getMessage(), e);
                 }
             } else {
-                cells[counter++] = list.get(list.size() - 1);
+                list.add(new MissingCell(failure));
+                m_failedRows.incrementAndGet();
             }
-            cont.addRowToTable(new DefaultRow(key, cells));
+            if (m_returnIndividualPredictions.getBooleanValue()) {
+                return list.toArray(new DataCell[list.size()]);
+            }
+            return new DataCell[]{list.get(list.size() - 1)};
         }
-        cont.close();
-        return (BufferedDataTable)cont.getTable();
+
+        @Override
+        public void afterProcessing() {
+            final long failedRows = m_failedRows.get();
+            if (failedRows > 0) {
+                setWarningMessage("The prediction failed for " + failedRows
+                    + " row(s), their predictions are missing (see log for details).");
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperatorInternals createInitialStreamableOperatorInternals() {
+        return new SimpleStreamableOperatorInternals();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean iterate(final StreamableOperatorInternals internals) {
+        // the output spec depends on the ensemble, which is only available once the operator has read it
+        return !((SimpleStreamableOperatorInternals)internals).getConfig().containsKey(CFG_OUTPUT_SPEC);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PortObjectSpec[] computeFinalOutputSpecs(final StreamableOperatorInternals internals,
+        final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        Config config = ((SimpleStreamableOperatorInternals)internals).getConfig();
+        return new PortObjectSpec[]{DataTableSpec.load(config.getConfig(CFG_OUTPUT_SPEC))};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+        final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        return new StreamableOperator() {
+
+            private final SimpleStreamableOperatorInternals m_internals = new SimpleStreamableOperatorInternals();
+
+            @Override
+            public void runIntermediate(final PortInput[] inputs, final ExecutionContext exec) throws Exception {
+                ColumnRearranger rearranger = createStreamingRearranger(inputs, (DataTableSpec)inSpecs[1]);
+                rearranger.createSpec().save(m_internals.getConfig().addConfig(CFG_OUTPUT_SPEC));
+            }
+
+            @Override
+            public StreamableOperatorInternals saveInternals() {
+                return m_internals;
+            }
+
+            @Override
+            public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                throws Exception {
+                ColumnRearranger rearranger = createStreamingRearranger(inputs, (DataTableSpec)inSpecs[1]);
+                StreamableFunction func = rearranger.createStreamableFunction(1, 0);
+                func.runFinal(inputs, outputs, exec);
+            }
+        };
+    }
+
+    private ColumnRearranger createStreamingRearranger(final PortInput[] inputs, final DataTableSpec dataSpec)
+        throws Exception {
+        PMMLPortObject pmmlIn = (PMMLPortObject)((PortObjectInput)inputs[0]).getPortObject();
+        PMMLDocument pmmldoc = parseDocument(pmmlIn);
+        MiningModel usedModel = getMiningModel(pmmldoc);
+        List<PMMLModelWrapper> wrappers = PMMLModelWrapper.getModelListFromMiningModel(usedModel);
+        Optional<List<SegmentScorer>> scorers = compileSegments(wrappers, pmmldoc, pmmlIn.getSpec(), dataSpec);
+        if (!scorers.isPresent()) {
+            throw new ModelNotSupportedException("Streaming is only supported for ensembles of tree models, "
+                + "linear regression models and Gradient Boosted Trees without derived fields. "
+                + "Please execute the node without streaming.");
+        }
+        return createFusedRearranger(dataSpec, usedModel, scorers.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.NONDISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{OutputPortRole.NONDISTRIBUTED};
     }
 
     private static StringCell selectAll(final List<DataCell> cells) {
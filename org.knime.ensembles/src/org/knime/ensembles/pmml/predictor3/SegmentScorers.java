@@ -0,0 +1,432 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.ensembles.pmml.predictor3;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.dmg.pmml.CategoricalPredictorDocument.CategoricalPredictor;
+import org.dmg.pmml.LocalTransformationsDocument.LocalTransformations;
+import org.dmg.pmml.MININGFUNCTION;
+import org.dmg.pmml.NumericPredictorDocument.NumericPredictor;
+import org.dmg.pmml.PMMLDocument;
+import org.dmg.pmml.REGRESSIONNORMALIZATIONMETHOD;
+import org.dmg.pmml.RegressionModelDocument.RegressionModel;
+import org.dmg.pmml.RegressionTableDocument.RegressionTable;
+import org.dmg.pmml.TreeModelDocument.TreeModel;
+import org.knime.base.data.filter.column.FilterColumnRow;
+import org.knime.base.node.mine.decisiontree2.PMMLDecisionTreeTranslator;
+import org.knime.base.node.mine.decisiontree2.model.DecisionTree;
+import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeModel;
+import org.knime.base.node.mine.treeensemble2.model.GradientBoostedTreesModel;
+import org.knime.base.node.mine.treeensemble2.model.MultiClassGradientBoostedTreesModel;
+import org.knime.base.node.mine.treeensemble2.model.RegressionTreeModel;
+import org.knime.base.node.mine.treeensemble2.model.RegressionTreeModelPortObjectSpec;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
+import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
+import org.knime.base.node.mine.treeensemble2.model.TreeModelClassification;
+import org.knime.base.node.mine.treeensemble2.model.pmml.AbstractTreeModelPMMLTranslator;
+import org.knime.base.node.mine.treeensemble2.model.pmml.ClassificationGBTModelPMMLTranslator;
+import org.knime.base.node.mine.treeensemble2.model.pmml.ClassificationTreeModelPMMLTranslator;
+import org.knime.base.node.mine.treeensemble2.model.pmml.RegressionGBTModelPMMLTranslator;
+import org.knime.base.node.mine.treeensemble2.model.pmml.RegressionTreeModelPMMLTranslator;
+import org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.GBTRegressionPredictor;
+import org.knime.base.node.mine.treeensemble2.node.gradientboosting.predictor.LKGradientBoostedTreesPredictor;
+import org.knime.base.node.mine.treeensemble2.node.predictor.TreeEnsemblePredictionUtil;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.port.pmml.PMMLMiningModelWrapper;
+import org.knime.core.node.port.pmml.PMMLModelWrapper;
+import org.knime.core.node.port.pmml.PMMLPortObject;
+
+/**
+ * Compiles the segments of a PMML mining model into {@link SegmentScorer SegmentScorers}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class SegmentScorers {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(SegmentScorers.class);
+
+    private static final String GBT_MODEL_NAME = "GradientBoostedTrees";
+
+    private SegmentScorers() {
+        // utility class
+    }
+
+    /**
+     * Compiles a single segment model into an in-memory scorer.
+     *
+     * @param modelWrapper the wrapper of the segment model
+     * @param segmentDoc a PMML document that contains only the segment model
+     * @param segmentPort a PMML port object that contains only the segment model
+     * @param dataSpec the spec of the table that is going to be predicted
+     * @return the compiled scorer or an empty optional if the segment model can't be compiled, in which case it has to
+     *         be predicted by the respective predictor node
+     * @throws InvalidSettingsException if <b>dataSpec</b> misses columns required by the segment model
+     */
+    static Optional<SegmentScorer> compile(final PMMLModelWrapper modelWrapper, final PMMLDocument segmentDoc,
+        final PMMLPortObject segmentPort, final DataTableSpec dataSpec) throws InvalidSettingsException {
+        switch (modelWrapper.getModelType()) {
+            case TreeModel:
+                if (modelWrapper.getFunctionName() == MININGFUNCTION.REGRESSION) {
+                    return Optional.of(createRegressionTreeScorer(segmentPort, dataSpec));
+                }
+                return Optional.of(createClassificationTreeScorer(segmentDoc, segmentPort, dataSpec));
+            case RegressionModel:
+                return createRegressionModelScorer(segmentDoc, dataSpec);
+            case MiningModel:
+                return createGBTScorer((PMMLMiningModelWrapper)modelWrapper, segmentPort, dataSpec);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * @param localTransformations the local transformations of a model (may be null)
+     * @return true if <b>localTransformations</b> declares derived fields
+     */
+    static boolean hasDerivedFields(final LocalTransformations localTransformations) {
+        return localTransformations != null && localTransformations.sizeOfDerivedFieldArray() > 0;
+    }
+
+    private static SegmentScorer createRegressionTreeScorer(final PMMLPortObject segmentPort,
+        final DataTableSpec dataSpec) throws InvalidSettingsException {
+        final RegressionTreeModelPMMLTranslator translator = new RegressionTreeModelPMMLTranslator();
+        segmentPort.initializeModelTranslator(translator);
+        final RegressionTreeModel model =
+            new RegressionTreeModel(translator.getTreeMetaData(), translator.getTree(), TreeType.Ordinary);
+        final RegressionTreeModelPortObjectSpec modelSpec =
+            new RegressionTreeModelPortObjectSpec(translator.getLearnSpec());
+        return new RegressionTreeScorer(model, modelSpec.calculateFilterIndices(dataSpec),
+            modelSpec.getLearnTableSpec());
+    }
+
+    /**
+     * Classification trees are imported into the tree ensemble node representation if their prediction behavior can be
+     * preserved, otherwise (e.g. for trees using other missing value strategies) they are evaluated by the decision
+     * tree of the Decision Tree Predictor.
+     */
+    private static SegmentScorer createClassificationTreeScorer(final PMMLDocument segmentDoc,
+        final PMMLPortObject segmentPort, final DataTableSpec dataSpec) {
+        final List<TreeModel> trees = segmentDoc.getPMML().getTreeModelList();
+        if (trees.size() == 1 && AbstractTreeModelPMMLTranslator.hasCompatibleStrategies(trees.get(0))) {
+            try {
+                final ClassificationTreeModelPMMLTranslator translator = new ClassificationTreeModelPMMLTranslator();
+                segmentPort.initializeModelTranslator(translator);
+                final TreeModelClassification tree = translator.getTree();
+                final TreeEnsembleModel model = new TreeEnsembleModel(translator.getTreeMetaData(),
+                    new AbstractTreeModel[]{tree}, TreeType.Ordinary, false);
+                final TreeEnsembleModelPortObjectSpec modelSpec =
+                    new TreeEnsembleModelPortObjectSpec(translator.getLearnSpec());
+                final Function<DataRow, PredictorRecord> rowConverter =
+                    TreeEnsemblePredictionUtil.createRowConverter(modelSpec, model, dataSpec);
+                return new ClassificationScorer(
+                    r -> tree.findMatchingNode(rowConverter.apply(r)).getMajorityClassName());
+            } catch (IllegalArgumentException | InvalidSettingsException e) {
+                // the translator rejects constructs the tree ensemble models don't support with an IAE
+                LOGGER.debug("The tree segment can't be evaluated as tree ensemble model, "
+                    + "falling back to the decision tree predictor: " + e.getMessage(), e);
+            }
+        }
+        return createDecisionTreeScorer(segmentPort, dataSpec);
+    }
+
+    private static SegmentScorer createDecisionTreeScorer(final PMMLPortObject segmentPort,
+        final DataTableSpec dataSpec) {
+        final PMMLDecisionTreeTranslator translator = new PMMLDecisionTreeTranslator();
+        segmentPort.initializeModelTranslator(translator);
+        return new DecisionTreeScorer(translator.getDecisionTree(), dataSpec);
+    }
+
+    private static Optional<SegmentScorer> createGBTScorer(final PMMLMiningModelWrapper modelWrapper,
+        final PMMLPortObject segmentPort, final DataTableSpec dataSpec) throws InvalidSettingsException {
+        if (!GBT_MODEL_NAME.equals(modelWrapper.getModel().getModelName())) {
+            return Optional.empty();
+        }
+        if (modelWrapper.getFunctionName() == MININGFUNCTION.CLASSIFICATION) {
+            final ClassificationGBTModelPMMLTranslator translator = new ClassificationGBTModelPMMLTranslator();
+            segmentPort.initializeModelTranslator(translator);
+            final MultiClassGradientBoostedTreesModel model = translator.getGBTModel();
+            final TreeEnsembleModelPortObjectSpec modelSpec =
+                new TreeEnsembleModelPortObjectSpec(translator.getLearnSpec());
+            final LKGradientBoostedTreesPredictor predictor = new LKGradientBoostedTreesPredictor(model, false,
+                TreeEnsemblePredictionUtil.createRowConverter(modelSpec, model, dataSpec), false);
+            return Optional.of(new ClassificationScorer(r -> predictor.predict(r).getClassPrediction()));
+        } else if (modelWrapper.getFunctionName() == MININGFUNCTION.REGRESSION) {
+            final RegressionGBTModelPMMLTranslator translator = new RegressionGBTModelPMMLTranslator();
+            segmentPort.initializeModelTranslator(translator);
+            final GradientBoostedTreesModel model = translator.getGBTModel();
+            final TreeEnsembleModelPortObjectSpec modelSpec =
+                new TreeEnsembleModelPortObjectSpec(translator.getLearnSpec());
+            final GBTRegressionPredictor predictor = new GBTRegressionPredictor(model,
+                TreeEnsemblePredictionUtil.createRowConverter(modelSpec, model, dataSpec));
+            return Optional.of(new RegressionScorer(r -> predictor.predict(r).getPrediction()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Only plain linear regression tables are compiled, everything else (classification, normalization, interaction
+     * terms, target rescaling) is left to the regression predictor.
+     */
+    private static Optional<SegmentScorer> createRegressionModelScorer(final PMMLDocument segmentDoc,
+        final DataTableSpec dataSpec) {
+        final List<RegressionModel> models = segmentDoc.getPMML().getRegressionModelList();
+        if (models.size() != 1) {
+            return Optional.empty();
+        }
+        final RegressionModel model = models.get(0);
+        if (model.getFunctionName() != MININGFUNCTION.REGRESSION || model.getRegressionTableList().size() != 1
+            || model.getTargets() != null || hasDerivedFields(model.getLocalTransformations())
+            || (model.isSetNormalizationMethod()
+                && model.getNormalizationMethod() != REGRESSIONNORMALIZATIONMETHOD.NONE)) {
+            return Optional.empty();
+        }
+        final RegressionTable table = model.getRegressionTableList().get(0);
+        if (table.sizeOfPredictorTermArray() > 0) {
+            return Optional.empty();
+        }
+        final List<NumericPredictor> numericPredictors = table.getNumericPredictorList();
+        final int[] numericIndices = new int[numericPredictors.size()];
+        final int[] exponents = new int[numericPredictors.size()];
+        final double[] numericCoefficients = new double[numericPredictors.size()];
+        for (int i = 0; i < numericIndices.length; i++) {
+            final NumericPredictor predictor = numericPredictors.get(i);
+            numericIndices[i] = dataSpec.findColumnIndex(predictor.getName());
+            if (numericIndices[i] < 0) {
+                return Optional.empty();
+            }
+            exponents[i] = predictor.getExponent() == null ? 1 : predictor.getExponent().intValue();
+            numericCoefficients[i] = predictor.getCoefficient();
+        }
+        final List<CategoricalPredictor> categoricalPredictors = table.getCategoricalPredictorList();
+        final int[] categoricalIndices = new int[categoricalPredictors.size()];
+        final String[] categoricalValues = new String[categoricalPredictors.size()];
+        final double[] categoricalCoefficients = new double[categoricalPredictors.size()];
+        for (int i = 0; i < categoricalIndices.length; i++) {
+            final CategoricalPredictor predictor = categoricalPredictors.get(i);
+            categoricalIndices[i] = dataSpec.findColumnIndex(predictor.getName());
+            if (categoricalIndices[i] < 0) {
+                return Optional.empty();
+            }
+            categoricalValues[i] = predictor.getValue();
+            categoricalCoefficients[i] = predictor.getCoefficient();
+        }
+        return Optional.of(new LinearRegressionScorer(table.getIntercept(), numericIndices, exponents,
+            numericCoefficients, categoricalIndices, categoricalValues, categoricalCoefficients));
+    }
+
+    @FunctionalInterface
+    private interface RowToDouble {
+        double apply(DataRow row);
+    }
+
+    @FunctionalInterface
+    private interface RowToString {
+        String apply(DataRow row);
+    }
+
+    private static final class RegressionScorer implements SegmentScorer {
+
+        private final RowToDouble m_predictor;
+
+        RegressionScorer(final RowToDouble predictor) {
+            m_predictor = predictor;
+        }
+
+        @Override
+        public DataType getType() {
+            return DoubleCell.TYPE;
+        }
+
+        @Override
+        public DataCell score(final DataRow row) {
+            return new DoubleCell(m_predictor.apply(row));
+        }
+    }
+
+    private static final class ClassificationScorer implements SegmentScorer {
+
+        private final RowToString m_predictor;
+
+        ClassificationScorer(final RowToString predictor) {
+            m_predictor = predictor;
+        }
+
+        @Override
+        public DataType getType() {
+            return StringCell.TYPE;
+        }
+
+        @Override
+        public DataCell score(final DataRow row) {
+            return new StringCell(m_predictor.apply(row));
+        }
+    }
+
+    private static final class RegressionTreeScorer implements SegmentScorer {
+
+        private final RegressionTreeModel m_model;
+
+        private final int[] m_filterIndices;
+
+        private final DataTableSpec m_learnSpec;
+
+        RegressionTreeScorer(final RegressionTreeModel model, final int[] filterIndices,
+            final DataTableSpec learnSpec) {
+            m_model = model;
+            m_filterIndices = filterIndices;
+            m_learnSpec = learnSpec;
+        }
+
+        @Override
+        public DataType getType() {
+            return DoubleCell.TYPE;
+        }
+
+        @Override
+        public DataCell score(final DataRow row) {
+            final PredictorRecord record =
+                m_model.createPredictorRecord(new FilterColumnRow(row, m_filterIndices), m_learnSpec);
+            return new DoubleCell(m_model.getTreeModel().findMatchingNode(record).getMean());
+        }
+    }
+
+    private static final class DecisionTreeScorer implements SegmentScorer {
+
+        private final DecisionTree m_tree;
+
+        private final DataTableSpec m_dataSpec;
+
+        DecisionTreeScorer(final DecisionTree tree, final DataTableSpec dataSpec) {
+            m_tree = tree;
+            m_dataSpec = dataSpec;
+        }
+
+        @Override
+        public DataType getType() {
+            return StringCell.TYPE;
+        }
+
+        @Override
+        public DataCell score(final DataRow row) throws Exception {
+            final DataCell prediction = m_tree.classifyPattern(row, m_dataSpec);
+            return prediction == null ? DataType.getMissingCell() : prediction;
+        }
+    }
+
+    private static final class LinearRegressionScorer implements SegmentScorer {
+
+        private final double m_intercept;
+
+        private final int[] m_numericIndices;
+
+        private final int[] m_exponents;
+
+        private final double[] m_numericCoefficients;
+
+        private final int[] m_categoricalIndices;
+
+        private final String[] m_categoricalValues;
+
+        private final double[] m_categoricalCoefficients;
+
+        LinearRegressionScorer(final double intercept, final int[] numericIndices, final int[] exponents,
+            final double[] numericCoefficients, final int[] categoricalIndices, final String[] categoricalValues,
+            final double[] categoricalCoefficients) {
+            m_intercept = intercept;
+            m_numericIndices = numericIndices;
+            m_exponents = exponents;
+            m_numericCoefficients = numericCoefficients;
+            m_categoricalIndices = categoricalIndices;
+            m_categoricalValues = categoricalValues;
+            m_categoricalCoefficients = categoricalCoefficients;
+        }
+
+        @Override
+        public DataType getType() {
+            return DoubleCell.TYPE;
+        }
+
+        @Override
+        public DataCell score(final DataRow row) {
+            double prediction = m_intercept;
+            for (int i = 0; i < m_numericIndices.length; i++) {
+                final DataCell cell = row.getCell(m_numericIndices[i]);
+                if (cell.isMissing() || !(cell instanceof DoubleValue)) {
+                    return DataType.getMissingCell();
+                }
+                final double value = ((DoubleValue)cell).getDoubleValue();
+                final double term = m_exponents[i] == 1 ? value : Math.pow(value, m_exponents[i]);
+                prediction += m_numericCoefficients[i] * term;
+            }
+            for (int i = 0; i < m_categoricalIndices.length; i++) {
+                final DataCell cell = row.getCell(m_categoricalIndices[i]);
+                if (cell.isMissing()) {
+                    return DataType.getMissingCell();
+                }
+                if (m_categoricalValues[i].equals(cell.toString())) {
+                    prediction += m_categoricalCoefficients[i];
+                }
+            }
+            return new DoubleCell(prediction);
+        }
+    }
+}
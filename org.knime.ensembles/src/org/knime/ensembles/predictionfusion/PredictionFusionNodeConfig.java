@@ -81,6 +81,18 @@ public void setPredictions(final PredictionConfig[] predictions) {
 	 */
 	public void load(final NodeSettingsRO settings) throws InvalidSettingsException {
 		m_method = settings.getString(METHOD_CFG);
+		loadClassesAndPredictions(settings);
+	}
+
+	/**
+	 * Load the classes and predictions but not the method.
+	 *
+	 * @param settings
+	 *            Settings object
+	 * @throws InvalidSettingsException
+	 *             If the config could not correctly be loaded
+	 */
+	void loadClassesAndPredictions(final NodeSettingsRO settings) throws InvalidSettingsException {
 		m_classes = settings.getStringArray(CLASSES_CFG);
 		Config predictionsConfig = settings.getConfig(PREDICTIONS_CFG);
 		int nrPredictions = predictionsConfig.getInt(NR_PREDICTIONS_CFG);
@@ -124,6 +136,16 @@ public void loadWithDefaults(final NodeSettingsRO settings) {
 	 */
 	public void save(final NodeSettingsWO settings) {
 		settings.addString(METHOD_CFG, m_method);
+		saveClassesAndPredictions(settings);
+	}
+
+	/**
+	 * Save the classes and predictions but not the method.
+	 *
+	 * @param settings
+	 *            Settings object
+	 */
+	void saveClassesAndPredictions(final NodeSettingsWO settings) {
 		settings.addStringArray(CLASSES_CFG, m_classes);
 		// create subconfig for predictions
 		Config predictionsConfig = settings.addConfig(PREDICTIONS_CFG);
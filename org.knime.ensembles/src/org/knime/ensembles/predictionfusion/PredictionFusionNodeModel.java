@@ -50,6 +50,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -68,7 +69,7 @@
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.streamable.simple.SimpleStreamableFunctionNodeModel;
 import org.knime.ensembles.predictionfusion.PredictionFusionNodeConfig.PredictionConfig;
-import org.knime.ensembles.predictionfusion.methods.Prediction;
+import org.knime.ensembles.predictionfusion.methods.PredictionFusionKernel;
 import org.knime.ensembles.predictionfusion.methods.PredictionFusionMethod;
 import org.knime.ensembles.predictionfusion.methods.PredictionFusionMethodFactory;
 
@@ -87,9 +88,37 @@ public class PredictionFusionNodeModel extends SimpleStreamableFunctionNodeModel
 	@Override
     protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) {
         final PredictionFusionMethod method = PredictionFusionMethodFactory.getPredictionFusionMethod(m_config.getMethod());
-		ColumnRearranger rearranger = new ColumnRearranger(inSpecs);
-		final String[] classes = m_config.getClasses();
 		final PredictionConfig[] predictionConfigs = m_config.getPredictions();
+		final int[] weights = new int[predictionConfigs.length];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = predictionConfigs[i].getWeight();
+		}
+		return createColumnRearranger(inSpecs, method, m_config.getClasses(), predictionConfigs, weights,
+				this::setWarningMessage);
+	}
+
+	/**
+	 * Creates the column rearranger that appends the fused confidences and the
+	 * fused prediction.
+	 *
+	 * @param inSpecs
+	 *            The spec of the table containing the predictions
+	 * @param method
+	 *            The fusion method
+	 * @param classes
+	 *            Prioritized array of the classes
+	 * @param predictionConfigs
+	 *            The confidence columns of the predictions
+	 * @param weights
+	 *            The weight of each prediction
+	 * @param warningConsumer
+	 *            Receives warnings about the input data
+	 * @return The rearranger
+	 */
+	static ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs, final PredictionFusionMethod method,
+			final String[] classes, final PredictionConfig[] predictionConfigs, final int[] weights,
+			final Consumer<String> warningConsumer) {
+		ColumnRearranger rearranger = new ColumnRearranger(inSpecs);
 		// find index for columns, first index is prediction second index is
 		// class
 		final int[][] columnIndex = new int[predictionConfigs.length][];
@@ -100,6 +129,7 @@ protected ColumnRearranger createColumnRearranger(final DataTableSpec inSpecs) {
 				columnIndex[i][j] = inSpecs.findColumnIndex(column);
 			}
 		}
+		final PredictionFusionKernel kernel = new PredictionFusionKernel(method, weights, classes.length);
 		CellFactory cellFactory = new AbstractCellFactory() {
 			@Override
             public DataColumnSpec[] getColumnSpecs() {
@@ -118,11 +148,10 @@ public DataColumnSpec[] getColumnSpecs() {
 
 			@Override
             public DataCell[] getCells(final DataRow row) {
-				// create prediction objects containing all class confidences
-				Prediction[] predictions = new Prediction[predictionConfigs.length];
-				int[] weights = new int[predictionConfigs.length];
-				for (int i = 0; i < predictions.length; i++) {
-					Prediction prediction = new Prediction();
+				// collect all class confidences in the kernel, the kernel is
+				// reused for every row
+				kernel.clear();
+				for (int i = 0; i < predictionConfigs.length; i++) {
 					for (int j = 0; j < classes.length; j++) {
 						DataCell cell = row.getCell(columnIndex[i][j]);
 						// missing values are ignored
@@ -133,28 +162,26 @@ public DataCell[] getCells(final DataRow row) {
 										+ confidence + " (row: '" + row.getKey().getString() + "', column: '"
 										+ inSpecs.getColumnSpec(columnIndex[i][j]).getName() + "').");
 							}
-							prediction.setClassConfidence(classes[j], confidence);
+							kernel.setConfidence(i, j, confidence);
 						} else if (cell.isMissing()) {
-						    PredictionFusionNodeModel.this.setWarningMessage("Found missing values in input confidences. Missing values were skipped.");
+						    warningConsumer.accept("Found missing values in input confidences. Missing values were skipped.");
 						}
 					}
-					weights[i] = predictionConfigs[i].getWeight();
-					predictions[i] = prediction;
 				}
 				// fuse predictions into one
-				Prediction prediction = method.fusePredictions(predictions, weights);
+				kernel.fuse();
 				DataCell[] cells = new DataCell[classes.length + 1];
 				for (int i = 0; i < classes.length; i++) {
-					Double confidence = prediction.getClassConfidence(classes[i], true);
 					// if there was no valid confidence in the input we will not
 					// have a valid fusion confidence
-					cells[i] = confidence == null ? new MissingCell(null) : new DoubleCell(confidence);
+					cells[i] = kernel.hasFusedConfidence(i) ? new DoubleCell(kernel.getFusedConfidence(i))
+							: new MissingCell(null);
 				}
-				String predictedClass = prediction.getPredictedClass(classes);
+				int predictedClass = kernel.getPredictedClass();
 				// if we have no valid confidences we don't have a predicted
 				// class
-				cells[cells.length - 1] = predictedClass == null ? new MissingCell(null)
-						: new StringCell(predictedClass);
+				cells[cells.length - 1] = predictedClass < 0 ? new MissingCell(null)
+						: new StringCell(classes[predictedClass]);
 				return cells;
 			}
 		};
@@ -172,25 +199,40 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
 			// the configured method is unknown (should not happen)
 			throw new InvalidSettingsException("No valid method selected.");
 		}
-		PredictionConfig[] predictions = m_config.getPredictions();
+		checkConfidenceColumns(inSpecs[0], m_config.getPredictions());
+		ColumnRearranger rearranger = createColumnRearranger(inSpecs[0]);
+		return new DataTableSpec[] { rearranger.createSpec() };
+	}
+
+	/**
+	 * Checks that all confidence columns of the predictions exist and are
+	 * compatible with double.
+	 *
+	 * @param spec
+	 *            The spec of the table containing the predictions
+	 * @param predictions
+	 *            The configured predictions
+	 * @throws InvalidSettingsException
+	 *             If a confidence column is missing or not numeric
+	 */
+	static void checkConfidenceColumns(final DataTableSpec spec, final PredictionConfig[] predictions)
+			throws InvalidSettingsException {
 		List<String> columns = new ArrayList<String>();
 		for (PredictionConfig prediction : predictions) {
 			columns.addAll(Arrays.asList(prediction.getColumns()));
 		}
 		for (String column : columns) {
-			int columnIndex = inSpecs[0].findColumnIndex(column);
+			int columnIndex = spec.findColumnIndex(column);
 			// check if all configured columns are available
 			if (columnIndex < 0) {
 				throw new InvalidSettingsException("The previously selected confidence column '" + column + "' does not exist in the input table.");
 			}
 			// check if all configured columns are compatible with double
-			if (!inSpecs[0].getColumnSpec(columnIndex).getType().isCompatible(DoubleValue.class)) {
+			if (!spec.getColumnSpec(columnIndex).getType().isCompatible(DoubleValue.class)) {
 				throw new InvalidSettingsException(
 						"The previously selected confidence column '" + column + "' is not compatible with the data type double.");
 			}
 		}
-		ColumnRearranger rearranger = createColumnRearranger(inSpecs[0]);
-		return new DataTableSpec[] { rearranger.createSpec() };
 	}
 
 	/**
@@ -0,0 +1,249 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.ensembles.predictionfusion;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeConfig.PredictionConfig;
+import org.knime.ensembles.predictionfusion.methods.StackingWeightLearner;
+import org.knime.ensembles.predictionfusion.methods.impl.Mean;
+
+/**
+ * Node model of the Prediction Fusion (Stacking) node. Learns the weights of the predictions from a calibration table
+ * and fuses the predictions of a second table with the mean fusion method and the learned weights.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class PredictionFusionStackingNodeModel extends NodeModel {
+
+    static final String TARGET_COLUMN_CFG = "targetColumn";
+
+    /** The learned weights are scaled to integers with this sum. */
+    static final int WEIGHT_TOTAL = 1000;
+
+    private PredictionFusionNodeConfig m_config = new PredictionFusionNodeConfig();
+
+    private String m_targetColumn;
+
+    PredictionFusionStackingNodeModel() {
+        super(2, 2);
+    }
+
+    @Override
+    protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws InvalidSettingsException {
+        final DataTableSpec calibrationSpec = inSpecs[0];
+        if (m_targetColumn == null) {
+            throw new InvalidSettingsException("No target column selected.");
+        }
+        final DataColumnSpec targetSpec = calibrationSpec.getColumnSpec(m_targetColumn);
+        if (targetSpec == null) {
+            throw new InvalidSettingsException(
+                "The target column '" + m_targetColumn + "' does not exist in the calibration table.");
+        }
+        if (!targetSpec.getType().isCompatible(StringValue.class)) {
+            throw new InvalidSettingsException("The target column '" + m_targetColumn + "' must contain strings.");
+        }
+        if (m_config.getPredictions().length == 0) {
+            throw new InvalidSettingsException("No predictions configured.");
+        }
+        PredictionFusionNodeModel.checkConfidenceColumns(calibrationSpec, m_config.getPredictions());
+        PredictionFusionNodeModel.checkConfidenceColumns(inSpecs[1], m_config.getPredictions());
+        return new DataTableSpec[]{createRearranger(inSpecs[1], new int[m_config.getPredictions().length]).createSpec(),
+            createWeightsSpec()};
+    }
+
+    @Override
+    protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+        throws Exception {
+        final double[] weights = learnWeights(inData[0], exec.createSubExecutionContext(0.5));
+        final int[] intWeights = StackingWeightLearner.toIntegerWeights(weights, WEIGHT_TOTAL);
+        final BufferedDataTable fused = exec.createColumnRearrangeTable(inData[1],
+            createRearranger(inData[1].getDataTableSpec(), intWeights), exec.createSubProgress(0.5));
+        final BufferedDataContainer weightsContainer = exec.createDataContainer(createWeightsSpec());
+        for (int i = 0; i < weights.length; i++) {
+            weightsContainer.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i),
+                new StringCell("Prediction " + (i + 1)), new DoubleCell(weights[i]), new IntCell(intWeights[i])));
+        }
+        weightsContainer.close();
+        return new BufferedDataTable[]{fused, weightsContainer.getTable()};
+    }
+
+    private double[] learnWeights(final BufferedDataTable calibrationTable, final ExecutionContext exec)
+        throws CanceledExecutionException, InvalidSettingsException {
+        final DataTableSpec spec = calibrationTable.getDataTableSpec();
+        final String[] classes = m_config.getClasses();
+        final PredictionConfig[] predictions = m_config.getPredictions();
+        final int targetIndex = spec.findColumnIndex(m_targetColumn);
+        final int[][] columnIndex = new int[predictions.length][classes.length];
+        for (int i = 0; i < predictions.length; i++) {
+            for (int j = 0; j < classes.length; j++) {
+                columnIndex[i][j] = spec.findColumnIndex(predictions[i].getColumns()[j]);
+            }
+        }
+        final StackingWeightLearner learner = new StackingWeightLearner(predictions.length, classes.length);
+        final long rowCount = calibrationTable.size();
+        long rowIndex = 0;
+        boolean skippedRows = false;
+        for (DataRow row : calibrationTable) {
+            exec.checkCanceled();
+            exec.setProgress(++rowIndex / (double)rowCount, "Learning weights");
+            final DataCell targetCell = row.getCell(targetIndex);
+            final int trueClass =
+                targetCell.isMissing() ? -1 : indexOf(classes, ((StringValue)targetCell).getStringValue());
+            if (trueClass < 0) {
+                // rows without a known class can't be used for learning
+                skippedRows = true;
+                continue;
+            }
+            learner.clear();
+            for (int i = 0; i < predictions.length; i++) {
+                for (int j = 0; j < classes.length; j++) {
+                    final DataCell cell = row.getCell(columnIndex[i][j]);
+                    if (!cell.isMissing()) {
+                        final double confidence = ((DoubleValue)cell).getDoubleValue();
+                        if (confidence < 0) {
+                            throw new InvalidSettingsException("No negative confidence values allowed. Encountered "
+                                + "value " + confidence + " (row: '" + row.getKey().getString() + "', column: '"
+                                + spec.getColumnSpec(columnIndex[i][j]).getName() + "').");
+                        }
+                        learner.setConfidence(i, j, confidence);
+                    }
+                }
+            }
+            learner.addRow(trueClass);
+        }
+        if (learner.getNrRows() == 0) {
+            throw new InvalidSettingsException("The calibration table contains no rows with one of the classes in the "
+                + "target column '" + m_targetColumn + "'.");
+        }
+        if (skippedRows) {
+            setWarningMessage("Rows of the calibration table with a missing or unknown class were skipped.");
+        }
+        return learner.learnWeights();
+    }
+
+    private static int indexOf(final String[] classes, final String cls) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i].equals(cls)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ColumnRearranger createRearranger(final DataTableSpec spec, final int[] weights) {
+        return PredictionFusionNodeModel.createColumnRearranger(spec, new Mean(), m_config.getClasses(),
+            m_config.getPredictions(), weights, this::setWarningMessage);
+    }
+
+    private static DataTableSpec createWeightsSpec() {
+        return new DataTableSpec(new String[]{"Prediction", "Weight", "Integer weight"},
+            new DataType[]{StringCell.TYPE, DoubleCell.TYPE, IntCell.TYPE});
+    }
+
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        settings.addString(TARGET_COLUMN_CFG, m_targetColumn);
+        m_config.saveClassesAndPredictions(settings);
+    }
+
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        settings.getString(TARGET_COLUMN_CFG);
+        new PredictionFusionNodeConfig().loadClassesAndPredictions(settings);
+    }
+
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_targetColumn = settings.getString(TARGET_COLUMN_CFG);
+        final PredictionFusionNodeConfig config = new PredictionFusionNodeConfig();
+        config.loadClassesAndPredictions(settings);
+        m_config = config;
+    }
+
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // no internals
+    }
+
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        // no internals
+    }
+
+    @Override
+    protected void reset() {
+        // nothing to reset
+    }
+
+}
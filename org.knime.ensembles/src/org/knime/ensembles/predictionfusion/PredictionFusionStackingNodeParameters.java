@@ -0,0 +1,303 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+
+package org.knime.ensembles.predictionfusion;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.webui.node.dialog.defaultdialog.internal.button.SimpleButtonWidget;
+import org.knime.core.webui.node.dialog.defaultdialog.internal.persistence.ArrayPersistor;
+import org.knime.core.webui.node.dialog.defaultdialog.internal.persistence.ElementFieldPersistor;
+import org.knime.core.webui.node.dialog.defaultdialog.internal.persistence.PersistArray;
+import org.knime.core.webui.node.dialog.defaultdialog.internal.persistence.PersistArrayElement;
+import org.knime.core.webui.node.dialog.defaultdialog.internal.widget.ArrayWidgetInternal;
+import org.knime.core.webui.node.dialog.defaultdialog.util.updates.StateComputationFailureException;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.AddClassesFromColumnProvider;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.AddClassesFromColumnRef;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ClassItem;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ClassesArrayPersistor;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ClassesColumnAutoGuessProvider;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ClassesColumnRef;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ClassesRef;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ConfidenceColumn;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ConfidenceColumn.DoNotPersistString;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.ConfidenceColumn.SyncConfidenceColumnsWithClassesProvider;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.PredictionItem.ConfidenceColumnTitleProvider;
+import org.knime.ensembles.predictionfusion.PredictionFusionNodeParameters.PredictionItem.ConfidenceColumnsRef;
+import org.knime.node.parameters.NodeParameters;
+import org.knime.node.parameters.NodeParametersInput;
+import org.knime.node.parameters.Widget;
+import org.knime.node.parameters.array.ArrayWidget;
+import org.knime.node.parameters.layout.After;
+import org.knime.node.parameters.layout.Layout;
+import org.knime.node.parameters.layout.Section;
+import org.knime.node.parameters.migration.LoadDefaultsForAbsentFields;
+import org.knime.node.parameters.persistence.Persist;
+import org.knime.node.parameters.persistence.Persistor;
+import org.knime.node.parameters.updates.ParameterReference;
+import org.knime.node.parameters.updates.StateProvider;
+import org.knime.node.parameters.updates.ValueProvider;
+import org.knime.node.parameters.updates.ValueReference;
+import org.knime.node.parameters.updates.legacy.ColumnNameAutoGuessValueProvider;
+import org.knime.node.parameters.widget.choices.ChoicesProvider;
+import org.knime.node.parameters.widget.choices.util.ColumnSelectionUtil;
+import org.knime.node.parameters.widget.choices.util.CompatibleColumnsProvider.StringColumnsProvider;
+
+/**
+ * Node parameters for Prediction Fusion (Stacking). The classes and confidence columns are stored like the ones of
+ * {@link PredictionFusionNodeParameters}, the predictions have no weights because the weights are learned.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@LoadDefaultsForAbsentFields
+@SuppressWarnings("restriction")
+class PredictionFusionStackingNodeParameters implements NodeParameters {
+
+    @Section(title = "Classes")
+    interface ClassesSection {
+    }
+
+    @Section(title = "Class Confidences")
+    @After(ClassesSection.class)
+    interface ClassConfidencesSection {
+    }
+
+    @Widget(title = "Target column", description = """
+            String column of the calibration table that contains the true class of each row. Rows with a missing
+            value or a class that is not in the list of classes are not used for learning the weights.
+            """)
+    @ChoicesProvider(StringColumnsProvider.class)
+    @Persist(configKey = PredictionFusionStackingNodeModel.TARGET_COLUMN_CFG)
+    @ValueReference(TargetColumnRef.class)
+    @ValueProvider(TargetColumnAutoGuessProvider.class)
+    String m_targetColumn;
+
+    static final class TargetColumnRef implements ParameterReference<String> {
+    }
+
+    static final class TargetColumnAutoGuessProvider extends ColumnNameAutoGuessValueProvider {
+
+        protected TargetColumnAutoGuessProvider() {
+            super(TargetColumnRef.class);
+        }
+
+        @Override
+        protected Optional<DataColumnSpec> autoGuessColumn(final NodeParametersInput input) {
+            return ColumnSelectionUtil.getFirstCompatibleColumnOfFirstPort(input, StringValue.class);
+        }
+
+    }
+
+    @Layout(ClassesSection.class)
+    @Widget(title = "Classes column", description = """
+            String column from which to extract the classes from it's domain.
+            """)
+    @ChoicesProvider(StringColumnsProvider.class)
+    @ValueReference(ClassesColumnRef.class)
+    @Persistor(DoNotPersistString.class)
+    @ValueProvider(ClassesColumnAutoGuessProvider.class)
+    String m_classesColumn;
+
+    @Layout(ClassesSection.class)
+    @Widget(title = "Add classes from column domain", description = """
+            Add classes from the domain of the selected string column.
+            """)
+    @SimpleButtonWidget(ref = AddClassesFromColumnRef.class)
+    Void m_addClassesFromColumn;
+
+    @Layout(ClassesSection.class)
+    @Widget(title = "Classes", description = """
+            The classes that were predicted and for which confidences are available. In case of a tie the higher
+            class (in the list) wins.
+            """)
+    @ArrayWidget(addButtonText = "Add class", elementTitle = "Class", showSortButtons = true)
+    @PersistArray(ClassesArrayPersistor.class)
+    @ValueProvider(AddClassesFromColumnProvider.class)
+    @ValueReference(ClassesRef.class)
+    ClassItem[] m_classes = new ClassItem[0];
+
+    @Layout(ClassConfidencesSection.class)
+    @Widget(title = "Class confidences", description = """
+            Each row represents the predicted confidences from one classifier. The columns must exist in the
+            calibration table and in the table whose predictions are fused.
+            """)
+    @PersistArray(StackingPredictionsArrayPersistor.class)
+    @ArrayWidget(addButtonText = "Add prediction", elementTitle = "Prediction",
+        elementDefaultValueProvider = NewStackingPredictionProvider.class)
+    StackingPredictionItem[] m_predictions = new StackingPredictionItem[0];
+
+    static final class NewStackingPredictionProvider implements StateProvider<StackingPredictionItem> {
+
+        Supplier<ClassItem[]> m_classesSupplier;
+
+        @Override
+        public void init(final StateProviderInitializer initializer) {
+            m_classesSupplier = initializer.computeFromValueSupplier(ClassesRef.class);
+        }
+
+        @Override
+        public StackingPredictionItem computeState(final NodeParametersInput parametersInput)
+            throws StateComputationFailureException {
+            final var classes = m_classesSupplier.get();
+
+            if (classes == null) {
+                return new StackingPredictionItem(new ConfidenceColumn[0]);
+            }
+
+            final var compatibleColumns =
+                ColumnSelectionUtil.getCompatibleColumnsOfFirstPort(parametersInput, DoubleValue.class);
+            final var confidenceColumnDefault =
+                compatibleColumns.isEmpty() ? null : compatibleColumns.get(compatibleColumns.size() - 1).getName();
+
+            final var confidenceColumns = new ConfidenceColumn[classes.length];
+            for (int i = 0; i < classes.length; i++) {
+                confidenceColumns[i] = new ConfidenceColumn(classes[i].m_className, confidenceColumnDefault);
+            }
+
+            return new StackingPredictionItem(confidenceColumns);
+        }
+    }
+
+    static final class StackingPredictionsArrayPersistor implements ArrayPersistor<Integer, StackingPredictionItem> {
+
+        @Override
+        public int getArrayLength(final NodeSettingsRO nodeSettings) {
+            try {
+                final var predictionsConfig = nodeSettings.getNodeSettings(PredictionFusionNodeConfig.PREDICTIONS_CFG);
+                return predictionsConfig.getInt(PredictionFusionNodeConfig.NR_PREDICTIONS_CFG, 0);
+            } catch (InvalidSettingsException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public Integer createElementLoadContext(final int index) {
+            return index;
+        }
+
+        @Override
+        public StackingPredictionItem createElementSaveDTO(final int index) {
+            return new StackingPredictionItem();
+        }
+
+        @Override
+        public void save(final List<StackingPredictionItem> savedElements, final NodeSettingsWO nodeSettings) {
+            final var predictionsConfig = nodeSettings.addNodeSettings(PredictionFusionNodeConfig.PREDICTIONS_CFG);
+            predictionsConfig.addInt(PredictionFusionNodeConfig.NR_PREDICTIONS_CFG, savedElements.size());
+
+            for (int i = 0; i < savedElements.size(); i++) {
+                final var predictionConfig =
+                    predictionsConfig.addNodeSettings(PredictionFusionNodeConfig.PREDICTION_CFG + i);
+                final var prediction = savedElements.get(i);
+
+                // the weights are learned, the stored weight is not used
+                predictionConfig.addInt(PredictionFusionNodeConfig.PredictionConfig.WEIGHT_CFG, 1);
+
+                final String[] columns = new String[prediction.m_confidenceColumns.length];
+                for (int j = 0; j < prediction.m_confidenceColumns.length; j++) {
+                    columns[j] = prediction.m_confidenceColumns[j].m_selectedColumn;
+                }
+                predictionConfig.addStringArray(PredictionFusionNodeConfig.PredictionConfig.COLUMNS_CFG, columns);
+            }
+        }
+
+    }
+
+    static final class StackingPredictionItem implements NodeParameters {
+
+        StackingPredictionItem() {
+            this(new ConfidenceColumn[0]);
+        }
+
+        StackingPredictionItem(final ConfidenceColumn[] confidenceColumns) {
+            m_confidenceColumns = confidenceColumns;
+        }
+
+        @Widget(title = "Confidence columns", description = """
+                Select the confidence column for each class. The columns must be compatible with double values.
+                """)
+        @PersistArrayElement(StackingConfidenceColumnsPersistor.class)
+        @ArrayWidget(hasFixedSize = true)
+        @ArrayWidgetInternal(titleProvider = ConfidenceColumnTitleProvider.class)
+        @ValueReference(ConfidenceColumnsRef.class)
+        @ValueProvider(SyncConfidenceColumnsWithClassesProvider.class)
+        ConfidenceColumn[] m_confidenceColumns = new ConfidenceColumn[0];
+
+        static final class StackingConfidenceColumnsPersistor
+            implements ElementFieldPersistor<ConfidenceColumn[], Integer, StackingPredictionItem> {
+
+            private final PredictionFusionNodeParameters.PredictionItem.ConfidenceColumnsPersistor m_delegate =
+                new PredictionFusionNodeParameters.PredictionItem.ConfidenceColumnsPersistor();
+
+            @Override
+            public ConfidenceColumn[] load(final NodeSettingsRO nodeSettings, final Integer loadContext)
+                throws InvalidSettingsException {
+                return m_delegate.load(nodeSettings, loadContext);
+            }
+
+            @Override
+            public void save(final ConfidenceColumn[] param, final StackingPredictionItem saveDTO) {
+                saveDTO.m_confidenceColumns = param;
+            }
+
+            @Override
+            public String[][] getConfigPaths() {
+                return m_delegate.getConfigPaths();
+            }
+
+        }
+
+    }
+
+}
@@ -1,8 +1,5 @@
 package org.knime.ensembles.predictionfusion.methods;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Abstract implementation of a prediction fusion method that handles the
  * prediction objects and breaks the problem down to combining double values.
@@ -19,24 +16,24 @@ public Prediction fusePredictions(final Prediction[] predictions, final int[] pr
 		Prediction fusedPrediction = new Prediction();
 		if (predictions.length > 0) {
 			String[] classes = predictions[0].getClasses();
+			double[] confidences = new double[predictions.length];
+			int[] weights = new int[predictions.length];
 			// iterate over classes
 			for (String cls : classes) {
-				List<Double> confidences = new ArrayList<Double>();
+				int count = 0;
 				// iterate over predictions for this class
 				for (int i = 0; i < predictions.length; i++) {
 					Double confidence = predictions[i].getClassConfidence(cls, true);
-					if (confidence != null) {
-						// oversample confidence
-						int weight = influencedByWeight() ? predictionWeights[i] : 1;
-						for (int j = 0; j < weight; j++) {
-							confidences.add(confidence);
-						}
+					int weight = influencedByWeight() ? predictionWeights[i] : 1;
+					if (confidence != null && weight > 0) {
+						confidences[count] = confidence;
+						weights[count] = weight;
+						count++;
 					}
 				}
-				if (!confidences.isEmpty()) {
+				if (count > 0) {
 					// fuse confidences and put result into fused prediction
-					fusedPrediction.setClassConfidence(cls,
-							fuseConfidences(confidences.toArray(new Double[confidences.size()])));
+					fusedPrediction.setClassConfidence(cls, fuseConfidences(confidences, weights, count));
 				}
 			}
 		}
@@ -45,7 +42,7 @@ public Prediction fusePredictions(final Prediction[] predictions, final int[] pr
 
 	/**
 	 * States if this fusion method is influenced by weighting the prediction.
-	 * If not than the confidences don't need to be oversampled.
+	 * If not predictions with a weight of 0 are still taken into account.
 	 * 
 	 * @return true if this fusion method is influenced by weighting the
 	 *         prediction, false otherwise
@@ -56,9 +53,15 @@ public Prediction fusePredictions(final Prediction[] predictions, final int[] pr
 	 * Fuses the confidences for a single class into one confidence.
 	 * 
 	 * @param confidences
-	 *            The confidences for a single class to fuse
+	 *            The confidences for a single class to fuse, only the first
+	 *            count values are used. The method may reorder them.
+	 * @param weights
+	 *            The weights of the predictions the confidences belong to,
+	 *            reordered together with the confidences
+	 * @param count
+	 *            The number of confidences, at least 1
 	 * @return The fused confidence
 	 */
-	protected abstract double fuseConfidences(final Double[] confidences);
+	protected abstract double fuseConfidences(double[] confidences, int[] weights, int count);
 
 }
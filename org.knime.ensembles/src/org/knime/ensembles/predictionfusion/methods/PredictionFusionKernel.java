@@ -0,0 +1,206 @@
+package org.knime.ensembles.predictionfusion.methods;
+
+import java.util.Arrays;
+
+/**
+ * Fuses the confidences of several predictions for a fixed set of classes.
+ * Classes are identified by their index, the confidences of one row are
+ * written into a preallocated matrix that is reused for every row. Fusing
+ * with a kernel gives the same result as
+ * {@link PredictionFusionMethod#fusePredictions(Prediction[], int[])} with
+ * the corresponding {@link Prediction} objects.
+ *
+ * A kernel keeps state between calls and must not be used concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class PredictionFusionKernel {
+
+	private final AbstractPredictionFusionMethod m_method;
+
+	private final int[] m_predictionWeights;
+
+	// first index is prediction, second index is class
+	private final double[][] m_confidences;
+
+	private final boolean[][] m_present;
+
+	private final double[] m_fused;
+
+	private final boolean[] m_fusedPresent;
+
+	private double m_fusedNormalizationFactor;
+
+	private boolean m_fusedSumIsZero;
+
+	private int m_fusedCount;
+
+	// buffers handed to the fusion method
+	private final double[] m_classConfidences;
+
+	private final int[] m_classWeights;
+
+	/**
+	 * Creates a kernel for the given fusion method.
+	 *
+	 * @param method
+	 *            The method used to fuse the confidences of a class, must
+	 *            extend {@link AbstractPredictionFusionMethod}
+	 * @param predictionWeights
+	 *            The weight of each prediction
+	 * @param nrClasses
+	 *            The number of classes
+	 */
+	public PredictionFusionKernel(final PredictionFusionMethod method, final int[] predictionWeights,
+			final int nrClasses) {
+		if (!(method instanceof AbstractPredictionFusionMethod)) {
+			throw new IllegalArgumentException(
+					"Fusion method " + method + " does not support fusing confidences.");
+		}
+		m_method = (AbstractPredictionFusionMethod) method;
+		m_predictionWeights = predictionWeights.clone();
+		int nrPredictions = predictionWeights.length;
+		m_confidences = new double[nrPredictions][nrClasses];
+		m_present = new boolean[nrPredictions][nrClasses];
+		m_fused = new double[nrClasses];
+		m_fusedPresent = new boolean[nrClasses];
+		m_classConfidences = new double[nrPredictions];
+		m_classWeights = new int[nrPredictions];
+	}
+
+	/**
+	 * Removes all confidences of the previous row.
+	 */
+	public void clear() {
+		for (boolean[] present : m_present) {
+			Arrays.fill(present, false);
+		}
+	}
+
+	/**
+	 * Sets the (not normalized) confidence of a prediction for a class.
+	 *
+	 * @param prediction
+	 *            The index of the prediction
+	 * @param cls
+	 *            The index of the class
+	 * @param confidence
+	 *            The confidence value
+	 */
+	public void setConfidence(final int prediction, final int cls, final double confidence) {
+		m_confidences[prediction][cls] = confidence;
+		m_present[prediction][cls] = true;
+	}
+
+	/**
+	 * Fuses the confidences that have been set since the last call of
+	 * {@link #clear()}.
+	 */
+	public void fuse() {
+		for (int i = 0; i < m_confidences.length; i++) {
+			normalize(m_confidences[i], m_present[i]);
+		}
+		Arrays.fill(m_fusedPresent, false);
+		m_fusedCount = 0;
+		if (m_confidences.length == 0) {
+			return;
+		}
+		boolean influencedByWeight = m_method.influencedByWeight();
+		// only the classes of the first prediction are fused
+		for (int c = 0; c < m_fused.length; c++) {
+			if (!m_present[0][c]) {
+				continue;
+			}
+			int count = 0;
+			for (int i = 0; i < m_confidences.length; i++) {
+				int weight = influencedByWeight ? m_predictionWeights[i] : 1;
+				if (m_present[i][c] && weight > 0) {
+					m_classConfidences[count] = m_confidences[i][c];
+					m_classWeights[count] = weight;
+					count++;
+				}
+			}
+			if (count > 0) {
+				m_fused[c] = m_method.fuseConfidences(m_classConfidences, m_classWeights, count);
+				m_fusedPresent[c] = true;
+				m_fusedCount++;
+			}
+		}
+		double sum = 0;
+		for (int c = 0; c < m_fused.length; c++) {
+			if (m_fusedPresent[c]) {
+				sum += m_fused[c];
+			}
+		}
+		m_fusedSumIsZero = sum == 0;
+		m_fusedNormalizationFactor = m_fusedSumIsZero ? 1 : 1 / sum;
+	}
+
+	/**
+	 * Normalizes the present confidences so that their sum is 1. If all
+	 * confidences are zero they are divided equally.
+	 */
+	static void normalize(final double[] confidences, final boolean[] present) {
+		double sum = 0;
+		int count = 0;
+		for (int c = 0; c < confidences.length; c++) {
+			if (present[c]) {
+				sum += confidences[c];
+				count++;
+			}
+		}
+		boolean sumIsZero = sum == 0;
+		double factor = sumIsZero ? 1 : 1 / sum;
+		for (int c = 0; c < confidences.length; c++) {
+			if (present[c]) {
+				confidences[c] = sumIsZero ? 1 / (double) count : confidences[c] * factor;
+			}
+		}
+	}
+
+	/**
+	 * @param cls
+	 *            The index of the class
+	 * @return true if there is a fused confidence for the class
+	 */
+	public boolean hasFusedConfidence(final int cls) {
+		return m_fusedPresent[cls];
+	}
+
+	/**
+	 * Returns the normalized fused confidence for the given class.
+	 *
+	 * @param cls
+	 *            The index of the class
+	 * @return The fused confidence, only valid if
+	 *         {@link #hasFusedConfidence(int)} is true
+	 */
+	public double getFusedConfidence(final int cls) {
+		if (m_fusedSumIsZero) {
+			return 1 / (double) m_fusedCount;
+		}
+		return m_fused[cls] * m_fusedNormalizationFactor;
+	}
+
+	/**
+	 * Returns the winning class based on the fused confidences. In case of a
+	 * tie the class with the lowest index is selected.
+	 *
+	 * @return The index of the predicted class or -1 if there is no fused
+	 *         confidence
+	 */
+	public int getPredictedClass() {
+		int cls = -1;
+		double maxConfidence = -1;
+		for (int c = 0; c < m_fused.length; c++) {
+			// we only overwrite if confidence is truly bigger, this way the
+			// first occurrence has priority
+			if (m_fusedPresent[c] && maxConfidence < m_fused[c]) {
+				maxConfidence = m_fused[c];
+				cls = c;
+			}
+		}
+		return cls;
+	}
+
+}
@@ -0,0 +1,194 @@
+package org.knime.ensembles.predictionfusion.methods;
+
+import java.util.Arrays;
+
+/**
+ * Learns the weights of predictions for a weighted mean fusion (stacking).
+ * The weights are the non-negative least squares solution for approximating
+ * the one-hot encoded true class by the weighted sum of the normalized
+ * confidences of the predictions. Rows are added one by one, only the normal
+ * equations are kept so the memory does not depend on the number of rows.
+ *
+ * The confidences should come from data that the predicting models have not
+ * been trained on, e.g. out-of-fold predictions of a cross validation.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class StackingWeightLearner {
+
+	private static final int MAX_ITERATIONS = 10000;
+
+	private static final double TOLERANCE = 1e-12;
+
+	// first index is prediction, second index is class
+	private final double[][] m_confidences;
+
+	private final boolean[][] m_present;
+
+	// normal equations: m_gram * w = m_targetProducts
+	private final double[][] m_gram;
+
+	private final double[] m_targetProducts;
+
+	private long m_nrRows;
+
+	/**
+	 * Creates a learner.
+	 *
+	 * @param nrPredictions
+	 *            The number of predictions
+	 * @param nrClasses
+	 *            The number of classes
+	 */
+	public StackingWeightLearner(final int nrPredictions, final int nrClasses) {
+		m_confidences = new double[nrPredictions][nrClasses];
+		m_present = new boolean[nrPredictions][nrClasses];
+		m_gram = new double[nrPredictions][nrPredictions];
+		m_targetProducts = new double[nrPredictions];
+	}
+
+	/**
+	 * Removes all confidences of the previous row.
+	 */
+	public void clear() {
+		for (int i = 0; i < m_confidences.length; i++) {
+			Arrays.fill(m_present[i], false);
+			Arrays.fill(m_confidences[i], 0);
+		}
+	}
+
+	/**
+	 * Sets the (not normalized) confidence of a prediction for a class.
+	 *
+	 * @param prediction
+	 *            The index of the prediction
+	 * @param cls
+	 *            The index of the class
+	 * @param confidence
+	 *            The confidence value
+	 */
+	public void setConfidence(final int prediction, final int cls, final double confidence) {
+		m_confidences[prediction][cls] = confidence;
+		m_present[prediction][cls] = true;
+	}
+
+	/**
+	 * Adds the confidences that have been set since the last call of
+	 * {@link #clear()} as a row with the given true class.
+	 *
+	 * @param trueClass
+	 *            The index of the true class of the row
+	 */
+	public void addRow(final int trueClass) {
+		final int nrPredictions = m_confidences.length;
+		for (int i = 0; i < nrPredictions; i++) {
+			// missing confidences stay 0
+			PredictionFusionKernel.normalize(m_confidences[i], m_present[i]);
+		}
+		final int nrClasses = nrPredictions == 0 ? 0 : m_confidences[0].length;
+		for (int i = 0; i < nrPredictions; i++) {
+			final double[] ci = m_confidences[i];
+			for (int j = i; j < nrPredictions; j++) {
+				final double[] cj = m_confidences[j];
+				double product = 0;
+				for (int c = 0; c < nrClasses; c++) {
+					product += ci[c] * cj[c];
+				}
+				m_gram[i][j] += product;
+			}
+			m_targetProducts[i] += ci[trueClass];
+		}
+		m_nrRows++;
+	}
+
+	/**
+	 * @return The number of rows that have been added
+	 */
+	public long getNrRows() {
+		return m_nrRows;
+	}
+
+	/**
+	 * Calculates the weights by cyclic coordinate descent on the normal
+	 * equations. The weights are normalized to sum up to 1, if all weights are
+	 * 0 they are divided equally.
+	 *
+	 * @return The weight of each prediction
+	 */
+	public double[] learnWeights() {
+		final int n = m_targetProducts.length;
+		final double[][] gram = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				gram[i][j] = m_gram[i][j];
+				gram[j][i] = m_gram[i][j];
+			}
+		}
+		final double[] weights = new double[n];
+		// gradient of 1/2 w'Gw - h'w is Gw - h
+		final double[] gradient = new double[n];
+		for (int i = 0; i < n; i++) {
+			gradient[i] = -m_targetProducts[i];
+		}
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			double maxChange = 0;
+			for (int j = 0; j < n; j++) {
+				if (gram[j][j] <= 0) {
+					// prediction never has a confidence
+					continue;
+				}
+				final double weight = Math.max(0, weights[j] - gradient[j] / gram[j][j]);
+				final double change = weight - weights[j];
+				if (change != 0) {
+					weights[j] = weight;
+					for (int i = 0; i < n; i++) {
+						gradient[i] += change * gram[i][j];
+					}
+					maxChange = Math.max(maxChange, Math.abs(change));
+				}
+			}
+			if (maxChange < TOLERANCE) {
+				break;
+			}
+		}
+		double sum = 0;
+		for (double weight : weights) {
+			sum += weight;
+		}
+		for (int i = 0; i < n; i++) {
+			weights[i] = sum == 0 ? 1 / (double) n : weights[i] / sum;
+		}
+		return weights;
+	}
+
+	/**
+	 * Converts weights into integer weights with the given sum using the
+	 * largest remainder method. Integer weights can be used by the fusion
+	 * methods and in the Prediction Fusion node.
+	 *
+	 * @param weights
+	 *            The weights, non-negative and summing up to 1
+	 * @param total
+	 *            The sum of the integer weights
+	 * @return The integer weights
+	 */
+	public static int[] toIntegerWeights(final double[] weights, final int total) {
+		final int[] intWeights = new int[weights.length];
+		final Integer[] order = new Integer[weights.length];
+		int assigned = 0;
+		for (int i = 0; i < weights.length; i++) {
+			intWeights[i] = (int) Math.floor(weights[i] * total);
+			assigned += intWeights[i];
+			order[i] = i;
+		}
+		// distribute the remaining units to the largest remainders
+		Arrays.sort(order, (a, b) -> Double.compare(weights[b] * total - intWeights[b],
+				weights[a] * total - intWeights[a]));
+		for (int i = 0; assigned < total && i < order.length; i++) {
+			intWeights[order[i]]++;
+			assigned++;
+		}
+		return intWeights;
+	}
+
+}
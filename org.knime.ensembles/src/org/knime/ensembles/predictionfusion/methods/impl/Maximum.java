@@ -26,11 +26,11 @@ protected boolean influencedByWeight() {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected double fuseConfidences(Double[] confidences) {
+	protected double fuseConfidences(final double[] confidences, final int[] weights, final int count) {
 		double max = Double.MIN_VALUE;
-		for (double confidence : confidences) {
-			if (max < confidence) {
-				max = confidence;
+		for (int i = 0; i < count; i++) {
+			if (max < confidences[i]) {
+				max = confidences[i];
 			}
 		}
 		return max;
@@ -26,12 +26,15 @@ protected boolean influencedByWeight() {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected double fuseConfidences(Double[] confidences) {
+	protected double fuseConfidences(final double[] confidences, final int[] weights, final int count) {
 		double sum = 0;
-		for (double confidence : confidences) {
-			sum += confidence;
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			// same as summing up the confidence once per weight
+			sum += weights[i] * confidences[i];
+			n += weights[i];
 		}
-		return sum / confidences.length;
+		return sum / n;
 	}
 
 }
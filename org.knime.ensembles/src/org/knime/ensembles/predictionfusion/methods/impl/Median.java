@@ -1,7 +1,5 @@
 package org.knime.ensembles.predictionfusion.methods.impl;
 
-import java.util.Arrays;
-
 import org.knime.ensembles.predictionfusion.methods.AbstractPredictionFusionMethod;
 
 /**
@@ -28,17 +26,48 @@ protected boolean influencedByWeight() {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected double fuseConfidences(Double[] confidences) {
-		Arrays.sort(confidences);
-		if (confidences.length % 2 == 1) {
+	protected double fuseConfidences(final double[] confidences, final int[] weights, final int count) {
+		// sort confidences together with their weights, there are usually
+		// only a few predictions
+		int totalWeight = 0;
+		for (int i = 0; i < count; i++) {
+			double confidence = confidences[i];
+			int weight = weights[i];
+			int j = i - 1;
+			while (j >= 0 && Double.compare(confidences[j], confidence) > 0) {
+				confidences[j + 1] = confidences[j];
+				weights[j + 1] = weights[j];
+				j--;
+			}
+			confidences[j + 1] = confidence;
+			weights[j + 1] = weight;
+			totalWeight += weight;
+		}
+		// the median of the confidences where each one is repeated
+		// according to its weight
+		if (totalWeight % 2 == 1) {
 			// for an odd number of values return middle value
-			int middle = (confidences.length - 1) / 2;
-			return confidences[middle];
+			int middle = (totalWeight - 1) / 2;
+			return valueAt(confidences, weights, middle);
 		} else {
 			// for an equal number of values return mean of the two middle values
-			int middle = confidences.length / 2;
-			return (confidences[middle] + confidences[middle - 1]) / 2;
+			int middle = totalWeight / 2;
+			return (valueAt(confidences, weights, middle) + valueAt(confidences, weights, middle - 1)) / 2;
+		}
+	}
+
+	/**
+	 * Returns the value at the given position of the sorted confidences if
+	 * each confidence was repeated according to its weight.
+	 */
+	private static double valueAt(final double[] confidences, final int[] weights, final int position) {
+		int end = 0;
+		int i = 0;
+		while (end + weights[i] <= position) {
+			end += weights[i];
+			i++;
 		}
+		return confidences[i];
 	}
 
 }
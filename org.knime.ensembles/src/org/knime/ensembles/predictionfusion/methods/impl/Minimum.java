@@ -26,11 +26,11 @@ protected boolean influencedByWeight() {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected double fuseConfidences(Double[] confidences) {
+	protected double fuseConfidences(final double[] confidences, final int[] weights, final int count) {
 		double min = Double.MAX_VALUE;
-		for (double confidence : confidences) {
-			if (min > confidence) {
-				min = confidence;
+		for (int i = 0; i < count; i++) {
+			if (min > confidences[i]) {
+				min = confidences[i];
 			}
 		}
 		return min;